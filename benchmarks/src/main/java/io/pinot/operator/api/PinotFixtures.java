@@ -0,0 +1,129 @@
+package io.pinot.operator.api;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Representative Pinot custom resources for the benchmarks
+ */
+public final class PinotFixtures {
+
+    private static final List<Pinot.PinotNodeType> NODE_TYPES = List.of(
+            Pinot.PinotNodeType.CONTROLLER, Pinot.PinotNodeType.BROKER, Pinot.PinotNodeType.SERVER);
+
+    private PinotFixtures() {
+    }
+
+    /**
+     * Build a cluster with one node per node type, each with its own K8s and Pinot configuration
+     */
+    public static Pinot cluster(String namespace, String name, String resourceVersion) {
+        Pinot pinot = new Pinot();
+        pinot.setMetadata(metadata(namespace, name, resourceVersion));
+
+        List<Pinot.K8sConfig> k8sConfigs = new ArrayList<>();
+        List<Pinot.PinotNodeConfig> pinotNodeConfigs = new ArrayList<>();
+        List<Pinot.NodeSpec> nodes = new ArrayList<>();
+        for (Pinot.PinotNodeType nodeType : NODE_TYPES) {
+            String configName = nodeType.getValue() + "-config";
+
+            Pinot.ResourcesSpec resources = new Pinot.ResourcesSpec();
+            resources.setRequests(Map.of("memory", "2Gi", "cpu", "1"));
+            resources.setLimits(Map.of("memory", "4Gi", "cpu", "2"));
+            Pinot.K8sConfig k8sConfig = new Pinot.K8sConfig();
+            k8sConfig.setName(configName);
+            k8sConfig.setImage("apachepinot/pinot:1.0.0");
+            k8sConfig.setResources(resources);
+            k8sConfigs.add(k8sConfig);
+
+            Pinot.PinotNodeConfig pinotNodeConfig = new Pinot.PinotNodeConfig();
+            pinotNodeConfig.setName(configName);
+            pinotNodeConfig.setJavaOpts("-XX:+UseG1GC -XX:MaxGCPauseMillis=200");
+            pinotNodeConfig.setAutoJvmSizing(true);
+            pinotNodeConfig.setData("/var/pinot/" + nodeType.getValue() + "/data");
+            pinotNodeConfigs.add(pinotNodeConfig);
+
+            Pinot.NodeSpec node = new Pinot.NodeSpec();
+            node.setName(name + "-" + nodeType.getValue());
+            node.setKind(nodeType == Pinot.PinotNodeType.SERVER
+                    ? Pinot.NodeSpec.KIND_STATEFUL_SET : Pinot.NodeSpec.KIND_DEPLOYMENT);
+            node.setNodeType(nodeType);
+            node.setReplicas(3);
+            node.setK8sConfig(configName);
+            node.setPinotNodeConfig(configName);
+            nodes.add(node);
+        }
+
+        Pinot.ZookeeperConfig zookeeperConfig = new Pinot.ZookeeperConfig();
+        zookeeperConfig.setZkAddress("zookeeper." + namespace + ".svc.cluster.local:2181");
+        Pinot.ZookeeperSpec zookeeper = new Pinot.ZookeeperSpec();
+        zookeeper.setSpec(zookeeperConfig);
+        Pinot.ExternalSpec external = new Pinot.ExternalSpec();
+        external.setZookeeper(zookeeper);
+
+        Pinot.PinotSpec spec = new Pinot.PinotSpec();
+        spec.setDeploymentOrder(NODE_TYPES);
+        spec.setExternal(external);
+        spec.setK8sConfig(k8sConfigs);
+        spec.setPinotNodeConfig(pinotNodeConfigs);
+        spec.setNodes(nodes);
+        pinot.setSpec(spec);
+        pinot.setStatus(new Pinot.PinotStatus());
+        return pinot;
+    }
+
+    /**
+     * Build a table whose embedded config and status carry the given number of columns
+     */
+    public static PinotTable largeTable(String namespace, String name, int columns) {
+        StringBuilder tableJson = new StringBuilder()
+                .append("{\"tableName\":\"").append(name).append("\",\"tableType\":\"OFFLINE\",")
+                .append("\"segmentsConfig\":{\"replication\":\"3\",\"schemaName\":\"").append(name).append("\"},")
+                .append("\"tableIndexConfig\":{\"invertedIndexColumns\":[");
+        for (int i = 0; i < columns; i++) {
+            tableJson.append(i > 0 ? "," : "").append("\"column_").append(i).append('"');
+        }
+        tableJson.append("],\"fieldConfigList\":[");
+        for (int i = 0; i < columns; i++) {
+            tableJson.append(i > 0 ? "," : "")
+                    .append("{\"name\":\"column_").append(i)
+                    .append("\",\"encodingType\":\"DICTIONARY\",\"indexTypes\":[\"INVERTED\",\"RANGE\"]}");
+        }
+        tableJson.append("]}}");
+
+        PinotTable.PinotTableSpec spec = new PinotTable.PinotTableSpec();
+        spec.setPinotCluster("benchmark-cluster");
+        spec.setPinotSchema(name);
+        spec.setPinotTableType(PinotTable.PinotTableType.OFFLINE);
+        spec.setPinotTablesJson(tableJson.toString());
+
+        List<String> reloadStatus = new ArrayList<>();
+        for (int i = 0; i < columns; i++) {
+            reloadStatus.add("segment_" + i + ": reloaded");
+        }
+        PinotTable.PinotTableStatus status = new PinotTable.PinotTableStatus();
+        status.setType("Table");
+        status.setStatus("Ready");
+        status.setMessage("Table is applied and healthy");
+        status.setCurrentTableJson(tableJson.toString());
+        status.setReloadStatus(reloadStatus);
+
+        PinotTable table = new PinotTable();
+        table.setMetadata(metadata(namespace, name, "1"));
+        table.setSpec(spec);
+        table.setStatus(status);
+        return table;
+    }
+
+    private static ObjectMeta metadata(String namespace, String name, String resourceVersion) {
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setNamespace(namespace);
+        metadata.setName(name);
+        metadata.setResourceVersion(resourceVersion);
+        metadata.setGeneration(Long.parseLong(resourceVersion));
+        return metadata;
+    }
+}
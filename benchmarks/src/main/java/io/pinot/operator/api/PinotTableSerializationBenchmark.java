@@ -0,0 +1,51 @@
+package io.pinot.operator.api;
+
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON round trips of large PinotTable resources, as done by the informer
+ * for every watch event and by every status patch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PinotTableSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int columns;
+
+    private PinotTable table;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        table = PinotFixtures.largeTable("default", "events", columns);
+        json = Serialization.asJson(table);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return Serialization.asJson(table);
+    }
+
+    @Benchmark
+    public PinotTable deserialize() {
+        return Serialization.unmarshal(json, PinotTable.class);
+    }
+}
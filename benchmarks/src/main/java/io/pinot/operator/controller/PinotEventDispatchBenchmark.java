@@ -0,0 +1,162 @@
+package io.pinot.operator.controller;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.api.PinotFixtures;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.ApiThrottle;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.reconcile.LeaderElection;
+import io.pinot.operator.service.ClusterHealthProber;
+import io.pinot.operator.service.PinotClusterService;
+import io.pinot.operator.service.StatusWriter;
+import io.pinot.operator.util.PinotClusterClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of Pinot watch events from the informer handler into the work queue
+ *
+ * The controller's own handler is driven directly. Its caches are never
+ * started and it never becomes leader, so no reconcile runs and only the
+ * dispatch path is measured: version check, event routing, pending-apply
+ * bookkeeping, queue deduplication and resync tracking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PinotEventDispatchBenchmark {
+
+    @Param({"100", "10000"})
+    private int clusters;
+
+    private KubernetesClient kubernetesClient;
+    private StatusWriter statusWriter;
+    private PinotClusterClient pinotClusterClient;
+    private ClusterHealthProber healthProber;
+    private PinotClusterService pinotClusterService;
+    private PinotController pinotController;
+    private ResourceEventHandler<Pinot> handler;
+    private Pinot[] previous;
+    private Pinot[] current;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        OperatorProperties operatorProperties = new OperatorProperties();
+        operatorProperties.setReconciliationInterval(TimeUnit.HOURS.toMillis(1));
+        OperatorMetrics operatorMetrics = new OperatorMetrics(new SimpleMeterRegistry());
+        kubernetesClient = new DefaultKubernetesClient();
+        statusWriter = new StatusWriter(kubernetesClient, operatorMetrics, ApiThrottle.unlimited(),
+                operatorProperties);
+        DetachedCache<Pinot> pinotCache = new DetachedCache<>(kubernetesClient, Pinot.class);
+        DetachedCache<Deployment> deploymentCache = new DetachedCache<>(kubernetesClient, Deployment.class);
+        DetachedCache<StatefulSet> statefulSetCache = new DetachedCache<>(kubernetesClient, StatefulSet.class);
+        DetachedCache<Service> serviceCache = new DetachedCache<>(kubernetesClient, Service.class);
+        // The leader election is never started, so neither reconcile workers nor health probes run
+        LeaderElection leaderElection = new LeaderElection(kubernetesClient, null, operatorProperties);
+        pinotClusterClient = new PinotClusterClient(operatorProperties, operatorMetrics);
+        healthProber = new ClusterHealthProber(pinotCache, serviceCache, pinotClusterClient, leaderElection,
+                operatorProperties);
+        pinotClusterService = new PinotClusterService(kubernetesClient, deploymentCache, statefulSetCache,
+                serviceCache, new DetachedCache<>(kubernetesClient, ConfigMap.class),
+                statusWriter, healthProber, operatorMetrics, ApiThrottle.unlimited(), operatorProperties);
+        pinotController = new PinotController(pinotCache, deploymentCache, statefulSetCache, pinotClusterService,
+                leaderElection, operatorMetrics, operatorProperties);
+        handler = pinotCache.handlers.get(0);
+
+        previous = new Pinot[clusters];
+        current = new Pinot[clusters];
+        for (int i = 0; i < clusters; i++) {
+            previous[i] = PinotFixtures.cluster("default", "cluster-" + i, "1");
+            current[i] = PinotFixtures.cluster("default", "cluster-" + i, "2");
+            handler.onAdd(previous[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pinotController.shutdown();
+        pinotClusterService.shutdown();
+        healthProber.shutdown();
+        pinotClusterClient.shutdown();
+        statusWriter.shutdown();
+        kubernetesClient.close();
+    }
+
+    /**
+     * A spec change, queued as an apply
+     */
+    @Benchmark
+    public void dispatchUpdate() {
+        int i = nextIndex();
+        handler.onUpdate(previous[i], current[i]);
+    }
+
+    /**
+     * A relist notification carrying the same resource version, dropped by the handler
+     */
+    @Benchmark
+    public void dispatchRelist() {
+        int i = nextIndex();
+        handler.onUpdate(current[i], current[i]);
+    }
+
+    @Benchmark
+    public void dispatchAdd() {
+        handler.onAdd(current[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = i + 1 < clusters ? i + 1 : 0;
+        return i;
+    }
+
+    /**
+     * Cache that never starts its informer and hands registered handlers to the benchmark
+     */
+    static final class DetachedCache<T extends HasMetadata> extends ResourceCache<T> {
+        final List<ResourceEventHandler<T>> handlers = new CopyOnWriteArrayList<>();
+
+        DetachedCache(KubernetesClient kubernetesClient, Class<T> type) {
+            super(kubernetesClient, type, resource -> null, Map.of());
+        }
+
+        @Override
+        public synchronized void addEventHandler(ResourceEventHandler<T> handler) {
+            handlers.add(handler);
+        }
+
+        @Override
+        public synchronized void start() {
+        }
+    }
+}
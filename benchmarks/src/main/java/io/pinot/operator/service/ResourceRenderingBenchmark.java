@@ -0,0 +1,123 @@
+package io.pinot.operator.service;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.api.PinotFixtures;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.ApiThrottle;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.reconcile.LeaderElection;
+import io.pinot.operator.util.PinotClusterClient;
+import io.pinot.operator.util.ResourceHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the child resources of one Pinot node, which every cluster
+ * apply repeats for every node before comparing content hashes
+ *
+ * The service is built on an unconnected client and caches that are never
+ * started; rendering does not touch either.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceRenderingBenchmark {
+
+    private KubernetesClient kubernetesClient;
+    private StatusWriter statusWriter;
+    private PinotClusterClient pinotClusterClient;
+    private ClusterHealthProber healthProber;
+    private PinotClusterService pinotClusterService;
+    private Pinot pinot;
+    private Pinot.NodeSpec nodeSpec;
+    private Pinot.K8sConfig k8sConfig;
+    private Pinot.PinotNodeConfig pinotConfig;
+
+    @Setup
+    public void setUp() {
+        OperatorProperties operatorProperties = new OperatorProperties();
+        OperatorMetrics operatorMetrics = new OperatorMetrics(new SimpleMeterRegistry());
+        kubernetesClient = new DefaultKubernetesClient();
+        statusWriter = new StatusWriter(kubernetesClient, operatorMetrics, ApiThrottle.unlimited(),
+                operatorProperties);
+        ResourceCache<Service> serviceCache = new ResourceCache<>(kubernetesClient, Service.class,
+                service -> null, Map.of());
+        // The leader election is never started, so no health probes run
+        pinotClusterClient = new PinotClusterClient(operatorProperties, operatorMetrics);
+        healthProber = new ClusterHealthProber(
+                new ResourceCache<>(kubernetesClient, Pinot.class, cluster -> null, Map.of()), serviceCache,
+                pinotClusterClient, new LeaderElection(kubernetesClient, null, operatorProperties),
+                operatorProperties);
+        pinotClusterService = new PinotClusterService(kubernetesClient,
+                new ResourceCache<>(kubernetesClient, Deployment.class, deployment -> null, Map.of()),
+                new ResourceCache<>(kubernetesClient, StatefulSet.class, statefulSet -> null, Map.of()),
+                serviceCache,
+                new ResourceCache<>(kubernetesClient, ConfigMap.class, configMap -> null, Map.of()),
+                statusWriter, healthProber, operatorMetrics, ApiThrottle.unlimited(), operatorProperties);
+
+        pinot = PinotFixtures.cluster("default", "benchmark-cluster", "1");
+        nodeSpec = pinot.getSpec().getNodes().get(0);
+        k8sConfig = pinot.getSpec().getK8sConfig().get(0);
+        pinotConfig = pinot.getSpec().getPinotNodeConfig().get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pinotClusterService.shutdown();
+        healthProber.shutdown();
+        pinotClusterClient.shutdown();
+        statusWriter.shutdown();
+        kubernetesClient.close();
+    }
+
+    @Benchmark
+    public Deployment renderDeployment() {
+        return pinotClusterService.renderDeployment(pinot, nodeSpec, k8sConfig, pinotConfig);
+    }
+
+    @Benchmark
+    public Service renderService() {
+        return pinotClusterService.renderService(pinot, nodeSpec);
+    }
+
+    @Benchmark
+    public ConfigMap renderConfigMap() {
+        return pinotClusterService.renderConfigMap(pinot, nodeSpec, pinotConfig);
+    }
+
+    @Benchmark
+    public String generatePinotProperties() {
+        return pinotClusterService.generatePinotProperties(pinot, nodeSpec, pinotConfig);
+    }
+
+    /**
+     * Render and stamp a deployment, the full cost paid before an unchanged apply is skipped
+     */
+    @Benchmark
+    public String renderAndStampDeployment() {
+        return ResourceHasher.stamp(pinotClusterService.renderDeployment(pinot, nodeSpec, k8sConfig, pinotConfig));
+    }
+}
@@ -1,7 +1,9 @@
 package io.pinot.operator;
 
+import io.pinot.operator.config.OperatorProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
@@ -20,9 +22,11 @@ import org.springframework.scheduling.annotation.EnableScheduling;
  * - Tenant configuration and resource allocation
  * - Health monitoring and reconciliation
  * - Rolling updates and configuration changes
+ * - Lease-based leader election with warm standby replicas
  */
 @SpringBootApplication
 @EnableScheduling
+@EnableConfigurationProperties(OperatorProperties.class)
 public class PinotControlPlaneApplication {
 
     public static void main(String[] args) {
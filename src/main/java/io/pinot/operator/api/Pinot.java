@@ -1,5 +1,6 @@
 package io.pinot.operator.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.fabric8.kubernetes.api.model.Namespaced;
 import io.fabric8.kubernetes.client.CustomResource;
@@ -7,6 +8,7 @@ import io.fabric8.kubernetes.model.annotation.Group;
 import io.fabric8.kubernetes.model.annotation.Version;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Pinot Custom Resource Definition
@@ -92,7 +94,119 @@ public class Pinot extends CustomResource<Pinot.PinotSpec, Pinot.PinotStatus> im
      * Status of the Pinot cluster
      */
     public static class PinotStatus {
-        // Status fields will be added as needed
+        @JsonProperty("phase")
+        private String phase;
+        
+        @JsonProperty("message")
+        private String message;
+        
+        @JsonProperty("lastUpdateTime")
+        private String lastUpdateTime;
+        
+        @JsonProperty("stages")
+        private List<StageStatus> stages;
+        
+        @JsonProperty("health")
+        private HealthStatus health;
+
+        public String getPhase() { return phase; }
+        public void setPhase(String phase) { this.phase = phase; }
+        
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+        
+        public String getLastUpdateTime() { return lastUpdateTime; }
+        public void setLastUpdateTime(String lastUpdateTime) { this.lastUpdateTime = lastUpdateTime; }
+        
+        public List<StageStatus> getStages() { return stages; }
+        public void setStages(List<StageStatus> stages) { this.stages = stages; }
+        
+        public HealthStatus getHealth() { return health; }
+        public void setHealth(HealthStatus health) { this.health = health; }
+        
+        @JsonIgnore
+        public boolean isReady() { return "Ready".equals(phase); }
+    }
+
+    /**
+     * Rollout progress of one deployment-order stage
+     */
+    public static class StageStatus {
+        @JsonProperty("nodeType")
+        private String nodeType;
+        
+        @JsonProperty("phase")
+        private String phase;
+        
+        @JsonProperty("startTime")
+        private String startTime;
+        
+        @JsonProperty("readyTime")
+        private String readyTime;
+        
+        @JsonProperty("durationSeconds")
+        private Long durationSeconds;
+
+        public String getNodeType() { return nodeType; }
+        public void setNodeType(String nodeType) { this.nodeType = nodeType; }
+        
+        public String getPhase() { return phase; }
+        public void setPhase(String phase) { this.phase = phase; }
+        
+        public String getStartTime() { return startTime; }
+        public void setStartTime(String startTime) { this.startTime = startTime; }
+        
+        public String getReadyTime() { return readyTime; }
+        public void setReadyTime(String readyTime) { this.readyTime = readyTime; }
+        
+        public Long getDurationSeconds() { return durationSeconds; }
+        public void setDurationSeconds(Long durationSeconds) { this.durationSeconds = durationSeconds; }
+    }
+
+    /**
+     * Result of the latest health probe of every node service of the cluster
+     */
+    public static class HealthStatus {
+        @JsonProperty("healthy")
+        private boolean healthy;
+        
+        @JsonProperty("nodes")
+        private List<NodeHealth> nodes;
+
+        public boolean isHealthy() { return healthy; }
+        public void setHealthy(boolean healthy) { this.healthy = healthy; }
+        
+        public List<NodeHealth> getNodes() { return nodes; }
+        public void setNodes(List<NodeHealth> nodes) { this.nodes = nodes; }
+    }
+
+    /**
+     * Health of the service of one node
+     */
+    public static class NodeHealth {
+        @JsonProperty("name")
+        private String name;
+        
+        @JsonProperty("nodeType")
+        private String nodeType;
+        
+        @JsonProperty("healthy")
+        private boolean healthy;
+        
+        @JsonProperty("message")
+        private String message;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        
+        public String getNodeType() { return nodeType; }
+        public void setNodeType(String nodeType) { this.nodeType = nodeType; }
+        
+        public boolean isHealthy() { return healthy; }
+        public void setHealthy(boolean healthy) { this.healthy = healthy; }
+        
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
     }
 
     /**
@@ -194,6 +308,12 @@ public class Pinot extends CustomResource<Pinot.PinotSpec, Pinot.PinotStatus> im
         
         @JsonProperty("service")
         private ServiceSpec service;
+        
+        @JsonProperty("storage")
+        private StorageSpec storage;
+        
+        @JsonProperty("resources")
+        private ResourcesSpec resources;
 
         public String getName() { return name; }
         public void setName(String name) { this.name = name; }
@@ -206,6 +326,12 @@ public class Pinot extends CustomResource<Pinot.PinotSpec, Pinot.PinotStatus> im
         
         public ServiceSpec getService() { return service; }
         public void setService(ServiceSpec service) { this.service = service; }
+        
+        public StorageSpec getStorage() { return storage; }
+        public void setStorage(StorageSpec storage) { this.storage = storage; }
+        
+        public ResourcesSpec getResources() { return resources; }
+        public void setResources(ResourcesSpec resources) { this.resources = resources; }
     }
 
     /**
@@ -220,6 +346,9 @@ public class Pinot extends CustomResource<Pinot.PinotSpec, Pinot.PinotStatus> im
         
         @JsonProperty("data")
         private String data;
+        
+        @JsonProperty("autoJvmSizing")
+        private boolean autoJvmSizing;
 
         public String getName() { return name; }
         public void setName(String name) { this.name = name; }
@@ -227,6 +356,9 @@ public class Pinot extends CustomResource<Pinot.PinotSpec, Pinot.PinotStatus> im
         public String getJavaOpts() { return javaOpts; }
         public void setJavaOpts(String javaOpts) { this.javaOpts = javaOpts; }
         
+        public boolean isAutoJvmSizing() { return autoJvmSizing; }
+        public void setAutoJvmSizing(boolean autoJvmSizing) { this.autoJvmSizing = autoJvmSizing; }
+        
         public String getData() { return data; }
         public void setData(String data) { this.data = data; }
     }
@@ -235,6 +367,9 @@ public class Pinot extends CustomResource<Pinot.PinotSpec, Pinot.PinotStatus> im
      * Node specification
      */
     public static class NodeSpec {
+        public static final String KIND_DEPLOYMENT = "Deployment";
+        public static final String KIND_STATEFUL_SET = "StatefulSet";
+        
         @JsonProperty("name")
         private String name;
         
@@ -259,6 +394,9 @@ public class Pinot extends CustomResource<Pinot.PinotSpec, Pinot.PinotStatus> im
         public String getKind() { return kind; }
         public void setKind(String kind) { this.kind = kind; }
         
+        @JsonIgnore
+        public boolean isStatefulSet() { return KIND_STATEFUL_SET.equals(kind); }
+        
         public PinotNodeType getNodeType() { return nodeType; }
         public void setNodeType(PinotNodeType nodeType) { this.nodeType = nodeType; }
         
@@ -343,6 +481,38 @@ public class Pinot extends CustomResource<Pinot.PinotSpec, Pinot.PinotStatus> im
         public void setType(String type) { this.type = type; }
     }
 
+    /**
+     * Container resource requests and limits, keyed by resource name such as cpu or memory
+     */
+    public static class ResourcesSpec {
+        private Map<String, String> requests;
+        private Map<String, String> limits;
+
+        public Map<String, String> getRequests() { return requests; }
+        public void setRequests(Map<String, String> requests) { this.requests = requests; }
+        
+        public Map<String, String> getLimits() { return limits; }
+        public void setLimits(Map<String, String> limits) { this.limits = limits; }
+    }
+
+    /**
+     * Persistent data volume claimed per pod by nodes rendered as StatefulSets
+     */
+    public static class StorageSpec {
+        private String storageClassName;
+        private String size = "10Gi";
+        private String mountPath;
+
+        public String getStorageClassName() { return storageClassName; }
+        public void setStorageClassName(String storageClassName) { this.storageClassName = storageClassName; }
+        
+        public String getSize() { return size; }
+        public void setSize(String size) { this.size = size; }
+        
+        public String getMountPath() { return mountPath; }
+        public void setMountPath(String mountPath) { this.mountPath = mountPath; }
+    }
+
     public static class ServicePort {
         private int port;
         private int targetPort;
@@ -1,5 +1,6 @@
 package io.pinot.operator.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.fabric8.kubernetes.api.model.Namespaced;
 import io.fabric8.kubernetes.client.CustomResource;
@@ -73,6 +74,9 @@ public class PinotSchema extends CustomResource<PinotSchema.PinotSchemaSpec, Pin
         @JsonProperty("lastUpdateTime")
         private String lastUpdateTime;
         
+        @JsonProperty("observedGeneration")
+        private Long observedGeneration;
+        
         @JsonProperty("currentSchemas.json")
         private String currentSchemasJson;
 
@@ -82,6 +86,9 @@ public class PinotSchema extends CustomResource<PinotSchema.PinotSchemaSpec, Pin
         public String getStatus() { return status; }
         public void setStatus(String status) { this.status = status; }
         
+        @JsonIgnore
+        public boolean isReady() { return "Ready".equals(status); }
+        
         public String getReason() { return reason; }
         public void setReason(String reason) { this.reason = reason; }
         
@@ -91,6 +98,9 @@ public class PinotSchema extends CustomResource<PinotSchema.PinotSchemaSpec, Pin
         public String getLastUpdateTime() { return lastUpdateTime; }
         public void setLastUpdateTime(String lastUpdateTime) { this.lastUpdateTime = lastUpdateTime; }
         
+        public Long getObservedGeneration() { return observedGeneration; }
+        public void setObservedGeneration(Long observedGeneration) { this.observedGeneration = observedGeneration; }
+        
         public String getCurrentSchemasJson() { return currentSchemasJson; }
         public void setCurrentSchemasJson(String currentSchemasJson) { this.currentSchemasJson = currentSchemasJson; }
     }
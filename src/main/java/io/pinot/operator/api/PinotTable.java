@@ -95,6 +95,9 @@ public class PinotTable extends CustomResource<PinotTable.PinotTableSpec, PinotT
         @JsonProperty("lastUpdateTime")
         private String lastUpdateTime;
         
+        @JsonProperty("observedGeneration")
+        private Long observedGeneration;
+        
         @JsonProperty("currentTable.json")
         private String currentTableJson;
         
@@ -116,6 +119,9 @@ public class PinotTable extends CustomResource<PinotTable.PinotTableSpec, PinotT
         public String getLastUpdateTime() { return lastUpdateTime; }
         public void setLastUpdateTime(String lastUpdateTime) { this.lastUpdateTime = lastUpdateTime; }
         
+        public Long getObservedGeneration() { return observedGeneration; }
+        public void setObservedGeneration(Long observedGeneration) { this.observedGeneration = observedGeneration; }
+        
         public String getCurrentTableJson() { return currentTableJson; }
         public void setCurrentTableJson(String currentTableJson) { this.currentTableJson = currentTableJson; }
         
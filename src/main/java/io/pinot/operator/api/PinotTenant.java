@@ -61,6 +61,9 @@ public class PinotTenant extends CustomResource<PinotTenant.PinotTenantSpec, Pin
         
         @JsonProperty("lastUpdateTime")
         private String lastUpdateTime;
+        
+        @JsonProperty("observedGeneration")
+        private Long observedGeneration;
 
         public String getType() { return type; }
         public void setType(String type) { this.type = type; }
@@ -76,5 +79,8 @@ public class PinotTenant extends CustomResource<PinotTenant.PinotTenantSpec, Pin
         
         public String getLastUpdateTime() { return lastUpdateTime; }
         public void setLastUpdateTime(String lastUpdateTime) { this.lastUpdateTime = lastUpdateTime; }
+        
+        public Long getObservedGeneration() { return observedGeneration; }
+        public void setObservedGeneration(Long observedGeneration) { this.observedGeneration = observedGeneration; }
     }
 }
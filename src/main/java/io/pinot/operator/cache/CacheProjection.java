@@ -0,0 +1,103 @@
+package io.pinot.operator.cache;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.api.PinotSchema;
+import io.pinot.operator.api.PinotTable;
+import io.pinot.operator.api.PinotTenant;
+import io.pinot.operator.util.ResourceHasher;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trimmed copies of the custom resources for caches that do not keep specs
+ *
+ * A projection keeps the metadata without managed fields or the kubectl
+ * last-applied annotation, the status, and only the spec references the
+ * indexes, dependency checks and health reconciles read. The embedded
+ * Pinot configs and cluster topology, which make up most of a resource,
+ * are fetched from the API server when a resource is applied. The hash of
+ * the full spec is kept in the spec hash annotation next to the generation,
+ * so a full resource fetched earlier can be told apart from a changed one.
+ */
+public final class CacheProjection {
+
+    private static final String LAST_APPLIED_ANNOTATION = "kubectl.kubernetes.io/last-applied-configuration";
+
+    private CacheProjection() {
+    }
+
+    /**
+     * Keep the metadata and status of a Pinot cluster
+     */
+    public static Pinot pinot(Pinot pinot) {
+        Pinot projected = new Pinot();
+        projected.setMetadata(trim(pinot.getMetadata(), pinot.getSpec()));
+        projected.setStatus(pinot.getStatus());
+        return projected;
+    }
+
+    /**
+     * Keep the cluster reference of a Pinot schema
+     */
+    public static PinotSchema schema(PinotSchema schema) {
+        PinotSchema projected = new PinotSchema();
+        projected.setMetadata(trim(schema.getMetadata(), schema.getSpec()));
+        projected.setStatus(schema.getStatus());
+        if (schema.getSpec() != null) {
+            PinotSchema.PinotSchemaSpec spec = new PinotSchema.PinotSchemaSpec();
+            spec.setPinotCluster(schema.getSpec().getPinotCluster());
+            projected.setSpec(spec);
+        }
+        return projected;
+    }
+
+    /**
+     * Keep the cluster and schema references of a Pinot table
+     */
+    public static PinotTable table(PinotTable table) {
+        PinotTable projected = new PinotTable();
+        projected.setMetadata(trim(table.getMetadata(), table.getSpec()));
+        projected.setStatus(table.getStatus());
+        if (table.getSpec() != null) {
+            PinotTable.PinotTableSpec spec = new PinotTable.PinotTableSpec();
+            spec.setPinotCluster(table.getSpec().getPinotCluster());
+            spec.setPinotSchema(table.getSpec().getPinotSchema());
+            spec.setPinotTableType(table.getSpec().getPinotTableType());
+            spec.setSegmentReload(table.getSpec().isSegmentReload());
+            projected.setSpec(spec);
+        }
+        return projected;
+    }
+
+    /**
+     * Keep the cluster reference of a Pinot tenant
+     */
+    public static PinotTenant tenant(PinotTenant tenant) {
+        PinotTenant projected = new PinotTenant();
+        projected.setMetadata(trim(tenant.getMetadata(), tenant.getSpec()));
+        projected.setStatus(tenant.getStatus());
+        if (tenant.getSpec() != null) {
+            PinotTenant.PinotTenantSpec spec = new PinotTenant.PinotTenantSpec();
+            spec.setPinotCluster(tenant.getSpec().getPinotCluster());
+            projected.setSpec(spec);
+        }
+        return projected;
+    }
+
+    private static ObjectMeta trim(ObjectMeta metadata, Object spec) {
+        if (metadata == null) {
+            return null;
+        }
+        ObjectMeta trimmed = new ObjectMetaBuilder(metadata).build();
+        trimmed.setManagedFields(null);
+        Map<String, String> annotations = metadata.getAnnotations() != null
+                ? new HashMap<>(metadata.getAnnotations()) : new HashMap<>();
+        annotations.remove(LAST_APPLIED_ANNOTATION);
+        annotations.put(ResourceHasher.SPEC_HASH_ANNOTATION, ResourceHasher.hashSpec(spec));
+        trimmed.setAnnotations(annotations);
+        return trimmed;
+    }
+}
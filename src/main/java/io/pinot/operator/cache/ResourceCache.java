@@ -0,0 +1,586 @@
+package io.pinot.operator.cache;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.BasicItemStore;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.pinot.operator.config.ApiThrottle;
+import io.pinot.operator.util.ResourceHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Informer-backed local cache for a custom resource type
+ *
+ * Wraps a Fabric8 SharedIndexInformer which performs list-then-watch,
+ * tracks the last seen resourceVersion and re-lists when the watch can
+ * no longer be resumed. All reads are served from the local indexed
+ * store and never hit the API server.
+ *
+ * Two indexes are maintained:
+ * - namespace: all resources in a namespace
+ * - cluster: all resources belonging to a Pinot cluster ("namespace/clusterName")
+ *
+ * A cache can be narrowed to the values of one label, such as the shards
+ * owned by this replica. Changing the values starts informers using the new
+ * selector next to the serving ones, which keep answering reads until the
+ * new ones have synced and are swapped in. Registered handlers and indexes
+ * carry over; while the new informers list, their events are only passed on
+ * for resources the old selection did not cover, so handlers see an add for
+ * newly selected resources only. Reselection listeners run after the swap,
+ * so owners can drop the state of resources that left the selection.
+ *
+ * A cache limited to a list of namespaces runs one informer per namespace
+ * and routes reads by namespace. With a projection, only a trimmed copy of
+ * each resource is stored; event handlers still receive the full resource,
+ * and {@link #fetch(String)} reads the full resource from the API server,
+ * within the operator's API rate limit. Projections carry the hash of the
+ * full spec, so a fetched resource is reused while the cached copy still has
+ * the same uid, generation and spec hash; a rollout re-checked many times
+ * reads its spec once.
+ */
+public class ResourceCache<T extends HasMetadata> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceCache.class);
+
+    public static final String NAMESPACE_INDEX = Cache.NAMESPACE_INDEX;
+    public static final String CLUSTER_INDEX = "cluster";
+    public static final String SCHEMA_INDEX = "schema";
+
+    /**
+     * Page size used for the initial and recovery list calls
+     */
+    private static final long LIST_PAGE_SIZE = 500L;
+
+    /**
+     * Informer key used when the cache watches all namespaces
+     */
+    private static final String ANY_NAMESPACE = "";
+
+    /**
+     * Number of fetched full resources kept for reuse
+     */
+    private static final int FETCHED_CAPACITY = 256;
+
+    private final KubernetesClient kubernetesClient;
+    private final Class<T> type;
+    private final String resourceType;
+    private final Function<T, String> clusterNameFunc;
+    private final Map<String, String> labels;
+    private final List<String> namespaces;
+    private final Map<String, Function<T, List<String>>> indexers = new HashMap<>();
+    private final List<ResourceEventHandler<T>> handlers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> reselectListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Fetched<T>> fetched = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Fetched<T>> eldest) {
+                    return size() > FETCHED_CAPACITY;
+                }
+            });
+    private String selectorLabel;
+    private List<String> selectorValues;
+    private UnaryOperator<T> projection;
+    private volatile ApiThrottle apiThrottle = ApiThrottle.unlimited();
+    private volatile Map<String, SharedIndexInformer<T>> informers;
+    private Map<String, SharedIndexInformer<T>> incoming;
+    private Handover<T> handover;
+    private boolean started;
+
+    public ResourceCache(KubernetesClient kubernetesClient, Class<T> type, Function<T, String> clusterNameFunc) {
+        this(kubernetesClient, type, clusterNameFunc, Collections.emptyMap());
+    }
+
+    /**
+     * Create a cache restricted to resources carrying all of the given labels
+     */
+    public ResourceCache(KubernetesClient kubernetesClient, Class<T> type, Function<T, String> clusterNameFunc,
+                         Map<String, String> labels) {
+        this(kubernetesClient, type, clusterNameFunc, labels, Collections.emptyList());
+    }
+
+    /**
+     * Create a cache restricted to the given labels and namespaces; no namespaces means all of them
+     */
+    public ResourceCache(KubernetesClient kubernetesClient, Class<T> type, Function<T, String> clusterNameFunc,
+                         Map<String, String> labels, List<String> namespaces) {
+        this.kubernetesClient = kubernetesClient;
+        this.type = type;
+        this.resourceType = type.getSimpleName();
+        this.clusterNameFunc = clusterNameFunc;
+        this.labels = labels;
+        this.namespaces = List.copyOf(namespaces);
+        this.indexers.put(CLUSTER_INDEX, this::clusterIndexFunc);
+        this.informers = buildInformers(null);
+    }
+
+    /**
+     * Index resources by a name they reference in their own namespace; must be called before start
+     */
+    public synchronized ResourceCache<T> withIndex(String indexName, Function<T, String> referenceFunc) {
+        Function<T, List<String>> indexFunc = resource -> {
+            String reference = referenceFunc.apply(resource);
+            if (reference == null || resource.getMetadata() == null) {
+                return Collections.emptyList();
+            }
+            return List.of(clusterKey(resource.getMetadata().getNamespace(), reference));
+        };
+        indexers.put(indexName, indexFunc);
+        informers.values().forEach(informer -> informer.addIndexers(Map.of(indexName, indexFunc)));
+        if (incoming != null) {
+            incoming.values().forEach(informer -> informer.addIndexers(Map.of(indexName, indexFunc)));
+        }
+        return this;
+    }
+
+    /**
+     * Store only a trimmed copy of each resource; must be called before start
+     *
+     * The projection must keep whatever the indexes and the cache readers use.
+     */
+    public synchronized ResourceCache<T> withProjection(UnaryOperator<T> projection) {
+        this.projection = projection;
+        this.informers = buildInformers(null);
+        return this;
+    }
+
+    /**
+     * Rate limit the reads of full resources from the API server
+     */
+    public synchronized ResourceCache<T> withApiThrottle(ApiThrottle apiThrottle) {
+        this.apiThrottle = apiThrottle;
+        return this;
+    }
+
+    /**
+     * Register a handler for incremental add/update/delete notifications
+     */
+    public synchronized void addEventHandler(ResourceEventHandler<T> handler) {
+        handlers.add(handler);
+        informers.values().forEach(informer -> informer.addEventHandler(handler));
+        if (incoming != null) {
+            incoming.values().forEach(informer -> informer.addEventHandler(new HandoverHandler<>(handler, handover)));
+        }
+    }
+
+    /**
+     * Run a callback each time the cache has swapped to a changed label selection
+     */
+    public void addReselectListener(Runnable listener) {
+        reselectListeners.add(listener);
+    }
+
+    /**
+     * Narrow the cache to resources whose label has one of the given values
+     *
+     * A started cache lists the new selection while the current informers
+     * keep serving, and swaps once the new informers have synced; a newer
+     * selection replaces one that is still listing. Resources that leave the
+     * selection are dropped without a delete notification, since they still
+     * exist and are now handled elsewhere.
+     */
+    public synchronized void restrictToLabelValues(String label, Collection<String> values) {
+        Handover<T> next = new Handover<>(selectorLabel, selectorValues);
+        selectorLabel = label;
+        selectorValues = List.copyOf(values);
+        logger.info("{} cache narrowed to {} in {}", resourceType, label, selectorValues);
+        if (!started) {
+            informers = buildInformers(null);
+            return;
+        }
+        if (incoming != null) {
+            // Superseded before it synced; the serving informers still cover the older selection
+            incoming.values().forEach(SharedIndexInformer::stop);
+            next = handover;
+        }
+        handover = next;
+        Map<String, SharedIndexInformer<T>> listing = buildInformers(next);
+        incoming = listing;
+        startInformers(listing).thenRun(() -> swapIn(listing));
+    }
+
+    /**
+     * Start the underlying informer; subsequent calls are no-ops
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        startInformers(informers);
+    }
+
+    /**
+     * Stop the underlying informers
+     */
+    public synchronized void stop() {
+        informers.values().forEach(SharedIndexInformer::stop);
+        if (incoming != null) {
+            incoming.values().forEach(SharedIndexInformer::stop);
+            incoming = null;
+        }
+        started = false;
+    }
+
+    /**
+     * Check whether the initial list has been loaded into the cache
+     */
+    public boolean hasSynced() {
+        return informers.values().stream().allMatch(SharedIndexInformer::hasSynced);
+    }
+
+    /**
+     * Get all cached resources
+     */
+    public List<T> list() {
+        List<T> resources = new ArrayList<>();
+        informers.values().forEach(informer -> resources.addAll(informer.getIndexer().list()));
+        return resources;
+    }
+
+    /**
+     * Get the "namespace/name" keys of all cached resources
+     */
+    public List<String> listKeys() {
+        List<String> keys = new ArrayList<>();
+        informers.values().forEach(informer -> keys.addAll(informer.getIndexer().listKeys()));
+        return keys;
+    }
+
+    /**
+     * Get a cached resource by namespace and name
+     */
+    public T get(String namespace, String name) {
+        SharedIndexInformer<T> informer = informerFor(namespace);
+        return informer != null ? informer.getIndexer().getByKey(Cache.namespaceKeyFunc(namespace, name)) : null;
+    }
+
+    /**
+     * Get a cached resource by its "namespace/name" key
+     */
+    public T get(String key) {
+        SharedIndexInformer<T> informer = informerFor(namespaceOf(key));
+        return informer != null ? informer.getIndexer().getByKey(key) : null;
+    }
+
+    /**
+     * Get the full resource for a key, from the API server when the cache only holds a projection
+     *
+     * A resource fetched earlier is returned again while the cached copy has
+     * the same uid, generation and spec hash. Its metadata and spec are then
+     * current, but its status may lag behind the cached one.
+     */
+    public T fetch(String key) {
+        if (projection == null) {
+            return get(key);
+        }
+        T cached = get(key);
+        Fetched<T> last = fetched.get(key);
+        if (cached != null && last != null && last.matches(cached)) {
+            return last.resource;
+        }
+        int separator = key.indexOf('/');
+        T full = apiThrottle.call(() -> kubernetesClient.resources(type)
+                .inNamespace(key.substring(0, separator))
+                .withName(key.substring(separator + 1))
+                .get());
+        if (full != null) {
+            fetched.put(key, new Fetched<>(full, ResourceHasher.stampedHash(projection.apply(full))));
+        } else {
+            fetched.remove(key);
+        }
+        return full;
+    }
+
+    /**
+     * Get all cached resources in a namespace
+     */
+    public List<T> listByNamespace(String namespace) {
+        return byIndex(namespace, NAMESPACE_INDEX, namespace);
+    }
+
+    /**
+     * Get all cached resources that belong to a Pinot cluster
+     */
+    public List<T> listByCluster(String namespace, String clusterName) {
+        return byIndex(namespace, CLUSTER_INDEX, clusterKey(namespace, clusterName));
+    }
+
+    /**
+     * Get all cached resources whose reference in the given index names a resource in the namespace
+     */
+    public List<T> listByIndex(String indexName, String namespace, String reference) {
+        return byIndex(namespace, indexName, clusterKey(namespace, reference));
+    }
+
+    /**
+     * Get the number of cached resources
+     */
+    public int size() {
+        return informers.values().stream().mapToInt(informer -> informer.getIndexer().listKeys().size()).sum();
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Get the "namespace/clusterName" key of the Pinot cluster a resource belongs to, or null
+     */
+    public String clusterKeyOf(T resource) {
+        String clusterName = clusterNameFunc.apply(resource);
+        if (clusterName == null || resource.getMetadata() == null) {
+            return null;
+        }
+        return clusterKey(resource.getMetadata().getNamespace(), clusterName);
+    }
+
+    /**
+     * Get a unique key for the resource, matching the informer store key
+     */
+    public static String keyOf(HasMetadata resource) {
+        ObjectMeta metadata = resource.getMetadata();
+        if (metadata != null && metadata.getNamespace() != null) {
+            return metadata.getNamespace() + "/" + metadata.getName();
+        }
+        return metadata != null ? metadata.getName() : "unknown";
+    }
+
+    /**
+     * Build the index key for a namespace and a referenced cluster or schema name
+     */
+    public static String clusterKey(String namespace, String clusterName) {
+        return namespace + "/" + clusterName;
+    }
+
+    private List<String> clusterIndexFunc(T resource) {
+        String key = clusterKeyOf(resource);
+        return key != null ? List.of(key) : Collections.emptyList();
+    }
+
+    private List<T> byIndex(String namespace, String indexName, String indexKey) {
+        SharedIndexInformer<T> informer = informerFor(namespace);
+        return informer != null ? informer.getIndexer().byIndex(indexName, indexKey) : Collections.emptyList();
+    }
+
+    private SharedIndexInformer<T> informerFor(String namespace) {
+        Map<String, SharedIndexInformer<T>> current = informers;
+        SharedIndexInformer<T> any = current.get(ANY_NAMESPACE);
+        return any != null ? any : current.get(namespace);
+    }
+
+    private static String namespaceOf(String key) {
+        int separator = key.indexOf('/');
+        return separator >= 0 ? key.substring(0, separator) : ANY_NAMESPACE;
+    }
+
+    /**
+     * Serve reads from informers of a new selection that have synced, and stop the ones they replace
+     */
+    private void swapIn(Map<String, SharedIndexInformer<T>> listing) {
+        Map<String, SharedIndexInformer<T>> previous;
+        synchronized (this) {
+            if (incoming != listing) {
+                // Superseded by a newer selection or stopped
+                return;
+            }
+            previous = informers;
+            informers = listing;
+            incoming = null;
+            handover.complete();
+            handover = null;
+        }
+        previous.values().forEach(SharedIndexInformer::stop);
+        logger.info("{} cache swapped to its new selection with {} resources", resourceType, size());
+        reselectListeners.forEach(Runnable::run);
+    }
+
+    private Map<String, SharedIndexInformer<T>> buildInformers(Handover<T> gate) {
+        Map<String, SharedIndexInformer<T>> built = new LinkedHashMap<>();
+        if (namespaces.isEmpty()) {
+            built.put(ANY_NAMESPACE, buildInformer(kubernetesClient.resources(type).inAnyNamespace(), gate));
+        } else {
+            for (String namespace : namespaces) {
+                built.put(namespace, buildInformer(kubernetesClient.resources(type).inNamespace(namespace), gate));
+            }
+        }
+        return built;
+    }
+
+    private SharedIndexInformer<T> buildInformer(
+            FilterWatchListDeletable<T, KubernetesResourceList<T>, Resource<T>> resources, Handover<T> gate) {
+        if (!labels.isEmpty()) {
+            resources = resources.withLabels(labels);
+        }
+        if (selectorLabel != null) {
+            resources = resources.withLabelIn(selectorLabel, selectorValues.toArray(new String[0]));
+        }
+        SharedIndexInformer<T> built = resources
+                .withLimit(LIST_PAGE_SIZE)
+                .runnableInformer(0);
+        if (projection != null) {
+            built.itemStore(new ProjectingItemStore<>(projection));
+        }
+        built.addIndexers(indexers);
+        for (ResourceEventHandler<T> handler : handlers) {
+            built.addEventHandler(gate != null ? new HandoverHandler<>(handler, gate) : handler);
+        }
+        return built;
+    }
+
+    /**
+     * Start informers, completing once all of them have synced
+     */
+    private CompletableFuture<Void> startInformers(Map<String, SharedIndexInformer<T>> starting) {
+        List<CompletableFuture<Void>> starts = new ArrayList<>();
+        starting.forEach((namespace, informer) -> starts.add(informer.start().whenComplete((ignored, error) -> {
+            String scope = namespace.equals(ANY_NAMESPACE) ? "all namespaces" : "namespace " + namespace;
+            if (error != null) {
+                logger.error("Failed to start {} informer for {}", resourceType, scope, error);
+            } else {
+                logger.info("{} informer for {} synced with {} resources", resourceType, scope,
+                        informer.getIndexer().listKeys().size());
+            }
+        }).toCompletableFuture()));
+        return CompletableFuture.allOf(starts.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Selection served by the current informers while the informers of a new selection list
+     */
+    static final class Handover<T extends HasMetadata> {
+        private final String label;
+        private final Set<String> values;
+        private volatile boolean complete;
+
+        /**
+         * Create a handover from a selection; a null label means the whole type was selected
+         */
+        Handover(String label, Collection<String> values) {
+            this.label = label;
+            this.values = values != null ? Set.copyOf(values) : Set.of();
+        }
+
+        /**
+         * Check whether the serving informers still deliver the events of a resource
+         */
+        boolean isServedElsewhere(T resource) {
+            if (complete) {
+                return false;
+            }
+            if (label == null) {
+                return true;
+            }
+            Map<String, String> resourceLabels = resource.getMetadata() != null
+                    ? resource.getMetadata().getLabels()
+                    : null;
+            return resourceLabels != null && values.contains(resourceLabels.get(label));
+        }
+
+        void complete() {
+            complete = true;
+        }
+    }
+
+    /**
+     * Event handler of a listing informer that skips resources the serving informers still handle
+     */
+    static final class HandoverHandler<T extends HasMetadata> implements ResourceEventHandler<T> {
+        private final ResourceEventHandler<T> delegate;
+        private final Handover<T> handover;
+
+        HandoverHandler(ResourceEventHandler<T> delegate, Handover<T> handover) {
+            this.delegate = delegate;
+            this.handover = handover;
+        }
+
+        @Override
+        public void onAdd(T resource) {
+            if (!handover.isServedElsewhere(resource)) {
+                delegate.onAdd(resource);
+            }
+        }
+
+        @Override
+        public void onUpdate(T oldResource, T newResource) {
+            if (!handover.isServedElsewhere(newResource)) {
+                delegate.onUpdate(oldResource, newResource);
+            }
+        }
+
+        @Override
+        public void onDelete(T resource, boolean deletedFinalStateUnknown) {
+            if (!handover.isServedElsewhere(resource)) {
+                delegate.onDelete(resource, deletedFinalStateUnknown);
+            }
+        }
+    }
+
+    /**
+     * A full resource read from the API server, with the spec hash its projection carries
+     */
+    private static final class Fetched<T extends HasMetadata> {
+        private final T resource;
+        private final String specHash;
+
+        Fetched(T resource, String specHash) {
+            this.resource = resource;
+            this.specHash = specHash;
+        }
+
+        boolean matches(T cached) {
+            ObjectMeta metadata = resource.getMetadata();
+            ObjectMeta cachedMetadata = cached.getMetadata();
+            return Objects.equals(metadata.getUid(), cachedMetadata.getUid())
+                    && Objects.equals(metadata.getGeneration(), cachedMetadata.getGeneration())
+                    && specHash != null
+                    && specHash.equals(ResourceHasher.stampedHash(cached));
+        }
+    }
+
+    /**
+     * Item store keeping the projection of each resource instead of the resource itself
+     */
+    private static final class ProjectingItemStore<T extends HasMetadata> extends BasicItemStore<T> {
+        private final UnaryOperator<T> projection;
+
+        ProjectingItemStore(UnaryOperator<T> projection) {
+            super(Cache::metaNamespaceKeyFunc);
+            this.projection = projection;
+        }
+
+        @Override
+        public T put(String key, T obj) {
+            return super.put(key, projection.apply(obj));
+        }
+
+        @Override
+        public boolean isFullState() {
+            return false;
+        }
+    }
+}
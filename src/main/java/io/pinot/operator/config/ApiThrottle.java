@@ -0,0 +1,55 @@
+package io.pinot.operator.config;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.pinot.operator.reconcile.TokenBucketRateLimiter;
+
+import java.util.function.Supplier;
+
+/**
+ * Client-side rate limit on the operator's own requests to the API server
+ *
+ * Every write and every direct read the operator issues takes a token from
+ * one shared bucket on the calling thread before it is sent: applies,
+ * deletes, status patches, shard label patches and full-resource reads. The
+ * client's HTTP threads never wait for a token. Informer lists and watches
+ * are issued by the client itself, and lease renewals must not be delayed
+ * past their deadline, so neither goes through the throttle.
+ *
+ * A caller interrupted while waiting keeps its interrupt flag and the
+ * request is not sent.
+ */
+public class ApiThrottle {
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    public ApiThrottle(TokenBucketRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Create a throttle that never waits
+     */
+    public static ApiThrottle unlimited() {
+        return new ApiThrottle(TokenBucketRateLimiter.unlimited());
+    }
+
+    /**
+     * Wait for a token, throwing instead if the caller is interrupted
+     */
+    public void acquire() {
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KubernetesClientException("Interrupted while waiting for the API rate limit", e);
+        }
+    }
+
+    /**
+     * Wait for a token, then make the call
+     */
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        return call.get();
+    }
+}
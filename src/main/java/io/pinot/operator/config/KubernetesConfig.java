@@ -1,7 +1,10 @@
 package io.pinot.operator.config;
 
-import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.pinot.operator.reconcile.TokenBucketRateLimiter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,6 +13,18 @@ import org.springframework.context.annotation.Configuration;
  * 
  * This class provides the Fabric8 Kubernetes client bean
  * that will be used throughout the application.
+ *
+ * The watch reconnect interval is the initial backoff the informers use
+ * when a watch fails. They resume from the last seen resourceVersion on
+ * the client's own scheduler and only relist once that version has
+ * expired (410 Gone); watches request bookmarks so the version stays
+ * current while nothing changes.
+ *
+ * Timeouts, connection limits and HTTP/2 come from the
+ * pinot.operator.kubernetes-client.* properties, on top of what is
+ * detected from the kubeconfig or service account. The client-side rate
+ * limit is the separate ApiThrottle, applied on the calling thread, so the
+ * client's HTTP threads never wait for a token.
  */
 @Configuration
 public class KubernetesConfig {
@@ -18,7 +33,35 @@ public class KubernetesConfig {
      * Create and configure the Kubernetes client
      */
     @Bean
-    public KubernetesClient kubernetesClient() {
-        return new DefaultKubernetesClient();
+    public KubernetesClient kubernetesClient(OperatorProperties operatorProperties) {
+        return new KubernetesClientBuilder()
+                .withConfig(clientConfig(Config.autoConfigure(null), operatorProperties))
+                .build();
+    }
+
+    /**
+     * Create the rate limit shared by the operator's own API requests
+     */
+    @Bean
+    public ApiThrottle apiThrottle(OperatorProperties operatorProperties) {
+        OperatorProperties.KubernetesClientProperties properties = operatorProperties.getKubernetesClient();
+        return new ApiThrottle(new TokenBucketRateLimiter(properties.getQps(), properties.getBurst()));
+    }
+
+    /**
+     * Apply the operator's client settings to a detected configuration
+     */
+    static Config clientConfig(Config detected, OperatorProperties operatorProperties) {
+        OperatorProperties.KubernetesClientProperties properties = operatorProperties.getKubernetesClient();
+        return new ConfigBuilder(detected)
+                .withConnectionTimeout(properties.getConnectionTimeout())
+                .withRequestTimeout(properties.getRequestTimeout())
+                .withMaxConcurrentRequests(Math.max(1, properties.getMaxConcurrentRequests()))
+                .withMaxConcurrentRequestsPerHost(Math.max(1, properties.getMaxConcurrentRequestsPerHost()))
+                .withWatchReconnectInterval((int) Math.min(Integer.MAX_VALUE,
+                        Math.max(1, operatorProperties.getWatcherReconnectDelay())))
+                .withWatchReconnectLimit(properties.getWatchReconnectLimit())
+                .withHttp2Disable(!properties.isHttp2())
+                .build();
     }
 }
@@ -0,0 +1,556 @@
+package io.pinot.operator.config;
+
+import io.pinot.operator.util.VirtualThreads;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operator configuration bound from the pinot.operator.* properties
+ */
+@ConfigurationProperties(prefix = "pinot.operator")
+public class OperatorProperties {
+
+    /**
+     * Periodic reconciliation interval in milliseconds
+     */
+    private long reconciliationInterval = 30000;
+
+    /**
+     * Fraction of the reconciliation interval added or removed at random on each resync
+     */
+    private double resyncJitter = 0.1;
+
+    /**
+     * Initial delay in milliseconds before an informer re-opens a failed watch, doubled on repeated failures
+     */
+    private long watcherReconnectDelay = 1000;
+
+    /**
+     * Default number of concurrent reconcile workers per resource type
+     */
+    private int workerThreads = 4;
+
+    /**
+     * Maximum number of nodes deployed at once within one deployment-order stage
+     */
+    private int nodeDeployConcurrency = 8;
+
+    /**
+     * Maximum time in milliseconds a stage may wait for ready replicas before the next stage proceeds
+     */
+    private long stageReadyTimeout = 600000;
+
+    /**
+     * Delay in milliseconds before re-checking a stage that is not ready yet
+     */
+    private long stageReadyCheckInterval = 10000;
+
+    /**
+     * Write child resources with server-side apply instead of createOrReplace
+     */
+    private boolean serverSideApply = true;
+
+    /**
+     * Field manager name recorded on server-side apply writes
+     */
+    private String fieldManager = "pinot-operator";
+
+    /**
+     * Delay in milliseconds over which status writes for the same resource are coalesced
+     */
+    private long statusCoalesceDelay = 500;
+
+    /**
+     * Run reconcile workers, node rollouts, batched applies and Pinot requests on virtual threads;
+     * has no effect below Java 21, where platform threads are used
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Concurrent reconcile workers and batched applies per resource type when they run on virtual threads,
+     * in place of worker-threads and batch.parallelism; a per-resource worker-threads still applies
+     */
+    private int virtualThreadConcurrency = 256;
+
+    private final WorkQueueProperties workQueue = new WorkQueueProperties();
+
+    private final ClientProperties client = new ClientProperties();
+
+    private final HealthProperties health = new HealthProperties();
+
+    private final KubernetesClientProperties kubernetesClient = new KubernetesClientProperties();
+
+    private final BatchProperties batch = new BatchProperties();
+
+    private final LeaderElectionProperties leaderElection = new LeaderElectionProperties();
+
+    private final ShardingProperties sharding = new ShardingProperties();
+
+    private final WatchProperties watch = new WatchProperties();
+
+    /**
+     * Per resource type overrides, keyed by cluster, schema, table or tenant
+     */
+    private final Map<String, ResourceProperties> resources = new HashMap<>();
+
+    public long getReconciliationInterval() { return reconciliationInterval; }
+    public void setReconciliationInterval(long reconciliationInterval) { this.reconciliationInterval = reconciliationInterval; }
+
+    public double getResyncJitter() { return resyncJitter; }
+    public void setResyncJitter(double resyncJitter) { this.resyncJitter = resyncJitter; }
+
+    public long getWatcherReconnectDelay() { return watcherReconnectDelay; }
+    public void setWatcherReconnectDelay(long watcherReconnectDelay) { this.watcherReconnectDelay = watcherReconnectDelay; }
+
+    public int getWorkerThreads() { return workerThreads; }
+    public void setWorkerThreads(int workerThreads) { this.workerThreads = workerThreads; }
+
+    public int getNodeDeployConcurrency() { return nodeDeployConcurrency; }
+    public void setNodeDeployConcurrency(int nodeDeployConcurrency) { this.nodeDeployConcurrency = nodeDeployConcurrency; }
+
+    public long getStageReadyTimeout() { return stageReadyTimeout; }
+    public void setStageReadyTimeout(long stageReadyTimeout) { this.stageReadyTimeout = stageReadyTimeout; }
+
+    public long getStageReadyCheckInterval() { return stageReadyCheckInterval; }
+    public void setStageReadyCheckInterval(long stageReadyCheckInterval) { this.stageReadyCheckInterval = stageReadyCheckInterval; }
+
+    public boolean isServerSideApply() { return serverSideApply; }
+    public void setServerSideApply(boolean serverSideApply) { this.serverSideApply = serverSideApply; }
+
+    public String getFieldManager() { return fieldManager; }
+    public void setFieldManager(String fieldManager) { this.fieldManager = fieldManager; }
+
+    public long getStatusCoalesceDelay() { return statusCoalesceDelay; }
+    public void setStatusCoalesceDelay(long statusCoalesceDelay) { this.statusCoalesceDelay = statusCoalesceDelay; }
+
+    public boolean isVirtualThreads() { return virtualThreads; }
+    public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+
+    public int getVirtualThreadConcurrency() { return virtualThreadConcurrency; }
+    public void setVirtualThreadConcurrency(int virtualThreadConcurrency) { this.virtualThreadConcurrency = virtualThreadConcurrency; }
+
+    public WorkQueueProperties getWorkQueue() { return workQueue; }
+
+    public ClientProperties getClient() { return client; }
+
+    public HealthProperties getHealth() { return health; }
+
+    public KubernetesClientProperties getKubernetesClient() { return kubernetesClient; }
+
+    public BatchProperties getBatch() { return batch; }
+
+    public LeaderElectionProperties getLeaderElection() { return leaderElection; }
+
+    public ShardingProperties getSharding() { return sharding; }
+
+    public WatchProperties getWatch() { return watch; }
+
+    public Map<String, ResourceProperties> getResources() { return resources; }
+
+    /**
+     * Get the number of reconcile workers for a resource type
+     */
+    public int workerThreadsFor(String resourceType) {
+        ResourceProperties overrides = resources.get(resourceType);
+        if (overrides != null && overrides.getWorkerThreads() != null) {
+            return overrides.getWorkerThreads();
+        }
+        return workerThreads;
+    }
+
+    /**
+     * Check whether the operator's threads are virtual threads, which needs the option and a Java 21 runtime
+     */
+    public boolean useVirtualThreads() {
+        return VirtualThreads.use(virtualThreads);
+    }
+
+    /**
+     * Get the number of concurrent reconciles for a resource type
+     *
+     * An explicit worker count for the resource type always wins, so one
+     * type can be held to fewer concurrent reconciles than the rest. Other
+     * types run that many virtual workers with virtual threads, since they are
+     * cheap to keep blocked, and the global worker thread count otherwise.
+     */
+    public int reconcileConcurrencyFor(String resourceType) {
+        ResourceProperties overrides = resources.get(resourceType);
+        if (overrides != null && overrides.getWorkerThreads() != null) {
+            return overrides.getWorkerThreads();
+        }
+        return useVirtualThreads() ? virtualThreadConcurrency : workerThreads;
+    }
+
+    /**
+     * Get the number of concurrent batched applies per resource type, raised the same way with virtual threads
+     */
+    public int applyConcurrency() {
+        return useVirtualThreads() ? virtualThreadConcurrency : batch.getParallelism();
+    }
+
+    /**
+     * Get the periodic reconciliation interval for a resource type
+     */
+    public long reconciliationIntervalFor(String resourceType) {
+        ResourceProperties overrides = resources.get(resourceType);
+        if (overrides != null && overrides.getReconciliationInterval() != null) {
+            return overrides.getReconciliationInterval();
+        }
+        return reconciliationInterval;
+    }
+
+    /**
+     * Settings that can be overridden for a single resource type
+     */
+    public static class ResourceProperties {
+        private Integer workerThreads;
+        private Long reconciliationInterval;
+
+        public Integer getWorkerThreads() { return workerThreads; }
+        public void setWorkerThreads(Integer workerThreads) { this.workerThreads = workerThreads; }
+
+        public Long getReconciliationInterval() { return reconciliationInterval; }
+        public void setReconciliationInterval(Long reconciliationInterval) { this.reconciliationInterval = reconciliationInterval; }
+    }
+
+    /**
+     * Work queue settings shared by all controllers
+     */
+    public static class WorkQueueProperties {
+        /**
+         * Initial per-key retry delay in milliseconds, doubled on each failure
+         */
+        private long baseDelay = 500;
+
+        /**
+         * Upper bound of the per-key retry delay in milliseconds
+         */
+        private long maxDelay = 300000;
+
+        /**
+         * Sustained reconciles per second per queue; zero or less disables the limit
+         */
+        private double qps = 20;
+
+        /**
+         * Reconciles that may run back to back before the qps limit applies
+         */
+        private int burst = 100;
+
+        public long getBaseDelay() { return baseDelay; }
+        public void setBaseDelay(long baseDelay) { this.baseDelay = baseDelay; }
+
+        public long getMaxDelay() { return maxDelay; }
+        public void setMaxDelay(long maxDelay) { this.maxDelay = maxDelay; }
+
+        public double getQps() { return qps; }
+        public void setQps(double qps) { this.qps = qps; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+    }
+
+    /**
+     * Batching of schema and table applies per Pinot cluster
+     */
+    public static class BatchProperties {
+        /**
+         * Applies collected for one cluster before the batch is flushed at once
+         */
+        private int maxSize = 100;
+
+        /**
+         * Time in milliseconds a batch waits for more applies before it is flushed
+         */
+        private long linger = 200;
+
+        /**
+         * Flushed batches issued concurrently per resource type; the requests of a batch
+         * are pipelined, bounded per cluster by client.max-requests-per-cluster
+         */
+        private int parallelism = 16;
+
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+        public long getLinger() { return linger; }
+        public void setLinger(long linger) { this.linger = linger; }
+
+        public int getParallelism() { return parallelism; }
+        public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+    }
+
+    /**
+     * Pinot controller HTTP client settings
+     */
+    public static class ClientProperties {
+        /**
+         * Threads of the executor shared by all cluster requests
+         */
+        private int executorThreads = 4;
+
+        /**
+         * Requests that may be in flight to one cluster; further requests are queued
+         */
+        private int maxRequestsPerCluster = 32;
+
+        /**
+         * Timeout in milliseconds of schema, table and tenant requests
+         */
+        private long requestTimeout = 30000;
+
+        /**
+         * Timeout in milliseconds of health and cluster info requests
+         */
+        private long healthCheckTimeout = 10000;
+
+        public int getExecutorThreads() { return executorThreads; }
+        public void setExecutorThreads(int executorThreads) { this.executorThreads = executorThreads; }
+
+        public int getMaxRequestsPerCluster() { return maxRequestsPerCluster; }
+        public void setMaxRequestsPerCluster(int maxRequestsPerCluster) { this.maxRequestsPerCluster = maxRequestsPerCluster; }
+
+        public long getRequestTimeout() { return requestTimeout; }
+        public void setRequestTimeout(long requestTimeout) { this.requestTimeout = requestTimeout; }
+
+        public long getHealthCheckTimeout() { return healthCheckTimeout; }
+        public void setHealthCheckTimeout(long healthCheckTimeout) { this.healthCheckTimeout = healthCheckTimeout; }
+    }
+
+    /**
+     * Periodic health probing of the node services of every Pinot cluster
+     */
+    public static class HealthProperties {
+        /**
+         * Probe the health endpoints of cluster nodes and report them in the cluster status
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay in milliseconds between probe rounds; a cluster still being probed is skipped
+         */
+        private long interval = 15000;
+
+        /**
+         * Time in milliseconds a probe result is used before it counts as unknown
+         */
+        private long ttl = 60000;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public long getInterval() { return interval; }
+        public void setInterval(long interval) { this.interval = interval; }
+
+        public long getTtl() { return ttl; }
+        public void setTtl(long ttl) { this.ttl = ttl; }
+    }
+
+    /**
+     * Lease-based leader election between operator replicas
+     */
+    public static class LeaderElectionProperties {
+        /**
+         * Only reconcile while holding the lease; when disabled every replica reconciles
+         */
+        private boolean enabled = true;
+
+        /**
+         * Name of the coordination.k8s.io Lease used as the lock
+         */
+        private String leaseName = "pinot-operator-leader";
+
+        /**
+         * Namespace of the Lease; defaults to the namespace of the operator
+         */
+        private String leaseNamespace;
+
+        /**
+         * Time in milliseconds a standby waits after the last renewal before taking over
+         */
+        private long leaseDuration = 15000;
+
+        /**
+         * Time in milliseconds the leader keeps retrying a renewal before giving up the lease
+         */
+        private long renewDeadline = 10000;
+
+        /**
+         * Time in milliseconds between attempts to acquire or renew the lease
+         */
+        private long retryPeriod = 500;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public String getLeaseName() { return leaseName; }
+        public void setLeaseName(String leaseName) { this.leaseName = leaseName; }
+
+        public String getLeaseNamespace() { return leaseNamespace; }
+        public void setLeaseNamespace(String leaseNamespace) { this.leaseNamespace = leaseNamespace; }
+
+        public long getLeaseDuration() { return leaseDuration; }
+        public void setLeaseDuration(long leaseDuration) { this.leaseDuration = leaseDuration; }
+
+        public long getRenewDeadline() { return renewDeadline; }
+        public void setRenewDeadline(long renewDeadline) { this.renewDeadline = renewDeadline; }
+
+        public long getRetryPeriod() { return retryPeriod; }
+        public void setRetryPeriod(long retryPeriod) { this.retryPeriod = retryPeriod; }
+    }
+
+    /**
+     * Partitioning of Pinot clusters over operator replicas
+     */
+    public static class ShardingProperties {
+        /**
+         * Let every replica reconcile the clusters of its own shards instead of electing one leader
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of shard slots cluster keys are hashed into; must be the same on every replica
+         */
+        private int slots = 64;
+
+        /**
+         * Ring positions taken by each replica
+         */
+        private int virtualNodes = 100;
+
+        /**
+         * Time in milliseconds between membership heartbeats and ownership checks
+         */
+        private long heartbeatInterval = 5000;
+
+        /**
+         * Time in milliseconds after its last heartbeat a replica is considered gone
+         */
+        private long memberTimeout = 15000;
+
+        /**
+         * Namespace of the membership leases; defaults to the namespace of the operator
+         */
+        private String namespace;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getSlots() { return slots; }
+        public void setSlots(int slots) { this.slots = slots; }
+
+        public int getVirtualNodes() { return virtualNodes; }
+        public void setVirtualNodes(int virtualNodes) { this.virtualNodes = virtualNodes; }
+
+        public long getHeartbeatInterval() { return heartbeatInterval; }
+        public void setHeartbeatInterval(long heartbeatInterval) { this.heartbeatInterval = heartbeatInterval; }
+
+        public long getMemberTimeout() { return memberTimeout; }
+        public void setMemberTimeout(long memberTimeout) { this.memberTimeout = memberTimeout; }
+
+        public String getNamespace() { return namespace; }
+        public void setNamespace(String namespace) { this.namespace = namespace; }
+    }
+
+    /**
+     * Scope of the resources the operator watches and caches
+     */
+    public static class WatchProperties {
+        /**
+         * Namespaces to watch, one informer each; empty watches all namespaces
+         */
+        private List<String> namespaces = new ArrayList<>();
+
+        /**
+         * Labels a Pinot, schema, table or tenant resource must carry to be managed
+         */
+        private Map<String, String> labels = new HashMap<>();
+
+        /**
+         * Cache only the fields needed for indexing and status; specs are read from the API server on apply
+         */
+        private boolean trimCachedObjects = false;
+
+        public List<String> getNamespaces() { return namespaces; }
+        public void setNamespaces(List<String> namespaces) { this.namespaces = namespaces; }
+
+        public Map<String, String> getLabels() { return labels; }
+        public void setLabels(Map<String, String> labels) { this.labels = labels; }
+
+        public boolean isTrimCachedObjects() { return trimCachedObjects; }
+        public void setTrimCachedObjects(boolean trimCachedObjects) { this.trimCachedObjects = trimCachedObjects; }
+    }
+
+    /**
+     * Kubernetes API client settings
+     */
+    public static class KubernetesClientProperties {
+        /**
+         * Timeout in milliseconds for connecting to the API server
+         */
+        private int connectionTimeout = 10000;
+
+        /**
+         * Timeout in milliseconds of a single API request
+         */
+        private int requestTimeout = 30000;
+
+        /**
+         * Requests that may be in flight across all API servers
+         */
+        private int maxConcurrentRequests = 64;
+
+        /**
+         * Requests that may be in flight to one API server
+         */
+        private int maxConcurrentRequestsPerHost = 16;
+
+        /**
+         * Sustained operator requests per second, not counting informer lists, watches and lease renewals (0 disables)
+         */
+        private double qps = 50;
+
+        /**
+         * Operator requests allowed back to back before the qps limit applies
+         */
+        private int burst = 100;
+
+        /**
+         * Attempts to re-open a failed watch before the informer gives up; -1 retries forever
+         */
+        private int watchReconnectLimit = -1;
+
+        /**
+         * Negotiate HTTP/2 so concurrent requests share one connection
+         */
+        private boolean http2 = true;
+
+        public int getConnectionTimeout() { return connectionTimeout; }
+        public void setConnectionTimeout(int connectionTimeout) { this.connectionTimeout = connectionTimeout; }
+
+        public int getRequestTimeout() { return requestTimeout; }
+        public void setRequestTimeout(int requestTimeout) { this.requestTimeout = requestTimeout; }
+
+        public int getMaxConcurrentRequests() { return maxConcurrentRequests; }
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) { this.maxConcurrentRequests = maxConcurrentRequests; }
+
+        public int getMaxConcurrentRequestsPerHost() { return maxConcurrentRequestsPerHost; }
+        public void setMaxConcurrentRequestsPerHost(int maxConcurrentRequestsPerHost) { this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost; }
+
+        public double getQps() { return qps; }
+        public void setQps(double qps) { this.qps = qps; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+
+        public int getWatchReconnectLimit() { return watchReconnectLimit; }
+        public void setWatchReconnectLimit(int watchReconnectLimit) { this.watchReconnectLimit = watchReconnectLimit; }
+
+        public boolean isHttp2() { return http2; }
+        public void setHttp2(boolean http2) { this.http2 = http2; }
+    }
+}
@@ -0,0 +1,154 @@
+package io.pinot.operator.config;
+
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.api.PinotSchema;
+import io.pinot.operator.api.PinotTable;
+import io.pinot.operator.api.PinotTenant;
+import io.pinot.operator.cache.CacheProjection;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.reconcile.ShardCoordinator;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Configuration class for the informer-backed resource caches
+ *
+ * One shared cache is created per custom resource type. Controllers
+ * register their event handlers and start the caches; every other
+ * component reads from them instead of calling the API server.
+ *
+ * The operator-owned Deployments, StatefulSets, Services and ConfigMaps are cached as
+ * well, restricted to the app=pinot label, and started with the context.
+ *
+ * With sharding enabled every cache is further narrowed to the shard slots
+ * this replica owns.
+ *
+ * All caches only watch the configured namespaces, and the custom resource
+ * caches only resources carrying the configured labels. With trimming
+ * enabled, the custom resource caches keep a projection without the
+ * embedded configs, and controllers fetch the full resource to apply it.
+ */
+@Configuration
+public class ResourceCacheConfig {
+
+    /**
+     * Label carried by every child resource the operator creates
+     */
+    private static final Map<String, String> OWNED_LABELS = Map.of("app", "pinot");
+
+    /**
+     * Cache of Pinot clusters, indexed by their own name
+     */
+    @Bean(destroyMethod = "stop")
+    public ResourceCache<Pinot> pinotCache(KubernetesClient kubernetesClient,
+            ShardCoordinator shardCoordinator, ApiThrottle apiThrottle, OperatorProperties operatorProperties) {
+        return shardCoordinator.shardCustomResources(watched(new ResourceCache<>(kubernetesClient, Pinot.class,
+                pinot -> pinot.getMetadata() != null ? pinot.getMetadata().getName() : null,
+                watchLabels(operatorProperties), operatorProperties.getWatch().getNamespaces()),
+                CacheProjection::pinot, apiThrottle, operatorProperties));
+    }
+
+    /**
+     * Cache of Pinot schemas, indexed by the referenced cluster
+     */
+    @Bean(destroyMethod = "stop")
+    public ResourceCache<PinotSchema> pinotSchemaCache(KubernetesClient kubernetesClient,
+            ShardCoordinator shardCoordinator, ApiThrottle apiThrottle, OperatorProperties operatorProperties) {
+        return shardCoordinator.shardCustomResources(watched(new ResourceCache<>(kubernetesClient, PinotSchema.class,
+                schema -> schema.getSpec() != null ? schema.getSpec().getPinotCluster() : null,
+                watchLabels(operatorProperties), operatorProperties.getWatch().getNamespaces()),
+                CacheProjection::schema, apiThrottle, operatorProperties));
+    }
+
+    /**
+     * Cache of Pinot tables, indexed by the referenced cluster and schema
+     */
+    @Bean(destroyMethod = "stop")
+    public ResourceCache<PinotTable> pinotTableCache(KubernetesClient kubernetesClient,
+            ShardCoordinator shardCoordinator, ApiThrottle apiThrottle, OperatorProperties operatorProperties) {
+        return shardCoordinator.shardCustomResources(watched(new ResourceCache<>(kubernetesClient, PinotTable.class,
+                table -> table.getSpec() != null ? table.getSpec().getPinotCluster() : null,
+                watchLabels(operatorProperties), operatorProperties.getWatch().getNamespaces())
+                .withIndex(ResourceCache.SCHEMA_INDEX,
+                        table -> table.getSpec() != null ? table.getSpec().getPinotSchema() : null),
+                CacheProjection::table, apiThrottle, operatorProperties));
+    }
+
+    /**
+     * Cache of Pinot tenants, indexed by the referenced cluster
+     */
+    @Bean(destroyMethod = "stop")
+    public ResourceCache<PinotTenant> pinotTenantCache(KubernetesClient kubernetesClient,
+            ShardCoordinator shardCoordinator, ApiThrottle apiThrottle, OperatorProperties operatorProperties) {
+        return shardCoordinator.shardCustomResources(watched(new ResourceCache<>(kubernetesClient, PinotTenant.class,
+                tenant -> tenant.getSpec() != null ? tenant.getSpec().getPinotCluster() : null,
+                watchLabels(operatorProperties), operatorProperties.getWatch().getNamespaces()),
+                CacheProjection::tenant, apiThrottle, operatorProperties));
+    }
+
+    /**
+     * Cache of operator-owned deployments, indexed by their cluster label
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ResourceCache<Deployment> deploymentCache(KubernetesClient kubernetesClient,
+            ShardCoordinator shardCoordinator, OperatorProperties operatorProperties) {
+        return shardCoordinator.shard(new ResourceCache<>(kubernetesClient, Deployment.class,
+                ResourceCacheConfig::clusterLabel, OWNED_LABELS, operatorProperties.getWatch().getNamespaces()));
+    }
+
+    /**
+     * Cache of operator-owned stateful sets, indexed by their cluster label
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ResourceCache<StatefulSet> statefulSetCache(KubernetesClient kubernetesClient,
+            ShardCoordinator shardCoordinator, OperatorProperties operatorProperties) {
+        return shardCoordinator.shard(new ResourceCache<>(kubernetesClient, StatefulSet.class,
+                ResourceCacheConfig::clusterLabel, OWNED_LABELS, operatorProperties.getWatch().getNamespaces()));
+    }
+
+    /**
+     * Cache of operator-owned services, indexed by their cluster label
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ResourceCache<Service> serviceCache(KubernetesClient kubernetesClient,
+            ShardCoordinator shardCoordinator, OperatorProperties operatorProperties) {
+        return shardCoordinator.shard(new ResourceCache<>(kubernetesClient, Service.class,
+                ResourceCacheConfig::clusterLabel, OWNED_LABELS, operatorProperties.getWatch().getNamespaces()));
+    }
+
+    /**
+     * Cache of operator-owned config maps, indexed by their cluster label
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ResourceCache<ConfigMap> configMapCache(KubernetesClient kubernetesClient,
+            ShardCoordinator shardCoordinator, OperatorProperties operatorProperties) {
+        return shardCoordinator.shard(new ResourceCache<>(kubernetesClient, ConfigMap.class,
+                ResourceCacheConfig::clusterLabel, OWNED_LABELS, operatorProperties.getWatch().getNamespaces()));
+    }
+
+    private static <T extends HasMetadata> ResourceCache<T> watched(ResourceCache<T> cache,
+            UnaryOperator<T> projection, ApiThrottle apiThrottle, OperatorProperties operatorProperties) {
+        cache.withApiThrottle(apiThrottle);
+        return operatorProperties.getWatch().isTrimCachedObjects() ? cache.withProjection(projection) : cache;
+    }
+
+    private static Map<String, String> watchLabels(OperatorProperties operatorProperties) {
+        return Map.copyOf(operatorProperties.getWatch().getLabels());
+    }
+
+    private static String clusterLabel(HasMetadata resource) {
+        if (resource.getMetadata() == null || resource.getMetadata().getLabels() == null) {
+            return null;
+        }
+        return resource.getMetadata().getLabels().get("cluster");
+    }
+}
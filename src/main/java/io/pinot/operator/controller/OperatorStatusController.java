@@ -4,11 +4,13 @@ import io.pinot.operator.api.Pinot;
 import io.pinot.operator.api.PinotSchema;
 import io.pinot.operator.api.PinotTable;
 import io.pinot.operator.api.PinotTenant;
+import io.pinot.operator.service.ClusterHealthProber;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,17 +29,20 @@ public class OperatorStatusController {
     private final PinotSchemaController schemaController;
     private final PinotTableController tableController;
     private final PinotTenantController tenantController;
+    private final ClusterHealthProber clusterHealthProber;
 
     @Autowired
     public OperatorStatusController(
             PinotController pinotController,
             PinotSchemaController schemaController,
             PinotTableController tableController,
-            PinotTenantController tenantController) {
+            PinotTenantController tenantController,
+            ClusterHealthProber clusterHealthProber) {
         this.pinotController = pinotController;
         this.schemaController = schemaController;
         this.tableController = tableController;
         this.tenantController = tenantController;
+        this.clusterHealthProber = clusterHealthProber;
     }
 
     /**
@@ -71,13 +76,31 @@ public class OperatorStatusController {
         status.put("tables", tables.size());
         status.put("tenants", tenants.size());
         status.put("totalResources", clusters.size() + schemas.size() + tables.size() + tenants.size());
+        status.put("reconcilers", reconcilerStats());
         status.put("timestamp", System.currentTimeMillis());
         
         return ResponseEntity.ok(status);
     }
 
     /**
-     * Get all managed Pinot clusters
+     * Get work queue depth and worker utilization per resource type
+     */
+    @GetMapping("/reconcilers")
+    public ResponseEntity<Map<String, Object>> reconcilers() {
+        return ResponseEntity.ok(reconcilerStats());
+    }
+
+    private Map<String, Object> reconcilerStats() {
+        Map<String, Object> reconcilers = new LinkedHashMap<>();
+        reconcilers.put("cluster", pinotController.getWorkerPool().getStats());
+        reconcilers.put("schema", schemaController.getWorkerPool().getStats());
+        reconcilers.put("table", tableController.getWorkerPool().getStats());
+        reconcilers.put("tenant", tenantController.getWorkerPool().getStats());
+        return reconcilers;
+    }
+
+    /**
+     * Get all managed Pinot clusters, as cached; fetch one by name for its full spec
      */
     @GetMapping("/clusters")
     public ResponseEntity<List<Pinot>> getClusters() {
@@ -99,7 +122,21 @@ public class OperatorStatusController {
     }
 
     /**
-     * Get all managed schemas
+     * Get the cached node health of a Pinot cluster, without probing it
+     */
+    @GetMapping("/clusters/{namespace}/{name}/health")
+    public ResponseEntity<ClusterHealthProber.ClusterHealth> getClusterHealth(@PathVariable String namespace,
+                                                                              @PathVariable String name) {
+        ClusterHealthProber.ClusterHealth health = clusterHealthProber.getHealth(namespace, name);
+        if (health != null) {
+            return ResponseEntity.ok(health);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get all managed schemas, as cached; fetch one by name for its full spec
      */
     @GetMapping("/schemas")
     public ResponseEntity<List<PinotSchema>> getSchemas() {
@@ -121,7 +158,7 @@ public class OperatorStatusController {
     }
 
     /**
-     * Get all managed tables
+     * Get all managed tables, as cached; fetch one by name for its full spec
      */
     @GetMapping("/tables")
     public ResponseEntity<List<PinotTable>> getTables() {
@@ -143,7 +180,7 @@ public class OperatorStatusController {
     }
 
     /**
-     * Get all managed tenants
+     * Get all managed tenants, as cached; fetch one by name for its full spec
      */
     @GetMapping("/tenants")
     public ResponseEntity<List<PinotTenant>> getTenants() {
@@ -214,7 +251,9 @@ public class OperatorStatusController {
         info.put("endpoints", Map.of(
             "health", "/api/v1/health",
             "status", "/api/v1/status",
+            "reconcilers", "/api/v1/reconcilers",
             "clusters", "/api/v1/clusters",
+            "clusterHealth", "/api/v1/clusters/{namespace}/{name}/health",
             "schemas", "/api/v1/schemas",
             "tables", "/api/v1/tables",
             "tenants", "/api/v1/tenants"
@@ -1,77 +1,119 @@
 package io.pinot.operator.controller;
 
 import io.pinot.operator.api.Pinot;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.reconcile.LeaderElection;
+import io.pinot.operator.reconcile.ReconcileWorkerPool;
+import io.pinot.operator.reconcile.ResyncScheduler;
+import io.pinot.operator.reconcile.WorkQueue;
 import io.pinot.operator.service.PinotClusterService;
-import io.fabric8.kubernetes.api.model.ObjectMeta;
-import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.Watcher;
-import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 /**
  * Main controller for managing Pinot clusters in Kubernetes
  * 
- * This controller watches for Pinot custom resources and manages
- * their lifecycle, including deployment, updates, and deletion.
+ * This controller receives Pinot custom resource events from the shared
+ * informer cache and manages their lifecycle, including
+ * deployment, updates, and deletion.
  */
 @Component
 public class PinotController {
 
     private static final Logger logger = LoggerFactory.getLogger(PinotController.class);
     
-    private final KubernetesClient kubernetesClient;
+    private final ResourceCache<Pinot> pinotCache;
+    private final ResourceCache<Deployment> deploymentCache;
+    private final ResourceCache<StatefulSet> statefulSetCache;
     private final PinotClusterService pinotClusterService;
-    private final ConcurrentMap<String, Pinot> managedClusters = new ConcurrentHashMap<>();
-    
-    private Watcher<Pinot> pinotWatcher;
+    private final WorkQueue<String> workQueue;
+    private final ReconcileWorkerPool<String> workerPool;
+    private final ResyncScheduler resyncScheduler;
+    private final OperatorMetrics operatorMetrics;
+    private final Set<String> pendingApplies = ConcurrentHashMap.newKeySet();
+    private final Set<String> dueResyncs = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, Pinot> pendingDeletions = new ConcurrentHashMap<>();
 
     @Autowired
-    public PinotController(KubernetesClient kubernetesClient, PinotClusterService pinotClusterService) {
-        this.kubernetesClient = kubernetesClient;
+    public PinotController(ResourceCache<Pinot> pinotCache, ResourceCache<Deployment> deploymentCache,
+            ResourceCache<StatefulSet> statefulSetCache, PinotClusterService pinotClusterService,
+            LeaderElection leaderElection, OperatorMetrics operatorMetrics, OperatorProperties operatorProperties) {
+        this.pinotCache = pinotCache;
+        this.deploymentCache = deploymentCache;
+        this.statefulSetCache = statefulSetCache;
         this.pinotClusterService = pinotClusterService;
-        initializeWatcher();
+        this.workQueue = WorkQueue.create("cluster", operatorProperties.getWorkQueue());
+        this.workerPool = new ReconcileWorkerPool<>("cluster", workQueue, this::reconcileKey,
+                operatorProperties.reconcileConcurrencyFor("cluster"), operatorProperties.isVirtualThreads());
+        this.resyncScheduler = new ResyncScheduler("cluster", workQueue,
+                operatorProperties.reconciliationIntervalFor("cluster"), operatorProperties.getResyncJitter());
+        resyncScheduler.onResync(dueResyncs::add);
+        this.operatorMetrics = operatorMetrics;
+        operatorMetrics.instrument("cluster", workerPool);
+        leaderElection.whenLeading(workerPool::start);
+        initializeInformer();
     }
 
     /**
-     * Initialize the Kubernetes watcher for Pinot resources
+     * Register with the Pinot informer cache and start it, and follow deployment readiness and node health
      */
-    private void initializeWatcher() {
+    private void initializeInformer() {
         try {
-            pinotWatcher = new Watcher<Pinot>() {
+            pinotCache.addEventHandler(new ResourceEventHandler<Pinot>() {
                 @Override
-                public void eventReceived(Action action, Pinot resource) {
-                    handlePinotEvent(action, resource);
+                public void onAdd(Pinot resource) {
+                    handlePinotEvent(Watcher.Action.ADDED, resource);
                 }
 
                 @Override
-                public void onClose(WatcherException cause) {
-                    logger.error("Pinot watcher closed", cause);
-                    // Reinitialize watcher after delay
-                    try {
-                        Thread.sleep(5000);
-                        initializeWatcher();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
+                public void onUpdate(Pinot oldResource, Pinot newResource) {
+                    // Skip relist notifications and status or metadata updates that leave the spec alone
+                    if (isSameGeneration(oldResource, newResource)) {
+                        return;
                     }
+                    handlePinotEvent(Watcher.Action.MODIFIED, newResource);
                 }
-            };
 
-            // Start watching Pinot resources across all namespaces
-            kubernetesClient.resources(Pinot.class)
-                    .inAnyNamespace()
-                    .watch(pinotWatcher);
+                @Override
+                public void onDelete(Pinot resource, boolean deletedFinalStateUnknown) {
+                    handlePinotEvent(Watcher.Action.DELETED, resource);
+                }
+            });
+            pinotCache.start();
+            
+            // Drop the state of resources that moved to another replica's shard
+            pinotCache.addReselectListener(this::dropDepartedKeys);
+            
+            deploymentCache.addEventHandler(new ReadinessHandler<>(
+                    deployment -> deployment.getStatus() != null ? deployment.getStatus().getReadyReplicas() : null));
+            statefulSetCache.addEventHandler(new ReadinessHandler<>(
+                    statefulSet -> statefulSet.getStatus() != null ? statefulSet.getStatus().getReadyReplicas() : null));
+            
+            // Write a changed node health to the status without waiting for the next resync
+            pinotClusterService.onHealthChange(pinot -> workQueue.add(getResourceKey(pinot)));
 
-            logger.info("Pinot watcher initialized successfully");
+            logger.info("Pinot informer initialized successfully");
         } catch (Exception e) {
-            logger.error("Failed to initialize Pinot watcher", e);
+            logger.error("Failed to initialize Pinot informer", e);
         }
     }
 
@@ -80,6 +122,7 @@ public class PinotController {
      */
     private void handlePinotEvent(Watcher.Action action, Pinot resource) {
         String resourceKey = getResourceKey(resource);
+        operatorMetrics.recordEvent("cluster", action);
         
         try {
             switch (action) {
@@ -108,8 +151,10 @@ public class PinotController {
         String resourceKey = getResourceKey(resource);
         logger.info("Pinot resource added: {}", resourceKey);
         
-        managedClusters.put(resourceKey, resource);
-        pinotClusterService.createOrUpdateCluster(resource);
+        pendingDeletions.remove(resourceKey);
+        pendingApplies.add(resourceKey);
+        workQueue.add(resourceKey);
+        resyncScheduler.track(resourceKey);
     }
 
     /**
@@ -119,11 +164,8 @@ public class PinotController {
         String resourceKey = getResourceKey(resource);
         logger.info("Pinot resource modified: {}", resourceKey);
         
-        Pinot existingResource = managedClusters.get(resourceKey);
-        if (existingResource != null) {
-            managedClusters.put(resourceKey, resource);
-            pinotClusterService.createOrUpdateCluster(resource);
-        }
+        pendingApplies.add(resourceKey);
+        workQueue.add(resourceKey);
     }
 
     /**
@@ -133,57 +175,193 @@ public class PinotController {
         String resourceKey = getResourceKey(resource);
         logger.info("Pinot resource deleted: {}", resourceKey);
         
-        managedClusters.remove(resourceKey);
-        pinotClusterService.deleteCluster(resource);
+        resyncScheduler.untrack(resourceKey);
+        dueResyncs.remove(resourceKey);
+        pendingDeletions.put(resourceKey, resource);
+        workQueue.add(resourceKey);
     }
 
     /**
-     * Get a unique key for the resource
+     * Stop resyncing and applying keys that left the cache, such as those of a shard now owned by another replica
      */
-    private String getResourceKey(Pinot resource) {
-        ObjectMeta metadata = resource.getMetadata();
-        if (metadata != null && metadata.getNamespace() != null) {
-            return metadata.getNamespace() + "/" + metadata.getName();
+    private void dropDepartedKeys() {
+        Set<String> cachedKeys = new HashSet<>(pinotCache.listKeys());
+        int departed = resyncScheduler.retainAll(cachedKeys);
+        pendingApplies.retainAll(cachedKeys);
+        dueResyncs.retainAll(cachedKeys);
+        if (departed > 0) {
+            logger.info("Stopped tracking {} Pinot clusters that moved to another shard", departed);
         }
-        return metadata != null ? metadata.getName() : "unknown";
     }
 
     /**
-     * Periodic reconciliation of managed clusters
+     * Reconcile the latest cached state of a Pinot resource
+     *
+     * Bursts of events for the same key are collapsed by the work queue, so
+     * this runs once against whatever spec is current when the key is taken.
+     * Keys queued by an event are applied. Keys queued by the periodic resync
+     * are applied as well, including resources whose hash is unchanged so
+     * manual edits are reverted, and then run the health and status
+     * reconciliation; other keys only run the latter. An apply that is held
+     * back by a stage that is not ready yet stays pending.
      */
-    @Scheduled(fixedDelay = 30000) // Every 30 seconds
-    public void reconcileClusters() {
-        logger.debug("Starting periodic reconciliation of {} managed clusters", managedClusters.size());
+    private void reconcileKey(String resourceKey) {
+        Pinot resource = pinotCache.get(resourceKey);
+        if (resource == null) {
+            Pinot deletedResource = pendingDeletions.get(resourceKey);
+            if (deletedResource != null) {
+                pinotClusterService.deleteCluster(deletedResource);
+                pendingDeletions.remove(resourceKey, deletedResource);
+            }
+            return;
+        }
         
-        for (Pinot cluster : managedClusters.values()) {
+        boolean applyPending = pendingApplies.remove(resourceKey);
+        boolean resync = dueResyncs.remove(resourceKey);
+        if (applyPending || resync) {
+            boolean rolledOut;
             try {
-                pinotClusterService.reconcileCluster(cluster);
-            } catch (Exception e) {
-                logger.error("Error reconciling cluster: {}", getResourceKey(cluster), e);
+                // The cache may only hold a projection of the resource
+                Pinot full = pinotCache.fetch(resourceKey);
+                if (full == null) {
+                    return;
+                }
+                rolledOut = pinotClusterService.createOrUpdateCluster(full, resync);
+            } catch (RuntimeException e) {
+                pendingApplies.add(resourceKey);
+                throw e;
+            }
+            if (!rolledOut) {
+                // A stage is still waiting for ready replicas; readiness events or the check interval resume it
+                pendingApplies.add(resourceKey);
+                workQueue.addAfter(resourceKey, pinotClusterService.getStageReadyCheckInterval());
+                return;
+            }
+            if (!resync) {
+                return;
             }
         }
+        
+        pinotClusterService.reconcileCluster(resource);
+    }
+
+    /**
+     * Re-queue the cluster owning a workload if its rollout is waiting on a stage
+     */
+    private void resumeRollout(HasMetadata workload) {
+        Map<String, String> labels = workload.getMetadata().getLabels();
+        String clusterName = labels != null ? labels.get("cluster") : null;
+        if (clusterName == null) {
+            return;
+        }
+        String resourceKey = ResourceCache.clusterKey(workload.getMetadata().getNamespace(), clusterName);
+        if (pendingApplies.contains(resourceKey)) {
+            workQueue.add(resourceKey);
+        }
+    }
+
+    /**
+     * Resumes pending rollouts when the ready replica count of a workload changes
+     */
+    private class ReadinessHandler<T extends HasMetadata> implements ResourceEventHandler<T> {
+        private final Function<T, Integer> readyReplicas;
+
+        ReadinessHandler(Function<T, Integer> readyReplicas) {
+            this.readyReplicas = readyReplicas;
+        }
+
+        @Override
+        public void onAdd(T resource) {
+        }
+
+        @Override
+        public void onUpdate(T oldResource, T newResource) {
+            if (!Objects.equals(readyReplicas.apply(oldResource), readyReplicas.apply(newResource))) {
+                resumeRollout(newResource);
+            }
+        }
+
+        @Override
+        public void onDelete(T resource, boolean deletedFinalStateUnknown) {
+        }
+    }
+
+    /**
+     * Get a unique key for the resource
+     */
+    private String getResourceKey(Pinot resource) {
+        return ResourceCache.keyOf(resource);
+    }
+
+    /**
+     * Check whether an update notification leaves the spec unchanged
+     *
+     * Status writes and label changes bump the resource version but not the
+     * generation, so only a new generation is applied. Resources without a
+     * generation fall back to comparing resource versions.
+     */
+    private boolean isSameGeneration(Pinot oldResource, Pinot newResource) {
+        if (oldResource.getMetadata() == null || newResource.getMetadata() == null) {
+            return false;
+        }
+        Long newGeneration = newResource.getMetadata().getGeneration();
+        if (newGeneration != null && oldResource.getMetadata().getGeneration() != null) {
+            return newGeneration.equals(oldResource.getMetadata().getGeneration());
+        }
+        return Objects.equals(oldResource.getMetadata().getResourceVersion(),
+                newResource.getMetadata().getResourceVersion());
     }
 
     /**
      * Get list of managed clusters
+     *
+     * These are the cached copies, which omit managed fields and embedded
+     * configs when the caches trim their objects.
      */
     public List<Pinot> getManagedClusters() {
-        return List.copyOf(managedClusters.values());
+        return List.copyOf(pinotCache.list());
     }
 
     /**
-     * Get a specific managed cluster
+     * Get a specific managed cluster, with its full spec and the cached status
      */
     public Pinot getManagedCluster(String namespace, String name) {
-        String key = namespace + "/" + name;
-        return managedClusters.get(key);
+        Pinot cached = pinotCache.get(namespace, name);
+        if (cached == null) {
+            return null;
+        }
+        // The cache may only hold a projection of the resource
+        Pinot full = pinotCache.fetch(ResourceCache.keyOf(cached));
+        if (full == null) {
+            return cached;
+        }
+        Pinot managed = new Pinot();
+        managed.setMetadata(full.getMetadata());
+        managed.setSpec(full.getSpec());
+        managed.setStatus(cached.getStatus());
+        return managed;
     }
 
     /**
      * Check if a cluster is being managed
      */
     public boolean isClusterManaged(String namespace, String name) {
-        String key = namespace + "/" + name;
-        return managedClusters.containsKey(key);
+        return pinotCache.get(namespace, name) != null;
+    }
+
+    /**
+     * Get the worker pool reconciling clusters
+     */
+    public ReconcileWorkerPool<String> getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * Stop the periodic resyncs and the reconcile workers
+     */
+    @PreDestroy
+    public void shutdown() {
+        resyncScheduler.shutdown();
+        workerPool.shutdown();
     }
 }
@@ -1,77 +1,117 @@
 package io.pinot.operator.controller;
 
+import io.pinot.operator.api.Pinot;
 import io.pinot.operator.api.PinotSchema;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.reconcile.ApplyBatcher;
+import io.pinot.operator.reconcile.DependencyTrigger;
+import io.pinot.operator.reconcile.LeaderElection;
+import io.pinot.operator.reconcile.ReconcileWorkerPool;
+import io.pinot.operator.reconcile.ResyncScheduler;
+import io.pinot.operator.reconcile.WorkQueue;
 import io.pinot.operator.service.PinotSchemaService;
-import io.fabric8.kubernetes.api.model.ObjectMeta;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.Watcher;
-import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * Controller for managing Pinot schemas in Kubernetes
  * 
- * This controller watches for PinotSchema custom resources and manages
- * their lifecycle, including creation, updates, and deletion.
+ * This controller receives PinotSchema custom resource events from the shared
+ * informer cache and manages their lifecycle, including
+ * creation, updates, and deletion.
  */
 @Component
 public class PinotSchemaController {
 
     private static final Logger logger = LoggerFactory.getLogger(PinotSchemaController.class);
     
-    private final KubernetesClient kubernetesClient;
+    private final ResourceCache<PinotSchema> pinotSchemaCache;
+    private final ResourceCache<Pinot> pinotCache;
     private final PinotSchemaService pinotSchemaService;
-    private final ConcurrentMap<String, PinotSchema> managedSchemas = new ConcurrentHashMap<>();
-    
-    private Watcher<PinotSchema> schemaWatcher;
+    private final WorkQueue<String> workQueue;
+    private final ReconcileWorkerPool<String> workerPool;
+    private final ResyncScheduler resyncScheduler;
+    private final OperatorMetrics operatorMetrics;
+    private final ApplyBatcher<PinotSchema> applyBatcher;
+    private final Set<String> pendingApplies = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, PinotSchema> pendingDeletions = new ConcurrentHashMap<>();
+    private final Set<String> deletionsInFlight = ConcurrentHashMap.newKeySet();
 
     @Autowired
-    public PinotSchemaController(KubernetesClient kubernetesClient, PinotSchemaService pinotSchemaService) {
-        this.kubernetesClient = kubernetesClient;
+    public PinotSchemaController(ResourceCache<PinotSchema> pinotSchemaCache, ResourceCache<Pinot> pinotCache,
+            PinotSchemaService pinotSchemaService, LeaderElection leaderElection,
+            OperatorMetrics operatorMetrics, OperatorProperties operatorProperties) {
+        this.pinotSchemaCache = pinotSchemaCache;
+        this.pinotCache = pinotCache;
         this.pinotSchemaService = pinotSchemaService;
-        initializeWatcher();
+        this.workQueue = WorkQueue.create("schema", operatorProperties.getWorkQueue());
+        this.workerPool = new ReconcileWorkerPool<>("schema", workQueue, this::reconcileKey,
+                operatorProperties.reconcileConcurrencyFor("schema"), operatorProperties.isVirtualThreads());
+        this.resyncScheduler = new ResyncScheduler("schema", workQueue,
+                operatorProperties.reconciliationIntervalFor("schema"), operatorProperties.getResyncJitter());
+        OperatorProperties.BatchProperties batch = operatorProperties.getBatch();
+        this.applyBatcher = new ApplyBatcher<>("schema", pinotSchemaService::createOrUpdateSchema,
+                batch.getMaxSize(), batch.getLinger(), operatorProperties.applyConcurrency(),
+                operatorProperties.isVirtualThreads());
+        this.operatorMetrics = operatorMetrics;
+        operatorMetrics.instrument("schema", workerPool);
+        operatorMetrics.instrument("schema", applyBatcher);
+        leaderElection.whenLeading(workerPool::start);
+        initializeInformer();
     }
 
     /**
-     * Initialize the Kubernetes watcher for PinotSchema resources
+     * Register with the PinotSchema informer cache and start it, and follow the readiness of its parents
      */
-    private void initializeWatcher() {
+    private void initializeInformer() {
         try {
-            schemaWatcher = new Watcher<PinotSchema>() {
+            pinotSchemaCache.addEventHandler(new ResourceEventHandler<PinotSchema>() {
                 @Override
-                public void eventReceived(Action action, PinotSchema resource) {
-                    handleSchemaEvent(action, resource);
+                public void onAdd(PinotSchema resource) {
+                    handleSchemaEvent(Watcher.Action.ADDED, resource);
                 }
 
                 @Override
-                public void onClose(WatcherException cause) {
-                    logger.error("PinotSchema watcher closed", cause);
-                    // Reinitialize watcher after delay
-                    try {
-                        Thread.sleep(5000);
-                        initializeWatcher();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
+                public void onUpdate(PinotSchema oldResource, PinotSchema newResource) {
+                    // Skip relist notifications and status or metadata updates that leave the spec alone
+                    if (isSameGeneration(oldResource, newResource)) {
+                        return;
                     }
+                    handleSchemaEvent(Watcher.Action.MODIFIED, newResource);
                 }
-            };
 
-            // Start watching PinotSchema resources across all namespaces
-            kubernetesClient.resources(PinotSchema.class)
-                    .inAnyNamespace()
-                    .watch(schemaWatcher);
+                @Override
+                public void onDelete(PinotSchema resource, boolean deletedFinalStateUnknown) {
+                    handleSchemaEvent(Watcher.Action.DELETED, resource);
+                }
+            });
+            pinotSchemaCache.start();
+            
+            // Drop the state of resources that moved to another replica's shard
+            pinotSchemaCache.addReselectListener(this::dropDepartedKeys);
+            
+            // Wake schemas waiting on a parent as soon as the parent becomes ready
+            pinotCache.addEventHandler(new DependencyTrigger<>(workQueue, PinotSchemaController::isClusterReady,
+                    pinot -> pinotSchemaCache.listByCluster(pinot.getMetadata().getNamespace(), pinot.getMetadata().getName()),
+                    pendingApplies::contains, pendingApplies::add));
 
-            logger.info("PinotSchema watcher initialized successfully");
+            logger.info("PinotSchema informer initialized successfully");
         } catch (Exception e) {
-            logger.error("Failed to initialize PinotSchema watcher", e);
+            logger.error("Failed to initialize PinotSchema informer", e);
         }
     }
 
@@ -80,6 +120,7 @@ public class PinotSchemaController {
      */
     private void handleSchemaEvent(Watcher.Action action, PinotSchema resource) {
         String resourceKey = getResourceKey(resource);
+        operatorMetrics.recordEvent("schema", action);
         
         try {
             switch (action) {
@@ -108,8 +149,10 @@ public class PinotSchemaController {
         String resourceKey = getResourceKey(resource);
         logger.info("PinotSchema resource added: {}", resourceKey);
         
-        managedSchemas.put(resourceKey, resource);
-        pinotSchemaService.createOrUpdateSchema(resource);
+        pendingDeletions.remove(resourceKey);
+        resyncScheduler.track(resourceKey);
+        pendingApplies.add(resourceKey);
+        workQueue.add(resourceKey);
     }
 
     /**
@@ -119,11 +162,8 @@ public class PinotSchemaController {
         String resourceKey = getResourceKey(resource);
         logger.info("PinotSchema resource modified: {}", resourceKey);
         
-        PinotSchema existingResource = managedSchemas.get(resourceKey);
-        if (existingResource != null) {
-            managedSchemas.put(resourceKey, resource);
-            pinotSchemaService.createOrUpdateSchema(resource);
-        }
+        pendingApplies.add(resourceKey);
+        workQueue.add(resourceKey);
     }
 
     /**
@@ -133,57 +173,214 @@ public class PinotSchemaController {
         String resourceKey = getResourceKey(resource);
         logger.info("PinotSchema resource deleted: {}", resourceKey);
         
-        managedSchemas.remove(resourceKey);
-        pinotSchemaService.deleteSchema(resource);
+        resyncScheduler.untrack(resourceKey);
+        pendingDeletions.put(resourceKey, resource);
+        workQueue.add(resourceKey);
     }
 
     /**
-     * Get a unique key for the resource
+     * Stop resyncing and applying keys that left the cache, such as those of a shard now owned by another replica
      */
-    private String getResourceKey(PinotSchema resource) {
-        ObjectMeta metadata = resource.getMetadata();
-        if (metadata != null && metadata.getNamespace() != null) {
-            return metadata.getNamespace() + "/" + metadata.getName();
+    private void dropDepartedKeys() {
+        Set<String> cachedKeys = new HashSet<>(pinotSchemaCache.listKeys());
+        int departed = resyncScheduler.retainAll(cachedKeys);
+        pendingApplies.retainAll(cachedKeys);
+        if (departed > 0) {
+            logger.info("Stopped tracking {} schemas that moved to another shard", departed);
         }
-        return metadata != null ? metadata.getName() : "unknown";
     }
 
     /**
-     * Periodic reconciliation of managed schemas
+     * Reconcile the latest cached state of a PinotSchema resource
+     *
+     * Bursts of events for the same key are collapsed by the work queue, so
+     * this runs once against whatever spec is current when the key is taken.
+     * Keys queued by an event are applied; keys queued by the periodic resync
+     * only run the lighter health and status reconciliation. An apply whose
+     * cluster is not ready yet is held back until it is. Applies are
+     * handed to the per-cluster batcher; a failed apply is re-queued with
+     * backoff. The resync status is skipped while an apply of the key is
+     * queued or in flight, since the apply writes the status itself.
+     * Removals from the Pinot cluster complete asynchronously, and the key
+     * is skipped until its removal is done.
      */
-    @Scheduled(fixedDelay = 30000) // Every 30 seconds
-    public void reconcileSchemas() {
-        logger.debug("Starting periodic reconciliation of {} managed schemas", managedSchemas.size());
+    private void reconcileKey(String resourceKey) {
+        if (deletionsInFlight.contains(resourceKey)) {
+            // Re-queued once the deletion completes, so a re-created schema is never applied before it
+            return;
+        }
+        PinotSchema resource = pinotSchemaCache.get(resourceKey);
+        if (resource == null) {
+            PinotSchema deletedResource = pendingDeletions.get(resourceKey);
+            if (deletedResource != null) {
+                startDeletion(resourceKey, deletedResource);
+            }
+            return;
+        }
         
-        for (PinotSchema schema : managedSchemas.values()) {
+        if (pendingApplies.contains(resourceKey)) {
+            String waitingOn = findUnreadyDependency(resource);
+            if (waitingOn != null) {
+                // Stays pending; the dependency trigger re-queues it once the parent is ready
+                logger.debug("PinotSchema {} is waiting: {}", resourceKey, waitingOn);
+                pinotSchemaService.markSchemaPending(resource, waitingOn);
+                return;
+            }
+        }
+        
+        if (pendingApplies.remove(resourceKey)) {
+            // The cache may only hold a projection of the resource
+            PinotSchema full;
             try {
-                pinotSchemaService.reconcileSchema(schema);
-            } catch (Exception e) {
-                logger.error("Error reconciling schema: {}", getResourceKey(schema), e);
+                full = pinotSchemaCache.fetch(resourceKey);
+            } catch (RuntimeException e) {
+                pendingApplies.add(resourceKey);
+                throw e;
+            }
+            if (full == null) {
+                return;
             }
+            applyBatcher.submit(getClusterKey(full), resourceKey, full, error -> {
+                pendingApplies.add(resourceKey);
+                workQueue.addRateLimited(resourceKey);
+            });
+            return;
+        }
+        
+        if (applyBatcher.isApplying(resourceKey)) {
+            // The apply writes the status once it completes, a resync status now could overwrite it
+            logger.debug("PinotSchema {} has an apply in progress, skipping resync status", resourceKey);
+            return;
         }
+        pinotSchemaService.reconcileSchema(resource);
+    }
+
+    /**
+     * Get the namespaced key of the Pinot cluster a schema belongs to, used to group batched applies
+     */
+    private String getClusterKey(PinotSchema resource) {
+        String clusterName = resource.getSpec() != null && resource.getSpec().getPinotCluster() != null
+                ? resource.getSpec().getPinotCluster() : "";
+        return ResourceCache.clusterKey(resource.getMetadata().getNamespace(), clusterName);
+    }
+
+    /**
+     * Start removing a deleted schema from its Pinot cluster without waiting for it
+     *
+     * A failed removal is re-queued with backoff; a schema re-created in the
+     * meantime is re-queued once the removal is done.
+     */
+    private void startDeletion(String resourceKey, PinotSchema deletedResource) {
+        deletionsInFlight.add(resourceKey);
+        pinotSchemaService.deleteSchema(deletedResource).whenComplete((ignored, error) -> {
+            deletionsInFlight.remove(resourceKey);
+            if (error != null) {
+                workQueue.addRateLimited(resourceKey);
+                return;
+            }
+            pendingDeletions.remove(resourceKey, deletedResource);
+            if (pinotSchemaCache.get(resourceKey) != null) {
+                workQueue.add(resourceKey);
+            }
+        });
+    }
+
+    /**
+     * Describe the first referenced parent that is missing or not ready, or return null
+     */
+    private String findUnreadyDependency(PinotSchema resource) {
+        if (resource.getSpec() == null) {
+            return null;
+        }
+        String namespace = resource.getMetadata().getNamespace();
+        String clusterName = resource.getSpec().getPinotCluster();
+        if (clusterName != null && !isClusterReady(pinotCache.get(namespace, clusterName))) {
+            return "Waiting for Pinot cluster " + clusterName + " to become ready";
+        }
+        return null;
+    }
+
+    private static boolean isClusterReady(Pinot pinot) {
+        return pinot != null && pinot.getStatus() != null && pinot.getStatus().isReady();
+    }
+
+    /**
+     * Get a unique key for the resource
+     */
+    private String getResourceKey(PinotSchema resource) {
+        return ResourceCache.keyOf(resource);
+    }
+
+    /**
+     * Check whether an update notification leaves the spec unchanged
+     *
+     * Status writes and label changes bump the resource version but not the
+     * generation, so only a new generation is applied. Resources without a
+     * generation fall back to comparing resource versions.
+     */
+    private boolean isSameGeneration(PinotSchema oldResource, PinotSchema newResource) {
+        if (oldResource.getMetadata() == null || newResource.getMetadata() == null) {
+            return false;
+        }
+        Long newGeneration = newResource.getMetadata().getGeneration();
+        if (newGeneration != null && oldResource.getMetadata().getGeneration() != null) {
+            return newGeneration.equals(oldResource.getMetadata().getGeneration());
+        }
+        return Objects.equals(oldResource.getMetadata().getResourceVersion(),
+                newResource.getMetadata().getResourceVersion());
     }
 
     /**
      * Get list of managed schemas
+     *
+     * These are the cached copies, which omit managed fields and embedded
+     * configs when the caches trim their objects.
      */
     public List<PinotSchema> getManagedSchemas() {
-        return List.copyOf(managedSchemas.values());
+        return List.copyOf(pinotSchemaCache.list());
     }
 
     /**
-     * Get a specific managed schema
+     * Get a specific managed schema, with its full spec and the cached status
      */
     public PinotSchema getManagedSchema(String namespace, String name) {
-        String key = namespace + "/" + name;
-        return managedSchemas.get(key);
+        PinotSchema cached = pinotSchemaCache.get(namespace, name);
+        if (cached == null) {
+            return null;
+        }
+        // The cache may only hold a projection of the resource
+        PinotSchema full = pinotSchemaCache.fetch(ResourceCache.keyOf(cached));
+        if (full == null) {
+            return cached;
+        }
+        PinotSchema managed = new PinotSchema();
+        managed.setMetadata(full.getMetadata());
+        managed.setSpec(full.getSpec());
+        managed.setStatus(cached.getStatus());
+        return managed;
     }
 
     /**
      * Check if a schema is being managed
      */
     public boolean isSchemaManaged(String namespace, String name) {
-        String key = namespace + "/" + name;
-        return managedSchemas.containsKey(key);
+        return pinotSchemaCache.get(namespace, name) != null;
+    }
+
+    /**
+     * Get the worker pool reconciling schemas
+     */
+    public ReconcileWorkerPool<String> getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * Stop the periodic resyncs, the reconcile workers and the apply batcher
+     */
+    @PreDestroy
+    public void shutdown() {
+        resyncScheduler.shutdown();
+        workerPool.shutdown();
+        applyBatcher.shutdown();
     }
 }
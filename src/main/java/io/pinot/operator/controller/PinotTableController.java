@@ -1,77 +1,129 @@
 package io.pinot.operator.controller;
 
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.api.PinotSchema;
 import io.pinot.operator.api.PinotTable;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.reconcile.ApplyBatcher;
+import io.pinot.operator.reconcile.DependencyTrigger;
+import io.pinot.operator.reconcile.LeaderElection;
+import io.pinot.operator.reconcile.ReconcileWorkerPool;
+import io.pinot.operator.reconcile.ResyncScheduler;
+import io.pinot.operator.reconcile.WorkQueue;
 import io.pinot.operator.service.PinotTableService;
-import io.fabric8.kubernetes.api.model.ObjectMeta;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.Watcher;
-import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * Controller for managing Pinot tables in Kubernetes
  * 
- * This controller watches for PinotTable custom resources and manages
- * their lifecycle, including creation, updates, and deletion.
+ * This controller receives PinotTable custom resource events from the shared
+ * informer cache and manages their lifecycle, including
+ * creation, updates, and deletion.
  */
 @Component
 public class PinotTableController {
 
     private static final Logger logger = LoggerFactory.getLogger(PinotTableController.class);
     
-    private final KubernetesClient kubernetesClient;
+    private final ResourceCache<PinotTable> pinotTableCache;
+    private final ResourceCache<Pinot> pinotCache;
+    private final ResourceCache<PinotSchema> pinotSchemaCache;
     private final PinotTableService pinotTableService;
-    private final ConcurrentMap<String, PinotTable> managedTables = new ConcurrentHashMap<>();
-    
-    private Watcher<PinotTable> tableWatcher;
+    private final WorkQueue<String> workQueue;
+    private final ReconcileWorkerPool<String> workerPool;
+    private final ResyncScheduler resyncScheduler;
+    private final OperatorMetrics operatorMetrics;
+    private final ApplyBatcher<PinotTable> applyBatcher;
+    private final Set<String> pendingApplies = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, PinotTable> pendingDeletions = new ConcurrentHashMap<>();
+    private final Set<String> deletionsInFlight = ConcurrentHashMap.newKeySet();
 
     @Autowired
-    public PinotTableController(KubernetesClient kubernetesClient, PinotTableService pinotTableService) {
-        this.kubernetesClient = kubernetesClient;
+    public PinotTableController(ResourceCache<PinotTable> pinotTableCache, ResourceCache<Pinot> pinotCache,
+            ResourceCache<PinotSchema> pinotSchemaCache, PinotTableService pinotTableService,
+            LeaderElection leaderElection, OperatorMetrics operatorMetrics, OperatorProperties operatorProperties) {
+        this.pinotTableCache = pinotTableCache;
+        this.pinotCache = pinotCache;
+        this.pinotSchemaCache = pinotSchemaCache;
         this.pinotTableService = pinotTableService;
-        initializeWatcher();
+        this.workQueue = WorkQueue.create("table", operatorProperties.getWorkQueue());
+        this.workerPool = new ReconcileWorkerPool<>("table", workQueue, this::reconcileKey,
+                operatorProperties.reconcileConcurrencyFor("table"), operatorProperties.isVirtualThreads());
+        this.resyncScheduler = new ResyncScheduler("table", workQueue,
+                operatorProperties.reconciliationIntervalFor("table"), operatorProperties.getResyncJitter());
+        OperatorProperties.BatchProperties batch = operatorProperties.getBatch();
+        this.applyBatcher = new ApplyBatcher<>("table", pinotTableService::createOrUpdateTable,
+                batch.getMaxSize(), batch.getLinger(), operatorProperties.applyConcurrency(),
+                operatorProperties.isVirtualThreads());
+        this.operatorMetrics = operatorMetrics;
+        operatorMetrics.instrument("table", workerPool);
+        operatorMetrics.instrument("table", applyBatcher);
+        leaderElection.whenLeading(workerPool::start);
+        initializeInformer();
     }
 
     /**
-     * Initialize the Kubernetes watcher for PinotTable resources
+     * Register with the PinotTable informer cache and start it, and follow the readiness and health of its parents
      */
-    private void initializeWatcher() {
+    private void initializeInformer() {
         try {
-            tableWatcher = new Watcher<PinotTable>() {
+            pinotTableCache.addEventHandler(new ResourceEventHandler<PinotTable>() {
                 @Override
-                public void eventReceived(Action action, PinotTable resource) {
-                    handleTableEvent(action, resource);
+                public void onAdd(PinotTable resource) {
+                    handleTableEvent(Watcher.Action.ADDED, resource);
                 }
 
                 @Override
-                public void onClose(WatcherException cause) {
-                    logger.error("PinotTable watcher closed", cause);
-                    // Reinitialize watcher after delay
-                    try {
-                        Thread.sleep(5000);
-                        initializeWatcher();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
+                public void onUpdate(PinotTable oldResource, PinotTable newResource) {
+                    // Skip relist notifications and status or metadata updates that leave the spec alone
+                    if (isSameGeneration(oldResource, newResource)) {
+                        return;
                     }
+                    handleTableEvent(Watcher.Action.MODIFIED, newResource);
                 }
-            };
 
-            // Start watching PinotTable resources across all namespaces
-            kubernetesClient.resources(PinotTable.class)
-                    .inAnyNamespace()
-                    .watch(tableWatcher);
+                @Override
+                public void onDelete(PinotTable resource, boolean deletedFinalStateUnknown) {
+                    handleTableEvent(Watcher.Action.DELETED, resource);
+                }
+            });
+            pinotTableCache.start();
+            
+            // Drop the state of resources that moved to another replica's shard
+            pinotTableCache.addReselectListener(this::dropDepartedKeys);
+            
+            // Wake tables waiting on a parent as soon as the parent becomes ready
+            pinotCache.addEventHandler(new DependencyTrigger<>(workQueue, PinotTableController::isClusterReady,
+                    pinot -> pinotTableCache.listByCluster(pinot.getMetadata().getNamespace(), pinot.getMetadata().getName()),
+                    pendingApplies::contains, pendingApplies::add));
+            pinotSchemaCache.addEventHandler(new DependencyTrigger<>(workQueue, PinotTableController::isSchemaReady,
+                    schema -> pinotTableCache.listByIndex(ResourceCache.SCHEMA_INDEX, schema.getMetadata().getNamespace(),
+                            schema.getMetadata().getName()),
+                    pendingApplies::contains));
+            
+            // Re-check the tables of a cluster whose node health changed
+            pinotTableService.onClusterHealthChange(pinot -> pinotTableCache
+                    .listByCluster(pinot.getMetadata().getNamespace(), pinot.getMetadata().getName())
+                    .forEach(table -> workQueue.add(getResourceKey(table))));
 
-            logger.info("PinotTable watcher initialized successfully");
+            logger.info("PinotTable informer initialized successfully");
         } catch (Exception e) {
-            logger.error("Failed to initialize PinotTable watcher", e);
+            logger.error("Failed to initialize PinotTable informer", e);
         }
     }
 
@@ -80,6 +132,7 @@ public class PinotTableController {
      */
     private void handleTableEvent(Watcher.Action action, PinotTable resource) {
         String resourceKey = getResourceKey(resource);
+        operatorMetrics.recordEvent("table", action);
         
         try {
             switch (action) {
@@ -108,8 +161,10 @@ public class PinotTableController {
         String resourceKey = getResourceKey(resource);
         logger.info("PinotTable resource added: {}", resourceKey);
         
-        managedTables.put(resourceKey, resource);
-        pinotTableService.createOrUpdateTable(resource);
+        pendingDeletions.remove(resourceKey);
+        resyncScheduler.track(resourceKey);
+        pendingApplies.add(resourceKey);
+        workQueue.add(resourceKey);
     }
 
     /**
@@ -119,11 +174,8 @@ public class PinotTableController {
         String resourceKey = getResourceKey(resource);
         logger.info("PinotTable resource modified: {}", resourceKey);
         
-        PinotTable existingResource = managedTables.get(resourceKey);
-        if (existingResource != null) {
-            managedTables.put(resourceKey, resource);
-            pinotTableService.createOrUpdateTable(resource);
-        }
+        pendingApplies.add(resourceKey);
+        workQueue.add(resourceKey);
     }
 
     /**
@@ -133,57 +185,222 @@ public class PinotTableController {
         String resourceKey = getResourceKey(resource);
         logger.info("PinotTable resource deleted: {}", resourceKey);
         
-        managedTables.remove(resourceKey);
-        pinotTableService.deleteTable(resource);
+        resyncScheduler.untrack(resourceKey);
+        pendingDeletions.put(resourceKey, resource);
+        workQueue.add(resourceKey);
     }
 
     /**
-     * Get a unique key for the resource
+     * Stop resyncing and applying keys that left the cache, such as those of a shard now owned by another replica
      */
-    private String getResourceKey(PinotTable resource) {
-        ObjectMeta metadata = resource.getMetadata();
-        if (metadata != null && metadata.getNamespace() != null) {
-            return metadata.getNamespace() + "/" + metadata.getName();
+    private void dropDepartedKeys() {
+        Set<String> cachedKeys = new HashSet<>(pinotTableCache.listKeys());
+        int departed = resyncScheduler.retainAll(cachedKeys);
+        pendingApplies.retainAll(cachedKeys);
+        if (departed > 0) {
+            logger.info("Stopped tracking {} tables that moved to another shard", departed);
         }
-        return metadata != null ? metadata.getName() : "unknown";
     }
 
     /**
-     * Periodic reconciliation of managed tables
+     * Reconcile the latest cached state of a PinotTable resource
+     *
+     * Bursts of events for the same key are collapsed by the work queue, so
+     * this runs once against whatever spec is current when the key is taken.
+     * Keys queued by an event are applied; keys queued by the periodic resync
+     * only run the lighter health and status reconciliation. An apply whose
+     * cluster or schema is not ready yet is held back until it is. Applies are
+     * handed to the per-cluster batcher; a failed apply is re-queued with
+     * backoff. The resync status is skipped while an apply of the key is
+     * queued or in flight, since the apply writes the status itself.
+     * Removals from the Pinot cluster complete asynchronously, and the key
+     * is skipped until its removal is done.
      */
-    @Scheduled(fixedDelay = 30000) // Every 30 seconds
-    public void reconcileTables() {
-        logger.debug("Starting periodic reconciliation of {} managed tables", managedTables.size());
+    private void reconcileKey(String resourceKey) {
+        if (deletionsInFlight.contains(resourceKey)) {
+            // Re-queued once the deletion completes, so a re-created table is never applied before it
+            return;
+        }
+        PinotTable resource = pinotTableCache.get(resourceKey);
+        if (resource == null) {
+            PinotTable deletedResource = pendingDeletions.get(resourceKey);
+            if (deletedResource != null) {
+                startDeletion(resourceKey, deletedResource);
+            }
+            return;
+        }
+        
+        if (pendingApplies.contains(resourceKey)) {
+            String waitingOn = findUnreadyDependency(resource);
+            if (waitingOn != null) {
+                // Stays pending; the dependency trigger re-queues it once the parent is ready
+                logger.debug("PinotTable {} is waiting: {}", resourceKey, waitingOn);
+                pinotTableService.markTablePending(resource, waitingOn);
+                return;
+            }
+        }
         
-        for (PinotTable table : managedTables.values()) {
+        if (pendingApplies.remove(resourceKey)) {
+            // The cache may only hold a projection of the resource
+            PinotTable full;
             try {
-                pinotTableService.reconcileTable(table);
-            } catch (Exception e) {
-                logger.error("Error reconciling table: {}", getResourceKey(table), e);
+                full = pinotTableCache.fetch(resourceKey);
+            } catch (RuntimeException e) {
+                pendingApplies.add(resourceKey);
+                throw e;
             }
+            if (full == null) {
+                return;
+            }
+            applyBatcher.submit(getClusterKey(full), resourceKey, full, error -> {
+                pendingApplies.add(resourceKey);
+                workQueue.addRateLimited(resourceKey);
+            });
+            return;
+        }
+        
+        if (applyBatcher.isApplying(resourceKey)) {
+            // The apply writes the status once it completes, a resync status now could overwrite it
+            logger.debug("PinotTable {} has an apply in progress, skipping resync status", resourceKey);
+            return;
+        }
+        pinotTableService.reconcileTable(resource);
+    }
+
+    /**
+     * Get the namespaced key of the Pinot cluster a table belongs to, used to group batched applies
+     */
+    private String getClusterKey(PinotTable resource) {
+        String clusterName = resource.getSpec() != null && resource.getSpec().getPinotCluster() != null
+                ? resource.getSpec().getPinotCluster() : "";
+        return ResourceCache.clusterKey(resource.getMetadata().getNamespace(), clusterName);
+    }
+
+    /**
+     * Start removing a deleted table from its Pinot cluster without waiting for it
+     *
+     * A failed removal is re-queued with backoff; a table re-created in the
+     * meantime is re-queued once the removal is done.
+     */
+    private void startDeletion(String resourceKey, PinotTable deletedResource) {
+        deletionsInFlight.add(resourceKey);
+        pinotTableService.deleteTable(deletedResource).whenComplete((ignored, error) -> {
+            deletionsInFlight.remove(resourceKey);
+            if (error != null) {
+                workQueue.addRateLimited(resourceKey);
+                return;
+            }
+            pendingDeletions.remove(resourceKey, deletedResource);
+            if (pinotTableCache.get(resourceKey) != null) {
+                workQueue.add(resourceKey);
+            }
+        });
+    }
+
+    /**
+     * Describe the first referenced parent that is missing or not ready, or return null
+     */
+    private String findUnreadyDependency(PinotTable resource) {
+        if (resource.getSpec() == null) {
+            return null;
+        }
+        String namespace = resource.getMetadata().getNamespace();
+        String clusterName = resource.getSpec().getPinotCluster();
+        if (clusterName != null && !isClusterReady(pinotCache.get(namespace, clusterName))) {
+            return "Waiting for Pinot cluster " + clusterName + " to become ready";
         }
+        String schemaName = resource.getSpec().getPinotSchema();
+        if (schemaName != null && !isSchemaReady(pinotSchemaCache.get(namespace, schemaName))) {
+            return "Waiting for Pinot schema " + schemaName + " to become ready";
+        }
+        return null;
+    }
+
+    private static boolean isClusterReady(Pinot pinot) {
+        return pinot != null && pinot.getStatus() != null && pinot.getStatus().isReady();
+    }
+
+    private static boolean isSchemaReady(PinotSchema schema) {
+        return schema != null && schema.getStatus() != null && schema.getStatus().isReady();
+    }
+
+    /**
+     * Get a unique key for the resource
+     */
+    private String getResourceKey(PinotTable resource) {
+        return ResourceCache.keyOf(resource);
+    }
+
+    /**
+     * Check whether an update notification leaves the spec unchanged
+     *
+     * Status writes and label changes bump the resource version but not the
+     * generation, so only a new generation is applied. Resources without a
+     * generation fall back to comparing resource versions.
+     */
+    private boolean isSameGeneration(PinotTable oldResource, PinotTable newResource) {
+        if (oldResource.getMetadata() == null || newResource.getMetadata() == null) {
+            return false;
+        }
+        Long newGeneration = newResource.getMetadata().getGeneration();
+        if (newGeneration != null && oldResource.getMetadata().getGeneration() != null) {
+            return newGeneration.equals(oldResource.getMetadata().getGeneration());
+        }
+        return Objects.equals(oldResource.getMetadata().getResourceVersion(),
+                newResource.getMetadata().getResourceVersion());
     }
 
     /**
      * Get list of managed tables
+     *
+     * These are the cached copies, which omit managed fields and embedded
+     * configs when the caches trim their objects.
      */
     public List<PinotTable> getManagedTables() {
-        return List.copyOf(managedTables.values());
+        return List.copyOf(pinotTableCache.list());
     }
 
     /**
-     * Get a specific managed table
+     * Get a specific managed table, with its full spec and the cached status
      */
     public PinotTable getManagedTable(String namespace, String name) {
-        String key = namespace + "/" + name;
-        return managedTables.get(key);
+        PinotTable cached = pinotTableCache.get(namespace, name);
+        if (cached == null) {
+            return null;
+        }
+        // The cache may only hold a projection of the resource
+        PinotTable full = pinotTableCache.fetch(ResourceCache.keyOf(cached));
+        if (full == null) {
+            return cached;
+        }
+        PinotTable managed = new PinotTable();
+        managed.setMetadata(full.getMetadata());
+        managed.setSpec(full.getSpec());
+        managed.setStatus(cached.getStatus());
+        return managed;
     }
 
     /**
      * Check if a table is being managed
      */
     public boolean isTableManaged(String namespace, String name) {
-        String key = namespace + "/" + name;
-        return managedTables.containsKey(key);
+        return pinotTableCache.get(namespace, name) != null;
+    }
+
+    /**
+     * Get the worker pool reconciling tables
+     */
+    public ReconcileWorkerPool<String> getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * Stop the periodic resyncs, the reconcile workers and the apply batcher
+     */
+    @PreDestroy
+    public void shutdown() {
+        resyncScheduler.shutdown();
+        workerPool.shutdown();
+        applyBatcher.shutdown();
     }
 }
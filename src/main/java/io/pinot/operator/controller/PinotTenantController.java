@@ -1,77 +1,117 @@
 package io.pinot.operator.controller;
 
+import io.pinot.operator.api.Pinot;
 import io.pinot.operator.api.PinotTenant;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.reconcile.ApplyBatcher;
+import io.pinot.operator.reconcile.DependencyTrigger;
+import io.pinot.operator.reconcile.LeaderElection;
+import io.pinot.operator.reconcile.ReconcileWorkerPool;
+import io.pinot.operator.reconcile.ResyncScheduler;
+import io.pinot.operator.reconcile.WorkQueue;
 import io.pinot.operator.service.PinotTenantService;
-import io.fabric8.kubernetes.api.model.ObjectMeta;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.Watcher;
-import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * Controller for managing Pinot tenants in Kubernetes
  * 
- * This controller watches for PinotTenant custom resources and manages
- * their lifecycle, including creation, updates, and deletion.
+ * This controller receives PinotTenant custom resource events from the shared
+ * informer cache and manages their lifecycle, including
+ * creation, updates, and deletion.
  */
 @Component
 public class PinotTenantController {
 
     private static final Logger logger = LoggerFactory.getLogger(PinotTenantController.class);
     
-    private final KubernetesClient kubernetesClient;
+    private final ResourceCache<PinotTenant> pinotTenantCache;
+    private final ResourceCache<Pinot> pinotCache;
     private final PinotTenantService pinotTenantService;
-    private final ConcurrentMap<String, PinotTenant> managedTenants = new ConcurrentHashMap<>();
-    
-    private Watcher<PinotTenant> tenantWatcher;
+    private final WorkQueue<String> workQueue;
+    private final ReconcileWorkerPool<String> workerPool;
+    private final ResyncScheduler resyncScheduler;
+    private final OperatorMetrics operatorMetrics;
+    private final ApplyBatcher<PinotTenant> applyBatcher;
+    private final Set<String> pendingApplies = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, PinotTenant> pendingDeletions = new ConcurrentHashMap<>();
+    private final Set<String> deletionsInFlight = ConcurrentHashMap.newKeySet();
 
     @Autowired
-    public PinotTenantController(KubernetesClient kubernetesClient, PinotTenantService pinotTenantService) {
-        this.kubernetesClient = kubernetesClient;
+    public PinotTenantController(ResourceCache<PinotTenant> pinotTenantCache, ResourceCache<Pinot> pinotCache,
+            PinotTenantService pinotTenantService, LeaderElection leaderElection,
+            OperatorMetrics operatorMetrics, OperatorProperties operatorProperties) {
+        this.pinotTenantCache = pinotTenantCache;
+        this.pinotCache = pinotCache;
         this.pinotTenantService = pinotTenantService;
-        initializeWatcher();
+        this.workQueue = WorkQueue.create("tenant", operatorProperties.getWorkQueue());
+        this.workerPool = new ReconcileWorkerPool<>("tenant", workQueue, this::reconcileKey,
+                operatorProperties.reconcileConcurrencyFor("tenant"), operatorProperties.isVirtualThreads());
+        this.resyncScheduler = new ResyncScheduler("tenant", workQueue,
+                operatorProperties.reconciliationIntervalFor("tenant"), operatorProperties.getResyncJitter());
+        OperatorProperties.BatchProperties batch = operatorProperties.getBatch();
+        this.applyBatcher = new ApplyBatcher<>("tenant", pinotTenantService::createOrUpdateTenant,
+                batch.getMaxSize(), batch.getLinger(), operatorProperties.applyConcurrency(),
+                operatorProperties.isVirtualThreads());
+        this.operatorMetrics = operatorMetrics;
+        operatorMetrics.instrument("tenant", workerPool);
+        operatorMetrics.instrument("tenant", applyBatcher);
+        leaderElection.whenLeading(workerPool::start);
+        initializeInformer();
     }
 
     /**
-     * Initialize the Kubernetes watcher for PinotTenant resources
+     * Register with the PinotTenant informer cache and start it, and follow the readiness of its parents
      */
-    private void initializeWatcher() {
+    private void initializeInformer() {
         try {
-            tenantWatcher = new Watcher<PinotTenant>() {
+            pinotTenantCache.addEventHandler(new ResourceEventHandler<PinotTenant>() {
                 @Override
-                public void eventReceived(Action action, PinotTenant resource) {
-                    handleTenantEvent(action, resource);
+                public void onAdd(PinotTenant resource) {
+                    handleTenantEvent(Watcher.Action.ADDED, resource);
                 }
 
                 @Override
-                public void onClose(WatcherException cause) {
-                    logger.error("PinotTenant watcher closed", cause);
-                    // Reinitialize watcher after delay
-                    try {
-                        Thread.sleep(5000);
-                        initializeWatcher();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
+                public void onUpdate(PinotTenant oldResource, PinotTenant newResource) {
+                    // Skip relist notifications and status or metadata updates that leave the spec alone
+                    if (isSameGeneration(oldResource, newResource)) {
+                        return;
                     }
+                    handleTenantEvent(Watcher.Action.MODIFIED, newResource);
                 }
-            };
 
-            // Start watching PinotTenant resources across all namespaces
-            kubernetesClient.resources(PinotTenant.class)
-                    .inAnyNamespace()
-                    .watch(tenantWatcher);
+                @Override
+                public void onDelete(PinotTenant resource, boolean deletedFinalStateUnknown) {
+                    handleTenantEvent(Watcher.Action.DELETED, resource);
+                }
+            });
+            pinotTenantCache.start();
+            
+            // Drop the state of resources that moved to another replica's shard
+            pinotTenantCache.addReselectListener(this::dropDepartedKeys);
+            
+            // Wake tenants waiting on a parent as soon as the parent becomes ready
+            pinotCache.addEventHandler(new DependencyTrigger<>(workQueue, PinotTenantController::isClusterReady,
+                    pinot -> pinotTenantCache.listByCluster(pinot.getMetadata().getNamespace(), pinot.getMetadata().getName()),
+                    pendingApplies::contains, pendingApplies::add));
 
-            logger.info("PinotTenant watcher initialized successfully");
+            logger.info("PinotTenant informer initialized successfully");
         } catch (Exception e) {
-            logger.error("Failed to initialize PinotTenant watcher", e);
+            logger.error("Failed to initialize PinotTenant informer", e);
         }
     }
 
@@ -80,6 +120,7 @@ public class PinotTenantController {
      */
     private void handleTenantEvent(Watcher.Action action, PinotTenant resource) {
         String resourceKey = getResourceKey(resource);
+        operatorMetrics.recordEvent("tenant", action);
         
         try {
             switch (action) {
@@ -108,8 +149,10 @@ public class PinotTenantController {
         String resourceKey = getResourceKey(resource);
         logger.info("PinotTenant resource added: {}", resourceKey);
         
-        managedTenants.put(resourceKey, resource);
-        pinotTenantService.createOrUpdateTenant(resource);
+        pendingDeletions.remove(resourceKey);
+        resyncScheduler.track(resourceKey);
+        pendingApplies.add(resourceKey);
+        workQueue.add(resourceKey);
     }
 
     /**
@@ -119,11 +162,8 @@ public class PinotTenantController {
         String resourceKey = getResourceKey(resource);
         logger.info("PinotTenant resource modified: {}", resourceKey);
         
-        PinotTenant existingResource = managedTenants.get(resourceKey);
-        if (existingResource != null) {
-            managedTenants.put(resourceKey, resource);
-            pinotTenantService.createOrUpdateTenant(resource);
-        }
+        pendingApplies.add(resourceKey);
+        workQueue.add(resourceKey);
     }
 
     /**
@@ -133,57 +173,214 @@ public class PinotTenantController {
         String resourceKey = getResourceKey(resource);
         logger.info("PinotTenant resource deleted: {}", resourceKey);
         
-        managedTenants.remove(resourceKey);
-        pinotTenantService.deleteTenant(resource);
+        resyncScheduler.untrack(resourceKey);
+        pendingDeletions.put(resourceKey, resource);
+        workQueue.add(resourceKey);
     }
 
     /**
-     * Get a unique key for the resource
+     * Stop resyncing and applying keys that left the cache, such as those of a shard now owned by another replica
      */
-    private String getResourceKey(PinotTenant resource) {
-        ObjectMeta metadata = resource.getMetadata();
-        if (metadata != null && metadata.getNamespace() != null) {
-            return metadata.getNamespace() + "/" + metadata.getName();
+    private void dropDepartedKeys() {
+        Set<String> cachedKeys = new HashSet<>(pinotTenantCache.listKeys());
+        int departed = resyncScheduler.retainAll(cachedKeys);
+        pendingApplies.retainAll(cachedKeys);
+        if (departed > 0) {
+            logger.info("Stopped tracking {} tenants that moved to another shard", departed);
         }
-        return metadata != null ? metadata.getName() : "unknown";
     }
 
     /**
-     * Periodic reconciliation of managed tenants
+     * Reconcile the latest cached state of a PinotTenant resource
+     *
+     * Bursts of events for the same key are collapsed by the work queue, so
+     * this runs once against whatever spec is current when the key is taken.
+     * Keys queued by an event are applied; keys queued by the periodic resync
+     * only run the lighter health and status reconciliation. An apply whose
+     * cluster is not ready yet is held back until it is. Applies are
+     * handed to the per-cluster batcher; a failed apply is re-queued with
+     * backoff. The resync status is skipped while an apply of the key is
+     * queued or in flight, since the apply writes the status itself.
+     * Removals from the Pinot cluster complete asynchronously, and the key
+     * is skipped until its removal is done.
      */
-    @Scheduled(fixedDelay = 30000) // Every 30 seconds
-    public void reconcileTenants() {
-        logger.debug("Starting periodic reconciliation of {} managed tenants", managedTenants.size());
+    private void reconcileKey(String resourceKey) {
+        if (deletionsInFlight.contains(resourceKey)) {
+            // Re-queued once the deletion completes, so a re-created tenant is never applied before it
+            return;
+        }
+        PinotTenant resource = pinotTenantCache.get(resourceKey);
+        if (resource == null) {
+            PinotTenant deletedResource = pendingDeletions.get(resourceKey);
+            if (deletedResource != null) {
+                startDeletion(resourceKey, deletedResource);
+            }
+            return;
+        }
         
-        for (PinotTenant tenant : managedTenants.values()) {
+        if (pendingApplies.contains(resourceKey)) {
+            String waitingOn = findUnreadyDependency(resource);
+            if (waitingOn != null) {
+                // Stays pending; the dependency trigger re-queues it once the parent is ready
+                logger.debug("PinotTenant {} is waiting: {}", resourceKey, waitingOn);
+                pinotTenantService.markTenantPending(resource, waitingOn);
+                return;
+            }
+        }
+        
+        if (pendingApplies.remove(resourceKey)) {
+            // The cache may only hold a projection of the resource
+            PinotTenant full;
             try {
-                pinotTenantService.reconcileTenant(tenant);
-            } catch (Exception e) {
-                logger.error("Error reconciling tenant: {}", getResourceKey(tenant), e);
+                full = pinotTenantCache.fetch(resourceKey);
+            } catch (RuntimeException e) {
+                pendingApplies.add(resourceKey);
+                throw e;
+            }
+            if (full == null) {
+                return;
             }
+            applyBatcher.submit(getClusterKey(full), resourceKey, full, error -> {
+                pendingApplies.add(resourceKey);
+                workQueue.addRateLimited(resourceKey);
+            });
+            return;
+        }
+        
+        if (applyBatcher.isApplying(resourceKey)) {
+            // The apply writes the status once it completes, a resync status now could overwrite it
+            logger.debug("PinotTenant {} has an apply in progress, skipping resync status", resourceKey);
+            return;
         }
+        pinotTenantService.reconcileTenant(resource);
+    }
+
+    /**
+     * Get the namespaced key of the Pinot cluster a tenant belongs to, used to group batched applies
+     */
+    private String getClusterKey(PinotTenant resource) {
+        String clusterName = resource.getSpec() != null && resource.getSpec().getPinotCluster() != null
+                ? resource.getSpec().getPinotCluster() : "";
+        return ResourceCache.clusterKey(resource.getMetadata().getNamespace(), clusterName);
+    }
+
+    /**
+     * Start removing a deleted tenant from its Pinot cluster without waiting for it
+     *
+     * A failed removal is re-queued with backoff; a tenant re-created in the
+     * meantime is re-queued once the removal is done.
+     */
+    private void startDeletion(String resourceKey, PinotTenant deletedResource) {
+        deletionsInFlight.add(resourceKey);
+        pinotTenantService.deleteTenant(deletedResource).whenComplete((ignored, error) -> {
+            deletionsInFlight.remove(resourceKey);
+            if (error != null) {
+                workQueue.addRateLimited(resourceKey);
+                return;
+            }
+            pendingDeletions.remove(resourceKey, deletedResource);
+            if (pinotTenantCache.get(resourceKey) != null) {
+                workQueue.add(resourceKey);
+            }
+        });
+    }
+
+    /**
+     * Describe the first referenced parent that is missing or not ready, or return null
+     */
+    private String findUnreadyDependency(PinotTenant resource) {
+        if (resource.getSpec() == null) {
+            return null;
+        }
+        String namespace = resource.getMetadata().getNamespace();
+        String clusterName = resource.getSpec().getPinotCluster();
+        if (clusterName != null && !isClusterReady(pinotCache.get(namespace, clusterName))) {
+            return "Waiting for Pinot cluster " + clusterName + " to become ready";
+        }
+        return null;
+    }
+
+    private static boolean isClusterReady(Pinot pinot) {
+        return pinot != null && pinot.getStatus() != null && pinot.getStatus().isReady();
+    }
+
+    /**
+     * Get a unique key for the resource
+     */
+    private String getResourceKey(PinotTenant resource) {
+        return ResourceCache.keyOf(resource);
+    }
+
+    /**
+     * Check whether an update notification leaves the spec unchanged
+     *
+     * Status writes and label changes bump the resource version but not the
+     * generation, so only a new generation is applied. Resources without a
+     * generation fall back to comparing resource versions.
+     */
+    private boolean isSameGeneration(PinotTenant oldResource, PinotTenant newResource) {
+        if (oldResource.getMetadata() == null || newResource.getMetadata() == null) {
+            return false;
+        }
+        Long newGeneration = newResource.getMetadata().getGeneration();
+        if (newGeneration != null && oldResource.getMetadata().getGeneration() != null) {
+            return newGeneration.equals(oldResource.getMetadata().getGeneration());
+        }
+        return Objects.equals(oldResource.getMetadata().getResourceVersion(),
+                newResource.getMetadata().getResourceVersion());
     }
 
     /**
      * Get list of managed tenants
+     *
+     * These are the cached copies, which omit managed fields and embedded
+     * configs when the caches trim their objects.
      */
     public List<PinotTenant> getManagedTenants() {
-        return List.copyOf(managedTenants.values());
+        return List.copyOf(pinotTenantCache.list());
     }
 
     /**
-     * Get a specific managed tenant
+     * Get a specific managed tenant, with its full spec and the cached status
      */
     public PinotTenant getManagedTenant(String namespace, String name) {
-        String key = namespace + "/" + name;
-        return managedTenants.get(key);
+        PinotTenant cached = pinotTenantCache.get(namespace, name);
+        if (cached == null) {
+            return null;
+        }
+        // The cache may only hold a projection of the resource
+        PinotTenant full = pinotTenantCache.fetch(ResourceCache.keyOf(cached));
+        if (full == null) {
+            return cached;
+        }
+        PinotTenant managed = new PinotTenant();
+        managed.setMetadata(full.getMetadata());
+        managed.setSpec(full.getSpec());
+        managed.setStatus(cached.getStatus());
+        return managed;
     }
 
     /**
      * Check if a tenant is being managed
      */
     public boolean isTenantManaged(String namespace, String name) {
-        String key = namespace + "/" + name;
-        return managedTenants.containsKey(key);
+        return pinotTenantCache.get(namespace, name) != null;
+    }
+
+    /**
+     * Get the worker pool reconciling tenants
+     */
+    public ReconcileWorkerPool<String> getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * Stop the periodic resyncs, the reconcile workers and the apply batcher
+     */
+    @PreDestroy
+    public void shutdown() {
+        resyncScheduler.shutdown();
+        workerPool.shutdown();
+        applyBatcher.shutdown();
     }
 }
@@ -0,0 +1,156 @@
+package io.pinot.operator.metrics;
+
+import io.fabric8.kubernetes.client.Watcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.pinot.operator.reconcile.ApplyBatcher;
+import io.pinot.operator.reconcile.ReconcileWorkerPool;
+import io.pinot.operator.reconcile.WorkQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the operator's reconcile loop and outbound calls
+ *
+ * Reconcile durations, watch events and work queue gauges are tagged with
+ * the resource type (cluster, schema, table or tenant). Kubernetes API
+ * calls are timed by verb and kind, and Pinot controller requests by
+ * endpoint template, so per-name paths do not blow up tag cardinality.
+ * Every timer carries an outcome tag; its count per outcome is the error
+ * rate. Meters are published under /actuator/prometheus.
+ */
+@Component
+public class OperatorMetrics {
+
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public OperatorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Register queue gauges and a reconcile duration histogram for a worker pool
+     */
+    public void instrument(String resource, ReconcileWorkerPool<?> workerPool) {
+        WorkQueue<?> workQueue = workerPool.getWorkQueue();
+        Gauge.builder("pinot.operator.workqueue.depth", workQueue, WorkQueue::depth)
+                .description("Keys waiting to be reconciled")
+                .tag("resource", resource)
+                .register(registry);
+        Gauge.builder("pinot.operator.workqueue.in.flight", workQueue, WorkQueue::inFlight)
+                .description("Keys being reconciled")
+                .tag("resource", resource)
+                .register(registry);
+        TimeGauge.builder("pinot.operator.workqueue.oldest.age", workQueue, TimeUnit.MILLISECONDS,
+                        WorkQueue::oldestAgeMillis)
+                .description("Time the oldest waiting key has been queued")
+                .tag("resource", resource)
+                .register(registry);
+        Gauge.builder("pinot.operator.workers.busy", workerPool, ReconcileWorkerPool::getBusyWorkers)
+                .description("Workers running a reconcile")
+                .tag("resource", resource)
+                .register(registry);
+
+        Timer succeeded = reconcileTimer(resource, SUCCESS);
+        Timer failed = reconcileTimer(resource, FAILURE);
+        workerPool.addListener((key, durationNanos, failure) ->
+                (failure ? failed : succeeded).record(durationNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Register a pending gauge and an apply duration histogram for an apply batcher
+     *
+     * Reconciles that hand an apply to the batcher return before it runs, so
+     * the apply itself is timed here.
+     */
+    public void instrument(String resource, ApplyBatcher<?> applyBatcher) {
+        Gauge.builder("pinot.operator.apply.pending", applyBatcher, ApplyBatcher::pendingCount)
+                .description("Applies waiting to be run")
+                .tag("resource", resource)
+                .register(registry);
+
+        Timer succeeded = applyTimer(resource, SUCCESS);
+        Timer failed = applyTimer(resource, FAILURE);
+        applyBatcher.addListener((key, durationNanos, failure) ->
+                (failure ? failed : succeeded).record(durationNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Count a watch event delivered to a controller
+     */
+    public void recordEvent(String resource, Watcher.Action action) {
+        Counter.builder("pinot.operator.events")
+                .description("Watch events received")
+                .tag("resource", resource)
+                .tag("action", action.name().toLowerCase(Locale.ROOT))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Time a Kubernetes API call
+     */
+    public <T> T timeApiCall(String verb, String kind, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = FAILURE;
+        try {
+            T result = call.get();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            Timer.builder("pinot.operator.kubernetes.requests")
+                    .description("Kubernetes API calls made by the operator")
+                    .tag("verb", verb)
+                    .tag("kind", kind)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Record a Pinot controller request; a status code of 0 means no response was received
+     */
+    public void recordPinotRequest(String endpoint, String method, int statusCode, long durationNanos) {
+        String outcome = statusCode >= 200 && statusCode < 300 ? SUCCESS : FAILURE;
+        Timer.builder("pinot.operator.pinot.requests")
+                .description("Requests sent to Pinot controllers")
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .tag("status", statusCode > 0 ? String.valueOf(statusCode) : "none")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer applyTimer(String resource, String outcome) {
+        return Timer.builder("pinot.operator.apply")
+                .description("Time spent applying one resource to Pinot")
+                .tag("resource", resource)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Timer reconcileTimer(String resource, String outcome) {
+        return Timer.builder("pinot.operator.reconcile")
+                .description("Time spent reconciling one key")
+                .tag("resource", resource)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
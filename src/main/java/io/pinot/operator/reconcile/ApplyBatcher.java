@@ -0,0 +1,375 @@
+package io.pinot.operator.reconcile;
+
+import io.pinot.operator.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Groups pending applies per Pinot cluster and runs them in batches
+ *
+ * Reconcile workers hand an apply over and return at once. Applies for the
+ * same cluster, keyed by namespace and name, are collected until the batch
+ * is full or has lingered for the configured delay. Each batch has its own
+ * flush timer, which is cancelled when the batch is taken early, so a timer
+ * left over from an earlier batch never flushes a newer one.
+ *
+ * A flushed batch is issued by one task on a bounded pool. With an
+ * asynchronous applier that task starts every apply of the batch back to
+ * back without waiting for any response, so the requests of one cluster
+ * are pipelined; a blocking applier runs each apply as its own pool task.
+ *
+ * A key submitted again while its batch is still pending replaces the
+ * earlier apply, so bursts are coalesced into one. A key submitted while
+ * its previous apply is still running is held back until that apply
+ * finishes, so applies of one key never overlap and the latest spec is
+ * always applied last.
+ */
+public class ApplyBatcher<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplyBatcher.class);
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 20;
+
+    private final String name;
+    private final AsyncApplier<T> applier;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final ScheduledExecutorService flushTimer;
+    private final ExecutorService applyPool;
+    private final Map<String, Batch<T>> pending = new HashMap<>();
+    private final Map<String, String> queuedClusters = new HashMap<>();
+    private final Set<String> running = new HashSet<>();
+    private final Map<String, PendingApply<T>> heldBack = new HashMap<>();
+    private final List<ApplyListener> listeners = new CopyOnWriteArrayList<>();
+    private boolean stopped;
+
+    public ApplyBatcher(String name, Applier<T> applier, int maxBatchSize, long lingerMillis, int parallelism) {
+        this(name, applier, maxBatchSize, lingerMillis, parallelism, false);
+    }
+
+    /**
+     * Create a batcher for a blocking applier, whose pool runs on virtual threads when requested and supported
+     */
+    public ApplyBatcher(String name, Applier<T> applier, int maxBatchSize, long lingerMillis, int parallelism,
+                        boolean virtualThreads) {
+        this(name, (AsyncApplier<T>) null, maxBatchSize, lingerMillis, parallelism, virtualThreads, applier);
+    }
+
+    /**
+     * Create a batcher for an asynchronous applier, whose pool runs on virtual threads when requested and supported
+     */
+    public ApplyBatcher(String name, AsyncApplier<T> applier, int maxBatchSize, long lingerMillis, int parallelism,
+                        boolean virtualThreads) {
+        this(name, applier, maxBatchSize, lingerMillis, parallelism, virtualThreads, null);
+    }
+
+    private ApplyBatcher(String name, AsyncApplier<T> asyncApplier, int maxBatchSize, long lingerMillis,
+                         int parallelism, boolean virtualThreads, Applier<T> blockingApplier) {
+        this.name = name;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.flushTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The pool size bounds the batches being issued; with virtual threads callers pass a larger bound
+        this.applyPool = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                VirtualThreads.threadFactory(name + "-batch-apply-", VirtualThreads.use(virtualThreads)));
+        this.applier = asyncApplier != null ? asyncApplier : resource -> CompletableFuture.runAsync(() -> {
+            try {
+                blockingApplier.apply(resource);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, applyPool);
+    }
+
+    /**
+     * Queue an apply for a cluster key; the failure callback runs where the apply completes
+     */
+    public void submit(String cluster, String key, T resource, Consumer<Exception> onFailure) {
+        PendingApply<T> apply = new PendingApply<>(cluster, key, resource, onFailure);
+        List<PendingApply<T>> fullBatch;
+        synchronized (this) {
+            if (stopped) {
+                throw new IllegalStateException("Apply batcher " + name + " is shut down");
+            }
+            if (running.contains(key)) {
+                heldBack.put(key, apply);
+                return;
+            }
+            fullBatch = enqueue(apply);
+        }
+        if (fullBatch != null) {
+            run(fullBatch);
+        }
+    }
+
+    /**
+     * Check whether an apply of a key is waiting in a batch, held back or running
+     */
+    public synchronized boolean isApplying(String key) {
+        return queuedClusters.containsKey(key) || running.contains(key) || heldBack.containsKey(key);
+    }
+
+    /**
+     * Register a listener notified after every apply
+     */
+    public void addListener(ApplyListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Get the number of applies waiting for their batch to be flushed or for an earlier apply of their key
+     */
+    public synchronized int pendingCount() {
+        return queuedClusters.size() + heldBack.size();
+    }
+
+    /**
+     * Run the pending applies, wait for the running ones to finish and stop the flush timer and apply pool
+     */
+    public void shutdown() {
+        List<List<PendingApply<T>>> batches = new ArrayList<>();
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            for (String cluster : new ArrayList<>(pending.keySet())) {
+                batches.add(takeBatch(cluster));
+            }
+        }
+        flushTimer.shutdownNow();
+        batches.forEach(this::run);
+        try {
+            if (!awaitIdle(TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS))) {
+                logger.warn("Apply batcher {} did not finish its applies within {} s", name, DRAIN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        applyPool.shutdownNow();
+        logger.info("Apply batcher {} shut down", name);
+    }
+
+    /**
+     * Wait until no apply is running or held back, returning false if the timeout passed first
+     */
+    private synchronized boolean awaitIdle(long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (!running.isEmpty() || !heldBack.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Add an apply to the batch of its cluster and return the batch if it is now full; the caller holds the lock
+     */
+    private List<PendingApply<T>> enqueue(PendingApply<T> apply) {
+        String queuedIn = queuedClusters.put(apply.key, apply.cluster);
+        if (queuedIn != null && !queuedIn.equals(apply.cluster)) {
+            // The resource moved to another cluster before its earlier apply was flushed
+            Batch<T> earlier = pending.get(queuedIn);
+            earlier.applies.remove(apply.key);
+            if (earlier.applies.isEmpty()) {
+                earlier.cancelTimer();
+                pending.remove(queuedIn);
+            }
+        }
+        Batch<T> batch = pending.get(apply.cluster);
+        if (batch == null) {
+            Batch<T> created = new Batch<>();
+            String cluster = apply.cluster;
+            pending.put(cluster, created);
+            created.timer = flushTimer.schedule(() -> flush(cluster, created), lingerMillis, TimeUnit.MILLISECONDS);
+            batch = created;
+        }
+        batch.applies.put(apply.key, apply);
+        return batch.applies.size() >= maxBatchSize ? takeBatch(apply.cluster) : null;
+    }
+
+    /**
+     * Remove the batch of a cluster, cancel its timer and mark its keys running; the caller holds the lock
+     */
+    private List<PendingApply<T>> takeBatch(String cluster) {
+        Batch<T> batch = pending.remove(cluster);
+        if (batch == null) {
+            return null;
+        }
+        batch.cancelTimer();
+        for (String key : batch.applies.keySet()) {
+            queuedClusters.remove(key);
+            running.add(key);
+        }
+        return new ArrayList<>(batch.applies.values());
+    }
+
+    /**
+     * Flush a batch whose linger delay expired, unless it was already taken
+     */
+    private void flush(String cluster, Batch<T> expired) {
+        List<PendingApply<T>> batch;
+        synchronized (this) {
+            if (pending.get(cluster) != expired) {
+                return;
+            }
+            batch = takeBatch(cluster);
+        }
+        run(batch);
+    }
+
+    private void run(List<PendingApply<T>> batch) {
+        logger.info("Applying batch of {} {} resources for cluster: {}", batch.size(), name, batch.get(0).cluster);
+        try {
+            applyPool.execute(() -> batch.forEach(this::start));
+        } catch (RuntimeException e) {
+            // The pool is gone after a timed out shutdown, so the batch is started right here
+            batch.forEach(this::start);
+        }
+    }
+
+    /**
+     * Start an apply and release its key once it completes, without waiting for it
+     */
+    private void start(PendingApply<T> apply) {
+        long start = System.nanoTime();
+        CompletionStage<?> result;
+        try {
+            result = applier.apply(apply.resource);
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((ignored, error) -> finish(apply, start, error));
+    }
+
+    private void finish(PendingApply<T> apply, long start, Throwable error) {
+        try {
+            if (error != null) {
+                apply.onFailure.accept(unwrap(error));
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            for (ApplyListener listener : listeners) {
+                listener.applied(apply.key, elapsed, error != null);
+            }
+            complete(apply.key);
+        }
+    }
+
+    /**
+     * Release a key whose apply finished and queue the apply held back for it, if any
+     */
+    private void complete(String key) {
+        PendingApply<T> next;
+        List<PendingApply<T>> fullBatch = null;
+        synchronized (this) {
+            running.remove(key);
+            next = heldBack.remove(key);
+            if (next == null) {
+                notifyAll();
+                return;
+            }
+            if (stopped) {
+                // No more batches are flushed, so the held back apply starts right here
+                running.add(key);
+            } else {
+                fullBatch = enqueue(next);
+                next = null;
+            }
+        }
+        if (next != null) {
+            start(next);
+        } else if (fullBatch != null) {
+            run(fullBatch);
+        }
+    }
+
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+    }
+
+    /**
+     * Applies collected for one cluster, with the timer that flushes them once they lingered
+     */
+    private static final class Batch<T> {
+        private final Map<String, PendingApply<T>> applies = new LinkedHashMap<>();
+        private ScheduledFuture<?> timer;
+
+        void cancelTimer() {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+    }
+
+    private static final class PendingApply<T> {
+        private final String cluster;
+        private final String key;
+        private final T resource;
+        private final Consumer<Exception> onFailure;
+
+        PendingApply(String cluster, String key, T resource, Consumer<Exception> onFailure) {
+            this.cluster = cluster;
+            this.key = key;
+            this.resource = resource;
+            this.onFailure = onFailure;
+        }
+    }
+
+    /**
+     * Blocking apply callback invoked for each resource of a flushed batch
+     */
+    @FunctionalInterface
+    public interface Applier<T> {
+        void apply(T resource) throws Exception;
+    }
+
+    /**
+     * Apply callback that starts the apply of a resource and completes once it is done
+     */
+    @FunctionalInterface
+    public interface AsyncApplier<T> {
+        CompletionStage<?> apply(T resource);
+    }
+
+    /**
+     * Callback invoked after each apply, on the thread that completed it
+     */
+    @FunctionalInterface
+    public interface ApplyListener {
+        void applied(String key, long durationNanos, boolean failed);
+    }
+}
@@ -0,0 +1,101 @@
+package io.pinot.operator.reconcile;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.pinot.operator.cache.ResourceCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Enqueues the dependents of a parent resource when the parent becomes ready
+ *
+ * Registered on the cache of the parent type, e.g. Pinot clusters for
+ * tables. Dependents are looked up through the informer indexes of the
+ * dependent cache, and only those still waiting for an apply are queued,
+ * so a parent turning ready wakes exactly the resources blocked on it.
+ *
+ * A parent that is created, such as a Pinot cluster deleted and created
+ * again, starts without its dependents; with a re-apply callback, all of
+ * them are marked for a new apply and queued, so they are restored once the
+ * parent is ready.
+ */
+public class DependencyTrigger<P extends HasMetadata, D extends HasMetadata> implements ResourceEventHandler<P> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyTrigger.class);
+
+    private final WorkQueue<String> workQueue;
+    private final Predicate<P> isReady;
+    private final Function<P, List<D>> dependents;
+    private final Predicate<String> isWaiting;
+    private final Consumer<String> reapply;
+
+    public DependencyTrigger(WorkQueue<String> workQueue, Predicate<P> isReady, Function<P, List<D>> dependents,
+                             Predicate<String> isWaiting) {
+        this(workQueue, isReady, dependents, isWaiting, null);
+    }
+
+    /**
+     * Create a trigger that also marks every dependent of a created parent for a new apply
+     */
+    public DependencyTrigger(WorkQueue<String> workQueue, Predicate<P> isReady, Function<P, List<D>> dependents,
+                             Predicate<String> isWaiting, Consumer<String> reapply) {
+        this.workQueue = workQueue;
+        this.isReady = isReady;
+        this.dependents = dependents;
+        this.isWaiting = isWaiting;
+        this.reapply = reapply;
+    }
+
+    @Override
+    public void onAdd(P parent) {
+        if (reapply != null) {
+            reapplyDependents(parent);
+        } else if (isReady.test(parent)) {
+            enqueueDependents(parent);
+        }
+    }
+
+    @Override
+    public void onUpdate(P oldParent, P newParent) {
+        if (!isReady.test(oldParent) && isReady.test(newParent)) {
+            enqueueDependents(newParent);
+        }
+    }
+
+    @Override
+    public void onDelete(P parent, boolean deletedFinalStateUnknown) {
+    }
+
+    private void reapplyDependents(P parent) {
+        List<D> all = dependents.apply(parent);
+        for (D dependent : all) {
+            String key = ResourceCache.keyOf(dependent);
+            reapply.accept(key);
+            workQueue.add(key);
+        }
+        if (!all.isEmpty()) {
+            logger.info("{} {} was added, enqueued its {} {} dependents for a new apply", parent.getKind(),
+                    ResourceCache.keyOf(parent), all.size(), workQueue.getName());
+        }
+    }
+
+    private void enqueueDependents(P parent) {
+        int count = 0;
+        for (D dependent : dependents.apply(parent)) {
+            String key = ResourceCache.keyOf(dependent);
+            if (isWaiting.test(key)) {
+                workQueue.add(key);
+                count++;
+            }
+        }
+        if (count > 0) {
+            logger.info("{} {} is ready, enqueued {} waiting {} dependents", parent.getKind(),
+                    ResourceCache.keyOf(parent), count, workQueue.getName());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.pinot.operator.reconcile;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.extended.leaderelection.LeaderCallbacks;
+import io.fabric8.kubernetes.client.extended.leaderelection.LeaderElectionConfigBuilder;
+import io.fabric8.kubernetes.client.extended.leaderelection.resourcelock.LeaseLock;
+import io.pinot.operator.config.OperatorProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Lease-based leader election between operator replicas
+ *
+ * Every replica starts its informers and keeps its caches and work queues
+ * warm, but the reconcile workers registered here only start once this
+ * replica holds the Lease. A standby that takes over therefore resumes
+ * reconciling from its populated caches without a relist. Losing the lease
+ * stops the operator, so the restarted pod rejoins as a standby and two
+ * replicas never reconcile at the same time.
+ *
+ * With sharding enabled there is no election: every replica reconciles
+ * the shards it owns.
+ */
+@Component
+public class LeaderElection {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderElection.class);
+
+    private final KubernetesClient kubernetesClient;
+    private final ConfigurableApplicationContext applicationContext;
+    private final OperatorProperties.LeaderElectionProperties properties;
+    private final boolean sharded;
+    private final String identity;
+    private final List<Runnable> leadingCallbacks = new CopyOnWriteArrayList<>();
+    private volatile boolean leading;
+    private volatile boolean stopping;
+    private CompletableFuture<?> elector;
+
+    @Autowired
+    public LeaderElection(KubernetesClient kubernetesClient, ConfigurableApplicationContext applicationContext,
+            OperatorProperties operatorProperties) {
+        this.kubernetesClient = kubernetesClient;
+        this.applicationContext = applicationContext;
+        this.properties = operatorProperties.getLeaderElection();
+        this.sharded = operatorProperties.getSharding().isEnabled();
+        String podName = System.getenv("POD_NAME");
+        this.identity = podName != null && !podName.isBlank() ? podName : "pinot-operator-" + UUID.randomUUID();
+    }
+
+    /**
+     * Run a callback once this replica leads, immediately if it already does
+     */
+    public synchronized void whenLeading(Runnable callback) {
+        leadingCallbacks.add(callback);
+        if (leading) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Check whether this replica currently holds the lease
+     */
+    public boolean isLeader() {
+        return leading;
+    }
+
+    /**
+     * Start competing for the lease once every controller has registered
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.isEnabled()) {
+            logger.info("Leader election disabled, reconciling as {}", identity);
+            startLeading();
+            return;
+        }
+        if (sharded) {
+            // Replicas split the clusters between them instead of one of them doing all the work
+            logger.info("Sharding enabled, reconciling the owned shards as {}", identity);
+            startLeading();
+            return;
+        }
+        String namespace = properties.getLeaseNamespace() != null
+                ? properties.getLeaseNamespace()
+                : kubernetesClient.getNamespace();
+        logger.info("Competing for lease {}/{} as {}", namespace, properties.getLeaseName(), identity);
+        elector = kubernetesClient.leaderElector()
+                .withConfig(new LeaderElectionConfigBuilder()
+                        .withName(properties.getLeaseName())
+                        .withLock(new LeaseLock(namespace, properties.getLeaseName(), identity))
+                        .withLeaseDuration(Duration.ofMillis(properties.getLeaseDuration()))
+                        .withRenewDeadline(Duration.ofMillis(properties.getRenewDeadline()))
+                        .withRetryPeriod(Duration.ofMillis(properties.getRetryPeriod()))
+                        .withReleaseOnCancel(true)
+                        .withLeaderCallbacks(new LeaderCallbacks(this::startLeading, this::stopLeading,
+                                leader -> logger.info("Lease {} is held by {}", properties.getLeaseName(), leader)))
+                        .build())
+                .build()
+                .start();
+    }
+
+    /**
+     * Give up the lease so a standby can take over without waiting for it to expire
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        stopping = true;
+        if (elector != null) {
+            elector.cancel(true);
+        }
+    }
+
+    private synchronized void startLeading() {
+        if (leading) {
+            return;
+        }
+        leading = true;
+        logger.info("{} is now the leader, starting {} reconcilers", identity, leadingCallbacks.size());
+        for (Runnable callback : leadingCallbacks) {
+            callback.run();
+        }
+    }
+
+    private void stopLeading() {
+        leading = false;
+        if (stopping) {
+            return;
+        }
+        logger.error("{} lost the lease {}, shutting down", identity, properties.getLeaseName());
+        // Exit off the elector thread, closing the context waits for the elector to finish
+        Thread exit = new Thread(() -> System.exit(SpringApplication.exit(applicationContext, () -> 1)),
+                "leader-election-exit");
+        exit.start();
+    }
+}
@@ -0,0 +1,61 @@
+package io.pinot.operator.reconcile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Worker loop draining a work queue into a reconcile handler
+ *
+ * Successful keys have their backoff reset; failed keys are re-queued
+ * with per-key exponential backoff.
+ */
+public class ReconcileWorker<K> implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconcileWorker.class);
+
+    private final WorkQueue<K> workQueue;
+    private final KeyReconciler<K> reconciler;
+
+    public ReconcileWorker(WorkQueue<K> workQueue, KeyReconciler<K> reconciler) {
+        this.workQueue = workQueue;
+        this.reconciler = reconciler;
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            K key;
+            try {
+                key = workQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (key == null) {
+                return;
+            }
+            processKey(key);
+        }
+    }
+
+    private void processKey(K key) {
+        try {
+            reconciler.reconcile(key);
+            workQueue.forget(key);
+        } catch (Exception e) {
+            logger.error("Error reconciling {} key: {} (attempt {}), requeueing with backoff",
+                    workQueue.getName(), key, workQueue.numRequeues(key) + 1, e);
+            workQueue.addRateLimited(key);
+        } finally {
+            workQueue.done(key);
+        }
+    }
+
+    /**
+     * Reconcile callback invoked for each key taken from the queue
+     */
+    @FunctionalInterface
+    public interface KeyReconciler<K> {
+        void reconcile(K key) throws Exception;
+    }
+}
@@ -0,0 +1,164 @@
+package io.pinot.operator.reconcile;
+
+import io.pinot.operator.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of reconcile workers draining one work queue
+ *
+ * Different keys are reconciled concurrently by up to the configured number
+ * of workers. The work queue never hands out a key that is still being
+ * processed, so two reconciles of the same key never overlap.
+ *
+ * Workers can run as virtual threads, which makes a pool of hundreds of
+ * workers blocked on API calls cheap.
+ */
+public class ReconcileWorkerPool<K> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconcileWorkerPool.class);
+
+    private final String name;
+    private final WorkQueue<K> workQueue;
+    private final ReconcileWorker.KeyReconciler<K> reconciler;
+    private final int workerCount;
+    private final boolean virtualThreads;
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final AtomicLong reconcileCount = new AtomicLong();
+    private final AtomicLong busyTimeNanos = new AtomicLong();
+    private final List<ReconcileListener<K>> listeners = new CopyOnWriteArrayList<>();
+
+    public ReconcileWorkerPool(String name, WorkQueue<K> workQueue,
+                               ReconcileWorker.KeyReconciler<K> reconciler, int workerCount) {
+        this(name, workQueue, reconciler, workerCount, false);
+    }
+
+    /**
+     * Create a pool whose workers are virtual threads when requested and supported by the JVM
+     */
+    public ReconcileWorkerPool(String name, WorkQueue<K> workQueue,
+                               ReconcileWorker.KeyReconciler<K> reconciler, int workerCount, boolean virtualThreads) {
+        this.name = name;
+        this.workQueue = workQueue;
+        this.reconciler = reconciler;
+        this.workerCount = Math.max(1, workerCount);
+        this.virtualThreads = VirtualThreads.use(virtualThreads);
+    }
+
+    /**
+     * Start all worker threads
+     */
+    public synchronized void start() {
+        if (!workers.isEmpty()) {
+            return;
+        }
+        ThreadFactory threadFactory = VirtualThreads.threadFactory(name + "-reconciler-", virtualThreads);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(new ReconcileWorker<>(workQueue, this::reconcileTimed));
+            worker.start();
+            workers.add(worker);
+        }
+        logger.info("Started {} {} reconcile workers{}", workerCount, name, virtualThreads ? " on virtual threads" : "");
+    }
+
+    /**
+     * Register a listener notified after every reconcile
+     */
+    public void addListener(ReconcileListener<K> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Shut down the work queue and stop all worker threads
+     */
+    public synchronized void shutdown() {
+        workQueue.shutDown();
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        workers.clear();
+    }
+
+    private void reconcileTimed(K key) throws Exception {
+        busyWorkers.incrementAndGet();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            reconciler.reconcile(key);
+            failed = false;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            busyTimeNanos.addAndGet(elapsed);
+            reconcileCount.incrementAndGet();
+            busyWorkers.decrementAndGet();
+            for (ReconcileListener<K> listener : listeners) {
+                listener.reconciled(key, elapsed, failed);
+            }
+        }
+    }
+
+    public String getName() { return name; }
+
+    public WorkQueue<K> getWorkQueue() { return workQueue; }
+
+    public int getWorkerCount() { return workerCount; }
+
+    /**
+     * Get the number of workers currently running a reconcile
+     */
+    public int getBusyWorkers() { return busyWorkers.get(); }
+
+    /**
+     * Get the fraction of workers currently running a reconcile
+     */
+    public double getUtilization() {
+        return (double) busyWorkers.get() / workerCount;
+    }
+
+    /**
+     * Get the total number of reconciles run by this pool
+     */
+    public long getReconcileCount() { return reconcileCount.get(); }
+
+    /**
+     * Get the total time workers spent reconciling, in milliseconds
+     */
+    public long getBusyTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(busyTimeNanos.get());
+    }
+
+    /**
+     * Get a snapshot of queue and worker statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", workQueue.depth());
+        stats.put("inFlight", workQueue.inFlight());
+        stats.put("oldestAgeMillis", workQueue.oldestAgeMillis());
+        stats.put("workers", workerCount);
+        stats.put("busyWorkers", getBusyWorkers());
+        stats.put("utilization", getUtilization());
+        stats.put("reconciles", getReconcileCount());
+        stats.put("busyTimeMillis", getBusyTimeMillis());
+        return stats;
+    }
+
+    /**
+     * Callback invoked on the worker thread after each reconcile
+     */
+    @FunctionalInterface
+    public interface ReconcileListener<K> {
+        void reconciled(K key, long durationNanos, boolean failed);
+    }
+}
@@ -0,0 +1,150 @@
+package io.pinot.operator.reconcile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Per-object periodic resync scheduler
+ *
+ * Instead of sweeping every object at the same moment, each tracked key is
+ * resynced on its own timer. The first resync happens at a phase offset
+ * derived from a hash of the key, so objects are spread evenly across the
+ * interval; every following resync adds random jitter so phases do not
+ * line up again over time. Listeners are told which key is being resynced
+ * before it is queued, so owners can tell resyncs apart from events.
+ */
+public class ResyncScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResyncScheduler.class);
+
+    private final String name;
+    private final WorkQueue<String> workQueue;
+    private final long intervalMillis;
+    private final double jitterFactor;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<String, ScheduledFuture<?>> timers = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public ResyncScheduler(String name, WorkQueue<String> workQueue, long intervalMillis, double jitterFactor) {
+        this.name = name;
+        this.workQueue = workQueue;
+        this.intervalMillis = Math.max(1, intervalMillis);
+        this.jitterFactor = Math.max(0, Math.min(jitterFactor, 1));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start periodic resyncs for a key; keys that are already tracked are left alone
+     */
+    public void track(String key) {
+        timers.computeIfAbsent(key, k -> schedule(k, phaseOffset(k)));
+    }
+
+    /**
+     * Run a callback with each key just before its resync is queued
+     */
+    public void onResync(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stop periodic resyncs for a key
+     */
+    public void untrack(String key) {
+        ScheduledFuture<?> timer = timers.remove(key);
+        if (timer != null) {
+            timer.cancel(false);
+        }
+    }
+
+    /**
+     * Stop periodic resyncs for every key not in the given set, returning how many were stopped
+     */
+    public int retainAll(Set<String> keys) {
+        int untracked = 0;
+        for (String key : new ArrayList<>(timers.keySet())) {
+            if (!keys.contains(key)) {
+                untrack(key);
+                untracked++;
+            }
+        }
+        return untracked;
+    }
+
+    /**
+     * Get the number of keys with an active resync timer
+     */
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * Cancel all timers
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        timers.clear();
+        logger.info("Resync scheduler {} shut down", name);
+    }
+
+    /**
+     * Get the offset of the first resync for a key, stable across restarts
+     */
+    long phaseOffset(String key) {
+        return Math.floorMod(mix(key.hashCode()), intervalMillis);
+    }
+
+    /**
+     * Get the delay until the next resync, the interval plus or minus jitter
+     */
+    long nextDelay() {
+        long jitter = (long) (intervalMillis * jitterFactor);
+        if (jitter == 0) {
+            return intervalMillis;
+        }
+        return intervalMillis + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+    }
+
+    private ScheduledFuture<?> schedule(String key, long delayMillis) {
+        return scheduler.schedule(() -> fire(key), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void fire(String key) {
+        if (!timers.containsKey(key)) {
+            return;
+        }
+        listeners.forEach(listener -> listener.accept(key));
+        workQueue.add(key);
+        // Re-arm only if the key was not untracked in the meantime
+        timers.computeIfPresent(key, (k, previous) -> schedule(k, nextDelay()));
+    }
+
+    /**
+     * Spread the bits of String.hashCode so similar keys get distant phases
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
@@ -0,0 +1,262 @@
+package io.pinot.operator.reconcile;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.ApiThrottle;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.util.ShardRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the Pinot clusters between operator replicas
+ *
+ * Each replica renews a membership Lease and reads the leases of the
+ * others. The live replicas form a consistent-hash ring over the shard
+ * slots, and every sharded cache is narrowed with a label selector to the
+ * slots this replica owns, so it only caches and reconciles its own
+ * clusters with their schemas, tables, tenants and workloads. New custom
+ * resources are labeled with their slot by the replica that owns it. When a
+ * replica joins, leaves or stops renewing, the owners are recomputed and
+ * the caches re-selected on the next heartbeat. Once a cache has listed its
+ * new selection, its controller stops resyncing and applying the resources
+ * that left it.
+ *
+ * Until every replica has seen a change, a slot may briefly be reconciled
+ * by its old and new owner; reconciles are idempotent, so this only costs
+ * duplicate work.
+ */
+@Component
+public class ShardCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    /**
+     * Label marking the membership leases of operator replicas
+     */
+    public static final String MEMBER_LABEL = "pinot.io/shard-member";
+
+    /**
+     * Selector value for a replica that owns no slot; no resource carries it
+     */
+    private static final String NO_SLOT = "none";
+
+    private final KubernetesClient kubernetesClient;
+    private final ApiThrottle apiThrottle;
+    private final OperatorProperties.ShardingProperties properties;
+    private final String fieldManager;
+    private final String identity;
+    private final String namespace;
+    private final List<String> watchNamespaces;
+    private final List<ResourceCache<?>> caches = new CopyOnWriteArrayList<>();
+    private final List<SharedIndexInformer<?>> labelInformers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> relabels = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService heartbeatTimer;
+    private volatile List<String> members = List.of();
+    private volatile Set<Integer> ownedSlots = Set.of();
+
+    @Autowired
+    public ShardCoordinator(KubernetesClient kubernetesClient, ApiThrottle apiThrottle,
+                            OperatorProperties operatorProperties) {
+        this.kubernetesClient = kubernetesClient;
+        this.apiThrottle = apiThrottle;
+        this.properties = operatorProperties.getSharding();
+        this.fieldManager = operatorProperties.getFieldManager();
+        this.watchNamespaces = List.copyOf(operatorProperties.getWatch().getNamespaces());
+        String podName = System.getenv("POD_NAME");
+        this.identity = podName != null && !podName.isBlank() ? podName : "pinot-operator-" + UUID.randomUUID();
+        if (!properties.isEnabled()) {
+            this.namespace = null;
+            this.heartbeatTimer = null;
+            return;
+        }
+        this.namespace = properties.getNamespace() != null
+                ? properties.getNamespace()
+                : kubernetesClient.getNamespace();
+        this.heartbeatTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shard-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Join before any cache is built so the first list is already narrowed to the right slots
+        heartbeat();
+        heartbeatTimer.scheduleWithFixedDelay(this::heartbeat, properties.getHeartbeatInterval(),
+                properties.getHeartbeatInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Narrow a cache of operator-labeled resources to the owned slots; a no-op when sharding is disabled
+     */
+    public synchronized <T extends HasMetadata> ResourceCache<T> shard(ResourceCache<T> cache) {
+        if (isEnabled()) {
+            caches.add(cache);
+            cache.restrictToLabelValues(ShardRing.SHARD_LABEL, selectorValues(ownedSlots));
+        }
+        return cache;
+    }
+
+    /**
+     * Narrow a cache of custom resources to the owned slots, and label new resources with their slot
+     */
+    public synchronized <T extends HasMetadata> ResourceCache<T> shardCustomResources(ResourceCache<T> cache) {
+        if (isEnabled()) {
+            shard(cache);
+            // Resources in the cache are in an owned slot already, so they follow their cluster unconditionally
+            cache.addEventHandler(new ShardLabeler<>(kubernetesClient, apiThrottle, cache.getType(),
+                    cache::clusterKeyOf, properties.getSlots()));
+            ShardLabeler<T> labeler = new ShardLabeler<>(kubernetesClient, apiThrottle, cache.getType(),
+                    cache::clusterKeyOf, properties.getSlots(), slot -> ownedSlots.contains(slot));
+            if (watchNamespaces.isEmpty()) {
+                watchUnlabeled(labeler, kubernetesClient.resources(cache.getType())
+                        .inAnyNamespace()
+                        .withoutLabel(ShardRing.SHARD_LABEL)
+                        .inform(labeler));
+            }
+            for (String watchNamespace : watchNamespaces) {
+                watchUnlabeled(labeler, kubernetesClient.resources(cache.getType())
+                        .inNamespace(watchNamespace)
+                        .withoutLabel(ShardRing.SHARD_LABEL)
+                        .inform(labeler));
+            }
+        }
+        return cache;
+    }
+
+    private <T extends HasMetadata> void watchUnlabeled(ShardLabeler<T> labeler, SharedIndexInformer<T> informer) {
+        labelInformers.add(informer);
+        relabels.add(() -> informer.getStore().list().forEach(labeler::ensureLabel));
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public List<String> getMembers() {
+        return members;
+    }
+
+    public Set<Integer> getOwnedSlots() {
+        return ownedSlots;
+    }
+
+    /**
+     * Leave the ring so the other replicas take over the slots right away
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (heartbeatTimer == null) {
+            return;
+        }
+        heartbeatTimer.shutdownNow();
+        labelInformers.forEach(SharedIndexInformer::stop);
+        try {
+            kubernetesClient.resources(Lease.class).inNamespace(namespace).withName(leaseName()).delete();
+        } catch (Exception e) {
+            logger.warn("Failed to remove shard membership lease {}", leaseName(), e);
+        }
+    }
+
+    private synchronized void heartbeat() {
+        try {
+            renewLease();
+            List<String> live = listLiveMembers();
+            if (!live.equals(members)) {
+                rebalance(live);
+            }
+        } catch (Exception e) {
+            logger.warn("Shard membership heartbeat failed", e);
+        }
+    }
+
+    private void renewLease() {
+        Lease lease = new LeaseBuilder()
+                .withNewMetadata()
+                    .withName(leaseName())
+                    .withNamespace(namespace)
+                    .addToLabels(MEMBER_LABEL, "true")
+                .endMetadata()
+                .withNewSpec()
+                    .withHolderIdentity(identity)
+                    .withLeaseDurationSeconds((int) TimeUnit.MILLISECONDS.toSeconds(properties.getMemberTimeout()))
+                    .withRenewTime(ZonedDateTime.now(ZoneOffset.UTC))
+                .endSpec()
+                .build();
+        kubernetesClient.resources(Lease.class)
+                .inNamespace(namespace)
+                .resource(lease)
+                .fieldManager(fieldManager)
+                .forceConflicts()
+                .serverSideApply();
+    }
+
+    private List<String> listLiveMembers() {
+        ZonedDateTime cutoff = ZonedDateTime.now(ZoneOffset.UTC).minusNanos(
+                TimeUnit.MILLISECONDS.toNanos(properties.getMemberTimeout()));
+        Set<String> live = kubernetesClient.resources(Lease.class)
+                .inNamespace(namespace)
+                .withLabel(MEMBER_LABEL, "true")
+                .list()
+                .getItems()
+                .stream()
+                .filter(lease -> lease.getSpec() != null && lease.getSpec().getHolderIdentity() != null)
+                .filter(lease -> lease.getSpec().getRenewTime() != null
+                        && lease.getSpec().getRenewTime().isAfter(cutoff))
+                .map(lease -> lease.getSpec().getHolderIdentity())
+                .collect(Collectors.toCollection(TreeSet::new));
+        live.add(identity);
+        return List.copyOf(live);
+    }
+
+    private void rebalance(List<String> live) {
+        Set<Integer> owned = new ShardRing(live, properties.getVirtualNodes())
+                .slotsOwnedBy(identity, properties.getSlots());
+        members = live;
+        logger.info("Shard members are now {}, {} owns {} of {} slots", live, identity, owned.size(),
+                properties.getSlots());
+        if (owned.equals(ownedSlots)) {
+            return;
+        }
+        ownedSlots = owned;
+        List<String> values = selectorValues(owned);
+        for (ResourceCache<?> cache : caches) {
+            cache.restrictToLabelValues(ShardRing.SHARD_LABEL, values);
+        }
+        // Resources left unlabeled while their slot had no owner in this replica's view
+        relabels.forEach(Runnable::run);
+    }
+
+    private String leaseName() {
+        return "pinot-operator-shard-" + identity;
+    }
+
+    private static List<String> selectorValues(Set<Integer> slots) {
+        if (slots.isEmpty()) {
+            return List.of(NO_SLOT);
+        }
+        return slots.stream().map(String::valueOf).collect(Collectors.toList());
+    }
+}
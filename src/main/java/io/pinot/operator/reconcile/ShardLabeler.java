@@ -0,0 +1,99 @@
+package io.pinot.operator.reconcile;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.ApiThrottle;
+import io.pinot.operator.util.ShardRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * Labels custom resources with the shard slot of the Pinot cluster they belong to
+ *
+ * Registered on an informer over unlabeled resources, so new resources get
+ * a slot and become visible to the replica owning it, and on the sharded
+ * cache itself, so a resource moved to another cluster follows it. Every
+ * replica sees the unlabeled resources, so there a replica only labels the
+ * resources whose slot it owns, and each resource is patched once.
+ */
+public class ShardLabeler<T extends HasMetadata> implements ResourceEventHandler<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardLabeler.class);
+
+    private final KubernetesClient kubernetesClient;
+    private final ApiThrottle apiThrottle;
+    private final Class<T> type;
+    private final Function<T, String> clusterKeyFunc;
+    private final int slotCount;
+    private final IntPredicate labelsSlot;
+
+    public ShardLabeler(KubernetesClient kubernetesClient, ApiThrottle apiThrottle, Class<T> type,
+                        Function<T, String> clusterKeyFunc, int slotCount) {
+        this(kubernetesClient, apiThrottle, type, clusterKeyFunc, slotCount, slot -> true);
+    }
+
+    /**
+     * Create a labeler that only labels resources whose slot passes the given check
+     */
+    public ShardLabeler(KubernetesClient kubernetesClient, ApiThrottle apiThrottle, Class<T> type,
+                        Function<T, String> clusterKeyFunc, int slotCount, IntPredicate labelsSlot) {
+        this.kubernetesClient = kubernetesClient;
+        this.apiThrottle = apiThrottle;
+        this.type = type;
+        this.clusterKeyFunc = clusterKeyFunc;
+        this.slotCount = slotCount;
+        this.labelsSlot = labelsSlot;
+    }
+
+    @Override
+    public void onAdd(T resource) {
+        ensureLabel(resource);
+    }
+
+    @Override
+    public void onUpdate(T oldResource, T newResource) {
+        ensureLabel(newResource);
+    }
+
+    @Override
+    public void onDelete(T resource, boolean deletedFinalStateUnknown) {
+    }
+
+    /**
+     * Label a resource with the slot of its cluster unless it already carries it or the slot is not ours to label
+     */
+    void ensureLabel(T resource) {
+        String clusterKey = clusterKeyFunc.apply(resource);
+        if (clusterKey == null) {
+            return;
+        }
+        int slotNumber = ShardRing.slotOf(clusterKey, slotCount);
+        if (!labelsSlot.test(slotNumber)) {
+            return;
+        }
+        String slot = String.valueOf(slotNumber);
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        if (labels != null && slot.equals(labels.get(ShardRing.SHARD_LABEL))) {
+            return;
+        }
+        try {
+            apiThrottle.call(() -> kubernetesClient.resources(type)
+                    .inNamespace(resource.getMetadata().getNamespace())
+                    .withName(resource.getMetadata().getName())
+                    .patch(PatchContext.of(PatchType.JSON_MERGE),
+                            "{\"metadata\":{\"labels\":{\"" + ShardRing.SHARD_LABEL + "\":\"" + slot + "\"}}}"));
+            logger.info("Assigned {} {} to shard slot {}", type.getSimpleName(), ResourceCache.keyOf(resource), slot);
+        } catch (Exception e) {
+            logger.warn("Failed to label {} {} with shard slot {}", type.getSimpleName(),
+                    ResourceCache.keyOf(resource), slot, e);
+        }
+    }
+}
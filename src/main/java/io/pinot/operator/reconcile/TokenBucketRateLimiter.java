@@ -0,0 +1,81 @@
+package io.pinot.operator.reconcile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter
+ *
+ * Tokens are refilled continuously at the configured rate up to the burst
+ * size. A rate of zero or less disables limiting entirely.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double permitsPerNanosecond;
+    private final double burst;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(double qps, int burst) {
+        this.permitsPerNanosecond = qps / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Create a limiter that never blocks
+     */
+    public static TokenBucketRateLimiter unlimited() {
+        return new TokenBucketRateLimiter(0, 1);
+    }
+
+    /**
+     * Take one token, blocking until it is available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take one token if it is available right now
+     */
+    public synchronized boolean tryAcquire() {
+        if (isUnlimited()) {
+            return true;
+        }
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reserve one token and return how long the caller must wait before using it
+     */
+    public synchronized long reserve() {
+        if (isUnlimited()) {
+            return 0;
+        }
+        refill();
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(-tokens / permitsPerNanosecond);
+    }
+
+    public boolean isUnlimited() {
+        return permitsPerNanosecond <= 0;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNanosecond);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,284 @@
+package io.pinot.operator.reconcile;
+
+import io.pinot.operator.config.OperatorProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keyed, deduplicating work queue between watch events and reconcilers
+ *
+ * Semantics follow the usual controller work queue contract:
+ * - A key is queued at most once; adding a key that is already waiting is a no-op
+ * - A key that is being processed is never handed out again until done() is called;
+ *   if it was re-added in the meantime it is queued again at that point
+ * - Failed keys are re-added with per-key exponential backoff
+ * - take() is throttled by a token bucket shared by all keys of the queue; the
+ *   token is taken once a key is dequeued, so idle consumers spend no tokens
+ */
+public class WorkQueue<K> {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkQueue.class);
+
+    private final String name;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Deque<K> queue = new ArrayDeque<>();
+    private final Set<K> dirty = new HashSet<>();
+    private final Set<K> processing = new HashSet<>();
+    private final Map<K, Integer> failures = new HashMap<>();
+    private final Map<K, Long> queuedAtNanos = new HashMap<>();
+    private final ScheduledExecutorService delayedAdds;
+    private boolean shuttingDown;
+
+    public WorkQueue(String name, Duration baseDelay, Duration maxDelay, TokenBucketRateLimiter rateLimiter) {
+        this.name = name;
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.rateLimiter = rateLimiter;
+        this.delayedAdds = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-queue-delay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a work queue from the operator work queue settings
+     */
+    public static <K> WorkQueue<K> create(String name, OperatorProperties.WorkQueueProperties properties) {
+        return new WorkQueue<>(name,
+                Duration.ofMillis(properties.getBaseDelay()),
+                Duration.ofMillis(properties.getMaxDelay()),
+                new TokenBucketRateLimiter(properties.getQps(), properties.getBurst()));
+    }
+
+    /**
+     * Add a key, collapsing it with any pending entry for the same key
+     */
+    public void add(K key) {
+        lock.lock();
+        try {
+            if (shuttingDown || !dirty.add(key)) {
+                return;
+            }
+            if (processing.contains(key)) {
+                // Re-queued by done() once the in-flight reconcile finishes
+                return;
+            }
+            enqueue(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add a key after the given delay
+     */
+    public void addAfter(K key, Duration delay) {
+        if (delay.isZero() || delay.isNegative()) {
+            add(key);
+            return;
+        }
+        lock.lock();
+        try {
+            if (shuttingDown) {
+                return;
+            }
+            delayedAdds.schedule(() -> add(key), delay.toMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-add a key after its per-key exponential backoff delay
+     */
+    public void addRateLimited(K key) {
+        addAfter(key, nextBackoff(key));
+    }
+
+    /**
+     * Clear the failure history of a key after it was processed successfully
+     */
+    public void forget(K key) {
+        lock.lock();
+        try {
+            failures.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of consecutive failures recorded for a key
+     */
+    public int numRequeues(K key) {
+        lock.lock();
+        try {
+            return failures.getOrDefault(key, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next key, blocking until one is available and then until the rate limit allows it
+     *
+     * The key counts as in flight while its token is awaited.
+     *
+     * @return the next key, or null once the queue has been shut down
+     */
+    public K take() throws InterruptedException {
+        K key;
+        lock.lockInterruptibly();
+        try {
+            while (queue.isEmpty() && !shuttingDown) {
+                notEmpty.await();
+            }
+            if (shuttingDown) {
+                return null;
+            }
+            key = queue.pollFirst();
+            queuedAtNanos.remove(key);
+            dirty.remove(key);
+            processing.add(key);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            // Hand the key back so it is not lost with the interrupted consumer
+            lock.lock();
+            try {
+                dirty.add(key);
+            } finally {
+                lock.unlock();
+            }
+            done(key);
+            throw e;
+        }
+        return key;
+    }
+
+    /**
+     * Mark a key taken with take() as finished
+     */
+    public void done(K key) {
+        lock.lock();
+        try {
+            processing.remove(key);
+            if (dirty.contains(key) && !shuttingDown) {
+                enqueue(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of keys waiting to be processed
+     */
+    public int depth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get how long the key at the head of the queue has been waiting, in milliseconds
+     */
+    public long oldestAgeMillis() {
+        lock.lock();
+        try {
+            K oldest = queue.peekFirst();
+            if (oldest == null) {
+                return 0;
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAtNanos.get(oldest));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of keys currently being processed
+     */
+    public int inFlight() {
+        lock.lock();
+        try {
+            return processing.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop handing out keys and release all blocked consumers
+     */
+    public void shutDown() {
+        lock.lock();
+        try {
+            shuttingDown = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        delayedAdds.shutdownNow();
+        logger.info("Work queue {} shut down", name);
+    }
+
+    public boolean isShuttingDown() {
+        lock.lock();
+        try {
+            return shuttingDown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void enqueue(K key) {
+        queue.addLast(key);
+        queuedAtNanos.put(key, System.nanoTime());
+        notEmpty.signal();
+    }
+
+    private Duration nextBackoff(K key) {
+        int attempts;
+        lock.lock();
+        try {
+            attempts = failures.merge(key, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+        long delay = baseDelayMillis << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > maxDelayMillis) {
+            delay = maxDelayMillis;
+        }
+        return Duration.ofMillis(delay);
+    }
+}
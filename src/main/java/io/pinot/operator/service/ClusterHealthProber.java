@@ -0,0 +1,265 @@
+package io.pinot.operator.service;
+
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServicePort;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.reconcile.LeaderElection;
+import io.pinot.operator.util.PinotClusterClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Probes the health endpoints of the node services of every Pinot cluster
+ *
+ * While this replica leads, each probe round requests the health endpoint
+ * of every operator-created Service of every cached cluster concurrently
+ * through the Pinot client; a cluster whose previous probe is still running
+ * is skipped. The combined result per cluster is cached, and reconciles and
+ * the REST API read it instead of probing inline. A result older than the
+ * TTL counts as unknown. Listeners are told when the health of a cluster
+ * changes, so it reaches the status without waiting for the next resync.
+ */
+@Component
+public class ClusterHealthProber {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterHealthProber.class);
+
+    private final ResourceCache<Pinot> pinotCache;
+    private final ResourceCache<Service> serviceCache;
+    private final PinotClusterClient pinotClusterClient;
+    private final boolean enabled;
+    private final long intervalMillis;
+    private final Duration ttl;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<String, ClusterHealth> results = new ConcurrentHashMap<>();
+    private final Set<String> probing = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<Pinot>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @Autowired
+    public ClusterHealthProber(ResourceCache<Pinot> pinotCache, ResourceCache<Service> serviceCache,
+            PinotClusterClient pinotClusterClient, LeaderElection leaderElection,
+            OperatorProperties operatorProperties) {
+        OperatorProperties.HealthProperties properties = operatorProperties.getHealth();
+        this.pinotCache = pinotCache;
+        this.serviceCache = serviceCache;
+        this.pinotClusterClient = pinotClusterClient;
+        this.enabled = properties.isEnabled();
+        this.intervalMillis = Math.max(1, properties.getInterval());
+        this.ttl = Duration.ofMillis(Math.max(0, properties.getTtl()));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "health-prober");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leaderElection.whenLeading(this::start);
+    }
+
+    /**
+     * Start the periodic probe rounds unless probing is disabled or already running
+     */
+    public void start() {
+        if (!enabled || !started.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::probeAll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Probing Pinot cluster health every {} ms", intervalMillis);
+    }
+
+    /**
+     * Run a callback when the probed health of a cluster changes
+     */
+    public void addListener(Consumer<Pinot> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Get the latest probe result of a cluster, or null if there is none within the TTL
+     */
+    public ClusterHealth getHealth(String namespace, String clusterName) {
+        ClusterHealth health = results.get(ResourceCache.clusterKey(namespace, clusterName));
+        if (health == null || Duration.between(health.probedAt, Instant.now()).compareTo(ttl) > 0) {
+            return null;
+        }
+        return health;
+    }
+
+    /**
+     * Stop the probe rounds
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Start a probe of every cached cluster that is not still being probed, and drop results of removed clusters
+     */
+    void probeAll() {
+        try {
+            Set<String> clusterKeys = new HashSet<>();
+            for (Pinot pinot : pinotCache.list()) {
+                String key = ResourceCache.keyOf(pinot);
+                clusterKeys.add(key);
+                if (probing.add(key)) {
+                    probe(pinot).whenComplete((ignored, error) -> probing.remove(key));
+                }
+            }
+            results.keySet().retainAll(clusterKeys);
+        } catch (RuntimeException e) {
+            // An escaping exception would cancel the schedule
+            logger.error("Failed to start cluster health probes", e);
+        }
+    }
+
+    /**
+     * Probe every node service of a cluster concurrently and record the combined result
+     */
+    CompletableFuture<Void> probe(Pinot pinot) {
+        String namespace = pinot.getMetadata().getNamespace();
+        String clusterName = pinot.getMetadata().getName();
+        List<Service> services = serviceCache.listByCluster(namespace, clusterName);
+        if (services.isEmpty()) {
+            // Nothing deployed yet, the health stays unknown
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Probes share the request limit of the cluster under the namespaced key its endpoint is registered with
+        String clusterKey = ResourceCache.clusterKey(namespace, clusterName);
+        List<CompletableFuture<Pinot.NodeHealth>> probes = services.stream()
+                .sorted(Comparator.comparing(service -> service.getMetadata().getName()))
+                .map(service -> probeNode(clusterKey, service))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(probes.toArray(new CompletableFuture[0]))
+                .thenAccept(ignored -> record(pinot, probes.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList())));
+    }
+
+    private CompletableFuture<Pinot.NodeHealth> probeNode(String clusterKey, Service service) {
+        Map<String, String> labels = service.getMetadata().getLabels();
+        Pinot.NodeHealth node = new Pinot.NodeHealth();
+        node.setName(labels != null && labels.get("node") != null ? labels.get("node") : service.getMetadata().getName());
+        node.setNodeType(labels != null ? labels.get("node-type") : null);
+
+        String serviceUrl = serviceUrl(service);
+        if (serviceUrl == null) {
+            node.setMessage("Service exposes no port");
+            return CompletableFuture.completedFuture(node);
+        }
+        return pinotClusterClient.getNodeHealthAsync(clusterKey, serviceUrl).handle((statusCode, error) -> {
+            if (error != null) {
+                logger.debug("Health probe of {} in cluster {} failed", serviceUrl, clusterKey, error);
+                node.setMessage("Unreachable");
+            } else if (statusCode == 200) {
+                node.setHealthy(true);
+            } else {
+                node.setMessage("Health check returned HTTP " + statusCode);
+            }
+            return node;
+        });
+    }
+
+    private void record(Pinot pinot, List<Pinot.NodeHealth> nodes) {
+        String key = ResourceCache.keyOf(pinot);
+        Pinot.HealthStatus status = new Pinot.HealthStatus();
+        status.setHealthy(nodes.stream().allMatch(Pinot.NodeHealth::isHealthy));
+        status.setNodes(nodes);
+
+        ClusterHealth previous = results.put(key, new ClusterHealth(status, Instant.now()));
+        if (previous != null && isSameHealth(previous.status, status)) {
+            return;
+        }
+        if (status.isHealthy()) {
+            logger.info("Pinot cluster {} is healthy", key);
+        } else {
+            logger.warn("Pinot cluster {} has unhealthy nodes: {}", key, nodes.stream()
+                    .filter(node -> !node.isHealthy())
+                    .map(node -> node.getName() + " (" + node.getMessage() + ")")
+                    .collect(Collectors.joining(", ")));
+        }
+        for (Consumer<Pinot> listener : listeners) {
+            try {
+                listener.accept(pinot);
+            } catch (RuntimeException e) {
+                logger.error("Cluster health listener failed for {}", key, e);
+            }
+        }
+    }
+
+    /**
+     * Get the base URL of a node service, on its http port or else its first port
+     */
+    static String serviceUrl(Service service) {
+        List<ServicePort> ports = service.getSpec() != null ? service.getSpec().getPorts() : null;
+        if (ports == null || ports.isEmpty()) {
+            return null;
+        }
+        ServicePort port = ports.stream()
+                .filter(candidate -> "http".equals(candidate.getName()))
+                .findFirst()
+                .orElse(ports.get(0));
+        return "http://" + service.getMetadata().getName() + "." + service.getMetadata().getNamespace()
+                + ".svc:" + port.getPort();
+    }
+
+    private static boolean isSameHealth(Pinot.HealthStatus previous, Pinot.HealthStatus current) {
+        if (previous.isHealthy() != current.isHealthy() || previous.getNodes().size() != current.getNodes().size()) {
+            return false;
+        }
+        for (int i = 0; i < current.getNodes().size(); i++) {
+            Pinot.NodeHealth before = previous.getNodes().get(i);
+            Pinot.NodeHealth after = current.getNodes().get(i);
+            if (!Objects.equals(before.getName(), after.getName()) || before.isHealthy() != after.isHealthy()
+                    || !Objects.equals(before.getMessage(), after.getMessage())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probe result of one cluster and when it was taken
+     */
+    public static final class ClusterHealth {
+        private final Pinot.HealthStatus status;
+        private final Instant probedAt;
+
+        ClusterHealth(Pinot.HealthStatus status, Instant probedAt) {
+            this.status = status;
+            this.probedAt = probedAt;
+        }
+
+        public Pinot.HealthStatus getStatus() {
+            return status;
+        }
+
+        public String getProbeTime() {
+            return probedAt.toString();
+        }
+    }
+}
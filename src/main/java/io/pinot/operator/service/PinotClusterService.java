@@ -1,59 +1,210 @@
 package io.pinot.operator.service;
 
 import io.pinot.operator.api.Pinot;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.ApiThrottle;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.util.JvmSizing;
+import io.pinot.operator.util.ResourceHasher;
+import io.pinot.operator.util.ShardRing;
+import io.pinot.operator.util.VirtualThreads;
 import io.fabric8.kubernetes.api.model.*;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Service for managing Pinot clusters in Kubernetes
  * 
  * This service handles the creation, update, and deletion of
- * Kubernetes resources for Pinot clusters.
+ * Kubernetes resources for Pinot clusters. Every rendered resource is
+ * stamped with a hash of its content; writes are skipped when the cached
+ * live copy already carries the same hash. Writes use server-side apply
+ * under the operator's field manager unless it is disabled.
+ *
+ * Node types are deployed stage by stage in the deployment order; the
+ * nodes within one stage are deployed concurrently on a bounded pool
+ * shared by all clusters. A stage is only started once the previous
+ * stage's workloads report ready replicas in the informer caches.
+ *
+ * Nodes of kind StatefulSet get a persistent data volume per pod, mounted
+ * at the Pinot data directory, so segments survive pod restarts. Volume
+ * claim templates cannot change in place, so an existing stateful set keeps
+ * its live ones and a storage change is reported as Degraded instead.
+ *
+ * Node health is read from the health prober's cache, never probed
+ * inline, and written to the status next to the rollout progress.
  */
 @Service
 public class PinotClusterService {
 
     private static final Logger logger = LoggerFactory.getLogger(PinotClusterService.class);
     
+    private static final String DATA_VOLUME = "data";
+    private static final String DEFAULT_DATA_DIR = "/var/pinot/data";
+    private static final Map<String, Quantity> DEFAULT_REQUESTS =
+            Map.of("memory", new Quantity("512Mi"), "cpu", new Quantity("250m"));
+    private static final Map<String, Quantity> DEFAULT_LIMITS =
+            Map.of("memory", new Quantity("1Gi"), "cpu", new Quantity("500m"));
+    
     private final KubernetesClient kubernetesClient;
+    private final ResourceCache<Deployment> deploymentCache;
+    private final ResourceCache<StatefulSet> statefulSetCache;
+    private final ResourceCache<io.fabric8.kubernetes.api.model.Service> serviceCache;
+    private final ResourceCache<ConfigMap> configMapCache;
+    private final StatusWriter statusWriter;
+    private final ClusterHealthProber healthProber;
+    private final OperatorMetrics operatorMetrics;
+    private final ApiThrottle apiThrottle;
+    private final OperatorProperties.ShardingProperties sharding;
+    private final boolean serverSideApply;
+    private final String fieldManager;
+    private final ExecutorService nodeDeployExecutor;
+    private final Duration stageReadyTimeout;
+    private final Duration stageReadyCheckInterval;
+    private final ConcurrentMap<String, ClusterRollout> rollouts = new ConcurrentHashMap<>();
 
     @Autowired
-    public PinotClusterService(KubernetesClient kubernetesClient) {
+    public PinotClusterService(KubernetesClient kubernetesClient, ResourceCache<Deployment> deploymentCache,
+            ResourceCache<StatefulSet> statefulSetCache,
+            ResourceCache<io.fabric8.kubernetes.api.model.Service> serviceCache,
+            ResourceCache<ConfigMap> configMapCache, StatusWriter statusWriter, ClusterHealthProber healthProber,
+            OperatorMetrics operatorMetrics, ApiThrottle apiThrottle, OperatorProperties operatorProperties) {
         this.kubernetesClient = kubernetesClient;
+        this.deploymentCache = deploymentCache;
+        this.statefulSetCache = statefulSetCache;
+        this.serviceCache = serviceCache;
+        this.configMapCache = configMapCache;
+        this.statusWriter = statusWriter;
+        this.healthProber = healthProber;
+        this.operatorMetrics = operatorMetrics;
+        this.apiThrottle = apiThrottle;
+        this.sharding = operatorProperties.getSharding();
+        this.serverSideApply = operatorProperties.isServerSideApply();
+        this.fieldManager = operatorProperties.getFieldManager();
+        this.stageReadyTimeout = Duration.ofMillis(operatorProperties.getStageReadyTimeout());
+        this.stageReadyCheckInterval = Duration.ofMillis(operatorProperties.getStageReadyCheckInterval());
+        // The pool size bounds the nodes deployed at once, so it stays fixed even with virtual threads
+        boolean virtualThreads = VirtualThreads.use(operatorProperties.isVirtualThreads());
+        this.nodeDeployExecutor = Executors.newFixedThreadPool(
+                Math.max(1, operatorProperties.getNodeDeployConcurrency()),
+                VirtualThreads.threadFactory("node-deploy-", virtualThreads));
     }
 
     /**
      * Create or update a Pinot cluster
+     *
+     * Stages are rolled out in deployment order and a stage only starts once
+     * every Deployment of the previous stage reports its ready replicas, or
+     * the previous stage has waited longer than the stage timeout. The call
+     * never blocks on readiness: it returns false while a stage is still
+     * pending and the caller re-queues the cluster.
+     *
+     * @return true once every stage has been rolled out
      */
-    public void createOrUpdateCluster(Pinot pinot) {
+    public boolean createOrUpdateCluster(Pinot pinot) {
+        return createOrUpdateCluster(pinot, false);
+    }
+
+    /**
+     * Create or update a Pinot cluster, applying unchanged resources as well on a resync
+     *
+     * Resources whose hash matches the live copy are normally skipped, which
+     * would leave manual edits to them in place. A resync applies them anyway,
+     * so drift is reverted; with server-side apply this changes nothing when
+     * nothing drifted.
+     *
+     * @return true once every stage has been rolled out
+     */
+    public boolean createOrUpdateCluster(Pinot pinot, boolean resync) {
         try {
             String namespace = pinot.getMetadata().getNamespace();
             String clusterName = pinot.getMetadata().getName();
             
             logger.info("Creating/updating Pinot cluster: {}/{}", namespace, clusterName);
             
-            // Deploy nodes in the specified order
+            Long generation = pinot.getMetadata().getGeneration();
+            ClusterRollout rollout = rollouts.compute(ResourceCache.keyOf(pinot),
+                    (key, current) -> current != null && Objects.equals(current.generation, generation)
+                            ? current : new ClusterRollout(generation));
+            
+            // Deploy nodes in the specified order, holding back each stage until the previous one is ready
+            Pinot.PinotNodeType pendingStage = null;
             List<Pinot.PinotNodeType> deploymentOrder = pinot.getSpec().getDeploymentOrder();
             for (Pinot.PinotNodeType nodeType : deploymentOrder) {
-                deployNodeType(pinot, nodeType);
+                List<Pinot.NodeSpec> nodesOfType = pinot.getSpec().getNodes().stream()
+                        .filter(node -> node.getNodeType() == nodeType)
+                        .collect(Collectors.toList());
+                
+                rollout.start(nodeType);
+                deployNodeType(pinot, nodeType, nodesOfType, resync);
+                
+                if (nodesOfType.stream().allMatch(nodeSpec -> isNodeReady(namespace, nodeSpec))) {
+                    rollout.ready(nodeType);
+                } else if (rollout.waitedLongerThan(nodeType, stageReadyTimeout)) {
+                    if (rollout.timeOut(nodeType)) {
+                        logger.warn("{} nodes of cluster {}/{} not ready after {} ms, continuing rollout",
+                                nodeType.getValue(), namespace, clusterName, stageReadyTimeout.toMillis());
+                    }
+                } else {
+                    pendingStage = nodeType;
+                    break;
+                }
+            }
+            
+            publishRolloutStatus(pinot, rollout, pendingStage);
+            
+            if (pendingStage != null) {
+                logger.info("Waiting for {} nodes of Pinot cluster {}/{} to become ready",
+                        pendingStage.getValue(), namespace, clusterName);
+                return false;
             }
             
             logger.info("Successfully created/updated Pinot cluster: {}/{}", namespace, clusterName);
+            return true;
         } catch (Exception e) {
             logger.error("Error creating/updating Pinot cluster: {}", pinot.getMetadata().getName(), e);
             throw new RuntimeException("Failed to create/update Pinot cluster", e);
         }
     }
 
+    /**
+     * Get the delay before a cluster with a pending stage should be checked again
+     */
+    public Duration getStageReadyCheckInterval() {
+        return stageReadyCheckInterval;
+    }
+
+    /**
+     * Run a callback when the probed health of a cluster changes
+     */
+    public void onHealthChange(Consumer<Pinot> listener) {
+        healthProber.addListener(listener);
+    }
+
     /**
      * Delete a Pinot cluster
      */
@@ -66,6 +217,8 @@ public class PinotClusterService {
             
             // Delete all resources associated with the cluster
             deleteClusterResources(pinot);
+            rollouts.remove(ResourceCache.keyOf(pinot));
+            statusWriter.forget(pinot);
             
             logger.info("Successfully deleted Pinot cluster: {}/{}", namespace, clusterName);
         } catch (Exception e) {
@@ -84,11 +237,11 @@ public class PinotClusterService {
             
             logger.debug("Reconciling Pinot cluster: {}/{}", namespace, clusterName);
             
-            // Check cluster health and status
-            checkClusterHealth(pinot);
+            // Read the cached health of the cluster nodes
+            Pinot.HealthStatus health = checkClusterHealth(pinot);
             
             // Update status if needed
-            updateClusterStatus(pinot);
+            updateClusterStatus(pinot, health);
             
         } catch (Exception e) {
             logger.error("Error reconciling Pinot cluster: {}", pinot.getMetadata().getName(), e);
@@ -98,26 +251,51 @@ public class PinotClusterService {
     /**
      * Deploy a specific node type
      */
-    private void deployNodeType(Pinot pinot, Pinot.PinotNodeType nodeType) {
+    private void deployNodeType(Pinot pinot, Pinot.PinotNodeType nodeType, List<Pinot.NodeSpec> nodesOfType,
+                                boolean resync) {
         String namespace = pinot.getMetadata().getNamespace();
         String clusterName = pinot.getMetadata().getName();
         
         logger.info("Deploying {} nodes for cluster: {}/{}", nodeType.getValue(), namespace, clusterName);
         
-        // Find nodes of this type
-        List<Pinot.NodeSpec> nodesOfType = pinot.getSpec().getNodes().stream()
-                .filter(node -> node.getNodeType() == nodeType)
-                .collect(Collectors.toList());
+        if (nodesOfType.size() <= 1) {
+            for (Pinot.NodeSpec nodeSpec : nodesOfType) {
+                deployNode(pinot, nodeSpec, resync);
+            }
+            return;
+        }
         
+        List<Future<?>> deployments = new ArrayList<>();
         for (Pinot.NodeSpec nodeSpec : nodesOfType) {
-            deployNode(pinot, nodeSpec);
+            deployments.add(nodeDeployExecutor.submit(() -> deployNode(pinot, nodeSpec, resync)));
+        }
+        
+        // Wait for every node of the stage before moving on, then surface the first failure
+        RuntimeException failure = null;
+        for (Future<?> deployment : deployments) {
+            try {
+                deployment.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deployments.forEach(pending -> pending.cancel(true));
+                throw new RuntimeException("Interrupted while deploying " + nodeType.getValue() + " nodes", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause()
+                            : new RuntimeException("Failed to deploy " + nodeType.getValue() + " node", e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
         }
     }
 
     /**
      * Deploy a specific node
      */
-    private void deployNode(Pinot pinot, Pinot.NodeSpec nodeSpec) {
+    private void deployNode(Pinot pinot, Pinot.NodeSpec nodeSpec, boolean resync) {
         String namespace = pinot.getMetadata().getNamespace();
         String clusterName = pinot.getMetadata().getName();
         String nodeName = nodeSpec.getName();
@@ -136,14 +314,130 @@ public class PinotClusterService {
             throw new RuntimeException("Pinot configuration not found for node: " + nodeName);
         }
         
-        // Create deployment
-        createDeployment(pinot, nodeSpec, k8sConfig, pinotConfig);
+        // Create the workload, removing a leftover of the other kind when the node kind changed
+        if (nodeSpec.isStatefulSet()) {
+            deleteIfPresent(deploymentCache, kubernetesClient.apps().deployments(), pinot, nodeName);
+            createStatefulSet(pinot, nodeSpec, k8sConfig, pinotConfig, resync);
+        } else {
+            deleteIfPresent(statefulSetCache, kubernetesClient.apps().statefulSets(), pinot, nodeName);
+            createDeployment(pinot, nodeSpec, k8sConfig, pinotConfig, resync);
+        }
         
         // Create service
-        createService(pinot, nodeSpec, k8sConfig);
+        createService(pinot, nodeSpec, k8sConfig, resync);
         
         // Create config map for Pinot configuration
-        createConfigMap(pinot, nodeSpec, pinotConfig);
+        createConfigMap(pinot, nodeSpec, pinotConfig, resync);
+    }
+
+    /**
+     * Check whether the cached workload of a node has rolled out and reports all replicas ready
+     */
+    private boolean isNodeReady(String namespace, Pinot.NodeSpec nodeSpec) {
+        Long generation;
+        Long observedGeneration;
+        Integer readyReplicas;
+        Integer desiredReplicas;
+        if (nodeSpec.isStatefulSet()) {
+            StatefulSet live = statefulSetCache.get(namespace, nodeSpec.getName());
+            if (live == null || live.getStatus() == null) {
+                return false;
+            }
+            generation = live.getMetadata().getGeneration();
+            observedGeneration = live.getStatus().getObservedGeneration();
+            readyReplicas = live.getStatus().getReadyReplicas();
+            desiredReplicas = live.getSpec() != null ? live.getSpec().getReplicas() : null;
+        } else {
+            Deployment live = deploymentCache.get(namespace, nodeSpec.getName());
+            if (live == null || live.getStatus() == null) {
+                return false;
+            }
+            generation = live.getMetadata().getGeneration();
+            observedGeneration = live.getStatus().getObservedGeneration();
+            readyReplicas = live.getStatus().getReadyReplicas();
+            desiredReplicas = live.getSpec() != null ? live.getSpec().getReplicas() : null;
+        }
+        if (observedGeneration == null || (generation != null && observedGeneration < generation)) {
+            return false;
+        }
+        // An autoscaler may own the replica count, so the live target counts rather than the node spec
+        int expected = desiredReplicas != null ? desiredReplicas : nodeSpec.getReplicas();
+        return (readyReplicas != null ? readyReplicas : 0) >= expected;
+    }
+
+    /**
+     * Find the stateful set nodes whose configured storage differs from the claim templates they were created with
+     */
+    List<String> nodesWithStorageChange(Pinot pinot) {
+        String namespace = pinot.getMetadata().getNamespace();
+        List<String> changed = new ArrayList<>();
+        for (Pinot.NodeSpec nodeSpec : pinot.getSpec().getNodes()) {
+            if (!nodeSpec.isStatefulSet()) {
+                continue;
+            }
+            StatefulSet live = statefulSetCache.get(namespace, nodeSpec.getName());
+            Pinot.K8sConfig k8sConfig = findK8sConfig(pinot, nodeSpec.getK8sConfig());
+            if (live == null || live.getSpec() == null || live.getSpec().getVolumeClaimTemplates() == null
+                    || k8sConfig == null) {
+                continue;
+            }
+            Pinot.StorageSpec storage = k8sConfig.getStorage() != null ? k8sConfig.getStorage() : new Pinot.StorageSpec();
+            live.getSpec().getVolumeClaimTemplates().stream()
+                    .filter(template -> DATA_VOLUME.equals(template.getMetadata().getName()))
+                    .filter(template -> isStorageChanged(storage, template))
+                    .findFirst()
+                    .ifPresent(template -> changed.add(nodeSpec.getName()));
+        }
+        return changed;
+    }
+
+    /**
+     * Check whether the configured storage differs from a live claim template; an unset storage class matches any
+     */
+    private boolean isStorageChanged(Pinot.StorageSpec storage, PersistentVolumeClaim template) {
+        PersistentVolumeClaimSpec spec = template.getSpec();
+        if (spec == null) {
+            return false;
+        }
+        if (storage.getStorageClassName() != null
+                && !storage.getStorageClassName().equals(spec.getStorageClassName())) {
+            return true;
+        }
+        Quantity size = spec.getResources() != null && spec.getResources().getRequests() != null
+                ? spec.getResources().getRequests().get("storage")
+                : null;
+        return size != null && size.getNumericalAmount().compareTo(new Quantity(storage.getSize()).getNumericalAmount()) != 0;
+    }
+
+    /**
+     * Write the stage progress to the Pinot status, which the status writer drops when unchanged
+     *
+     * A storage change the live stateful sets cannot take marks a rolled out
+     * cluster Degraded, and is named in the message while stages are pending.
+     */
+    private void publishRolloutStatus(Pinot pinot, ClusterRollout rollout, Pinot.PinotNodeType pendingStage) {
+        Pinot.PinotStatus status = new Pinot.PinotStatus();
+        status.setPhase(pendingStage != null ? "Deploying" : "Ready");
+        status.setMessage(pendingStage != null
+                ? "Waiting for " + pendingStage.getValue() + " nodes to become ready"
+                : "All stages rolled out");
+        List<String> storageChanged = nodesWithStorageChange(pinot);
+        if (!storageChanged.isEmpty()) {
+            if (pendingStage == null) {
+                status.setPhase("Degraded");
+            }
+            status.setMessage(status.getMessage() + "; storage of " + String.join(", ", storageChanged)
+                    + " cannot change in place, the existing volume claims are kept");
+        }
+        status.setLastUpdateTime(Instant.now().toString());
+        status.setStages(rollout.stages());
+        status.setHealth(checkClusterHealth(pinot));
+        
+        try {
+            statusWriter.write(pinot, status, Pinot::new);
+        } catch (Exception e) {
+            logger.error("Failed to update status for cluster: {}", pinot.getMetadata().getName(), e);
+        }
     }
 
     /**
@@ -170,13 +464,64 @@ public class PinotClusterService {
      * Create Kubernetes deployment for a Pinot node
      */
     private void createDeployment(Pinot pinot, Pinot.NodeSpec nodeSpec, 
-                                 Pinot.K8sConfig k8sConfig, Pinot.PinotNodeConfig pinotConfig) {
+                                 Pinot.K8sConfig k8sConfig, Pinot.PinotNodeConfig pinotConfig, boolean resync) {
+        String namespace = pinot.getMetadata().getNamespace();
+        String nodeName = nodeSpec.getName();
+        Deployment deployment = renderDeployment(pinot, nodeSpec, k8sConfig, pinotConfig);
+        Deployment live = deploymentCache.get(namespace, nodeName);
+        if (isReplicasManagedElsewhere(live)) {
+            deployment.getSpec().setReplicas(serverSideApply ? null : live.getSpec().getReplicas());
+        }
+        
+        if (isUnchanged(deploymentCache, deployment) && !resync) {
+            logger.debug("Deployment for node {} is unchanged, skipping update", nodeName);
+            return;
+        }
+        
+        // Apply deployment
+        apply("Deployment", kubernetesClient.apps().deployments()
+                .inNamespace(namespace)
+                .resource(deployment));
+        
+        logger.info("Created/updated deployment for node: {}", nodeName);
+    }
+
+    /**
+     * Render the deployment of a Pinot node
+     */
+    Deployment renderDeployment(Pinot pinot, Pinot.NodeSpec nodeSpec,
+                                Pinot.K8sConfig k8sConfig, Pinot.PinotNodeConfig pinotConfig) {
+        String clusterName = pinot.getMetadata().getName();
+        String nodeName = nodeSpec.getName();
+        
+        return new DeploymentBuilder()
+                .withNewMetadata()
+                    .withName(nodeName)
+                    .withNamespace(pinot.getMetadata().getNamespace())
+                    .addToLabels("app", "pinot")
+                    .addToLabels("cluster", clusterName)
+                    .addToLabels("node-type", nodeSpec.getNodeType().getValue())
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(nodeSpec.getReplicas())
+                    .withSelector(buildSelector(clusterName, nodeName))
+                    .withTemplate(buildPodTemplate(clusterName, nodeSpec, k8sConfig, pinotConfig, null))
+                .endSpec()
+                .build();
+    }
+
+    /**
+     * Create Kubernetes stateful set for a Pinot node, with a persistent data volume per pod
+     */
+    private void createStatefulSet(Pinot pinot, Pinot.NodeSpec nodeSpec,
+                                   Pinot.K8sConfig k8sConfig, Pinot.PinotNodeConfig pinotConfig, boolean resync) {
         String namespace = pinot.getMetadata().getNamespace();
         String clusterName = pinot.getMetadata().getName();
         String nodeName = nodeSpec.getName();
+        Pinot.StorageSpec storage = k8sConfig.getStorage() != null ? k8sConfig.getStorage() : new Pinot.StorageSpec();
         
-        // Create deployment object
-        Deployment deployment = new DeploymentBuilder()
+        // Create stateful set object
+        StatefulSet statefulSet = new StatefulSetBuilder()
                 .withNewMetadata()
                     .withName(nodeName)
                     .withNamespace(namespace)
@@ -186,73 +531,186 @@ public class PinotClusterService {
                 .endMetadata()
                 .withNewSpec()
                     .withReplicas(nodeSpec.getReplicas())
-                    .withNewSelector()
-                        .addToMatchLabels("app", "pinot")
-                        .addToMatchLabels("cluster", clusterName)
-                        .addToMatchLabels("node", nodeName)
-                    .endSelector()
-                    .withNewTemplate()
+                    .withServiceName(nodeName + "-service")
+                    .withPodManagementPolicy("Parallel")
+                    .withSelector(buildSelector(clusterName, nodeName))
+                    .withTemplate(buildPodTemplate(clusterName, nodeSpec, k8sConfig, pinotConfig,
+                            dataMountPath(storage, pinotConfig)))
+                    .addNewVolumeClaimTemplate()
                         .withNewMetadata()
+                            .withName(DATA_VOLUME)
                             .addToLabels("app", "pinot")
                             .addToLabels("cluster", clusterName)
                             .addToLabels("node", nodeName)
                         .endMetadata()
                         .withNewSpec()
-                            .addNewContainer()
-                                .withName("pinot")
-                                .withImage(k8sConfig.getImage())
-                                .withImagePullPolicy("IfNotPresent")
-                                .addToEnv(new EnvVarBuilder()
-                                    .withName("PINOT_NODE_TYPE")
-                                    .withValue(nodeSpec.getNodeType().getValue())
-                                    .build())
-                                .addToEnv(new EnvVarBuilder()
-                                    .withName("PINOT_CLUSTER_NAME")
-                                    .withValue(clusterName)
-                                    .build())
-                                .addToEnv(new EnvVarBuilder()
-                                    .withName("JAVA_OPTS")
-                                    .withValue(pinotConfig.getJavaOpts())
-                                    .build())
-                                .addToPorts(new ContainerPortBuilder()
-                                    .withContainerPort(8090)
-                                    .withProtocol("TCP")
-                                    .build())
-                                .withNewResources()
-                                    .withRequests(Map.of("memory", new Quantity("512Mi"), "cpu", new Quantity("250m")))
-                                    .withLimits(Map.of("memory", new Quantity("1Gi"), "cpu", new Quantity("500m")))
-                                .endResources()
-                            .endContainer()
+                            .withAccessModes("ReadWriteOnce")
+                            .withStorageClassName(storage.getStorageClassName())
+                            .withNewResources()
+                                .addToRequests("storage", new Quantity(storage.getSize()))
+                            .endResources()
                         .endSpec()
-                    .endTemplate()
+                    .endVolumeClaimTemplate()
                 .endSpec()
                 .build();
+        StatefulSet live = statefulSetCache.get(namespace, nodeName);
+        if (isReplicasManagedElsewhere(live)) {
+            statefulSet.getSpec().setReplicas(serverSideApply ? null : live.getSpec().getReplicas());
+        }
         
-        // Apply deployment
-        kubernetesClient.apps().deployments()
+        // The API server rejects changed claim templates, so they are left out of the hash and kept as they are live
+        List<PersistentVolumeClaim> claimTemplates = live != null && live.getSpec() != null
+                ? live.getSpec().getVolumeClaimTemplates()
+                : statefulSet.getSpec().getVolumeClaimTemplates();
+        statefulSet.getSpec().setVolumeClaimTemplates(null);
+        boolean unchanged = isUnchanged(statefulSetCache, statefulSet);
+        statefulSet.getSpec().setVolumeClaimTemplates(claimTemplates);
+        
+        if (unchanged && !resync) {
+            logger.debug("Stateful set for node {} is unchanged, skipping update", nodeName);
+            return;
+        }
+        
+        // Apply stateful set
+        apply("StatefulSet", kubernetesClient.apps().statefulSets()
                 .inNamespace(namespace)
-                .resource(deployment)
-                .createOrReplace();
+                .resource(statefulSet));
         
-        logger.info("Created/updated deployment for node: {}", nodeName);
+        logger.info("Created/updated stateful set for node: {}", nodeName);
+    }
+
+    /**
+     * Build the pod selector of a Pinot node
+     */
+    private LabelSelector buildSelector(String clusterName, String nodeName) {
+        return new LabelSelectorBuilder()
+                .addToMatchLabels("app", "pinot")
+                .addToMatchLabels("cluster", clusterName)
+                .addToMatchLabels("node", nodeName)
+                .build();
+    }
+
+    /**
+     * Build the pod template of a Pinot node, mounting the data volume when a mount path is given
+     */
+    private PodTemplateSpec buildPodTemplate(String clusterName, Pinot.NodeSpec nodeSpec, Pinot.K8sConfig k8sConfig,
+                                             Pinot.PinotNodeConfig pinotConfig, String dataMountPath) {
+        Pinot.ResourcesSpec resources = k8sConfig.getResources();
+        Map<String, Quantity> requests = withOverrides(DEFAULT_REQUESTS, resources != null ? resources.getRequests() : null);
+        Map<String, Quantity> limits = withOverrides(DEFAULT_LIMITS, resources != null ? resources.getLimits() : null);
+        
+        ContainerBuilder container = new ContainerBuilder()
+                .withName("pinot")
+                .withImage(k8sConfig.getImage())
+                .withImagePullPolicy("IfNotPresent")
+                .addToEnv(new EnvVarBuilder()
+                    .withName("PINOT_NODE_TYPE")
+                    .withValue(nodeSpec.getNodeType().getValue())
+                    .build())
+                .addToEnv(new EnvVarBuilder()
+                    .withName("PINOT_CLUSTER_NAME")
+                    .withValue(clusterName)
+                    .build())
+                .addToEnv(new EnvVarBuilder()
+                    .withName("JAVA_OPTS")
+                    .withValue(javaOpts(nodeSpec, pinotConfig, limits))
+                    .build())
+                .addToPorts(new ContainerPortBuilder()
+                    .withContainerPort(8090)
+                    .withProtocol("TCP")
+                    .build())
+                .withNewResources()
+                    .withRequests(requests)
+                    .withLimits(limits)
+                .endResources();
+        if (dataMountPath != null) {
+            container.addNewVolumeMount()
+                    .withName(DATA_VOLUME)
+                    .withMountPath(dataMountPath)
+                .endVolumeMount();
+        }
+        
+        return new PodTemplateSpecBuilder()
+                .withNewMetadata()
+                    .addToLabels("app", "pinot")
+                    .addToLabels("cluster", clusterName)
+                    .addToLabels("node", nodeSpec.getName())
+                .endMetadata()
+                .withNewSpec()
+                    .addToContainers(container.build())
+                .endSpec()
+                .build();
+    }
+
+    /**
+     * Overlay configured resource quantities on the defaults
+     */
+    private Map<String, Quantity> withOverrides(Map<String, Quantity> defaults, Map<String, String> overrides) {
+        Map<String, Quantity> quantities = new TreeMap<>(defaults);
+        if (overrides != null) {
+            overrides.forEach((name, amount) -> quantities.put(name, new Quantity(amount)));
+        }
+        return quantities;
+    }
+
+    /**
+     * Get the JVM options of a node, prefixed with flags derived from its memory limit when auto sizing is on
+     */
+    private String javaOpts(Pinot.NodeSpec nodeSpec, Pinot.PinotNodeConfig pinotConfig, Map<String, Quantity> limits) {
+        if (!pinotConfig.isAutoJvmSizing()) {
+            return pinotConfig.getJavaOpts();
+        }
+        Quantity memoryLimit = limits.get("memory");
+        String derivedOpts = JvmSizing.deriveJavaOpts(nodeSpec.getNodeType(), memoryLimit);
+        return JvmSizing.withDerivedOpts(derivedOpts, pinotConfig.getJavaOpts());
+    }
+
+    /**
+     * Mount the data volume at the configured path, falling back to the node's pinot.data.dir
+     */
+    private String dataMountPath(Pinot.StorageSpec storage, Pinot.PinotNodeConfig pinotConfig) {
+        if (storage.getMountPath() != null) {
+            return storage.getMountPath();
+        }
+        return pinotConfig.getData() != null ? pinotConfig.getData() : DEFAULT_DATA_DIR;
     }
 
     /**
      * Create Kubernetes service for a Pinot node
      */
-    private void createService(Pinot pinot, Pinot.NodeSpec nodeSpec, Pinot.K8sConfig k8sConfig) {
+    private void createService(Pinot pinot, Pinot.NodeSpec nodeSpec, Pinot.K8sConfig k8sConfig, boolean resync) {
         String namespace = pinot.getMetadata().getNamespace();
+        String nodeName = nodeSpec.getName();
+        io.fabric8.kubernetes.api.model.Service service = renderService(pinot, nodeSpec);
+        
+        if (isUnchanged(serviceCache, service) && !resync) {
+            logger.debug("Service for node {} is unchanged, skipping update", nodeName);
+            return;
+        }
+        
+        // Apply service
+        apply("Service", kubernetesClient.services()
+                .inNamespace(namespace)
+                .resource(service));
+        
+        logger.info("Created/updated service for node: {}", nodeName);
+    }
+
+    /**
+     * Render the service of a Pinot node
+     */
+    io.fabric8.kubernetes.api.model.Service renderService(Pinot pinot, Pinot.NodeSpec nodeSpec) {
         String clusterName = pinot.getMetadata().getName();
         String nodeName = nodeSpec.getName();
         
-        // Create service object
-        io.fabric8.kubernetes.api.model.Service service = new ServiceBuilder()
+        return new ServiceBuilder()
                 .withNewMetadata()
                     .withName(nodeName + "-service")
-                    .withNamespace(namespace)
+                    .withNamespace(pinot.getMetadata().getNamespace())
                     .addToLabels("app", "pinot")
                     .addToLabels("cluster", clusterName)
                     .addToLabels("node", nodeName)
+                    .addToLabels("node-type", nodeSpec.getNodeType().getValue())
                 .endMetadata()
                 .withNewSpec()
                     .withType("ClusterIP")
@@ -267,53 +725,141 @@ public class PinotClusterService {
                     .endPort()
                 .endSpec()
                 .build();
+    }
+
+    /**
+     * Create config map for Pinot configuration
+     */
+    private void createConfigMap(Pinot pinot, Pinot.NodeSpec nodeSpec, Pinot.PinotNodeConfig pinotConfig,
+                                 boolean resync) {
+        String namespace = pinot.getMetadata().getNamespace();
+        String nodeName = nodeSpec.getName();
+        ConfigMap configMap = renderConfigMap(pinot, nodeSpec, pinotConfig);
         
-        // Apply service
-        kubernetesClient.services()
+        if (isUnchanged(configMapCache, configMap) && !resync) {
+            logger.debug("Config map for node {} is unchanged, skipping update", nodeName);
+            return;
+        }
+        
+        // Apply config map
+        apply("ConfigMap", kubernetesClient.configMaps()
                 .inNamespace(namespace)
-                .resource(service)
-                .createOrReplace();
+                .resource(configMap));
         
-        logger.info("Created/updated service for node: {}", nodeName);
+        logger.info("Created/updated config map for node: {}", nodeName);
     }
 
     /**
-     * Create config map for Pinot configuration
+     * Render the config map holding the pinot.properties of a Pinot node
      */
-    private void createConfigMap(Pinot pinot, Pinot.NodeSpec nodeSpec, Pinot.PinotNodeConfig pinotConfig) {
-        String namespace = pinot.getMetadata().getNamespace();
+    ConfigMap renderConfigMap(Pinot pinot, Pinot.NodeSpec nodeSpec, Pinot.PinotNodeConfig pinotConfig) {
         String clusterName = pinot.getMetadata().getName();
         String nodeName = nodeSpec.getName();
         
-        // Create config map data
         Map<String, String> data = new HashMap<>();
         data.put("pinot.properties", generatePinotProperties(pinot, nodeSpec, pinotConfig));
         
-        // Create config map object
-        ConfigMap configMap = new ConfigMapBuilder()
+        return new ConfigMapBuilder()
                 .withNewMetadata()
                     .withName(nodeName + "-config")
-                    .withNamespace(namespace)
+                    .withNamespace(pinot.getMetadata().getNamespace())
                     .addToLabels("app", "pinot")
                     .addToLabels("cluster", clusterName)
                     .addToLabels("node", nodeName)
                 .endMetadata()
                 .withData(data)
                 .build();
-        
-        // Apply config map
-        kubernetesClient.configMaps()
-                .inNamespace(namespace)
-                .resource(configMap)
-                .createOrReplace();
-        
-        logger.info("Created/updated config map for node: {}", nodeName);
+    }
+
+    /**
+     * Label a rendered resource with the shard slot of its cluster, so the owning replica caches it
+     */
+    private void labelShard(HasMetadata desired) {
+        if (!sharding.isEnabled()) {
+            return;
+        }
+        ObjectMeta metadata = desired.getMetadata();
+        String clusterKey = ResourceCache.clusterKey(metadata.getNamespace(), metadata.getLabels().get("cluster"));
+        int slot = ShardRing.slotOf(clusterKey, sharding.getSlots());
+        metadata.getLabels().put(ShardRing.SHARD_LABEL, String.valueOf(slot));
+    }
+
+    /**
+     * Check whether another field manager, such as a horizontal pod autoscaler, owns the replicas of a live workload
+     *
+     * The replicas of such a workload are left out of the apply, which
+     * releases the operator's claim on them instead of taking them back.
+     * A replace keeps the live count instead, since leaving it out would
+     * reset it.
+     */
+    boolean isReplicasManagedElsewhere(HasMetadata live) {
+        if (live == null || live.getMetadata().getManagedFields() == null) {
+            return false;
+        }
+        for (ManagedFieldsEntry entry : live.getMetadata().getManagedFields()) {
+            if (fieldManager.equals(entry.getManager()) || entry.getFieldsV1() == null) {
+                continue;
+            }
+            Object spec = entry.getFieldsV1().getAdditionalProperties().get("f:spec");
+            if (spec instanceof Map && ((Map<?, ?>) spec).containsKey("f:replicas")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stamp the rendered resource with its hash and check it against the cached live copy
+     */
+    private <T extends HasMetadata> boolean isUnchanged(ResourceCache<T> cache, T desired) {
+        labelShard(desired);
+        String hash = ResourceHasher.stamp(desired);
+        T live = cache.get(desired.getMetadata().getNamespace(), desired.getMetadata().getName());
+        return ResourceHasher.matches(live, hash);
+    }
+
+    /**
+     * Delete the cached workload of a node if it exists
+     */
+    private <T extends HasMetadata> void deleteIfPresent(ResourceCache<T> cache,
+            MixedOperation<T, ?, ? extends Resource<T>> operation, Pinot pinot, String nodeName) {
+        String namespace = pinot.getMetadata().getNamespace();
+        if (cache.get(namespace, nodeName) == null) {
+            return;
+        }
+        callApi("delete", cache.getResourceType(),
+                () -> operation.inNamespace(namespace).withName(nodeName).delete());
+        logger.info("Deleted {} {} after node kind change", cache.getResourceType(), nodeName);
+    }
+
+    /**
+     * Write a rendered resource, as a single apply patch owned by our field manager when enabled
+     *
+     * Conflicts are forced so the rendered spec wins over manual edits; fields
+     * another manager legitimately owns, like autoscaled replicas, are left out
+     * of the rendered resource beforehand so they are never taken over.
+     */
+    private <T extends HasMetadata> void apply(String kind, Resource<T> resource) {
+        if (serverSideApply) {
+            callApi("apply", kind,
+                    () -> resource.fieldManager(fieldManager).forceConflicts().serverSideApply());
+        } else {
+            callApi("replace", kind, () -> resource.fieldManager(fieldManager).createOrReplace());
+        }
+    }
+
+    /**
+     * Make an API call once the rate limit allows it, timing only the call itself
+     */
+    private <T> T callApi(String verb, String kind, Supplier<T> call) {
+        apiThrottle.acquire();
+        return operatorMetrics.timeApiCall(verb, kind, call);
     }
 
     /**
      * Generate Pinot properties configuration
      */
-    private String generatePinotProperties(Pinot pinot, Pinot.NodeSpec nodeSpec, Pinot.PinotNodeConfig pinotConfig) {
+    String generatePinotProperties(Pinot pinot, Pinot.NodeSpec nodeSpec, Pinot.PinotNodeConfig pinotConfig) {
         StringBuilder properties = new StringBuilder();
         
         // Basic Pinot configuration
@@ -344,41 +890,133 @@ public class PinotClusterService {
         String clusterName = pinot.getMetadata().getName();
         
         // Delete deployments
-        kubernetesClient.apps().deployments()
+        callApi("deletecollection", "Deployment", () -> kubernetesClient.apps().deployments()
+                .inNamespace(namespace)
+                .withLabel("cluster", clusterName)
+                .delete());
+        
+        // Delete stateful sets; their data volume claims are kept for a re-created cluster
+        callApi("deletecollection", "StatefulSet", () -> kubernetesClient.apps().statefulSets()
                 .inNamespace(namespace)
                 .withLabel("cluster", clusterName)
-                .delete();
+                .delete());
         
         // Delete services
-        kubernetesClient.services()
+        callApi("deletecollection", "Service", () -> kubernetesClient.services()
                 .inNamespace(namespace)
                 .withLabel("cluster", clusterName)
-                .delete();
+                .delete());
         
         // Delete config maps
-        kubernetesClient.configMaps()
+        callApi("deletecollection", "ConfigMap", () -> kubernetesClient.configMaps()
                 .inNamespace(namespace)
                 .withLabel("cluster", clusterName)
-                .delete();
+                .delete());
         
         logger.info("Deleted all resources for cluster: {}/{}", namespace, clusterName);
     }
 
     /**
-     * Check cluster health
+     * Get the cached health of the cluster nodes, or null if there is no recent probe
+     */
+    private Pinot.HealthStatus checkClusterHealth(Pinot pinot) {
+        ClusterHealthProber.ClusterHealth health = healthProber.getHealth(pinot.getMetadata().getNamespace(),
+                pinot.getMetadata().getName());
+        if (health == null) {
+            logger.debug("No recent health probe for cluster: {}", pinot.getMetadata().getName());
+            return null;
+        }
+        return health.getStatus();
+    }
+
+    /**
+     * Update the node health in the cluster status, keeping the rollout progress
+     */
+    private void updateClusterStatus(Pinot pinot, Pinot.HealthStatus health) {
+        Pinot.PinotStatus status = statusWriter.latest(pinot, Pinot.PinotStatus.class);
+        if (status == null) {
+            status = new Pinot.PinotStatus();
+        }
+        status.setHealth(health);
+        status.setLastUpdateTime(Instant.now().toString());
+        
+        // Dropped when only the timestamp changed, otherwise coalesced and sent as a merge patch
+        if (statusWriter.write(pinot, status, Pinot::new)) {
+            logger.debug("Queued status update for cluster: {}/{}",
+                    pinot.getMetadata().getNamespace(), pinot.getMetadata().getName());
+        }
+    }
+
+    /**
+     * Stop the node deployment pool
      */
-    private void checkClusterHealth(Pinot pinot) {
-        // Implementation for health checking
-        // This would typically involve checking pod status, service endpoints, etc.
-        logger.debug("Checking health for cluster: {}", pinot.getMetadata().getName());
+    @PreDestroy
+    public void shutdown() {
+        nodeDeployExecutor.shutdownNow();
     }
 
     /**
-     * Update cluster status
+     * Stage progress of the rollout of one cluster generation
+     *
+     * Only touched by the reconcile of its cluster key, which the work queue
+     * never runs concurrently.
      */
-    private void updateClusterStatus(Pinot pinot) {
-        // Implementation for status updates
-        // This would typically involve updating the custom resource status
-        logger.debug("Updating status for cluster: {}", pinot.getMetadata().getName());
+    private static final class ClusterRollout {
+        private final Long generation;
+        private final Map<Pinot.PinotNodeType, Pinot.StageStatus> stages = new LinkedHashMap<>();
+        private final Map<Pinot.PinotNodeType, Instant> startTimes = new EnumMap<>(Pinot.PinotNodeType.class);
+
+        ClusterRollout(Long generation) {
+            this.generation = generation;
+        }
+
+        void start(Pinot.PinotNodeType nodeType) {
+            if (stages.containsKey(nodeType)) {
+                return;
+            }
+            Instant now = Instant.now();
+            Pinot.StageStatus stage = new Pinot.StageStatus();
+            stage.setNodeType(nodeType.getValue());
+            stage.setPhase("Deploying");
+            stage.setStartTime(now.toString());
+            stages.put(nodeType, stage);
+            startTimes.put(nodeType, now);
+        }
+
+        void ready(Pinot.PinotNodeType nodeType) {
+            Pinot.StageStatus stage = stages.get(nodeType);
+            if ("Ready".equals(stage.getPhase())) {
+                return;
+            }
+            Instant now = Instant.now();
+            stage.setPhase("Ready");
+            stage.setReadyTime(now.toString());
+            stage.setDurationSeconds(Duration.between(startTimes.get(nodeType), now).getSeconds());
+        }
+
+        /**
+         * Mark a stage as timed out, returning false if it already was
+         */
+        boolean timeOut(Pinot.PinotNodeType nodeType) {
+            Pinot.StageStatus stage = stages.get(nodeType);
+            if ("TimedOut".equals(stage.getPhase())) {
+                return false;
+            }
+            stage.setPhase("TimedOut");
+            return true;
+        }
+
+        boolean waitedLongerThan(Pinot.PinotNodeType nodeType, Duration timeout) {
+            return Duration.between(startTimes.get(nodeType), Instant.now()).compareTo(timeout) > 0;
+        }
+
+        /**
+         * Get copies of the stages, so a status queued for writing is not changed by later progress
+         */
+        List<Pinot.StageStatus> stages() {
+            return stages.values().stream()
+                    .map(stage -> StatusWriter.copyOf(stage, Pinot.StageStatus.class))
+                    .collect(Collectors.toList());
+        }
     }
 }
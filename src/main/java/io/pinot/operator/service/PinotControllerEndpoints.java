@@ -0,0 +1,60 @@
+package io.pinot.operator.service;
+
+import io.fabric8.kubernetes.api.model.Service;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.util.PinotClusterClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resolves the controller endpoint of a Pinot cluster for the Pinot client
+ *
+ * The endpoint is the http port of the operator-created controller Service
+ * of the cluster, read from the Service cache. It is registered with the
+ * Pinot client under the namespaced cluster key, so clusters of the same
+ * name in different namespaces do not share an endpoint.
+ */
+@Component
+public class PinotControllerEndpoints {
+
+    private final ResourceCache<Service> serviceCache;
+    private final PinotClusterClient pinotClusterClient;
+
+    @Autowired
+    public PinotControllerEndpoints(ResourceCache<Service> serviceCache, PinotClusterClient pinotClusterClient) {
+        this.serviceCache = serviceCache;
+        this.pinotClusterClient = pinotClusterClient;
+    }
+
+    /**
+     * Register the controller endpoint of a cluster with the Pinot client and return the key to address it by
+     *
+     * Returns null if the cluster has no controller Service, either not yet
+     * or no longer.
+     */
+    public String register(String namespace, String clusterName) {
+        String clusterKey = ResourceCache.clusterKey(namespace, clusterName);
+        String endpoint = serviceCache.listByCluster(namespace, clusterName).stream()
+                .filter(PinotControllerEndpoints::isController)
+                .sorted(Comparator.comparing(service -> service.getMetadata().getName()))
+                .map(ClusterHealthProber::serviceUrl)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+        if (endpoint == null) {
+            return null;
+        }
+        pinotClusterClient.registerClusterEndpoint(clusterKey, endpoint);
+        return clusterKey;
+    }
+
+    private static boolean isController(Service service) {
+        Map<String, String> labels = service.getMetadata().getLabels();
+        return labels != null && Pinot.PinotNodeType.CONTROLLER.getValue().equals(labels.get("node-type"));
+    }
+}
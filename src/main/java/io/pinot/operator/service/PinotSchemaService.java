@@ -1,13 +1,16 @@
 package io.pinot.operator.service;
 
 import io.pinot.operator.api.PinotSchema;
-import io.fabric8.kubernetes.client.KubernetesClient;
+import io.pinot.operator.util.PinotClusterClient;
+import io.pinot.operator.util.PinotConfigValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service for managing Pinot schemas in Kubernetes
@@ -19,59 +22,99 @@ import java.time.Instant;
 public class PinotSchemaService {
 
     private static final Logger logger = LoggerFactory.getLogger(PinotSchemaService.class);
+
+    /**
+     * Message of the Ready status, the same after an apply and a resync so the status is only written once
+     */
+    private static final String READY_MESSAGE = "Schema is applied and healthy";
     
-    private final KubernetesClient kubernetesClient;
+    private final PinotConfigValidator pinotConfigValidator;
+    private final StatusWriter statusWriter;
+    private final PinotClusterClient pinotClusterClient;
+    private final PinotControllerEndpoints controllerEndpoints;
 
     @Autowired
-    public PinotSchemaService(KubernetesClient kubernetesClient) {
-        this.kubernetesClient = kubernetesClient;
+    public PinotSchemaService(PinotConfigValidator pinotConfigValidator, StatusWriter statusWriter,
+                              PinotClusterClient pinotClusterClient, PinotControllerEndpoints controllerEndpoints) {
+        this.pinotConfigValidator = pinotConfigValidator;
+        this.statusWriter = statusWriter;
+        this.pinotClusterClient = pinotClusterClient;
+        this.controllerEndpoints = controllerEndpoints;
     }
 
     /**
      * Create or update a Pinot schema
+     *
+     * Validation runs on the calling thread and the request to the Pinot
+     * controller is sent without waiting for its answer. The returned future
+     * completes once the controller accepted the schema and its status is queued.
      */
-    public void createOrUpdateSchema(PinotSchema schema) {
+    public CompletableFuture<Void> createOrUpdateSchema(PinotSchema schema) {
+        String namespace = schema.getMetadata().getNamespace();
+        String schemaName = schema.getMetadata().getName();
+        CompletableFuture<Void> applied;
         try {
-            String namespace = schema.getMetadata().getNamespace();
-            String schemaName = schema.getMetadata().getName();
-            
             logger.info("Creating/updating Pinot schema: {}/{}", namespace, schemaName);
             
             // Validate schema configuration
             validateSchema(schema);
             
             // Apply schema to Pinot cluster
-            applySchemaToCluster(schema);
+            applied = applySchemaToCluster(schema);
+        } catch (Exception e) {
+            applied = CompletableFuture.failedFuture(e);
+        }
+        return applied.handle((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = causeOf(error);
+                logger.error("Error creating/updating Pinot schema: {}", schemaName, cause);
+                updateSchemaStatus(schema, "Failed", "Schema operation failed", cause.getMessage());
+                throw new RuntimeException("Failed to create/update Pinot schema", cause);
+            }
             
             // Update status
-            updateSchemaStatus(schema, "Ready", "Schema applied successfully", "");
+            updateSchemaStatus(schema, "Ready", READY_MESSAGE, "", schema.getMetadata().getGeneration());
             
             logger.info("Successfully created/updated Pinot schema: {}/{}", namespace, schemaName);
-        } catch (Exception e) {
-            logger.error("Error creating/updating Pinot schema: {}", schema.getMetadata().getName(), e);
-            updateSchemaStatus(schema, "Failed", "Schema operation failed", e.getMessage());
-            throw new RuntimeException("Failed to create/update Pinot schema", e);
-        }
+            return null;
+        });
+    }
+
+    /**
+     * Record that a Pinot schema is waiting for a referenced resource to become ready
+     */
+    public void markSchemaPending(PinotSchema schema, String message) {
+        updateSchemaStatus(schema, "Pending", message, "DependencyNotReady");
     }
 
     /**
      * Delete a Pinot schema
+     *
+     * The returned future completes once the Pinot controller removed the schema.
      */
-    public void deleteSchema(PinotSchema schema) {
+    public CompletableFuture<Void> deleteSchema(PinotSchema schema) {
+        String namespace = schema.getMetadata().getNamespace();
+        String schemaName = schema.getMetadata().getName();
+        CompletableFuture<Void> removed;
         try {
-            String namespace = schema.getMetadata().getNamespace();
-            String schemaName = schema.getMetadata().getName();
-            
             logger.info("Deleting Pinot schema: {}/{}", namespace, schemaName);
             
             // Remove schema from Pinot cluster
-            removeSchemaFromCluster(schema);
-            
-            logger.info("Successfully deleted Pinot schema: {}/{}", namespace, schemaName);
+            removed = removeSchemaFromCluster(schema);
         } catch (Exception e) {
-            logger.error("Error deleting Pinot schema: {}", schema.getMetadata().getName(), e);
-            throw new RuntimeException("Failed to delete Pinot schema", e);
+            removed = CompletableFuture.failedFuture(e);
         }
+        return removed.handle((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = causeOf(error);
+                logger.error("Error deleting Pinot schema: {}", schemaName, cause);
+                throw new RuntimeException("Failed to delete Pinot schema", cause);
+            }
+            statusWriter.forget(schema);
+            
+            logger.info("Successfully deleted Pinot schema: {}/{}", namespace, schemaName);
+            return null;
+        });
     }
 
     /**
@@ -88,7 +131,7 @@ public class PinotSchemaService {
             checkSchemaHealth(schema);
             
             // Update status if needed
-            updateSchemaStatus(schema, "Ready", "Schema is healthy", "");
+            updateSchemaStatus(schema, "Ready", READY_MESSAGE, "");
             
         } catch (Exception e) {
             logger.error("Error reconciling Pinot schema: {}", schema.getMetadata().getName(), e);
@@ -112,65 +155,53 @@ public class PinotSchemaService {
             throw new IllegalArgumentException("Schema JSON configuration is required");
         }
         
-        // Validate JSON format
-        try {
-            // Basic JSON validation - could be enhanced with proper JSON schema validation
-            String schemaJson = schema.getSpec().getPinotSchemaJson();
-            if (!schemaJson.trim().startsWith("{") || !schemaJson.trim().endsWith("}")) {
-                throw new IllegalArgumentException("Invalid JSON format for schema configuration");
-            }
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid JSON format for schema configuration", e);
-        }
+        // Parse and validate the schema config, cached by content
+        pinotConfigValidator.validateSchema(schema.getSpec().getPinotSchemaJson());
     }
 
     /**
      * Apply schema to Pinot cluster
      */
-    private void applySchemaToCluster(PinotSchema schema) {
+    private CompletableFuture<Void> applySchemaToCluster(PinotSchema schema) {
         String clusterName = schema.getSpec().getPinotCluster();
+        String schemaName = schema.getMetadata().getName();
         String schemaJson = schema.getSpec().getPinotSchemaJson();
         
         logger.info("Applying schema to Pinot cluster: {}", clusterName);
         
-        // TODO: Implement actual Pinot cluster communication
-        // This would typically involve:
-        // 1. Getting the Pinot controller endpoint
-        // 2. Sending HTTP POST request to /schemas endpoint
-        // 3. Handling response and errors
-        
-        // For now, we'll simulate the operation
-        try {
-            Thread.sleep(1000); // Simulate network delay
-            logger.info("Schema applied to cluster: {}", clusterName);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Schema application interrupted", e);
+        String cluster = controllerEndpoints.register(schema.getMetadata().getNamespace(), clusterName);
+        if (cluster == null) {
+            throw new IllegalStateException("Pinot cluster " + clusterName + " has no controller service");
         }
+        return pinotClusterClient.createOrUpdateSchemaAsync(cluster, schemaName, schemaJson).thenAccept(accepted -> {
+            if (!accepted) {
+                throw new IllegalStateException("Pinot controller of cluster " + clusterName
+                        + " did not accept schema " + schemaName);
+            }
+        });
     }
 
     /**
      * Remove schema from Pinot cluster
      */
-    private void removeSchemaFromCluster(PinotSchema schema) {
+    private CompletableFuture<Void> removeSchemaFromCluster(PinotSchema schema) {
         String clusterName = schema.getSpec().getPinotCluster();
+        String schemaName = schema.getMetadata().getName();
         
         logger.info("Removing schema from Pinot cluster: {}", clusterName);
         
-        // TODO: Implement actual Pinot cluster communication
-        // This would typically involve:
-        // 1. Getting the Pinot controller endpoint
-        // 2. Sending HTTP DELETE request to /schemas/{schemaName} endpoint
-        // 3. Handling response and errors
-        
-        // For now, we'll simulate the operation
-        try {
-            Thread.sleep(500); // Simulate network delay
-            logger.info("Schema removed from cluster: {}", clusterName);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Schema removal interrupted", e);
+        String cluster = controllerEndpoints.register(schema.getMetadata().getNamespace(), clusterName);
+        if (cluster == null) {
+            // The cluster is gone, and the schema with it
+            logger.info("Pinot cluster {} has no controller, nothing to remove", clusterName);
+            return CompletableFuture.completedFuture(null);
         }
+        return pinotClusterClient.deleteSchemaAsync(cluster, schemaName).thenAccept(deleted -> {
+            if (!deleted) {
+                throw new IllegalStateException("Pinot controller of cluster " + clusterName
+                        + " did not delete schema " + schemaName);
+            }
+        });
     }
 
     /**
@@ -192,11 +223,22 @@ public class PinotSchemaService {
      * Update schema status
      */
     private void updateSchemaStatus(PinotSchema schema, String status, String message, String reason) {
+        updateSchemaStatus(schema, status, message, reason, null);
+    }
+
+    /**
+     * Update schema status, recording the generation whose spec was applied unless it is null
+     */
+    private void updateSchemaStatus(PinotSchema schema, String status, String message, String reason,
+                                    Long appliedGeneration) {
         try {
-            PinotSchema.PinotSchemaStatus schemaStatus = schema.getStatus();
+            // Build the new status on a copy of the latest one, the informer cache may lag behind queued writes
+            PinotSchema.PinotSchemaStatus schemaStatus = statusWriter.latest(schema, PinotSchema.PinotSchemaStatus.class);
             if (schemaStatus == null) {
                 schemaStatus = new PinotSchema.PinotSchemaStatus();
-                schema.setStatus(schemaStatus);
+            }
+            if (appliedGeneration != null) {
+                schemaStatus.setObservedGeneration(appliedGeneration);
             }
             
             schemaStatus.setStatus(status);
@@ -205,18 +247,22 @@ public class PinotSchemaService {
             schemaStatus.setLastUpdateTime(Instant.now().toString());
             schemaStatus.setType("Schema");
             
-            // Update the resource status in Kubernetes
-            kubernetesClient.resources(PinotSchema.class)
-                    .inNamespace(schema.getMetadata().getNamespace())
-                    .withName(schema.getMetadata().getName())
-                    .replaceStatus(schema);
-            
-            logger.debug("Updated status for schema: {}/{} - Status: {}", 
-                    schema.getMetadata().getNamespace(), 
-                    schema.getMetadata().getName(), 
-                    status);
+            // Dropped when only the timestamp changed, otherwise coalesced and sent as a merge patch
+            if (statusWriter.write(schema, schemaStatus, PinotSchema::new)) {
+                logger.debug("Queued status update for schema: {}/{} - Status: {}", 
+                        schema.getMetadata().getNamespace(), 
+                        schema.getMetadata().getName(), 
+                        status);
+            }
         } catch (Exception e) {
             logger.error("Failed to update status for schema: {}", schema.getMetadata().getName(), e);
         }
     }
+
+    /**
+     * Get the failure behind the completion wrapper of a future
+     */
+    private static Throwable causeOf(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
 }
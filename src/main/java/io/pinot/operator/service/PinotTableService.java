@@ -1,7 +1,9 @@
 package io.pinot.operator.service;
 
+import io.pinot.operator.api.Pinot;
 import io.pinot.operator.api.PinotTable;
-import io.fabric8.kubernetes.client.KubernetesClient;
+import io.pinot.operator.util.PinotClusterClient;
+import io.pinot.operator.util.PinotConfigValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,70 +12,127 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing Pinot tables in Kubernetes
  * 
  * This service handles the creation, update, and deletion of
  * Pinot tables and their status management.
+ *
+ * A table whose cluster has unhealthy nodes in the latest cached health
+ * probe is reported as Degraded.
  */
 @Service
 public class PinotTableService {
 
     private static final Logger logger = LoggerFactory.getLogger(PinotTableService.class);
+
+    /**
+     * Message of the Ready status, the same after an apply and a resync so the status is only written once
+     */
+    private static final String READY_MESSAGE = "Table is applied and healthy";
     
-    private final KubernetesClient kubernetesClient;
+    private final PinotConfigValidator pinotConfigValidator;
+    private final StatusWriter statusWriter;
+    private final ClusterHealthProber healthProber;
+    private final PinotClusterClient pinotClusterClient;
+    private final PinotControllerEndpoints controllerEndpoints;
 
     @Autowired
-    public PinotTableService(KubernetesClient kubernetesClient) {
-        this.kubernetesClient = kubernetesClient;
+    public PinotTableService(PinotConfigValidator pinotConfigValidator, StatusWriter statusWriter,
+                             ClusterHealthProber healthProber, PinotClusterClient pinotClusterClient,
+                             PinotControllerEndpoints controllerEndpoints) {
+        this.pinotConfigValidator = pinotConfigValidator;
+        this.statusWriter = statusWriter;
+        this.healthProber = healthProber;
+        this.pinotClusterClient = pinotClusterClient;
+        this.controllerEndpoints = controllerEndpoints;
     }
 
     /**
      * Create or update a Pinot table
+     *
+     * Validation runs on the calling thread and the request to the Pinot
+     * controller is sent without waiting for its answer. The returned future
+     * completes once the controller accepted the table and its status is queued.
      */
-    public void createOrUpdateTable(PinotTable table) {
+    public CompletableFuture<Void> createOrUpdateTable(PinotTable table) {
+        String namespace = table.getMetadata().getNamespace();
+        String tableName = table.getMetadata().getName();
+        CompletableFuture<Void> applied;
         try {
-            String namespace = table.getMetadata().getNamespace();
-            String tableName = table.getMetadata().getName();
-            
             logger.info("Creating/updating Pinot table: {}/{}", namespace, tableName);
             
             // Validate table configuration
             validateTable(table);
             
             // Apply table to Pinot cluster
-            applyTableToCluster(table);
+            applied = applyTableToCluster(table);
+        } catch (Exception e) {
+            applied = CompletableFuture.failedFuture(e);
+        }
+        return applied.handle((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = causeOf(error);
+                logger.error("Error creating/updating Pinot table: {}", tableName, cause);
+                updateTableStatus(table, "Failed", "Table operation failed", cause.getMessage());
+                throw new RuntimeException("Failed to create/update Pinot table", cause);
+            }
             
             // Update status
-            updateTableStatus(table, "Ready", "Table applied successfully", "");
+            publishReadyStatus(table, table.getMetadata().getGeneration());
             
             logger.info("Successfully created/updated Pinot table: {}/{}", namespace, tableName);
-        } catch (Exception e) {
-            logger.error("Error creating/updating Pinot table: {}", table.getMetadata().getName(), e);
-            updateTableStatus(table, "Failed", "Table operation failed", e.getMessage());
-            throw new RuntimeException("Failed to create/update Pinot table", e);
-        }
+            return null;
+        });
+    }
+
+    /**
+     * Record that a Pinot table is waiting for a referenced resource to become ready
+     */
+    public void markTablePending(PinotTable table, String message) {
+        updateTableStatus(table, "Pending", message, "DependencyNotReady");
+    }
+
+    /**
+     * Run a callback when the probed health of a Pinot cluster changes
+     */
+    public void onClusterHealthChange(Consumer<Pinot> listener) {
+        healthProber.addListener(listener);
     }
 
     /**
      * Delete a Pinot table
+     *
+     * The returned future completes once the Pinot controller removed the table.
      */
-    public void deleteTable(PinotTable table) {
+    public CompletableFuture<Void> deleteTable(PinotTable table) {
+        String namespace = table.getMetadata().getNamespace();
+        String tableName = table.getMetadata().getName();
+        CompletableFuture<Void> removed;
         try {
-            String namespace = table.getMetadata().getNamespace();
-            String tableName = table.getMetadata().getName();
-            
             logger.info("Deleting Pinot table: {}/{}", namespace, tableName);
             
             // Remove table from Pinot cluster
-            removeTableFromCluster(table);
-            
-            logger.info("Successfully deleted Pinot table: {}/{}", namespace, tableName);
+            removed = removeTableFromCluster(table);
         } catch (Exception e) {
-            logger.error("Error deleting Pinot table: {}", table.getMetadata().getName(), e);
-            throw new RuntimeException("Failed to delete Pinot table", e);
+            removed = CompletableFuture.failedFuture(e);
         }
+        return removed.handle((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = causeOf(error);
+                logger.error("Error deleting Pinot table: {}", tableName, cause);
+                throw new RuntimeException("Failed to delete Pinot table", cause);
+            }
+            statusWriter.forget(table);
+            
+            logger.info("Successfully deleted Pinot table: {}/{}", namespace, tableName);
+            return null;
+        });
     }
 
     /**
@@ -86,11 +145,8 @@ public class PinotTableService {
             
             logger.debug("Reconciling Pinot table: {}/{}", namespace, tableName);
             
-            // Check table health and status
-            checkTableHealth(table);
-            
-            // Update status if needed
-            updateTableStatus(table, "Ready", "Table is healthy", "");
+            // Check table health and update status if needed
+            publishReadyStatus(table, null);
             
         } catch (Exception e) {
             logger.error("Error reconciling Pinot table: {}", table.getMetadata().getName(), e);
@@ -122,96 +178,113 @@ public class PinotTableService {
             throw new IllegalArgumentException("Table JSON configuration is required");
         }
         
-        // Validate JSON format
-        try {
-            // Basic JSON validation - could be enhanced with proper JSON schema validation
-            String tableJson = table.getSpec().getPinotTablesJson();
-            if (!tableJson.trim().startsWith("{") || !tableJson.trim().endsWith("}")) {
-                throw new IllegalArgumentException("Invalid JSON format for table configuration");
-            }
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid JSON format for table configuration", e);
-        }
+        // Parse and validate the table config, cached by content
+        pinotConfigValidator.validateTable(table.getSpec().getPinotTablesJson(),
+                table.getSpec().getPinotTableType().getValue());
     }
 
     /**
      * Apply table to Pinot cluster
      */
-    private void applyTableToCluster(PinotTable table) {
+    private CompletableFuture<Void> applyTableToCluster(PinotTable table) {
         String clusterName = table.getSpec().getPinotCluster();
+        String tableName = table.getMetadata().getName();
         String tableJson = table.getSpec().getPinotTablesJson();
         String tableType = table.getSpec().getPinotTableType().getValue();
         
         logger.info("Applying table to Pinot cluster: {} with type: {}", clusterName, tableType);
         
-        // TODO: Implement actual Pinot cluster communication
-        // This would typically involve:
-        // 1. Getting the Pinot controller endpoint
-        // 2. Sending HTTP POST request to /tables endpoint
-        // 3. Handling response and errors
-        // 4. Managing table type specific configurations
-        
-        // For now, we'll simulate the operation
-        try {
-            Thread.sleep(1000); // Simulate network delay
-            logger.info("Table applied to cluster: {} with type: {}", clusterName, tableType);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Table application interrupted", e);
+        String cluster = controllerEndpoints.register(table.getMetadata().getNamespace(), clusterName);
+        if (cluster == null) {
+            throw new IllegalStateException("Pinot cluster " + clusterName + " has no controller service");
         }
+        return pinotClusterClient.createOrUpdateTableAsync(cluster, tableName, tableJson).thenAccept(accepted -> {
+            if (!accepted) {
+                throw new IllegalStateException("Pinot controller of cluster " + clusterName
+                        + " did not accept table " + tableName);
+            }
+        });
     }
 
     /**
      * Remove table from Pinot cluster
      */
-    private void removeTableFromCluster(PinotTable table) {
+    private CompletableFuture<Void> removeTableFromCluster(PinotTable table) {
         String clusterName = table.getSpec().getPinotCluster();
         String tableName = table.getMetadata().getName();
         
         logger.info("Removing table from Pinot cluster: {}", clusterName);
         
-        // TODO: Implement actual Pinot cluster communication
-        // This would typically involve:
-        // 1. Getting the Pinot controller endpoint
-        // 2. Sending HTTP DELETE request to /tables/{tableName} endpoint
-        // 3. Handling response and errors
-        
-        // For now, we'll simulate the operation
-        try {
-            Thread.sleep(500); // Simulate network delay
-            logger.info("Table removed from cluster: {}", clusterName);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Table removal interrupted", e);
+        String cluster = controllerEndpoints.register(table.getMetadata().getNamespace(), clusterName);
+        if (cluster == null) {
+            // The cluster is gone, and the table with it
+            logger.info("Pinot cluster {} has no controller, nothing to remove", clusterName);
+            return CompletableFuture.completedFuture(null);
         }
+        return pinotClusterClient.deleteTableAsync(cluster, tableName).thenAccept(deleted -> {
+            if (!deleted) {
+                throw new IllegalStateException("Pinot controller of cluster " + clusterName
+                        + " did not delete table " + tableName);
+            }
+        });
     }
 
     /**
-     * Check table health
+     * Write the status of an applied table, Degraded while its cluster has unhealthy nodes
+     *
+     * The applied generation is recorded when given, otherwise the recorded one is kept.
      */
-    private void checkTableHealth(PinotTable table) {
+    private void publishReadyStatus(PinotTable table, Long appliedGeneration) {
+        String unhealthy = checkTableHealth(table);
+        if (unhealthy != null) {
+            updateTableStatus(table, "Degraded", unhealthy, "ClusterUnhealthy", appliedGeneration);
+        } else {
+            updateTableStatus(table, "Ready", READY_MESSAGE, "", appliedGeneration);
+        }
+    }
+
+    /**
+     * Check table health against the cached health of its cluster
+     *
+     * @return why the table is degraded, or null if its cluster is healthy or has no recent probe
+     */
+    private String checkTableHealth(PinotTable table) {
         String clusterName = table.getSpec().getPinotCluster();
         String tableName = table.getMetadata().getName();
         
         logger.debug("Checking health for table: {} in cluster: {}", tableName, clusterName);
         
-        // TODO: Implement actual health checking
-        // This would typically involve:
-        // 1. Checking if the table exists in the cluster
-        // 2. Validating table configuration
-        // 3. Checking segment status and health
-        // 4. Monitoring ingestion metrics
+        ClusterHealthProber.ClusterHealth health = healthProber.getHealth(table.getMetadata().getNamespace(),
+                clusterName);
+        if (health == null || health.getStatus().isHealthy()) {
+            return null;
+        }
+        return "Pinot cluster " + clusterName + " has unhealthy nodes: " + health.getStatus().getNodes().stream()
+                .filter(node -> !node.isHealthy())
+                .map(Pinot.NodeHealth::getName)
+                .collect(Collectors.joining(", "));
     }
 
     /**
      * Update table status
      */
     private void updateTableStatus(PinotTable table, String status, String message, String reason) {
+        updateTableStatus(table, status, message, reason, null);
+    }
+
+    /**
+     * Update table status, recording the generation whose spec was applied unless it is null
+     */
+    private void updateTableStatus(PinotTable table, String status, String message, String reason,
+                                   Long appliedGeneration) {
         try {
-            PinotTable.PinotTableStatus tableStatus = table.getStatus();
+            // Build the new status on a copy of the latest one, the informer cache may lag behind queued writes
+            PinotTable.PinotTableStatus tableStatus = statusWriter.latest(table, PinotTable.PinotTableStatus.class);
             if (tableStatus == null) {
                 tableStatus = new PinotTable.PinotTableStatus();
-                table.setStatus(tableStatus);
+            }
+            if (appliedGeneration != null) {
+                tableStatus.setObservedGeneration(appliedGeneration);
             }
             
             tableStatus.setStatus(status);
@@ -220,18 +293,22 @@ public class PinotTableService {
             tableStatus.setLastUpdateTime(Instant.now().toString());
             tableStatus.setType("Table");
             
-            // Update the resource status in Kubernetes
-            kubernetesClient.resources(PinotTable.class)
-                    .inNamespace(table.getMetadata().getNamespace())
-                    .withName(table.getMetadata().getName())
-                    .replaceStatus(table);
-            
-            logger.debug("Updated status for table: {}/{} - Status: {}", 
-                    table.getMetadata().getNamespace(), 
-                    table.getMetadata().getName(), 
-                    status);
+            // Dropped when only the timestamp changed, otherwise coalesced and sent as a merge patch
+            if (statusWriter.write(table, tableStatus, PinotTable::new)) {
+                logger.debug("Queued status update for table: {}/{} - Status: {}", 
+                        table.getMetadata().getNamespace(), 
+                        table.getMetadata().getName(), 
+                        status);
+            }
         } catch (Exception e) {
             logger.error("Failed to update status for table: {}", table.getMetadata().getName(), e);
         }
     }
+
+    /**
+     * Get the failure behind the completion wrapper of a future
+     */
+    private static Throwable causeOf(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
 }
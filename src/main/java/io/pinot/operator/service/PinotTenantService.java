@@ -1,13 +1,16 @@
 package io.pinot.operator.service;
 
 import io.pinot.operator.api.PinotTenant;
-import io.fabric8.kubernetes.client.KubernetesClient;
+import io.pinot.operator.util.PinotClusterClient;
+import io.pinot.operator.util.PinotConfigValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service for managing Pinot tenants in Kubernetes
@@ -19,59 +22,99 @@ import java.time.Instant;
 public class PinotTenantService {
 
     private static final Logger logger = LoggerFactory.getLogger(PinotTenantService.class);
+
+    /**
+     * Message of the Ready status, the same after an apply and a resync so the status is only written once
+     */
+    private static final String READY_MESSAGE = "Tenant is applied and healthy";
     
-    private final KubernetesClient kubernetesClient;
+    private final PinotConfigValidator pinotConfigValidator;
+    private final StatusWriter statusWriter;
+    private final PinotClusterClient pinotClusterClient;
+    private final PinotControllerEndpoints controllerEndpoints;
 
     @Autowired
-    public PinotTenantService(KubernetesClient kubernetesClient) {
-        this.kubernetesClient = kubernetesClient;
+    public PinotTenantService(PinotConfigValidator pinotConfigValidator, StatusWriter statusWriter,
+                              PinotClusterClient pinotClusterClient, PinotControllerEndpoints controllerEndpoints) {
+        this.pinotConfigValidator = pinotConfigValidator;
+        this.statusWriter = statusWriter;
+        this.pinotClusterClient = pinotClusterClient;
+        this.controllerEndpoints = controllerEndpoints;
     }
 
     /**
      * Create or update a Pinot tenant
+     *
+     * Validation runs on the calling thread and the request to the Pinot
+     * controller is sent without waiting for its answer. The returned future
+     * completes once the controller accepted the tenant and its status is queued.
      */
-    public void createOrUpdateTenant(PinotTenant tenant) {
+    public CompletableFuture<Void> createOrUpdateTenant(PinotTenant tenant) {
+        String namespace = tenant.getMetadata().getNamespace();
+        String tenantName = tenant.getMetadata().getName();
+        CompletableFuture<Void> applied;
         try {
-            String namespace = tenant.getMetadata().getNamespace();
-            String tenantName = tenant.getMetadata().getName();
-            
             logger.info("Creating/updating Pinot tenant: {}/{}", namespace, tenantName);
             
             // Validate tenant configuration
             validateTenant(tenant);
             
             // Apply tenant to Pinot cluster
-            applyTenantToCluster(tenant);
+            applied = applyTenantToCluster(tenant);
+        } catch (Exception e) {
+            applied = CompletableFuture.failedFuture(e);
+        }
+        return applied.handle((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = causeOf(error);
+                logger.error("Error creating/updating Pinot tenant: {}", tenantName, cause);
+                updateTenantStatus(tenant, "Failed", "Tenant operation failed", cause.getMessage());
+                throw new RuntimeException("Failed to create/update Pinot tenant", cause);
+            }
             
             // Update status
-            updateTenantStatus(tenant, "Ready", "Tenant applied successfully", "");
+            updateTenantStatus(tenant, "Ready", READY_MESSAGE, "", tenant.getMetadata().getGeneration());
             
             logger.info("Successfully created/updated Pinot tenant: {}/{}", namespace, tenantName);
-        } catch (Exception e) {
-            logger.error("Error creating/updating Pinot tenant: {}", tenant.getMetadata().getName(), e);
-            updateTenantStatus(tenant, "Failed", "Tenant operation failed", e.getMessage());
-            throw new RuntimeException("Failed to create/update Pinot tenant", e);
-        }
+            return null;
+        });
+    }
+
+    /**
+     * Record that a Pinot tenant is waiting for a referenced resource to become ready
+     */
+    public void markTenantPending(PinotTenant tenant, String message) {
+        updateTenantStatus(tenant, "Pending", message, "DependencyNotReady");
     }
 
     /**
      * Delete a Pinot tenant
+     *
+     * The returned future completes once the Pinot controller removed the tenant.
      */
-    public void deleteTenant(PinotTenant tenant) {
+    public CompletableFuture<Void> deleteTenant(PinotTenant tenant) {
+        String namespace = tenant.getMetadata().getNamespace();
+        String tenantName = tenant.getMetadata().getName();
+        CompletableFuture<Void> removed;
         try {
-            String namespace = tenant.getMetadata().getNamespace();
-            String tenantName = tenant.getMetadata().getName();
-            
             logger.info("Deleting Pinot tenant: {}/{}", namespace, tenantName);
             
             // Remove tenant from Pinot cluster
-            removeTenantFromCluster(tenant);
-            
-            logger.info("Successfully deleted Pinot tenant: {}/{}", namespace, tenantName);
+            removed = removeTenantFromCluster(tenant);
         } catch (Exception e) {
-            logger.error("Error deleting Pinot tenant: {}", tenant.getMetadata().getName(), e);
-            throw new RuntimeException("Failed to delete Pinot tenant", e);
+            removed = CompletableFuture.failedFuture(e);
         }
+        return removed.handle((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = causeOf(error);
+                logger.error("Error deleting Pinot tenant: {}", tenantName, cause);
+                throw new RuntimeException("Failed to delete Pinot tenant", cause);
+            }
+            statusWriter.forget(tenant);
+            
+            logger.info("Successfully deleted Pinot tenant: {}/{}", namespace, tenantName);
+            return null;
+        });
     }
 
     /**
@@ -88,7 +131,7 @@ public class PinotTenantService {
             checkTenantHealth(tenant);
             
             // Update status if needed
-            updateTenantStatus(tenant, "Ready", "Tenant is healthy", "");
+            updateTenantStatus(tenant, "Ready", READY_MESSAGE, "");
             
         } catch (Exception e) {
             logger.error("Error reconciling Pinot tenant: {}", tenant.getMetadata().getName(), e);
@@ -112,68 +155,53 @@ public class PinotTenantService {
             throw new IllegalArgumentException("Tenant configuration is required");
         }
         
-        // Validate configuration format
-        try {
-            // Basic validation - could be enhanced with proper configuration validation
-            String tenantConfig = tenant.getSpec().getTenantConfig();
-            if (!tenantConfig.trim().startsWith("{") || !tenantConfig.trim().endsWith("}")) {
-                throw new IllegalArgumentException("Invalid configuration format for tenant");
-            }
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid configuration format for tenant", e);
-        }
+        // Parse and validate the tenant config, cached by content
+        pinotConfigValidator.validateTenant(tenant.getSpec().getTenantConfig());
     }
 
     /**
      * Apply tenant to Pinot cluster
      */
-    private void applyTenantToCluster(PinotTenant tenant) {
+    private CompletableFuture<Void> applyTenantToCluster(PinotTenant tenant) {
         String clusterName = tenant.getSpec().getPinotCluster();
+        String tenantName = tenant.getMetadata().getName();
         String tenantConfig = tenant.getSpec().getTenantConfig();
         
         logger.info("Applying tenant to Pinot cluster: {}", clusterName);
         
-        // TODO: Implement actual Pinot cluster communication
-        // This would typically involve:
-        // 1. Getting the Pinot controller endpoint
-        // 2. Sending HTTP POST request to /tenants endpoint
-        // 3. Handling response and errors
-        // 4. Managing tenant-specific configurations and resources
-        
-        // For now, we'll simulate the operation
-        try {
-            Thread.sleep(1000); // Simulate network delay
-            logger.info("Tenant applied to cluster: {}", clusterName);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Tenant application interrupted", e);
+        String cluster = controllerEndpoints.register(tenant.getMetadata().getNamespace(), clusterName);
+        if (cluster == null) {
+            throw new IllegalStateException("Pinot cluster " + clusterName + " has no controller service");
         }
+        return pinotClusterClient.createOrUpdateTenantAsync(cluster, tenantName, tenantConfig).thenAccept(accepted -> {
+            if (!accepted) {
+                throw new IllegalStateException("Pinot controller of cluster " + clusterName
+                        + " did not accept tenant " + tenantName);
+            }
+        });
     }
 
     /**
      * Remove tenant from Pinot cluster
      */
-    private void removeTenantFromCluster(PinotTenant tenant) {
+    private CompletableFuture<Void> removeTenantFromCluster(PinotTenant tenant) {
         String clusterName = tenant.getSpec().getPinotCluster();
         String tenantName = tenant.getMetadata().getName();
         
         logger.info("Removing tenant from Pinot cluster: {}", clusterName);
         
-        // TODO: Implement actual Pinot cluster communication
-        // This would typically involve:
-        // 1. Getting the Pinot controller endpoint
-        // 2. Sending HTTP DELETE request to /tenants/{tenantName} endpoint
-        // 3. Handling response and errors
-        // 4. Cleaning up tenant-specific resources
-        
-        // For now, we'll simulate the operation
-        try {
-            Thread.sleep(500); // Simulate network delay
-            logger.info("Tenant removed from cluster: {}", clusterName);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Tenant removal interrupted", e);
+        String cluster = controllerEndpoints.register(tenant.getMetadata().getNamespace(), clusterName);
+        if (cluster == null) {
+            // The cluster is gone, and the tenant with it
+            logger.info("Pinot cluster {} has no controller, nothing to remove", clusterName);
+            return CompletableFuture.completedFuture(null);
         }
+        return pinotClusterClient.deleteTenantAsync(cluster, tenantName).thenAccept(deleted -> {
+            if (!deleted) {
+                throw new IllegalStateException("Pinot controller of cluster " + clusterName
+                        + " did not delete tenant " + tenantName);
+            }
+        });
     }
 
     /**
@@ -197,11 +225,22 @@ public class PinotTenantService {
      * Update tenant status
      */
     private void updateTenantStatus(PinotTenant tenant, String status, String message, String reason) {
+        updateTenantStatus(tenant, status, message, reason, null);
+    }
+
+    /**
+     * Update tenant status, recording the generation whose spec was applied unless it is null
+     */
+    private void updateTenantStatus(PinotTenant tenant, String status, String message, String reason,
+                                    Long appliedGeneration) {
         try {
-            PinotTenant.PinotTenantStatus tenantStatus = tenant.getStatus();
+            // Build the new status on a copy of the latest one, the informer cache may lag behind queued writes
+            PinotTenant.PinotTenantStatus tenantStatus = statusWriter.latest(tenant, PinotTenant.PinotTenantStatus.class);
             if (tenantStatus == null) {
                 tenantStatus = new PinotTenant.PinotTenantStatus();
-                tenant.setStatus(tenantStatus);
+            }
+            if (appliedGeneration != null) {
+                tenantStatus.setObservedGeneration(appliedGeneration);
             }
             
             tenantStatus.setStatus(status);
@@ -210,18 +249,22 @@ public class PinotTenantService {
             tenantStatus.setLastUpdateTime(Instant.now().toString());
             tenantStatus.setType("Tenant");
             
-            // Update the resource status in Kubernetes
-            kubernetesClient.resources(PinotTenant.class)
-                    .inNamespace(tenant.getMetadata().getNamespace())
-                    .withName(tenant.getMetadata().getName())
-                    .replaceStatus(tenant);
-            
-            logger.debug("Updated status for tenant: {}/{} - Status: {}", 
-                    tenant.getMetadata().getNamespace(), 
-                    tenant.getMetadata().getName(), 
-                    status);
+            // Dropped when only the timestamp changed, otherwise coalesced and sent as a merge patch
+            if (statusWriter.write(tenant, tenantStatus, PinotTenant::new)) {
+                logger.debug("Queued status update for tenant: {}/{} - Status: {}", 
+                        tenant.getMetadata().getNamespace(), 
+                        tenant.getMetadata().getName(), 
+                        status);
+            }
         } catch (Exception e) {
             logger.error("Failed to update status for tenant: {}", tenant.getMetadata().getName(), e);
         }
     }
+
+    /**
+     * Get the failure behind the completion wrapper of a future
+     */
+    private static Throwable causeOf(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
 }
@@ -0,0 +1,200 @@
+package io.pinot.operator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.ApiThrottle;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Writes custom resource statuses, skipping and coalescing redundant writes
+ *
+ * A status is compared with the last one written for the same resource,
+ * or the cached one if none was, ignoring lastUpdateTime. Unchanged
+ * statuses are dropped, so a reconcile that only refreshes the timestamp
+ * no longer produces a MODIFIED event that feeds back into the watchers.
+ * Changed statuses are held for a short delay and only the latest one per
+ * resource is sent, as a merge patch of the status subresource.
+ */
+@Component
+public class StatusWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusWriter.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String TIMESTAMP_FIELD = "lastUpdateTime";
+
+    private final Patcher patcher;
+    private final long coalesceMillis;
+    private final ScheduledExecutorService flushTimer;
+    private final ConcurrentMap<String, JsonNode> lastWritten = new ConcurrentHashMap<>();
+    private final Map<String, CustomResource<?, ?>> pending = new HashMap<>();
+
+    @Autowired
+    public StatusWriter(KubernetesClient kubernetesClient, OperatorMetrics operatorMetrics, ApiThrottle apiThrottle,
+                        OperatorProperties operatorProperties) {
+        this(update -> {
+            apiThrottle.acquire();
+            operatorMetrics.timeApiCall("patch", update.getKind(), () -> patchStatus(kubernetesClient, update));
+        }, operatorProperties.getStatusCoalesceDelay());
+    }
+
+    StatusWriter(Patcher patcher, long coalesceMillis) {
+        this.patcher = patcher;
+        this.coalesceMillis = Math.max(0, coalesceMillis);
+        this.flushTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a status write for a resource unless it only differs in its timestamp
+     *
+     * @return true if a write was queued
+     */
+    public <S, T extends CustomResource<?, S>> boolean write(T resource, S status, Supplier<T> factory) {
+        String key = keyOf(resource);
+        JsonNode desired = comparable(status);
+        JsonNode known = lastWritten.getOrDefault(key, comparable(resource.getStatus()));
+        if (desired.equals(known)) {
+            return false;
+        }
+        lastWritten.put(key, desired);
+
+        T update = factory.get();
+        update.setMetadata(new ObjectMetaBuilder()
+                .withName(resource.getMetadata().getName())
+                .withNamespace(resource.getMetadata().getNamespace())
+                .build());
+        update.setStatus(status);
+
+        synchronized (this) {
+            if (pending.put(key, update) == null) {
+                flushTimer.schedule(() -> flush(key), coalesceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drop the write state of a deleted resource
+     */
+    public void forget(CustomResource<?, ?> resource) {
+        String key = keyOf(resource);
+        lastWritten.remove(key);
+        synchronized (this) {
+            pending.remove(key);
+        }
+    }
+
+    /**
+     * Get the number of status writes waiting to be sent
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Drop pending writes and stop the flush timer
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            pending.clear();
+        }
+        flushTimer.shutdownNow();
+    }
+
+    /**
+     * Get a copy of the status last queued for a resource, or of its cached status if none was
+     *
+     * The informer cache lags behind queued writes, so a status built on this
+     * copy does not revert fields another reconcile has just written.
+     */
+    public <S, T extends CustomResource<?, S>> S latest(T resource, Class<S> type) {
+        JsonNode written = lastWritten.get(keyOf(resource));
+        if (written == null || written.isNull()) {
+            return resource.getStatus() != null ? copyOf(resource.getStatus(), type) : null;
+        }
+        return MAPPER.convertValue(written, type);
+    }
+
+    /**
+     * Copy a status so it can be modified without touching the informer cache
+     */
+    public static <S> S copyOf(S status, Class<S> type) {
+        return MAPPER.convertValue(status, type);
+    }
+
+    private void flush(String key) {
+        CustomResource<?, ?> update;
+        synchronized (this) {
+            update = pending.remove(key);
+        }
+        if (update == null) {
+            return;
+        }
+        try {
+            patcher.patch(update);
+            logger.debug("Patched status of {}", key);
+        } catch (Exception e) {
+            // Forget what was written so the next reconcile sends the status again
+            lastWritten.remove(key);
+            logger.error("Failed to patch status of {}", key, e);
+        }
+    }
+
+    private static String keyOf(CustomResource<?, ?> resource) {
+        return resource.getKind() + ":" + ResourceCache.keyOf(resource);
+    }
+
+    private static JsonNode comparable(Object status) {
+        if (status == null) {
+            return NullNode.getInstance();
+        }
+        JsonNode node = MAPPER.valueToTree(status);
+        if (node instanceof ObjectNode) {
+            ((ObjectNode) node).remove(TIMESTAMP_FIELD);
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends CustomResource<?, ?>> T patchStatus(KubernetesClient kubernetesClient, T update) {
+        return kubernetesClient.resources((Class<T>) update.getClass())
+                .inNamespace(update.getMetadata().getNamespace())
+                .resource(update)
+                .patchStatus();
+    }
+
+    /**
+     * Sends one status update to the API server
+     */
+    @FunctionalInterface
+    interface Patcher {
+        void patch(CustomResource<?, ?> update) throws Exception;
+    }
+}
@@ -0,0 +1,114 @@
+package io.pinot.operator.util;
+
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.pinot.operator.api.Pinot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for deriving JVM memory flags from a container memory limit
+ *
+ * The limit is split into heap and direct memory by node type; the rest is
+ * left for metaspace, thread stacks and other native allocations so the
+ * JVM stays below the limit. Servers get most of their budget as direct
+ * memory for segment buffers, while controllers and brokers are heap bound.
+ *
+ * Configured options win: a derived flag is dropped when the configured
+ * options already choose a collector, size the heap or cap direct memory,
+ * since conflicting collectors keep the JVM from starting and a derived
+ * initial heap above a configured maximum does too.
+ */
+public final class JvmSizing {
+
+    private static final long MIB = 1024L * 1024L;
+
+    private static final String GC_FLAGS = "-XX:+UseG1GC -XX:MaxGCPauseMillis=200 -XX:+ExitOnOutOfMemoryError";
+
+    private static final Pattern COLLECTOR_FLAG = Pattern.compile("-XX:[+-]Use\\w*GC");
+
+    private static final String MAX_GC_PAUSE_FLAG = "-XX:MaxGCPauseMillis=";
+
+    private static final String MAX_DIRECT_MEMORY_FLAG = "-XX:MaxDirectMemorySize=";
+
+    private static final List<String> HEAP_FLAGS = List.of("-Xms", "-Xmx", "-XX:InitialHeapSize=",
+            "-XX:MaxHeapSize=", "-XX:InitialRAMPercentage=", "-XX:MinRAMPercentage=", "-XX:MaxRAMPercentage=");
+
+    private JvmSizing() {
+    }
+
+    /**
+     * Build the JVM memory and GC flags for a node type and container memory limit
+     */
+    public static String deriveJavaOpts(Pinot.PinotNodeType nodeType, Quantity memoryLimit) {
+        long limitMiB = Quantity.getAmountInBytes(memoryLimit)
+                .divide(BigDecimal.valueOf(MIB), 0, RoundingMode.DOWN)
+                .longValue();
+        long heapMiB = limitMiB * heapPercent(nodeType) / 100;
+        long directMiB = limitMiB * directPercent(nodeType) / 100;
+        return "-Xms" + heapMiB + "m -Xmx" + heapMiB + "m -XX:MaxDirectMemorySize=" + directMiB + "m " + GC_FLAGS;
+    }
+
+    /**
+     * Combine derived flags with configured options, leaving out derived flags the configured ones override
+     */
+    public static String withDerivedOpts(String derivedOpts, String javaOpts) {
+        if (javaOpts == null || javaOpts.isBlank()) {
+            return derivedOpts;
+        }
+        List<String> configured = Arrays.asList(javaOpts.trim().split("\\s+"));
+        String kept = Arrays.stream(derivedOpts.trim().split("\\s+"))
+                .filter(flag -> !isOverridden(flag, configured))
+                .collect(Collectors.joining(" "));
+        return kept.isEmpty() ? javaOpts.trim() : kept + " " + javaOpts.trim();
+    }
+
+    private static boolean isOverridden(String derivedFlag, List<String> configured) {
+        if (isCollectorFlag(derivedFlag) || derivedFlag.startsWith(MAX_GC_PAUSE_FLAG)) {
+            // The pause goal is a G1 setting, so it goes with the derived collector
+            return configured.stream().anyMatch(JvmSizing::isCollectorFlag);
+        }
+        if (isHeapFlag(derivedFlag)) {
+            // Initial and maximum heap go together, so a configured one replaces both
+            return configured.stream().anyMatch(JvmSizing::isHeapFlag);
+        }
+        if (derivedFlag.startsWith(MAX_DIRECT_MEMORY_FLAG)) {
+            return configured.stream().anyMatch(flag -> flag.startsWith(MAX_DIRECT_MEMORY_FLAG));
+        }
+        return false;
+    }
+
+    private static boolean isCollectorFlag(String flag) {
+        return COLLECTOR_FLAG.matcher(flag).matches();
+    }
+
+    private static boolean isHeapFlag(String flag) {
+        return HEAP_FLAGS.stream().anyMatch(flag::startsWith);
+    }
+
+    private static int heapPercent(Pinot.PinotNodeType nodeType) {
+        switch (nodeType) {
+            case SERVER:
+                return 30;
+            case MINION:
+                return 50;
+            default:
+                return 65;
+        }
+    }
+
+    private static int directPercent(Pinot.PinotNodeType nodeType) {
+        switch (nodeType) {
+            case SERVER:
+                return 55;
+            case MINION:
+                return 25;
+            default:
+                return 15;
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package io.pinot.operator.util;
 
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
+import javax.annotation.PreDestroy;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Utility class for communicating with Pinot clusters
  * 
  * This class provides methods to interact with Pinot clusters via HTTP API,
  * including schema management, table management, and tenant management.
+ *
+ * Requests are sent asynchronously on a shared executor. Each cluster has a
+ * bounded number of requests in flight; further requests wait in a queue
+ * without holding a thread. The blocking methods wait on their async
+ * counterpart and are kept for callers that need a plain result. With
+ * virtual threads enabled, every request runs on its own virtual thread
+ * instead of the fixed executor, and the per-cluster limit alone bounds
+ * concurrency.
+ *
+ * Request latency is recorded per endpoint from the moment a request is
+ * sent, so time spent waiting for a free slot is not counted.
  */
 @Component
 public class PinotClusterClient {
@@ -25,20 +45,36 @@ public class PinotClusterClient {
     private static final Logger logger = LoggerFactory.getLogger(PinotClusterClient.class);
     
     private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final OperatorMetrics operatorMetrics;
+    private final int maxRequestsPerCluster;
+    private final Duration requestTimeout;
+    private final Duration healthCheckTimeout;
     private final Map<String, String> clusterEndpoints = new ConcurrentHashMap<>();
+    private final Map<String, RequestLimiter> limiters = new ConcurrentHashMap<>();
     
-    public PinotClusterClient() {
+    @Autowired
+    public PinotClusterClient(OperatorProperties operatorProperties, OperatorMetrics operatorMetrics) {
+        OperatorProperties.ClientProperties properties = operatorProperties.getClient();
+        this.operatorMetrics = operatorMetrics;
+        this.executor = VirtualThreads.newExecutor("pinot-client-", properties.getExecutorThreads(),
+                VirtualThreads.use(operatorProperties.isVirtualThreads()));
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
                 .build();
+        this.maxRequestsPerCluster = Math.max(1, properties.getMaxRequestsPerCluster());
+        this.requestTimeout = Duration.ofMillis(properties.getRequestTimeout());
+        this.healthCheckTimeout = Duration.ofMillis(properties.getHealthCheckTimeout());
     }
 
     /**
      * Register a cluster endpoint
      */
     public void registerClusterEndpoint(String clusterName, String controllerEndpoint) {
-        clusterEndpoints.put(clusterName, controllerEndpoint);
-        logger.info("Registered cluster endpoint: {} -> {}", clusterName, controllerEndpoint);
+        if (!controllerEndpoint.equals(clusterEndpoints.put(clusterName, controllerEndpoint))) {
+            logger.info("Registered cluster endpoint: {} -> {}", clusterName, controllerEndpoint);
+        }
     }
 
     /**
@@ -56,239 +92,348 @@ public class PinotClusterClient {
      * Create or update a schema
      */
     public boolean createOrUpdateSchema(String clusterName, String schemaName, String schemaJson) {
-        try {
-            String endpoint = getClusterEndpoint(clusterName);
-            String url = endpoint + "/schemas";
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(schemaJson))
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
+        return createOrUpdateSchemaAsync(clusterName, schemaName, schemaJson).join();
+    }
+
+    /**
+     * Create or update a schema asynchronously
+     */
+    public CompletableFuture<Boolean> createOrUpdateSchemaAsync(String clusterName, String schemaName, String schemaJson) {
+        return send(clusterName, "/schemas", "/schemas", post(schemaJson), requestTimeout).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Error creating/updating schema: {} in cluster: {}", schemaName, clusterName, error);
+                return false;
+            }
             if (response.statusCode() == 200 || response.statusCode() == 201) {
                 logger.info("Successfully created/updated schema: {} in cluster: {}", schemaName, clusterName);
                 return true;
-            } else {
-                logger.error("Failed to create/update schema: {} in cluster: {}. Status: {}, Response: {}", 
-                        schemaName, clusterName, response.statusCode(), response.body());
-                return false;
             }
-        } catch (Exception e) {
-            logger.error("Error creating/updating schema: {} in cluster: {}", schemaName, clusterName, e);
+            logger.error("Failed to create/update schema: {} in cluster: {}. Status: {}, Response: {}", 
+                    schemaName, clusterName, response.statusCode(), response.body());
             return false;
-        }
+        });
     }
 
     /**
      * Delete a schema
      */
     public boolean deleteSchema(String clusterName, String schemaName) {
-        try {
-            String endpoint = getClusterEndpoint(clusterName);
-            String url = endpoint + "/schemas/" + schemaName;
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .DELETE()
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
+        return deleteSchemaAsync(clusterName, schemaName).join();
+    }
+
+    /**
+     * Delete a schema asynchronously
+     */
+    public CompletableFuture<Boolean> deleteSchemaAsync(String clusterName, String schemaName) {
+        return send(clusterName, "/schemas/{name}", "/schemas/" + schemaName, delete(), requestTimeout).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Error deleting schema: {} from cluster: {}", schemaName, clusterName, error);
+                return false;
+            }
             if (response.statusCode() == 200 || response.statusCode() == 204) {
                 logger.info("Successfully deleted schema: {} from cluster: {}", schemaName, clusterName);
                 return true;
-            } else {
-                logger.error("Failed to delete schema: {} from cluster: {}. Status: {}, Response: {}", 
-                        schemaName, clusterName, response.statusCode(), response.body());
-                return false;
             }
-        } catch (Exception e) {
-            logger.error("Error deleting schema: {} from cluster: {}", schemaName, clusterName, e);
+            logger.error("Failed to delete schema: {} from cluster: {}. Status: {}, Response: {}", 
+                    schemaName, clusterName, response.statusCode(), response.body());
             return false;
-        }
+        });
     }
 
     /**
      * Create or update a table
      */
     public boolean createOrUpdateTable(String clusterName, String tableName, String tableJson) {
-        try {
-            String endpoint = getClusterEndpoint(clusterName);
-            String url = endpoint + "/tables";
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(tableJson))
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
+        return createOrUpdateTableAsync(clusterName, tableName, tableJson).join();
+    }
+
+    /**
+     * Create or update a table asynchronously
+     */
+    public CompletableFuture<Boolean> createOrUpdateTableAsync(String clusterName, String tableName, String tableJson) {
+        return send(clusterName, "/tables", "/tables", post(tableJson), requestTimeout).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Error creating/updating table: {} in cluster: {}", tableName, clusterName, error);
+                return false;
+            }
             if (response.statusCode() == 200 || response.statusCode() == 201) {
                 logger.info("Successfully created/updated table: {} in cluster: {}", tableName, clusterName);
                 return true;
-            } else {
-                logger.error("Failed to create/update table: {} in cluster: {}. Status: {}, Response: {}", 
-                        tableName, clusterName, response.statusCode(), response.body());
-                return false;
             }
-        } catch (Exception e) {
-            logger.error("Error creating/updating table: {} in cluster: {}", tableName, clusterName, e);
+            logger.error("Failed to create/update table: {} in cluster: {}. Status: {}, Response: {}", 
+                    tableName, clusterName, response.statusCode(), response.body());
             return false;
-        }
+        });
     }
 
     /**
      * Delete a table
      */
     public boolean deleteTable(String clusterName, String tableName) {
-        try {
-            String endpoint = getClusterEndpoint(clusterName);
-            String url = endpoint + "/tables/" + tableName;
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .DELETE()
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
+        return deleteTableAsync(clusterName, tableName).join();
+    }
+
+    /**
+     * Delete a table asynchronously
+     */
+    public CompletableFuture<Boolean> deleteTableAsync(String clusterName, String tableName) {
+        return send(clusterName, "/tables/{name}", "/tables/" + tableName, delete(), requestTimeout).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Error deleting table: {} from cluster: {}", tableName, clusterName, error);
+                return false;
+            }
             if (response.statusCode() == 200 || response.statusCode() == 204) {
                 logger.info("Successfully deleted table: {} from cluster: {}", tableName, clusterName);
                 return true;
-            } else {
-                logger.error("Failed to delete table: {} from cluster: {}. Status: {}, Response: {}", 
-                        tableName, clusterName, response.statusCode(), response.body());
-                return false;
             }
-        } catch (Exception e) {
-            logger.error("Error deleting table: {} from cluster: {}", tableName, clusterName, e);
+            logger.error("Failed to delete table: {} from cluster: {}. Status: {}, Response: {}", 
+                    tableName, clusterName, response.statusCode(), response.body());
             return false;
-        }
+        });
     }
 
     /**
      * Create or update a tenant
      */
     public boolean createOrUpdateTenant(String clusterName, String tenantName, String tenantConfig) {
-        try {
-            String endpoint = getClusterEndpoint(clusterName);
-            String url = endpoint + "/tenants";
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(tenantConfig))
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
+        return createOrUpdateTenantAsync(clusterName, tenantName, tenantConfig).join();
+    }
+
+    /**
+     * Create or update a tenant asynchronously
+     */
+    public CompletableFuture<Boolean> createOrUpdateTenantAsync(String clusterName, String tenantName, String tenantConfig) {
+        return send(clusterName, "/tenants", "/tenants", post(tenantConfig), requestTimeout).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Error creating/updating tenant: {} in cluster: {}", tenantName, clusterName, error);
+                return false;
+            }
             if (response.statusCode() == 200 || response.statusCode() == 201) {
                 logger.info("Successfully created/updated tenant: {} in cluster: {}", tenantName, clusterName);
                 return true;
-            } else {
-                logger.error("Failed to create/update tenant: {} in cluster: {}. Status: {}, Response: {}", 
-                        tenantName, clusterName, response.statusCode(), response.body());
-                return false;
             }
-        } catch (Exception e) {
-            logger.error("Error creating/updating tenant: {} in cluster: {}", tenantName, clusterName, e);
+            logger.error("Failed to create/update tenant: {} in cluster: {}. Status: {}, Response: {}", 
+                    tenantName, clusterName, response.statusCode(), response.body());
             return false;
-        }
+        });
     }
 
     /**
      * Delete a tenant
      */
     public boolean deleteTenant(String clusterName, String tenantName) {
-        try {
-            String endpoint = getClusterEndpoint(clusterName);
-            String url = endpoint + "/tenants/" + tenantName;
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .DELETE()
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
+        return deleteTenantAsync(clusterName, tenantName).join();
+    }
+
+    /**
+     * Delete a tenant asynchronously
+     */
+    public CompletableFuture<Boolean> deleteTenantAsync(String clusterName, String tenantName) {
+        return send(clusterName, "/tenants/{name}", "/tenants/" + tenantName, delete(), requestTimeout).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Error deleting tenant: {} from cluster: {}", tenantName, clusterName, error);
+                return false;
+            }
             if (response.statusCode() == 200 || response.statusCode() == 204) {
                 logger.info("Successfully deleted tenant: {} from cluster: {}", tenantName, clusterName);
                 return true;
-            } else {
-                logger.error("Failed to delete tenant: {} from cluster: {}. Status: {}, Response: {}", 
-                        tenantName, clusterName, response.statusCode(), response.body());
-                return false;
             }
-        } catch (Exception e) {
-            logger.error("Error deleting tenant: {} from cluster: {}", tenantName, clusterName, e);
+            logger.error("Failed to delete tenant: {} from cluster: {}. Status: {}, Response: {}", 
+                    tenantName, clusterName, response.statusCode(), response.body());
             return false;
-        }
+        });
     }
 
     /**
      * Check cluster health
      */
     public boolean checkClusterHealth(String clusterName) {
-        try {
-            String endpoint = getClusterEndpoint(clusterName);
-            String url = endpoint + "/health";
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET()
-                    .timeout(Duration.ofSeconds(10))
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
+        return checkClusterHealthAsync(clusterName).join();
+    }
+
+    /**
+     * Check cluster health asynchronously
+     */
+    public CompletableFuture<Boolean> checkClusterHealthAsync(String clusterName) {
+        return send(clusterName, "/health", "/health", HttpRequest.Builder::GET, healthCheckTimeout).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Error checking cluster health for: {}", clusterName, error);
+                return false;
+            }
             if (response.statusCode() == 200) {
                 logger.debug("Cluster health check passed for: {}", clusterName);
                 return true;
-            } else {
-                logger.warn("Cluster health check failed for: {}. Status: {}", clusterName, response.statusCode());
-                return false;
             }
-        } catch (Exception e) {
-            logger.error("Error checking cluster health for: {}", clusterName, e);
+            logger.warn("Cluster health check failed for: {}. Status: {}", clusterName, response.statusCode());
             return false;
-        }
+        });
+    }
+
+    /**
+     * Get the status code of the health endpoint of one node service asynchronously
+     *
+     * The request counts against the in-flight limit of the cluster the node
+     * belongs to, under the same namespaced key its controller endpoint is
+     * registered with. Completes exceptionally if the service cannot be reached.
+     */
+    public CompletableFuture<Integer> getNodeHealthAsync(String clusterKey, String serviceUrl) {
+        return send(clusterKey, serviceUrl, "/health", "/health", HttpRequest.Builder::GET, healthCheckTimeout)
+                .thenApply(HttpResponse::statusCode);
     }
 
     /**
      * Get cluster information
      */
     public String getClusterInfo(String clusterName) {
-        try {
-            String endpoint = getClusterEndpoint(clusterName);
-            String url = endpoint + "/cluster/info";
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET()
-                    .timeout(Duration.ofSeconds(10))
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
+        return getClusterInfoAsync(clusterName).join();
+    }
+
+    /**
+     * Get cluster information asynchronously, completing with null on failure
+     */
+    public CompletableFuture<String> getClusterInfoAsync(String clusterName) {
+        return send(clusterName, "/cluster/info", "/cluster/info", HttpRequest.Builder::GET,
+                healthCheckTimeout).handle((response, error) -> {
+            if (error != null) {
+                logger.error("Error getting cluster info for: {}", clusterName, error);
+                return null;
+            }
             if (response.statusCode() == 200) {
                 return response.body();
-            } else {
-                logger.error("Failed to get cluster info for: {}. Status: {}", clusterName, response.statusCode());
-                return null;
             }
-        } catch (Exception e) {
-            logger.error("Error getting cluster info for: {}", clusterName, e);
+            logger.error("Failed to get cluster info for: {}. Status: {}", clusterName, response.statusCode());
             return null;
+        });
+    }
+
+    /**
+     * Send a request to a cluster controller once the cluster has a free request slot
+     *
+     * The endpoint is the path template the request is recorded under.
+     */
+    private CompletableFuture<HttpResponse<String>> send(String clusterName, String endpoint, String path,
+                                                         Method method, Duration timeout) {
+        String baseUrl;
+        try {
+            baseUrl = getClusterEndpoint(clusterName);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(clusterName, baseUrl, endpoint, path, method, timeout);
+    }
+
+    /**
+     * Send a request to a base URL once the cluster has a free request slot
+     */
+    private CompletableFuture<HttpResponse<String>> send(String clusterName, String baseUrl, String endpoint,
+                                                         String path, Method method, Duration timeout) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + path))
+                    .timeout(timeout);
+            request = method.apply(builder).build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        RequestLimiter limiter = limiters.computeIfAbsent(clusterName,
+                name -> new RequestLimiter(maxRequestsPerCluster, executor));
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        limiter.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> {
+                            limiter.release();
+                            operatorMetrics.recordPinotRequest(endpoint, request.method(),
+                                    response != null ? response.statusCode() : 0, System.nanoTime() - start);
+                            if (error != null) {
+                                result.completeExceptionally(error);
+                            } else {
+                                result.complete(response);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                limiter.release();
+                operatorMetrics.recordPinotRequest(endpoint, request.method(), 0, System.nanoTime() - start);
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private static Method post(String json) {
+        return builder -> builder
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private static Method delete() {
+        return HttpRequest.Builder::DELETE;
+    }
+
+    /**
+     * Stop the shared request executor
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sets the method and body of a request
+     */
+    @FunctionalInterface
+    private interface Method {
+        HttpRequest.Builder apply(HttpRequest.Builder builder);
+    }
+
+    /**
+     * Bounds the requests in flight to one cluster, queueing the rest without blocking
+     *
+     * A released slot is handed to the next queued request on the executor,
+     * not on the thread that completed the previous response, so completions
+     * never chain into one another.
+     */
+    private static final class RequestLimiter {
+        private final int maxInFlight;
+        private final Executor executor;
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int inFlight;
+
+        RequestLimiter(int maxInFlight, Executor executor) {
+            this.maxInFlight = maxInFlight;
+            this.executor = executor;
+        }
+
+        void submit(Runnable request) {
+            synchronized (this) {
+                if (inFlight >= maxInFlight) {
+                    waiting.add(request);
+                    return;
+                }
+                inFlight++;
+            }
+            request.run();
+        }
+
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    inFlight--;
+                }
+            }
+            if (next != null) {
+                try {
+                    executor.execute(next);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down; the request still runs so its caller is completed
+                    next.run();
+                }
+            }
         }
     }
 }
@@ -0,0 +1,241 @@
+package io.pinot.operator.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Utility class for parsing and validating embedded Pinot JSON configs
+ *
+ * Schema, table and tenant JSON is parsed with duplicate key and trailing
+ * token detection, then checked against the structure the Pinot controller
+ * expects. The outcome is cached by a hash of the content, so reconciles
+ * of an unchanged spec neither parse nor validate again. The returned
+ * trees are shared through the cache and must not be modified.
+ */
+@Component
+public class PinotConfigValidator {
+
+    private static final int MAX_CACHED_CONFIGS = 4096;
+
+    private static final Set<String> DATA_TYPES = Set.of("INT", "LONG", "FLOAT", "DOUBLE", "BIG_DECIMAL",
+            "BOOLEAN", "TIMESTAMP", "STRING", "JSON", "BYTES", "MAP", "LIST", "STRUCT");
+
+    private static final Set<String> TABLE_TYPES = Set.of("OFFLINE", "REALTIME");
+
+    private static final Set<String> TENANT_ROLES = Set.of("BROKER", "SERVER");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION)
+            .enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+
+    private final Map<String, ParsedConfig> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ParsedConfig> eldest) {
+                    return size() > MAX_CACHED_CONFIGS;
+                }
+            });
+
+    /**
+     * Parse and validate a Pinot schema config
+     */
+    public JsonNode validateSchema(String schemaJson) {
+        return validate("schema", schemaJson, this::checkSchema);
+    }
+
+    /**
+     * Parse and validate a Pinot table config of the expected table type
+     */
+    public JsonNode validateTable(String tableJson, String expectedTableType) {
+        String kind = "table:" + expectedTableType.toUpperCase(Locale.ROOT);
+        return validate(kind, tableJson, config -> checkTable(config, expectedTableType));
+    }
+
+    /**
+     * Parse and validate a Pinot tenant config
+     */
+    public JsonNode validateTenant(String tenantJson) {
+        return validate("tenant", tenantJson, this::checkTenant);
+    }
+
+    /**
+     * Get the number of cached configs
+     */
+    public int cacheSize() {
+        return cache.size();
+    }
+
+    private JsonNode validate(String kind, String json, Check check) {
+        String key = kind + ":" + ResourceHasher.hash(json);
+        ParsedConfig parsed = cache.get(key);
+        if (parsed == null) {
+            parsed = parse(kind, json, check);
+            cache.put(key, parsed);
+        }
+        if (parsed.error != null) {
+            throw new IllegalArgumentException(parsed.error);
+        }
+        return parsed.config;
+    }
+
+    private ParsedConfig parse(String kind, String json, Check check) {
+        String label = kind.startsWith("table") ? "table" : kind;
+        JsonNode config;
+        try {
+            config = objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return ParsedConfig.invalid("Invalid JSON for " + label + " configuration: " + e.getOriginalMessage());
+        }
+        if (config == null || !config.isObject()) {
+            return ParsedConfig.invalid("The " + label + " configuration must be a JSON object");
+        }
+        try {
+            check.apply(config);
+        } catch (IllegalArgumentException e) {
+            return ParsedConfig.invalid("Invalid " + label + " configuration: " + e.getMessage());
+        }
+        return ParsedConfig.valid(config);
+    }
+
+    private void checkSchema(JsonNode schema) {
+        requireText(schema, "schemaName");
+        int fieldCount = 0;
+        for (String specs : new String[] {"dimensionFieldSpecs", "metricFieldSpecs", "dateTimeFieldSpecs",
+                "complexFieldSpecs"}) {
+            JsonNode fields = schema.get(specs);
+            if (fields == null || fields.isNull()) {
+                continue;
+            }
+            if (!fields.isArray()) {
+                throw new IllegalArgumentException(specs + " must be an array");
+            }
+            for (JsonNode field : fields) {
+                checkFieldSpec(specs, field);
+                fieldCount++;
+            }
+        }
+        if (fieldCount == 0) {
+            throw new IllegalArgumentException("at least one field spec is required");
+        }
+    }
+
+    private void checkFieldSpec(String specs, JsonNode field) {
+        if (!field.isObject()) {
+            throw new IllegalArgumentException(specs + " entries must be objects");
+        }
+        String name = requireText(field, "name");
+        String dataType = requireText(field, "dataType");
+        if (!DATA_TYPES.contains(dataType)) {
+            throw new IllegalArgumentException("unknown dataType " + dataType + " for field " + name);
+        }
+        if ("dateTimeFieldSpecs".equals(specs)) {
+            requireText(field, "format");
+            requireText(field, "granularity");
+        }
+    }
+
+    private void checkTable(JsonNode table, String expectedTableType) {
+        requireText(table, "tableName");
+        String tableType = requireText(table, "tableType").toUpperCase(Locale.ROOT);
+        if (!TABLE_TYPES.contains(tableType)) {
+            throw new IllegalArgumentException("tableType must be OFFLINE or REALTIME");
+        }
+        if (!tableType.equalsIgnoreCase(expectedTableType)) {
+            throw new IllegalArgumentException("tableType " + tableType + " does not match pinotTableType "
+                    + expectedTableType);
+        }
+        requireObject(table, "segmentsConfig");
+        for (String section : new String[] {"tenants", "tableIndexConfig", "ingestionConfig", "metadata"}) {
+            JsonNode node = table.get(section);
+            if (node != null && !node.isNull() && !node.isObject()) {
+                throw new IllegalArgumentException(section + " must be an object");
+            }
+        }
+        JsonNode fieldConfigs = table.get("fieldConfigList");
+        if (fieldConfigs != null && !fieldConfigs.isNull()) {
+            if (!fieldConfigs.isArray()) {
+                throw new IllegalArgumentException("fieldConfigList must be an array");
+            }
+            for (JsonNode fieldConfig : fieldConfigs) {
+                if (!fieldConfig.isObject()) {
+                    throw new IllegalArgumentException("fieldConfigList entries must be objects");
+                }
+                requireText(fieldConfig, "name");
+            }
+        }
+        if ("REALTIME".equals(tableType)
+                && table.at("/tableIndexConfig/streamConfigs").isMissingNode()
+                && table.at("/ingestionConfig/streamIngestionConfig").isMissingNode()) {
+            throw new IllegalArgumentException("REALTIME tables require streamConfigs or streamIngestionConfig");
+        }
+    }
+
+    private void checkTenant(JsonNode tenant) {
+        String role = requireText(tenant, "tenantRole").toUpperCase(Locale.ROOT);
+        if (!TENANT_ROLES.contains(role)) {
+            throw new IllegalArgumentException("tenantRole must be BROKER or SERVER");
+        }
+        JsonNode name = tenant.hasNonNull("tenantName") ? tenant.get("tenantName") : tenant.get("name");
+        if (name == null || !name.isTextual() || name.asText().isBlank()) {
+            throw new IllegalArgumentException("tenantName is required");
+        }
+        JsonNode instances = tenant.get("numberOfInstances");
+        if (instances != null && !instances.isNull() && (!instances.canConvertToInt() || instances.asInt() < 0)) {
+            throw new IllegalArgumentException("numberOfInstances must be a non-negative integer");
+        }
+    }
+
+    private String requireText(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isTextual() || value.asText().isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value.asText();
+    }
+
+    private void requireObject(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isObject()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+    }
+
+    /**
+     * Structural check of a parsed config, throwing IllegalArgumentException on violations
+     */
+    @FunctionalInterface
+    private interface Check {
+        void apply(JsonNode config);
+    }
+
+    /**
+     * Cached outcome of parsing one config: the parsed tree or the validation error
+     */
+    private static final class ParsedConfig {
+        private final JsonNode config;
+        private final String error;
+
+        private ParsedConfig(JsonNode config, String error) {
+            this.config = config;
+            this.error = error;
+        }
+
+        static ParsedConfig valid(JsonNode config) {
+            return new ParsedConfig(config, null);
+        }
+
+        static ParsedConfig invalid(String error) {
+            return new ParsedConfig(null, error);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.pinot.operator.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+
+/**
+ * Utility class for fingerprinting rendered Kubernetes resources
+ *
+ * The hash is taken over the JSON form of the resource with map entries
+ * sorted by key, so it is stable across restarts regardless of map
+ * iteration order. It is stored in an annotation on the applied resource
+ * and compared against the live copy to skip writes that change nothing.
+ * Trimmed cache copies of custom resources carry the hash of their full
+ * spec in the same annotation.
+ */
+public final class ResourceHasher {
+
+    public static final String SPEC_HASH_ANNOTATION = "pinot.io/spec-hash";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ResourceHasher() {
+    }
+
+    /**
+     * Compute the hash of a rendered resource that has not been stamped yet
+     */
+    public static String hash(HasMetadata resource) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(resource);
+            return toHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash resource: " + resource.getMetadata().getName(), e);
+        }
+    }
+
+    /**
+     * Compute the hash of a custom resource spec, with map entries sorted the same way
+     */
+    public static String hashSpec(Object spec) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(spec)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash spec", e);
+        }
+    }
+
+    /**
+     * Compute the hash of a piece of text, such as an embedded JSON config
+     */
+    public static String hash(String content) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash content", e);
+        }
+    }
+
+    /**
+     * Compute the hash of a rendered resource and store it in its annotations
+     */
+    public static String stamp(HasMetadata resource) {
+        String hash = hash(resource);
+        ObjectMeta metadata = resource.getMetadata();
+        if (metadata.getAnnotations() == null) {
+            metadata.setAnnotations(new HashMap<>());
+        }
+        metadata.getAnnotations().put(SPEC_HASH_ANNOTATION, hash);
+        return hash;
+    }
+
+    /**
+     * Check whether a live resource was last applied with the given hash
+     */
+    public static boolean matches(HasMetadata live, String hash) {
+        return hash.equals(stampedHash(live));
+    }
+
+    /**
+     * Get the hash stored in the annotations of a resource, or null if it has none
+     */
+    public static String stampedHash(HasMetadata resource) {
+        if (resource == null || resource.getMetadata() == null || resource.getMetadata().getAnnotations() == null) {
+            return null;
+        }
+        return resource.getMetadata().getAnnotations().get(SPEC_HASH_ANNOTATION);
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
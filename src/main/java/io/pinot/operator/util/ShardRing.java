@@ -0,0 +1,78 @@
+package io.pinot.operator.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent-hash ring assigning shard slots to operator replicas
+ *
+ * Every Pinot cluster key maps to one of a fixed number of slots, and the
+ * slots are spread over the ring positions of the replicas, each of which
+ * takes a number of virtual positions to even out the load. When a replica
+ * joins or leaves, only the slots next to its positions change owner.
+ */
+public final class ShardRing {
+
+    /**
+     * Label carrying the shard slot of a resource
+     */
+    public static final String SHARD_LABEL = "pinot.io/shard";
+
+    private final NavigableMap<Long, String> positions = new TreeMap<>();
+
+    public ShardRing(Collection<String> members, int virtualNodes) {
+        for (String member : members) {
+            for (int i = 0; i < Math.max(1, virtualNodes); i++) {
+                positions.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * Get the slot of a "namespace/clusterName" key
+     */
+    public static int slotOf(String clusterKey, int slotCount) {
+        return (int) Math.floorMod(hash(clusterKey), (long) slotCount);
+    }
+
+    /**
+     * Get the replica owning a slot, or null if the ring is empty
+     */
+    public String ownerOf(int slot) {
+        if (positions.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = positions.ceilingEntry(hash("slot-" + slot));
+        return entry != null ? entry.getValue() : positions.firstEntry().getValue();
+    }
+
+    /**
+     * Get the slots owned by a replica
+     */
+    public Set<Integer> slotsOwnedBy(String member, int slotCount) {
+        Set<Integer> slots = new TreeSet<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (member.equals(ownerOf(slot))) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash shard key", e);
+        }
+    }
+}
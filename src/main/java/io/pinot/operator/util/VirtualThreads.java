@@ -0,0 +1,99 @@
+package io.pinot.operator.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class for creating the operator's worker threads as platform or virtual threads
+ *
+ * Virtual threads need Java 21. The operator still compiles for Java 11, so
+ * they are created through reflection and only when the running JVM has
+ * them; otherwise every caller gets daemon platform threads as before. A
+ * blocked virtual thread releases its carrier, so reconcile workers and
+ * Pinot controller requests waiting on I/O no longer hold an OS thread.
+ */
+public final class VirtualThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final Method OF_VIRTUAL = method(Thread.class, "ofVirtual");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = method(Executors.class,
+            "newThreadPerTaskExecutor", ThreadFactory.class);
+
+    private static final AtomicBoolean unavailableLogged = new AtomicBoolean();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check whether the running JVM supports virtual threads
+     */
+    public static boolean isAvailable() {
+        return OF_VIRTUAL != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Resolve a configured preference for virtual threads against the running JVM
+     */
+    public static boolean use(boolean requested) {
+        if (requested && !isAvailable()) {
+            if (unavailableLogged.compareAndSet(false, true)) {
+                logger.warn("Virtual threads requested but not supported by Java {}, using platform threads",
+                        System.getProperty("java.specification.version"));
+            }
+            return false;
+        }
+        return requested;
+    }
+
+    /**
+     * Create a factory of threads named with the prefix and a sequence number
+     */
+    public static ThreadFactory threadFactory(String prefix, boolean virtual) {
+        if (virtual && isAvailable()) {
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+                return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create a virtual thread factory", e);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Create an executor running every task on its own virtual thread, or a fixed pool of platform threads
+     */
+    public static ExecutorService newExecutor(String prefix, int platformThreads, boolean virtual) {
+        if (virtual && isAvailable()) {
+            try {
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory(prefix, true));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create a virtual thread executor", e);
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads), threadFactory(prefix, false));
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -39,4 +39,18 @@ class PinotTest {
         assertEquals("v1", Pinot.VERSION, "VERSION should be 'v1'");
         assertEquals("pinot.io/v1", Pinot.API_VERSION, "API_VERSION should be 'pinot.io/v1'");
     }
+
+    @Test
+    void nodeSpecKind() {
+        // Test that only nodes of kind StatefulSet are rendered as stateful sets
+        Pinot.NodeSpec nodeSpec = new Pinot.NodeSpec();
+        assertFalse(nodeSpec.isStatefulSet(), "Nodes without a kind should be deployments");
+
+        nodeSpec.setKind(Pinot.NodeSpec.KIND_DEPLOYMENT);
+        assertFalse(nodeSpec.isStatefulSet(), "Deployment nodes should not be stateful sets");
+
+        nodeSpec.setKind(Pinot.NodeSpec.KIND_STATEFUL_SET);
+        assertTrue(nodeSpec.isStatefulSet(), "StatefulSet nodes should be stateful sets");
+        assertEquals("10Gi", new Pinot.StorageSpec().getSize(), "Storage size should have a default");
+    }
 }
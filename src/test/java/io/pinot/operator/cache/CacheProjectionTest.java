@@ -0,0 +1,91 @@
+package io.pinot.operator.cache;
+
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.api.PinotTable;
+import io.pinot.operator.util.ResourceHasher;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CacheProjection
+ * Verifies that projections drop bulky fields but keep what the cache readers need, and the hash of the spec
+ */
+class CacheProjectionTest {
+
+    @Test
+    void testTableKeepsReferencesAndStatus() {
+        PinotTable table = new PinotTable();
+        table.setMetadata(createMetadata("orders"));
+        PinotTable.PinotTableSpec spec = new PinotTable.PinotTableSpec();
+        spec.setPinotCluster("cluster-a");
+        spec.setPinotSchema("orders-schema");
+        spec.setPinotTablesJson("{\"tableName\":\"orders\"}");
+        table.setSpec(spec);
+        PinotTable.PinotTableStatus status = new PinotTable.PinotTableStatus();
+        status.setStatus("Ready");
+        table.setStatus(status);
+
+        PinotTable projected = CacheProjection.table(table);
+
+        assertEquals("cluster-a", projected.getSpec().getPinotCluster(), "Cluster reference should be kept");
+        assertEquals("orders-schema", projected.getSpec().getPinotSchema(), "Schema reference should be kept");
+        assertNull(projected.getSpec().getPinotTablesJson(), "Embedded table config should be dropped");
+        assertEquals("Ready", projected.getStatus().getStatus(), "Status should be kept");
+        assertEquals("7", projected.getMetadata().getResourceVersion(), "Resource version should be kept");
+    }
+
+    @Test
+    void testMetadataIsTrimmed() {
+        Pinot pinot = new Pinot();
+        pinot.setMetadata(createMetadata("cluster-a"));
+        pinot.setSpec(new Pinot.PinotSpec());
+
+        Pinot projected = CacheProjection.pinot(pinot);
+
+        assertNull(projected.getSpec(), "Cluster spec should be dropped");
+        assertNull(projected.getMetadata().getManagedFields(), "Managed fields should be dropped");
+        Map<String, String> annotations = projected.getMetadata().getAnnotations();
+        assertEquals("analytics", annotations.get("team"), "Other annotations should be kept");
+        assertFalse(annotations.containsKey("kubectl.kubernetes.io/last-applied-configuration"),
+                "The last-applied annotation should be dropped");
+        assertNotNull(pinot.getMetadata().getManagedFields(), "The original resource should be untouched");
+        assertFalse(pinot.getMetadata().getAnnotations().containsKey(ResourceHasher.SPEC_HASH_ANNOTATION),
+                "The original resource should not be stamped");
+    }
+
+    @Test
+    void testSpecHashFollowsTheDroppedSpec() {
+        PinotTable table = new PinotTable();
+        table.setMetadata(createMetadata("orders"));
+        PinotTable.PinotTableSpec spec = new PinotTable.PinotTableSpec();
+        spec.setPinotTablesJson("{\"tableName\":\"orders\"}");
+        table.setSpec(spec);
+        String before = ResourceHasher.stampedHash(CacheProjection.table(table));
+
+        spec.setPinotTablesJson("{\"tableName\":\"orders\",\"replication\":\"3\"}");
+        String after = ResourceHasher.stampedHash(CacheProjection.table(table));
+
+        assertNotNull(before, "The projection should carry the hash of the full spec");
+        assertNotEquals(before, after, "A change to a dropped field should change the hash");
+    }
+
+    private ObjectMeta createMetadata(String name) {
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName(name);
+        metadata.setNamespace("default");
+        metadata.setResourceVersion("7");
+        metadata.setManagedFields(List.of(new ManagedFieldsEntry()));
+        Map<String, String> annotations = new HashMap<>();
+        annotations.put("kubectl.kubernetes.io/last-applied-configuration", "{}");
+        annotations.put("team", "analytics");
+        metadata.setAnnotations(annotations);
+        return metadata;
+    }
+}
@@ -0,0 +1,84 @@
+package io.pinot.operator.cache;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ResourceCache
+ * Verifies which events of a new label selection reach handlers while the old selection still serves
+ */
+class ResourceCacheTest {
+
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    void testOnlyNewlySelectedResourcesAreAnnouncedDuringHandover() {
+        ResourceCache.Handover<ConfigMap> handover = new ResourceCache.Handover<>("shard", List.of("1", "2"));
+        ResourceEventHandler<ConfigMap> handler = new ResourceCache.HandoverHandler<>(recorder(), handover);
+
+        handler.onAdd(resource("kept", "2"));
+        handler.onAdd(resource("gained", "3"));
+        handler.onUpdate(resource("kept", "2"), resource("kept", "2"));
+        handler.onDelete(resource("gained", "3"), false);
+
+        assertEquals(List.of("add gained", "delete gained"), events,
+                "Resources the serving informers cover should not be announced twice");
+    }
+
+    @Test
+    void testEverythingIsAnnouncedAfterTheSwap() {
+        ResourceCache.Handover<ConfigMap> handover = new ResourceCache.Handover<>("shard", List.of("1"));
+        ResourceEventHandler<ConfigMap> handler = new ResourceCache.HandoverHandler<>(recorder(), handover);
+
+        handover.complete();
+        handler.onUpdate(resource("kept", "1"), resource("kept", "1"));
+
+        assertEquals(List.of("update kept"), events);
+    }
+
+    @Test
+    void testNarrowingAnUnselectedCacheAnnouncesNothing() {
+        ResourceCache.Handover<ConfigMap> handover = new ResourceCache.Handover<>(null, null);
+        ResourceEventHandler<ConfigMap> handler = new ResourceCache.HandoverHandler<>(recorder(), handover);
+
+        handler.onAdd(resource("kept", "4"));
+
+        assertTrue(events.isEmpty(), "Every resource was already served by the unselected cache");
+    }
+
+    private ResourceEventHandler<ConfigMap> recorder() {
+        return new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(ConfigMap resource) {
+                events.add("add " + resource.getMetadata().getName());
+            }
+
+            @Override
+            public void onUpdate(ConfigMap oldResource, ConfigMap newResource) {
+                events.add("update " + newResource.getMetadata().getName());
+            }
+
+            @Override
+            public void onDelete(ConfigMap resource, boolean deletedFinalStateUnknown) {
+                events.add("delete " + resource.getMetadata().getName());
+            }
+        };
+    }
+
+    private static ConfigMap resource(String name, String shard) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace("default")
+                    .addToLabels("shard", shard)
+                .endMetadata()
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package io.pinot.operator.config;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.pinot.operator.reconcile.TokenBucketRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ApiThrottle
+ * Verifies that calls wait for a token and are not made once the caller is interrupted
+ */
+class ApiThrottleTest {
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    void testCallsWithinTheBurstAreMade() {
+        ApiThrottle apiThrottle = new ApiThrottle(new TokenBucketRateLimiter(1, 2));
+
+        assertEquals("first", apiThrottle.call(() -> "first"));
+        assertEquals("second", apiThrottle.call(() -> "second"));
+    }
+
+    @Test
+    void testInterruptedCallIsNotMade() {
+        ApiThrottle apiThrottle = new ApiThrottle(new TokenBucketRateLimiter(0.1, 1));
+        apiThrottle.acquire();
+        AtomicInteger calls = new AtomicInteger();
+
+        Thread.currentThread().interrupt();
+        assertThrows(KubernetesClientException.class, () -> apiThrottle.call(calls::incrementAndGet));
+
+        assertEquals(0, calls.get(), "A call whose token wait was interrupted should not be made");
+        assertTrue(Thread.currentThread().isInterrupted(), "The interrupt should be kept for the caller");
+    }
+}
@@ -0,0 +1,40 @@
+package io.pinot.operator.config;
+
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for KubernetesConfig
+ * Tests that the client settings are applied on top of the detected configuration
+ */
+class KubernetesConfigTest {
+
+    @Test
+    void testClientSettingsOverrideDetectedConfig() {
+        OperatorProperties operatorProperties = new OperatorProperties();
+        OperatorProperties.KubernetesClientProperties properties = operatorProperties.getKubernetesClient();
+        properties.setConnectionTimeout(2000);
+        properties.setRequestTimeout(7000);
+        properties.setMaxConcurrentRequests(128);
+        properties.setMaxConcurrentRequestsPerHost(32);
+        properties.setWatchReconnectLimit(20);
+        properties.setHttp2(false);
+        operatorProperties.setWatcherReconnectDelay(250);
+
+        Config config = KubernetesConfig.clientConfig(
+                new ConfigBuilder().withMasterUrl("https://kubernetes.example:6443").build(), operatorProperties);
+
+        assertTrue(config.getMasterUrl().startsWith("https://kubernetes.example:6443"),
+                "Detected settings should be kept");
+        assertEquals(2000, config.getConnectionTimeout());
+        assertEquals(7000, config.getRequestTimeout());
+        assertEquals(128, config.getMaxConcurrentRequests());
+        assertEquals(32, config.getMaxConcurrentRequestsPerHost());
+        assertEquals(250, config.getWatchReconnectInterval());
+        assertEquals(20, config.getWatchReconnectLimit());
+        assertTrue(config.isHttp2Disable(), "HTTP/2 should be disabled when turned off");
+    }
+}
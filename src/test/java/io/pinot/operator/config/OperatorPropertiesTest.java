@@ -0,0 +1,28 @@
+package io.pinot.operator.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for OperatorProperties
+ * Verifies how per-resource overrides combine with the global worker and virtual thread settings
+ */
+class OperatorPropertiesTest {
+
+    @Test
+    void testExplicitWorkerThreadsWinOnVirtualThreads() {
+        OperatorProperties properties = new OperatorProperties();
+        properties.setVirtualThreads(true);
+        properties.setVirtualThreadConcurrency(256);
+        properties.setWorkerThreads(4);
+        OperatorProperties.ResourceProperties table = new OperatorProperties.ResourceProperties();
+        table.setWorkerThreads(2);
+        properties.getResources().put("table", table);
+
+        assertEquals(2, properties.reconcileConcurrencyFor("table"),
+                "An explicit per-resource worker count should not be raised by virtual threads");
+        assertEquals(properties.useVirtualThreads() ? 256 : 4, properties.reconcileConcurrencyFor("tenant"),
+                "Types without an override should follow the virtual thread concurrency where it applies");
+    }
+}
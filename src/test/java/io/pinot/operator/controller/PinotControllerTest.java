@@ -1,21 +1,33 @@
 package io.pinot.operator.controller;
 
 import io.fabric8.kubernetes.api.model.ObjectMeta;
-import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import io.pinot.operator.api.Pinot;
 import io.pinot.operator.api.Pinot.PinotSpec;
 import io.pinot.operator.api.Pinot.PinotStatus;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.reconcile.LeaderElection;
 import io.pinot.operator.service.PinotClusterService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Test class for Pinot Controller
@@ -28,13 +40,37 @@ class PinotControllerTest {
     private PinotClusterService pinotClusterService;
 
     @Mock
-    private KubernetesClient kubernetesClient;
+    private ResourceCache<Pinot> pinotCache;
+
+    @Mock
+    private ResourceCache<Deployment> deploymentCache;
+
+    @Mock
+    private ResourceCache<StatefulSet> statefulSetCache;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private OperatorMetrics operatorMetrics;
+
+    @Captor
+    private ArgumentCaptor<Runnable> leadingCaptor;
+
+    @Captor
+    private ArgumentCaptor<ResourceEventHandler<Pinot>> handlerCaptor;
 
     private PinotController pinotController;
 
     @BeforeEach
     void setUp() {
-        pinotController = new PinotController(kubernetesClient, pinotClusterService);
+        pinotController = new PinotController(pinotCache, deploymentCache, statefulSetCache, pinotClusterService,
+                leaderElection, operatorMetrics, new OperatorProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pinotController.shutdown();
     }
 
     @Test
@@ -46,14 +82,74 @@ class PinotControllerTest {
         assertFalse(pinotController.isClusterManaged("default", "test-pinot-cluster"), 
                    "Cluster should not be managed initially");
         
-        // Simulate adding a resource (this would normally happen through the watcher)
-        // For testing, we'll use reflection to add it to managed clusters
-        ReflectionTestUtils.setField(pinotController, "managedClusters", 
-                                   new java.util.concurrent.ConcurrentHashMap<>());
-        
         // Test getManagedClusters
         assertTrue(pinotController.getManagedClusters().isEmpty(), 
                   "Should start with no managed clusters");
+        
+        // Simulate the informer cache picking up the resource
+        when(pinotCache.get("default", "test-pinot-cluster")).thenReturn(pinot);
+        when(pinotCache.list()).thenReturn(List.of(pinot));
+        
+        assertTrue(pinotController.isClusterManaged("default", "test-pinot-cluster"), 
+                  "Cluster should be managed once cached");
+        assertEquals(1, pinotController.getManagedClusters().size(), 
+                    "Should list the cached cluster");
+    }
+
+    @Test
+    void testInformerRegistration() {
+        // The controller should register its handler before starting the cache
+        verify(pinotCache).addEventHandler(any());
+        verify(pinotCache).start();
+    }
+
+    @Test
+    void testWorkersWaitForLeadership() {
+        // The cache is started right away, the workers only once this replica leads
+        verify(leaderElection).whenLeading(any());
+        assertEquals(0, pinotController.getWorkerPool().getReconcileCount(), "No reconcile should run before leading");
+    }
+
+    @Test
+    void testResyncAppliesUnchangedClusterBeforeReconcilingIt() {
+        OperatorProperties properties = new OperatorProperties();
+        properties.setReconciliationInterval(50);
+        properties.setResyncJitter(0);
+        Pinot pinot = createTestPinotResource();
+        when(pinotCache.get("default/test-pinot-cluster")).thenReturn(pinot);
+        when(pinotCache.fetch("default/test-pinot-cluster")).thenReturn(pinot);
+        when(pinotClusterService.createOrUpdateCluster(eq(pinot), anyBoolean())).thenReturn(true);
+        ResourceEventHandler<Pinot> handler = startLeading(properties);
+
+        handler.onAdd(pinot);
+
+        // The resync applies even resources whose hash is unchanged, so manual edits are reverted
+        verify(pinotClusterService, timeout(2000).atLeastOnce()).createOrUpdateCluster(pinot, true);
+        verify(pinotClusterService, timeout(2000).atLeastOnce()).reconcileCluster(pinot);
+    }
+
+    @Test
+    void testPendingStageIsAppliedAgainAfterTheCheckInterval() {
+        OperatorProperties properties = new OperatorProperties();
+        properties.setReconciliationInterval(3600000);
+        Pinot pinot = createTestPinotResource();
+        List<Long> applyTimes = new CopyOnWriteArrayList<>();
+        when(pinotCache.get("default/test-pinot-cluster")).thenReturn(pinot);
+        when(pinotCache.fetch("default/test-pinot-cluster")).thenReturn(pinot);
+        when(pinotClusterService.getStageReadyCheckInterval()).thenReturn(Duration.ofMillis(200));
+        when(pinotClusterService.createOrUpdateCluster(eq(pinot), anyBoolean())).thenAnswer(invocation -> {
+            applyTimes.add(System.nanoTime());
+            // The first pass finds a stage that is not ready, the second completes the rollout
+            return applyTimes.size() > 1;
+        });
+        ResourceEventHandler<Pinot> handler = startLeading(properties);
+
+        handler.onAdd(pinot);
+
+        verify(pinotClusterService, timeout(2000).times(2)).createOrUpdateCluster(eq(pinot), anyBoolean());
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(applyTimes.get(1) - applyTimes.get(0));
+        assertTrue(waitedMillis >= 200, "The pending stage should be checked again after the interval, not before");
+        verify(pinotClusterService, never()).reconcileCluster(any());
     }
 
     @Test
@@ -121,6 +217,19 @@ class PinotControllerTest {
         assertEquals("pinot.io/v1", Pinot.API_VERSION, "API_VERSION should be 'pinot.io/v1'");
     }
 
+    /**
+     * Replace the controller with one using the given properties, start its workers and return its event handler
+     */
+    private ResourceEventHandler<Pinot> startLeading(OperatorProperties properties) {
+        pinotController.shutdown();
+        pinotController = new PinotController(pinotCache, deploymentCache, statefulSetCache, pinotClusterService,
+                leaderElection, operatorMetrics, properties);
+        verify(leaderElection, atLeastOnce()).whenLeading(leadingCaptor.capture());
+        leadingCaptor.getValue().run();
+        verify(pinotCache, atLeastOnce()).addEventHandler(handlerCaptor.capture());
+        return handlerCaptor.getValue();
+    }
+
     private Pinot createTestPinotResource() {
         Pinot pinot = new Pinot();
         
@@ -0,0 +1,184 @@
+package io.pinot.operator.reconcile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ApplyBatcher
+ * Verifies size and linger flushing, coalescing of repeated keys, one apply per key at a time,
+ * pipelined asynchronous applies, draining on shutdown and failure callbacks
+ */
+class ApplyBatcherTest {
+
+    private ApplyBatcher<String> applyBatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (applyBatcher != null) {
+            applyBatcher.shutdown();
+        }
+    }
+
+    @Test
+    void testFullBatchIsFlushedWithoutWaiting() throws InterruptedException {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        applyBatcher = new ApplyBatcher<>("test", resource -> {
+            applied.add(resource);
+            done.countDown();
+        }, 3, 60000, 2);
+
+        applyBatcher.submit("cluster-a", "default/t1", "t1", error -> { });
+        applyBatcher.submit("cluster-a", "default/t2", "t2", error -> { });
+        assertEquals(2, applyBatcher.pendingCount(), "Applies should wait for the batch to fill");
+        applyBatcher.submit("cluster-a", "default/t3", "t3", error -> { });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS), "A full batch should be applied right away");
+        assertEquals(0, applyBatcher.pendingCount(), "No applies should be left pending");
+        assertTrue(applied.containsAll(List.of("t1", "t2", "t3")), "Every apply of the batch should run");
+    }
+
+    @Test
+    void testRepeatedKeyIsCoalescedUntilLingerExpires() throws InterruptedException {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        applyBatcher = new ApplyBatcher<>("test", resource -> {
+            applied.add(resource);
+            done.countDown();
+        }, 100, 50, 2);
+
+        applyBatcher.submit("cluster-a", "default/t1", "t1-v1", error -> { });
+        applyBatcher.submit("cluster-a", "default/t1", "t1-v2", error -> { });
+        applyBatcher.submit("cluster-b", "default/t2", "t2", error -> { });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS), "Batches should be flushed after the linger delay");
+        Thread.sleep(100);
+        assertEquals(2, applied.size(), "The repeated key should be applied once");
+        assertTrue(applied.contains("t1-v2"), "The latest apply of a key should win");
+    }
+
+    @Test
+    void testFailureCallbackReceivesError() throws InterruptedException {
+        List<Exception> failures = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        applyBatcher = new ApplyBatcher<>("test", resource -> {
+            throw new IllegalStateException("apply failed");
+        }, 1, 0, 1);
+
+        applyBatcher.submit("cluster-a", "default/t1", "t1", error -> {
+            failures.add(error);
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS), "The failure callback should run");
+        assertEquals("apply failed", failures.get(0).getMessage(), "The apply error should be passed on");
+    }
+
+    @Test
+    void testKeyIsNotAppliedWhileItsPreviousApplyRuns() throws InterruptedException {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        applyBatcher = new ApplyBatcher<>("test", resource -> {
+            if (resource.equals("t1-v1")) {
+                firstStarted.countDown();
+                releaseFirst.await();
+            }
+            applied.add(resource);
+            done.countDown();
+        }, 1, 0, 2);
+
+        applyBatcher.submit("cluster-a", "default/t1", "t1-v1", error -> { });
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS), "The first apply should start");
+        applyBatcher.submit("cluster-a", "default/t1", "t1-v2", error -> { });
+        Thread.sleep(50);
+        assertEquals(1, applyBatcher.pendingCount(), "The second apply should be held back");
+
+        releaseFirst.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS), "The held back apply should run once the first finishes");
+        assertEquals(List.of("t1-v1", "t1-v2"), applied, "The latest spec should be applied last");
+    }
+
+    @Test
+    void testStaleTimerDoesNotFlushNewerBatch() throws InterruptedException {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        applyBatcher = new ApplyBatcher<>("test", applied::add, 2, 500, 2);
+
+        // The first batch fills up before its timer fires, the second starts while that timer is still due
+        applyBatcher.submit("default/cluster-a", "default/t1", "t1", error -> { });
+        applyBatcher.submit("default/cluster-a", "default/t2", "t2", error -> { });
+        Thread.sleep(300);
+        applyBatcher.submit("default/cluster-a", "default/t3", "t3", error -> { });
+        Thread.sleep(300);
+
+        assertFalse(applied.contains("t3"), "The first batch's timer should not flush the second batch");
+        assertTrue(applyBatcher.isApplying("default/t3"), "The second batch should still be waiting");
+        Thread.sleep(500);
+        assertTrue(applied.contains("t3"), "The second batch should be flushed after its own linger delay");
+        assertFalse(applyBatcher.isApplying("default/t3"));
+    }
+
+    @Test
+    void testAsyncAppliesOfABatchArePipelined() throws InterruptedException {
+        List<CompletableFuture<Void>> started = new CopyOnWriteArrayList<>();
+        applyBatcher = new ApplyBatcher<String>("test", resource -> {
+            CompletableFuture<Void> response = new CompletableFuture<>();
+            started.add(response);
+            return response;
+        }, 3, 60000, 1, false);
+
+        applyBatcher.submit("default/cluster-a", "default/t1", "t1", error -> { });
+        applyBatcher.submit("default/cluster-a", "default/t2", "t2", error -> { });
+        applyBatcher.submit("default/cluster-a", "default/t3", "t3", error -> { });
+        Thread.sleep(100);
+
+        assertEquals(3, started.size(), "Every apply of the batch should be started without waiting for a response");
+        assertTrue(applyBatcher.isApplying("default/t1"), "A started apply should count until it completes");
+        started.forEach(response -> response.complete(null));
+        assertFalse(applyBatcher.isApplying("default/t1"), "A completed apply should release its key");
+    }
+
+    @Test
+    void testShutdownRunsPendingApplies() {
+        List<String> applied = new CopyOnWriteArrayList<>();
+        applyBatcher = new ApplyBatcher<>("test", applied::add, 100, 60000, 2);
+
+        applyBatcher.submit("cluster-a", "default/t1", "t1", error -> { });
+        applyBatcher.submit("cluster-b", "default/t2", "t2", error -> { });
+        applyBatcher.shutdown();
+
+        assertTrue(applied.containsAll(List.of("t1", "t2")), "Pending applies should run before shutdown returns");
+        assertThrows(IllegalStateException.class,
+                () -> applyBatcher.submit("cluster-a", "default/t3", "t3", error -> { }));
+    }
+
+    @Test
+    void testListenerIsToldAboutEveryApply() throws InterruptedException {
+        List<String> outcomes = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        applyBatcher = new ApplyBatcher<>("test", resource -> {
+            if (resource.equals("bad")) {
+                throw new IllegalStateException("apply failed");
+            }
+        }, 2, 60000, 2);
+        applyBatcher.addListener((key, durationNanos, failed) -> {
+            outcomes.add(key + (failed ? " failed" : " applied"));
+            done.countDown();
+        });
+
+        applyBatcher.submit("cluster-a", "default/t1", "good", error -> { });
+        applyBatcher.submit("cluster-a", "default/t2", "bad", error -> { });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS), "The listener should run after each apply");
+        assertTrue(outcomes.containsAll(List.of("default/t1 applied", "default/t2 failed")));
+    }
+}
@@ -0,0 +1,97 @@
+package io.pinot.operator.reconcile;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.api.PinotTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for DependencyTrigger
+ * Verifies that only waiting dependents are queued, and only on the transition to ready
+ */
+class DependencyTriggerTest {
+
+    private WorkQueue<String> workQueue;
+    private DependencyTrigger<Pinot, PinotTable> trigger;
+
+    @BeforeEach
+    void setUp() {
+        workQueue = new WorkQueue<>("table", Duration.ofMillis(10), Duration.ofMillis(40),
+                TokenBucketRateLimiter.unlimited());
+        Set<String> waiting = Set.of("default/table-a", "default/table-b");
+        trigger = new DependencyTrigger<>(workQueue,
+                pinot -> pinot.getStatus() != null && pinot.getStatus().isReady(),
+                pinot -> List.of(table("table-a"), table("table-b"), table("table-c")),
+                waiting::contains);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workQueue.shutDown();
+    }
+
+    @Test
+    void testReadyTransitionEnqueuesWaitingDependents() throws InterruptedException {
+        trigger.onUpdate(cluster("Deploying"), cluster("Ready"));
+
+        assertEquals(2, workQueue.depth(), "Only waiting dependents should be queued");
+        assertEquals("default/table-a", workQueue.take());
+        assertEquals("default/table-b", workQueue.take());
+    }
+
+    @Test
+    void testUpdateWithoutTransitionEnqueuesNothing() {
+        trigger.onUpdate(cluster("Ready"), cluster("Ready"));
+        trigger.onUpdate(cluster("Deploying"), cluster("Deploying"));
+
+        assertEquals(0, workQueue.depth(), "Status updates without a ready transition should be ignored");
+    }
+
+    @Test
+    void testAddOfReadyParentEnqueuesWaitingDependents() {
+        trigger.onAdd(cluster("Deploying"));
+        assertEquals(0, workQueue.depth(), "A parent that is not ready should not wake dependents");
+
+        trigger.onAdd(cluster("Ready"));
+        assertEquals(2, workQueue.depth(), "A parent seen ready on add should wake waiting dependents");
+    }
+
+    @Test
+    void testCreatedParentMarksEveryDependentForReapply() {
+        Set<String> reapplied = new HashSet<>();
+        DependencyTrigger<Pinot, PinotTable> reapplying = new DependencyTrigger<>(workQueue,
+                pinot -> pinot.getStatus() != null && pinot.getStatus().isReady(),
+                pinot -> List.of(table("table-a"), table("table-b"), table("table-c")),
+                reapplied::contains, reapplied::add);
+
+        reapplying.onAdd(cluster("Deploying"));
+
+        assertEquals(Set.of("default/table-a", "default/table-b", "default/table-c"), reapplied,
+                "A re-created cluster starts empty, so every dependent should be applied again");
+        assertEquals(3, workQueue.depth(), "Every dependent should be queued to report it is waiting");
+    }
+
+    private static Pinot cluster(String phase) {
+        Pinot pinot = new Pinot();
+        pinot.setMetadata(new ObjectMetaBuilder().withNamespace("default").withName("cluster-a").build());
+        Pinot.PinotStatus status = new Pinot.PinotStatus();
+        status.setPhase(phase);
+        pinot.setStatus(status);
+        return pinot;
+    }
+
+    private static PinotTable table(String name) {
+        PinotTable table = new PinotTable();
+        table.setMetadata(new ObjectMetaBuilder().withNamespace("default").withName(name).build());
+        return table;
+    }
+}
@@ -0,0 +1,107 @@
+package io.pinot.operator.reconcile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ReconcileWorkerPool
+ * Verifies concurrent reconciliation of distinct keys and per-key serialization
+ */
+class ReconcileWorkerPoolTest {
+
+    private ReconcileWorkerPool<String> workerPool;
+
+    @AfterEach
+    void tearDown() {
+        if (workerPool != null) {
+            workerPool.shutdown();
+        }
+    }
+
+    @Test
+    void testDistinctKeysRunConcurrently() throws InterruptedException {
+        CountDownLatch allStarted = new CountDownLatch(4);
+        CountDownLatch release = new CountDownLatch(1);
+        workerPool = newPool(4, key -> {
+            allStarted.countDown();
+            release.await();
+        });
+        workerPool.start();
+
+        for (int i = 0; i < 4; i++) {
+            workerPool.getWorkQueue().add("default/table-" + i);
+        }
+
+        assertTrue(allStarted.await(5, TimeUnit.SECONDS), "All four keys should be reconciled in parallel");
+        assertEquals(4, workerPool.getBusyWorkers(), "All workers should be busy");
+        assertEquals(1.0, workerPool.getUtilization(), 0.001, "Utilization should be 100%");
+        release.countDown();
+    }
+
+    @Test
+    void testSameKeyIsNeverReconciledConcurrently() throws InterruptedException {
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        AtomicInteger reconciles = new AtomicInteger();
+        workerPool = newPool(8, key -> {
+            if (running.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                overlapped.set(true);
+            }
+            Thread.sleep(5);
+            running.get(key).decrementAndGet();
+            reconciles.incrementAndGet();
+        });
+        workerPool.start();
+
+        for (int i = 0; i < 200; i++) {
+            workerPool.getWorkQueue().add("default/table-" + (i % 2));
+            Thread.sleep(1);
+        }
+        waitForIdle();
+
+        assertFalse(overlapped.get(), "A key must never be reconciled by two workers at once");
+        assertTrue(reconciles.get() < 200, "Duplicate keys should have been collapsed");
+    }
+
+    @Test
+    void testFailedKeyIsRetried() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch succeeded = new CountDownLatch(1);
+        workerPool = newPool(1, key -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("transient failure");
+            }
+            succeeded.countDown();
+        });
+        workerPool.start();
+
+        workerPool.getWorkQueue().add("default/cluster-a");
+
+        assertTrue(succeeded.await(5, TimeUnit.SECONDS), "Failed key should be retried with backoff");
+        assertEquals(3, attempts.get(), "Key should succeed on the third attempt");
+    }
+
+    private ReconcileWorkerPool<String> newPool(int workers, ReconcileWorker.KeyReconciler<String> reconciler) {
+        WorkQueue<String> workQueue = new WorkQueue<>("test", Duration.ofMillis(5), Duration.ofMillis(50),
+                TokenBucketRateLimiter.unlimited());
+        return new ReconcileWorkerPool<>("test", workQueue, reconciler, workers);
+    }
+
+    private void waitForIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline
+                && (workerPool.getWorkQueue().depth() > 0 || workerPool.getWorkQueue().inFlight() > 0)) {
+            Thread.sleep(10);
+        }
+    }
+}
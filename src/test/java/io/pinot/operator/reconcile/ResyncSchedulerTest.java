@@ -0,0 +1,112 @@
+package io.pinot.operator.reconcile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ResyncScheduler
+ * Verifies phase spreading, jitter bounds, per-key tracking and resync listeners
+ */
+class ResyncSchedulerTest {
+
+    private WorkQueue<String> workQueue;
+    private ResyncScheduler resyncScheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (resyncScheduler != null) {
+            resyncScheduler.shutdown();
+        }
+        if (workQueue != null) {
+            workQueue.shutDown();
+        }
+    }
+
+    @Test
+    void testPhaseOffsetsAreStableAndSpread() {
+        resyncScheduler = newScheduler(30000, 0.1);
+
+        int[] buckets = new int[10];
+        for (int i = 0; i < 1000; i++) {
+            String key = "default/table-" + i;
+            long offset = resyncScheduler.phaseOffset(key);
+            assertTrue(offset >= 0 && offset < 30000, "Offset should fall inside the interval");
+            assertEquals(offset, resyncScheduler.phaseOffset(key), "Offset should be stable for a key");
+            buckets[(int) (offset / 3000)]++;
+        }
+
+        for (int bucket : buckets) {
+            assertTrue(bucket > 50 && bucket < 150, "Keys should be spread evenly across the interval");
+        }
+    }
+
+    @Test
+    void testNextDelayStaysWithinJitter() {
+        resyncScheduler = newScheduler(10000, 0.2);
+
+        for (int i = 0; i < 1000; i++) {
+            long delay = resyncScheduler.nextDelay();
+            assertTrue(delay >= 8000 && delay <= 12000, "Delay should stay within the jitter bounds");
+        }
+    }
+
+    @Test
+    void testTrackedKeyIsResyncedUntilUntracked() throws InterruptedException {
+        resyncScheduler = newScheduler(20, 0);
+
+        resyncScheduler.track("default/cluster-a");
+        resyncScheduler.track("default/cluster-a");
+        assertEquals(1, resyncScheduler.size(), "Tracking a key twice should keep one timer");
+
+        assertEquals("default/cluster-a", workQueue.take(), "Key should be queued by the first resync");
+        workQueue.done("default/cluster-a");
+        assertEquals("default/cluster-a", workQueue.take(), "Key should be queued again on the next resync");
+        workQueue.done("default/cluster-a");
+
+        resyncScheduler.untrack("default/cluster-a");
+        assertEquals(0, resyncScheduler.size(), "Untracked key should have no timer");
+        Thread.sleep(100);
+        assertTrue(workQueue.depth() <= 1, "Untracked key should not be resynced repeatedly");
+    }
+
+    @Test
+    void testListenersHearOfAResyncBeforeItIsQueued() throws InterruptedException {
+        resyncScheduler = newScheduler(20, 0);
+        List<String> heard = new CopyOnWriteArrayList<>();
+        List<Integer> depths = new CopyOnWriteArrayList<>();
+        resyncScheduler.onResync(key -> {
+            depths.add(workQueue.depth());
+            heard.add(key);
+        });
+
+        resyncScheduler.track("default/cluster-a");
+
+        assertEquals("default/cluster-a", workQueue.take(), "Key should be queued by the resync");
+        workQueue.done("default/cluster-a");
+        assertEquals("default/cluster-a", heard.get(0), "The listener should hear of the resync");
+        assertEquals(0, depths.get(0).intValue(), "The listener should run before the key is queued");
+    }
+
+    @Test
+    void testRetainAllUntracksDepartedKeys() {
+        resyncScheduler = newScheduler(60000, 0);
+        resyncScheduler.track("default/table-a");
+        resyncScheduler.track("default/table-b");
+
+        assertEquals(1, resyncScheduler.retainAll(Set.of("default/table-a")), "One key should be untracked");
+        assertEquals(1, resyncScheduler.size(), "Only the retained key should keep its timer");
+    }
+
+    private ResyncScheduler newScheduler(long intervalMillis, double jitter) {
+        workQueue = new WorkQueue<>("test", Duration.ofMillis(5), Duration.ofMillis(50),
+                TokenBucketRateLimiter.unlimited());
+        return new ResyncScheduler("test", workQueue, intervalMillis, jitter);
+    }
+}
@@ -0,0 +1,159 @@
+package io.pinot.operator.reconcile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for WorkQueue
+ * Verifies key deduplication, per-key serialization and backoff
+ */
+class WorkQueueTest {
+
+    private WorkQueue<String> workQueue;
+
+    @BeforeEach
+    void setUp() {
+        workQueue = new WorkQueue<>("test", Duration.ofMillis(10), Duration.ofMillis(40),
+                TokenBucketRateLimiter.unlimited());
+    }
+
+    @AfterEach
+    void tearDown() {
+        workQueue.shutDown();
+    }
+
+    @Test
+    void testDuplicateKeysAreCollapsed() throws InterruptedException {
+        // A burst of events for one key should produce a single queue entry
+        for (int i = 0; i < 100; i++) {
+            workQueue.add("default/cluster-a");
+        }
+        workQueue.add("default/cluster-b");
+
+        assertEquals(2, workQueue.depth(), "Duplicate keys should be collapsed");
+        assertEquals("default/cluster-a", workQueue.take(), "Keys should be handed out in FIFO order");
+        assertEquals("default/cluster-b", workQueue.take(), "Keys should be handed out in FIFO order");
+    }
+
+    @Test
+    void testOldestAgeTracksTheHeadOfTheQueue() throws InterruptedException {
+        assertEquals(0, workQueue.oldestAgeMillis(), "An empty queue should have no age");
+
+        workQueue.add("default/cluster-a");
+        Thread.sleep(20);
+        workQueue.add("default/cluster-b");
+        assertTrue(workQueue.oldestAgeMillis() >= 20, "Age should follow the oldest waiting key");
+
+        workQueue.take();
+        assertTrue(workQueue.oldestAgeMillis() < 20, "Age should move on to the next key once the head is taken");
+    }
+
+    @Test
+    void testKeyIsNotHandedOutWhileProcessing() throws InterruptedException {
+        workQueue.add("default/cluster-a");
+        String key = workQueue.take();
+
+        // Re-adding an in-flight key must not make it available to another worker
+        workQueue.add(key);
+        assertEquals(0, workQueue.depth(), "In-flight key should not be queued again");
+        assertEquals(1, workQueue.inFlight(), "Key should be tracked as in flight");
+
+        // Once done, the pending re-add is queued exactly once
+        workQueue.done(key);
+        assertEquals(1, workQueue.depth(), "Dirty key should be re-queued after done");
+        assertEquals(0, workQueue.inFlight(), "No key should be in flight after done");
+    }
+
+    @Test
+    void testRateLimitedAddBacksOffExponentially() throws InterruptedException {
+        String key = "default/cluster-a";
+
+        workQueue.addRateLimited(key);
+        workQueue.addRateLimited(key);
+        workQueue.addRateLimited(key);
+        workQueue.addRateLimited(key);
+        assertEquals(4, workQueue.numRequeues(key), "Each failure should be counted");
+
+        // Delayed adds collapse into a single entry once they fire
+        Thread.sleep(200);
+        assertEquals(1, workQueue.depth(), "Backoff re-adds should collapse into one entry");
+
+        workQueue.forget(key);
+        assertEquals(0, workQueue.numRequeues(key), "Forget should reset the backoff");
+    }
+
+    @Test
+    void testShutDownReleasesConsumers() throws InterruptedException {
+        workQueue.shutDown();
+        assertNull(workQueue.take(), "Take should return null after shut down");
+
+        workQueue.add("default/cluster-a");
+        assertEquals(0, workQueue.depth(), "Adds after shut down should be ignored");
+    }
+
+    @Test
+    void testIdleConsumersSpendNoTokens() throws InterruptedException {
+        workQueue.shutDown();
+        workQueue = new WorkQueue<>("test", Duration.ofMillis(10), Duration.ofMillis(40),
+                new TokenBucketRateLimiter(1, 1));
+        Thread idle = new Thread(() -> {
+            try {
+                workQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        idle.start();
+        Thread.sleep(50);
+        idle.interrupt();
+        idle.join(1000);
+
+        workQueue.add("default/cluster-a");
+        long start = System.nanoTime();
+        assertEquals("default/cluster-a", workQueue.take());
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(500).toNanos(),
+                "A consumer waiting for a key should not have spent the token");
+    }
+
+    @Test
+    void testInterruptedTokenWaitHandsTheKeyBack() throws InterruptedException {
+        workQueue.shutDown();
+        workQueue = new WorkQueue<>("test", Duration.ofMillis(10), Duration.ofMillis(40),
+                new TokenBucketRateLimiter(0.1, 1));
+        workQueue.add("default/cluster-a");
+        assertEquals("default/cluster-a", workQueue.take(), "The burst token should be available");
+        workQueue.done("default/cluster-a");
+
+        workQueue.add("default/cluster-a");
+        Thread waiting = new Thread(() -> {
+            try {
+                workQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+        Thread.sleep(50);
+        assertEquals(1, workQueue.inFlight(), "The key should be in flight while its token is awaited");
+        waiting.interrupt();
+        waiting.join(1000);
+
+        assertEquals(1, workQueue.depth(), "An interrupted take should hand the key back");
+        assertEquals(0, workQueue.inFlight());
+    }
+
+    @Test
+    void testTokenBucketLimitsBurst() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2);
+
+        assertTrue(limiter.tryAcquire(), "First token should be available");
+        assertTrue(limiter.tryAcquire(), "Burst token should be available");
+        assertFalse(limiter.tryAcquire(), "Bucket should be empty after the burst");
+        assertTrue(TokenBucketRateLimiter.unlimited().tryAcquire(), "Unlimited limiter should never block");
+    }
+}
@@ -0,0 +1,108 @@
+package io.pinot.operator.scale;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.EnableKubernetesMockClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.pinot.operator.config.OperatorProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scale tests of the operator against a mock API server holding 10,000 custom resources
+ *
+ * Run with mvn verify -Pscale-test. Every phase is appended to
+ * target/scale-report.txt, and a phase that exceeds its budget fails the
+ * build.
+ */
+@EnableKubernetesMockClient(crud = true)
+class OperatorScaleIT {
+
+    private static final Path REPORT = Paths.get("target", "scale-report.txt");
+
+    KubernetesMockServer server;
+    KubernetesClient client;
+
+    private final ScaleSettings settings = new ScaleSettings();
+    private ScaleHarness harness;
+
+    @BeforeEach
+    void setUp() {
+        harness = new ScaleHarness(server, client);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        harness.close();
+    }
+
+    @Test
+    void testColdStartConvergesWithinBudget() throws Exception {
+        int resources = harness.seed(settings);
+
+        PhaseReport report = harness.measure("cold start of " + resources + " resources", settings,
+                () -> harness.startOperator(operatorProperties()), () -> harness.allReady(resources));
+        record(report);
+
+        assertTrue(report.events >= resources, "Every seeded resource should be delivered as an event");
+        assertTrue(report.eventsPerSecond() >= settings.minEventsPerSecond,
+                "Event throughput regressed: " + report);
+        assertTrue(report.reconcilePercentileMillis(0.99) <= settings.maxReconcileP99Millis,
+                "Reconcile p99 regressed: " + report);
+        assertTrue(report.totalOperatorRequests() <= settings.maxColdStartRequestsPerResource * resources,
+                "API requests per resource regressed: " + report);
+    }
+
+    @Test
+    void testMetadataStormIsAbsorbedWithinBudget() throws Exception {
+        int resources = harness.seed(settings);
+        harness.measure("converge before the storm", settings,
+                () -> harness.startOperator(operatorProperties()), () -> harness.allReady(resources));
+
+        int[] relabels = new int[1];
+        PhaseReport report = harness.measure(settings.stormRounds + " relabel rounds over " + resources
+                        + " resources", settings, () -> relabels[0] = harness.relabelAll(settings.stormRounds),
+                () -> harness.allReady(resources));
+        record(report);
+
+        assertTrue(report.events >= relabels[0], "Every relabel should be delivered as an event");
+        assertTrue(report.eventsPerSecond() >= settings.minEventsPerSecond,
+                "Event throughput regressed: " + report);
+        assertTrue(report.reconcilePercentileMillis(0.99) <= settings.maxReconcileP99Millis,
+                "Reconcile p99 regressed: " + report);
+        assertTrue(report.totalOperatorRequests() <= settings.maxStormRequestsPerEvent * relabels[0],
+                "Metadata-only events should not write to the API server: " + report);
+    }
+
+    /**
+     * Production defaults, except for the settings the mock server cannot honour or that would add noise
+     */
+    private static OperatorProperties operatorProperties() {
+        OperatorProperties operatorProperties = new OperatorProperties();
+        operatorProperties.getLeaderElection().setEnabled(false);
+        // The CRUD mock server does not implement server-side apply
+        operatorProperties.setServerSideApply(false);
+        // Readiness is marked as soon as a workload is written, so stages are re-checked quickly
+        operatorProperties.setStageReadyCheckInterval(200);
+        // Periodic resyncs would mix health checks into the measured phases
+        operatorProperties.setReconciliationInterval(TimeUnit.HOURS.toMillis(1));
+        return operatorProperties;
+    }
+
+    private static void record(PhaseReport report) throws IOException {
+        System.out.println(report);
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, (report + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
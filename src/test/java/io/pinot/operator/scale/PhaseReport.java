@@ -0,0 +1,57 @@
+package io.pinot.operator.scale;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the operator did during one measured phase of a scale test
+ */
+final class PhaseReport {
+
+    final String phase;
+    final long elapsedNanos;
+    final long events;
+    final long reconciles;
+    final long failedReconciles;
+    final Map<String, Long> operatorRequests;
+    final long harnessRequests;
+    private final long[] sortedReconcileNanos;
+
+    PhaseReport(String phase, long elapsedNanos, long events, long[] sortedReconcileNanos, long failedReconciles,
+            Map<String, Long> operatorRequests, long harnessRequests) {
+        this.phase = phase;
+        this.elapsedNanos = elapsedNanos;
+        this.events = events;
+        this.reconciles = sortedReconcileNanos.length;
+        this.sortedReconcileNanos = sortedReconcileNanos;
+        this.failedReconciles = failedReconciles;
+        this.operatorRequests = operatorRequests;
+        this.harnessRequests = harnessRequests;
+    }
+
+    double eventsPerSecond() {
+        return events * 1e9 / elapsedNanos;
+    }
+
+    double reconcilePercentileMillis(double percentile) {
+        if (sortedReconcileNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedReconcileNanos.length) - 1;
+        long nanos = sortedReconcileNanos[Math.max(0, Math.min(index, sortedReconcileNanos.length - 1))];
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    long totalOperatorRequests() {
+        return operatorRequests.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.1fs, %d events (%.0f/s), %d reconciles (%d failed, p50 %.1fms, p99 %.1fms), "
+                        + "%d operator API requests %s, %d harness requests",
+                phase, elapsedNanos / 1e9, events, eventsPerSecond(), reconciles, failedReconciles,
+                reconcilePercentileMillis(0.50), reconcilePercentileMillis(0.99), totalOperatorRequests(),
+                operatorRequests, harnessRequests);
+    }
+}
@@ -0,0 +1,122 @@
+package io.pinot.operator.scale;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.api.PinotSchema;
+import io.pinot.operator.api.PinotTable;
+import io.pinot.operator.api.PinotTenant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom resources seeded by the scale tests
+ *
+ * Every cluster runs one controller, broker and server; the schemas,
+ * tables and tenants reference a cluster in their own namespace.
+ */
+final class ScaleFixtures {
+
+    private static final List<Pinot.PinotNodeType> NODE_TYPES = List.of(
+            Pinot.PinotNodeType.CONTROLLER, Pinot.PinotNodeType.BROKER, Pinot.PinotNodeType.SERVER);
+
+    private ScaleFixtures() {
+    }
+
+    static Pinot cluster(String namespace, String name) {
+        List<Pinot.K8sConfig> k8sConfigs = new ArrayList<>();
+        List<Pinot.PinotNodeConfig> pinotNodeConfigs = new ArrayList<>();
+        List<Pinot.NodeSpec> nodes = new ArrayList<>();
+        for (Pinot.PinotNodeType nodeType : NODE_TYPES) {
+            String configName = nodeType.getValue() + "-config";
+
+            Pinot.K8sConfig k8sConfig = new Pinot.K8sConfig();
+            k8sConfig.setName(configName);
+            k8sConfig.setImage("apachepinot/pinot:1.0.0");
+            k8sConfigs.add(k8sConfig);
+
+            Pinot.PinotNodeConfig pinotNodeConfig = new Pinot.PinotNodeConfig();
+            pinotNodeConfig.setName(configName);
+            pinotNodeConfig.setJavaOpts("-Xms1G -Xmx1G");
+            pinotNodeConfigs.add(pinotNodeConfig);
+
+            Pinot.NodeSpec node = new Pinot.NodeSpec();
+            node.setName(name + "-" + nodeType.getValue());
+            node.setKind(nodeType == Pinot.PinotNodeType.SERVER
+                    ? Pinot.NodeSpec.KIND_STATEFUL_SET : Pinot.NodeSpec.KIND_DEPLOYMENT);
+            node.setNodeType(nodeType);
+            node.setReplicas(1);
+            node.setK8sConfig(configName);
+            node.setPinotNodeConfig(configName);
+            nodes.add(node);
+        }
+
+        Pinot.ZookeeperConfig zookeeperConfig = new Pinot.ZookeeperConfig();
+        zookeeperConfig.setZkAddress("zookeeper." + namespace + ".svc.cluster.local:2181");
+        Pinot.ZookeeperSpec zookeeper = new Pinot.ZookeeperSpec();
+        zookeeper.setSpec(zookeeperConfig);
+        Pinot.ExternalSpec external = new Pinot.ExternalSpec();
+        external.setZookeeper(zookeeper);
+
+        Pinot.PinotSpec spec = new Pinot.PinotSpec();
+        spec.setDeploymentOrder(NODE_TYPES);
+        spec.setExternal(external);
+        spec.setK8sConfig(k8sConfigs);
+        spec.setPinotNodeConfig(pinotNodeConfigs);
+        spec.setNodes(nodes);
+
+        Pinot pinot = new Pinot();
+        pinot.setMetadata(metadata(namespace, name));
+        pinot.setSpec(spec);
+        return pinot;
+    }
+
+    static PinotSchema schema(String namespace, String name, String clusterName) {
+        PinotSchema.PinotSchemaSpec spec = new PinotSchema.PinotSchemaSpec();
+        spec.setPinotCluster(clusterName);
+        spec.setPinotSchemaJson("{\"schemaName\":\"" + name + "\","
+                + "\"dimensionFieldSpecs\":[{\"name\":\"id\",\"dataType\":\"STRING\"}],"
+                + "\"metricFieldSpecs\":[{\"name\":\"count\",\"dataType\":\"LONG\"}],"
+                + "\"dateTimeFieldSpecs\":[{\"name\":\"ts\",\"dataType\":\"LONG\","
+                + "\"format\":\"1:MILLISECONDS:EPOCH\",\"granularity\":\"1:MILLISECONDS\"}]}");
+
+        PinotSchema schema = new PinotSchema();
+        schema.setMetadata(metadata(namespace, name));
+        schema.setSpec(spec);
+        return schema;
+    }
+
+    static PinotTable table(String namespace, String name, String clusterName, String schemaName) {
+        PinotTable.PinotTableSpec spec = new PinotTable.PinotTableSpec();
+        spec.setPinotCluster(clusterName);
+        spec.setPinotSchema(schemaName);
+        spec.setPinotTableType(PinotTable.PinotTableType.OFFLINE);
+        spec.setPinotTablesJson("{\"tableName\":\"" + name + "\",\"tableType\":\"OFFLINE\","
+                + "\"segmentsConfig\":{\"replication\":\"1\",\"schemaName\":\"" + schemaName + "\"},"
+                + "\"tableIndexConfig\":{\"invertedIndexColumns\":[\"id\"]}}");
+
+        PinotTable table = new PinotTable();
+        table.setMetadata(metadata(namespace, name));
+        table.setSpec(spec);
+        return table;
+    }
+
+    static PinotTenant tenant(String namespace, String name, String clusterName) {
+        PinotTenant.PinotTenantSpec spec = new PinotTenant.PinotTenantSpec();
+        spec.setPinotCluster(clusterName);
+        spec.setTenantConfig("{\"tenantRole\":\"SERVER\",\"tenantName\":\"" + name + "\","
+                + "\"numberOfInstances\":1}");
+
+        PinotTenant tenant = new PinotTenant();
+        tenant.setMetadata(metadata(namespace, name));
+        tenant.setSpec(spec);
+        return tenant;
+    }
+
+    private static ObjectMeta metadata(String namespace, String name) {
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setNamespace(namespace);
+        metadata.setName(name);
+        return metadata;
+    }
+}
@@ -0,0 +1,414 @@
+package io.pinot.operator.scale;
+
+import ch.qos.logback.classic.Level;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.dsl.base.CustomResourceDefinitionContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.api.PinotSchema;
+import io.pinot.operator.api.PinotTable;
+import io.pinot.operator.api.PinotTenant;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.ApiThrottle;
+import io.pinot.operator.config.KubernetesConfig;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.config.ResourceCacheConfig;
+import io.pinot.operator.controller.PinotController;
+import io.pinot.operator.controller.PinotSchemaController;
+import io.pinot.operator.controller.PinotTableController;
+import io.pinot.operator.controller.PinotTenantController;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.reconcile.LeaderElection;
+import io.pinot.operator.reconcile.ReconcileWorkerPool;
+import io.pinot.operator.reconcile.ShardCoordinator;
+import io.pinot.operator.service.ClusterHealthProber;
+import io.pinot.operator.service.PinotClusterService;
+import io.pinot.operator.service.PinotControllerEndpoints;
+import io.pinot.operator.service.PinotSchemaService;
+import io.pinot.operator.service.PinotTableService;
+import io.pinot.operator.service.PinotTenantService;
+import io.pinot.operator.service.StatusWriter;
+import io.pinot.operator.util.PinotClusterClient;
+import io.pinot.operator.util.PinotConfigValidator;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The operator's controllers and services wired against a Fabric8 mock API server in CRUD mode
+ *
+ * Components are built the way the Spring context builds them, from the
+ * same cache configuration, with leader election disabled. Deployments and
+ * StatefulSets get no kubelet on the mock server, so the harness marks
+ * their replicas ready as they are written.
+ *
+ * The harness writes through its own client with a distinct user agent,
+ * so the requests recorded by the mock server can be split between the
+ * operator and the harness. Each measured phase reports watch events
+ * received, reconcile latency and the operator's API requests by method.
+ */
+final class ScaleHarness implements AutoCloseable {
+
+    private static final String HARNESS_USER_AGENT = "pinot-operator-scale-harness";
+
+    private static final List<Class<? extends HasMetadata>> CUSTOM_RESOURCES = List.of(
+            Pinot.class, PinotSchema.class, PinotTable.class, PinotTenant.class);
+
+    private final KubernetesMockServer server;
+    private final KubernetesClient operatorClient;
+    private final KubernetesClient harnessClient;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService writers = Executors.newFixedThreadPool(16);
+    private final ConcurrentLinkedQueue<Long> reconcileNanos = new ConcurrentLinkedQueue<>();
+    private final AtomicLong failedReconciles = new AtomicLong();
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+    private final List<ReconcileWorkerPool<String>> workerPools = new ArrayList<>();
+
+    private ResourceCache<Pinot> pinotCache;
+    private ResourceCache<PinotSchema> pinotSchemaCache;
+    private ResourceCache<PinotTable> pinotTableCache;
+    private ResourceCache<PinotTenant> pinotTenantCache;
+
+    ScaleHarness(KubernetesMockServer server, KubernetesClient operatorClient) {
+        this.server = server;
+        this.operatorClient = operatorClient;
+        this.harnessClient = new KubernetesClientBuilder()
+                .withConfig(new ConfigBuilder(operatorClient.getConfiguration())
+                        .withUserAgent(HARNESS_USER_AGENT)
+                        .build())
+                .build();
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("io.pinot.operator"))
+                .setLevel(Level.toLevel(System.getProperty("scale.log-level"), Level.WARN));
+        for (Class<? extends HasMetadata> type : CUSTOM_RESOURCES) {
+            server.expectCustomResource(new CustomResourceDefinitionContext.Builder()
+                    .withGroup(HasMetadata.getGroup(type))
+                    .withVersion(HasMetadata.getVersion(type))
+                    .withKind(HasMetadata.getKind(type))
+                    .withPlural(HasMetadata.getPlural(type))
+                    .withScope("Namespaced")
+                    .withStatusSubresource(true)
+                    .build());
+        }
+    }
+
+    /**
+     * Create the given number of clusters spread over namespaces, each with its schemas, tables and tenants
+     */
+    int seed(ScaleSettings settings) {
+        List<HasMetadata> resources = new ArrayList<>();
+        for (int c = 0; c < settings.clusters; c++) {
+            String namespace = "scale-" + (c % settings.namespaces);
+            String clusterName = "cluster-" + c;
+            resources.add(ScaleFixtures.cluster(namespace, clusterName));
+            for (int s = 0; s < settings.schemasPerCluster; s++) {
+                String schemaName = clusterName + "-schema-" + s;
+                resources.add(ScaleFixtures.schema(namespace, schemaName, clusterName));
+                for (int t = 0; t < settings.tablesPerSchema; t++) {
+                    resources.add(ScaleFixtures.table(namespace, schemaName + "-table-" + t, clusterName,
+                            schemaName));
+                }
+            }
+            for (int t = 0; t < settings.tenantsPerCluster; t++) {
+                resources.add(ScaleFixtures.tenant(namespace, clusterName + "-tenant-" + t, clusterName));
+            }
+        }
+        forEachInParallel(resources, resource -> harnessClient.resource(resource).create());
+        drainRecordedRequests();
+        return resources.size();
+    }
+
+    /**
+     * Wire and start the operator against the mock server
+     */
+    void startOperator(OperatorProperties operatorProperties) {
+        OperatorMetrics operatorMetrics = new OperatorMetrics(registry);
+        ApiThrottle apiThrottle = new KubernetesConfig().apiThrottle(operatorProperties);
+        ShardCoordinator shardCoordinator = new ShardCoordinator(operatorClient, apiThrottle, operatorProperties);
+        ResourceCacheConfig cacheConfig = new ResourceCacheConfig();
+        pinotCache = stopping(cacheConfig.pinotCache(operatorClient, shardCoordinator, apiThrottle,
+                operatorProperties));
+        pinotSchemaCache = stopping(cacheConfig.pinotSchemaCache(operatorClient, shardCoordinator, apiThrottle,
+                operatorProperties));
+        pinotTableCache = stopping(cacheConfig.pinotTableCache(operatorClient, shardCoordinator, apiThrottle,
+                operatorProperties));
+        pinotTenantCache = stopping(cacheConfig.pinotTenantCache(operatorClient, shardCoordinator, apiThrottle,
+                operatorProperties));
+        ResourceCache<Deployment> deploymentCache = started(cacheConfig.deploymentCache(operatorClient,
+                shardCoordinator, operatorProperties));
+        ResourceCache<StatefulSet> statefulSetCache = started(cacheConfig.statefulSetCache(operatorClient,
+                shardCoordinator, operatorProperties));
+        ResourceCache<Service> serviceCache = started(cacheConfig.serviceCache(operatorClient,
+                shardCoordinator, operatorProperties));
+        ResourceCache<ConfigMap> configMapCache = started(cacheConfig.configMapCache(operatorClient,
+                shardCoordinator, operatorProperties));
+
+        StatusWriter statusWriter = new StatusWriter(operatorClient, operatorMetrics, apiThrottle,
+                operatorProperties);
+        closeables.add(statusWriter::shutdown);
+        PinotConfigValidator validator = new PinotConfigValidator();
+        LeaderElection leaderElection = new LeaderElection(operatorClient, null, operatorProperties);
+        closeables.add(leaderElection::shutdown);
+        // The node services of the mock server do not resolve, so there is nothing to probe
+        operatorProperties.getHealth().setEnabled(false);
+        PinotClusterClient pinotClusterClient = new PinotClusterClient(operatorProperties, operatorMetrics);
+        closeables.add(pinotClusterClient::shutdown);
+        ClusterHealthProber healthProber = new ClusterHealthProber(pinotCache, serviceCache, pinotClusterClient,
+                leaderElection, operatorProperties);
+        closeables.add(healthProber::shutdown);
+        PinotClusterService pinotClusterService = new PinotClusterService(operatorClient, deploymentCache,
+                statefulSetCache, serviceCache, configMapCache, statusWriter, healthProber, operatorMetrics,
+                apiThrottle, operatorProperties);
+        closeables.add(pinotClusterService::shutdown);
+        // No Pinot controller runs behind the mock server, so every schema, table and tenant request succeeds
+        PinotClusterClient pinotApi = mock(PinotClusterClient.class, invocation ->
+                invocation.getMethod().getReturnType() == CompletableFuture.class
+                        ? CompletableFuture.completedFuture(true) : RETURNS_DEFAULTS.answer(invocation));
+        PinotControllerEndpoints controllerEndpoints = new PinotControllerEndpoints(serviceCache, pinotApi);
+
+        PinotController pinotController = new PinotController(pinotCache, deploymentCache, statefulSetCache,
+                pinotClusterService, leaderElection, operatorMetrics, operatorProperties);
+        closeables.add(pinotController::shutdown);
+        PinotSchemaController schemaController = new PinotSchemaController(pinotSchemaCache, pinotCache,
+                new PinotSchemaService(validator, statusWriter, pinotApi, controllerEndpoints), leaderElection,
+                operatorMetrics, operatorProperties);
+        closeables.add(schemaController::shutdown);
+        PinotTableController tableController = new PinotTableController(pinotTableCache, pinotCache,
+                pinotSchemaCache, new PinotTableService(validator, statusWriter, healthProber, pinotApi,
+                        controllerEndpoints), leaderElection, operatorMetrics, operatorProperties);
+        closeables.add(tableController::shutdown);
+        PinotTenantController tenantController = new PinotTenantController(pinotTenantCache, pinotCache,
+                new PinotTenantService(validator, statusWriter, pinotApi, controllerEndpoints), leaderElection,
+                operatorMetrics, operatorProperties);
+        closeables.add(tenantController::shutdown);
+
+        workerPools.addAll(Arrays.asList(pinotController.getWorkerPool(), schemaController.getWorkerPool(),
+                tableController.getWorkerPool(), tenantController.getWorkerPool()));
+        for (ReconcileWorkerPool<String> workerPool : workerPools) {
+            workerPool.addListener((key, durationNanos, failed) -> {
+                reconcileNanos.add(durationNanos);
+                if (failed) {
+                    failedReconciles.incrementAndGet();
+                }
+            });
+        }
+        startKubelet();
+        leaderElection.start();
+    }
+
+    /**
+     * Relabel every custom resource the given number of times, one watch event per resource and round
+     */
+    int relabelAll(int rounds) {
+        List<HasMetadata> resources = new ArrayList<>();
+        resources.addAll(pinotCache.list());
+        resources.addAll(pinotSchemaCache.list());
+        resources.addAll(pinotTableCache.list());
+        resources.addAll(pinotTenantCache.list());
+        for (int round = 0; round < rounds; round++) {
+            String patch = "{\"metadata\":{\"labels\":{\"scale.pinot.io/round\":\"" + round + "\"}}}";
+            forEachInParallel(resources, resource -> harnessClient.resource(resource)
+                    .patch(PatchContext.of(PatchType.JSON_MERGE), patch));
+        }
+        return resources.size() * rounds;
+    }
+
+    /**
+     * Check whether every seeded custom resource reports a ready status
+     */
+    boolean allReady(int expected) {
+        long ready = pinotCache.list().stream()
+                .filter(pinot -> pinot.getStatus() != null && pinot.getStatus().isReady()).count()
+                + pinotSchemaCache.list().stream()
+                .filter(schema -> schema.getStatus() != null && schema.getStatus().isReady()).count()
+                + pinotTableCache.list().stream()
+                .filter(table -> table.getStatus() != null && "Ready".equals(table.getStatus().getStatus()))
+                .count()
+                + pinotTenantCache.list().stream()
+                .filter(tenant -> tenant.getStatus() != null && "Ready".equals(tenant.getStatus().getStatus()))
+                .count();
+        return ready >= expected;
+    }
+
+    /**
+     * Run a phase and measure it until the condition holds and every work queue has stayed idle
+     */
+    PhaseReport measure(String phase, ScaleSettings settings, Runnable action, BooleanSupplier done)
+            throws InterruptedException {
+        drainRecordedRequests();
+        reconcileNanos.clear();
+        failedReconciles.set(0);
+        double eventsBefore = eventCount();
+        long start = System.nanoTime();
+
+        action.run();
+        long deadline = start + TimeUnit.SECONDS.toNanos(settings.timeoutSeconds);
+        int idlePolls = 0;
+        while (idlePolls < 5) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(phase + " did not settle within " + settings.timeoutSeconds + "s");
+            }
+            Thread.sleep(100);
+            idlePolls = done.getAsBoolean() && queuesIdle() ? idlePolls + 1 : 0;
+        }
+        // The idle polls themselves are not part of the phase
+        long elapsedNanos = System.nanoTime() - start - TimeUnit.MILLISECONDS.toNanos(500);
+
+        Map<String, Long> operatorRequests = new TreeMap<>();
+        long harnessRequests = 0;
+        for (var request = server.takeRequest(0, TimeUnit.MILLISECONDS); request != null;
+                request = server.takeRequest(0, TimeUnit.MILLISECONDS)) {
+            if (HARNESS_USER_AGENT.equals(request.getHeader("User-Agent"))) {
+                harnessRequests++;
+            } else {
+                operatorRequests.merge(request.getMethod(), 1L, Long::sum);
+            }
+        }
+        long[] latencies = reconcileNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new PhaseReport(phase, Math.max(1, elapsedNanos), (long) (eventCount() - eventsBefore),
+                latencies, failedReconciles.get(), operatorRequests, harnessRequests);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (int i = closeables.size() - 1; i >= 0; i--) {
+            closeables.get(i).close();
+        }
+        writers.shutdownNow();
+        harnessClient.close();
+    }
+
+    /**
+     * Mark the replicas of every written Deployment and StatefulSet ready, standing in for the kubelet
+     */
+    private void startKubelet() {
+        SharedIndexInformer<Deployment> deployments = harnessClient.apps().deployments().inAnyNamespace()
+                .inform(new KubeletHandler<>(deployment -> {
+                    Integer replicas = deployment.getSpec().getReplicas();
+                    if (deployment.getStatus() != null
+                            && Objects.equals(deployment.getStatus().getReadyReplicas(), replicas)) {
+                        return;
+                    }
+                    harnessClient.apps().deployments().resource(deployment).editStatus(live ->
+                            new DeploymentBuilder(live).editOrNewStatus()
+                                    .withReplicas(replicas).withReadyReplicas(replicas).endStatus().build());
+                }));
+        SharedIndexInformer<StatefulSet> statefulSets = harnessClient.apps().statefulSets().inAnyNamespace()
+                .inform(new KubeletHandler<>(statefulSet -> {
+                    Integer replicas = statefulSet.getSpec().getReplicas();
+                    if (statefulSet.getStatus() != null
+                            && Objects.equals(statefulSet.getStatus().getReadyReplicas(), replicas)) {
+                        return;
+                    }
+                    harnessClient.apps().statefulSets().resource(statefulSet).editStatus(live ->
+                            new StatefulSetBuilder(live).editOrNewStatus()
+                                    .withReplicas(replicas).withReadyReplicas(replicas).endStatus().build());
+                }));
+        closeables.add(deployments::stop);
+        closeables.add(statefulSets::stop);
+    }
+
+    private boolean queuesIdle() {
+        return workerPools.stream().allMatch(workerPool -> workerPool.getWorkQueue().depth() == 0
+                && workerPool.getWorkQueue().inFlight() == 0);
+    }
+
+    private double eventCount() {
+        return registry.find("pinot.operator.events").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private void drainRecordedRequests() {
+        try {
+            while (server.takeRequest(0, TimeUnit.MILLISECONDS) != null) {
+                // Requests made before a phase are not attributed to it
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void forEachInParallel(List<HasMetadata> resources, Consumer<HasMetadata> write) {
+        List<Future<?>> futures = new ArrayList<>(resources.size());
+        for (HasMetadata resource : resources) {
+            futures.add(writers.submit(() -> write.accept(resource)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to write a seeded resource", e);
+            }
+        }
+    }
+
+    private <T extends HasMetadata> ResourceCache<T> stopping(ResourceCache<T> cache) {
+        closeables.add(cache::stop);
+        return cache;
+    }
+
+    private <T extends HasMetadata> ResourceCache<T> started(ResourceCache<T> cache) {
+        cache.start();
+        return stopping(cache);
+    }
+
+    /**
+     * Runs the readiness update off the informer thread for every added or updated workload
+     */
+    private final class KubeletHandler<T> implements ResourceEventHandler<T> {
+        private final Consumer<T> markReady;
+
+        KubeletHandler(Consumer<T> markReady) {
+            this.markReady = markReady;
+        }
+
+        @Override
+        public void onAdd(T resource) {
+            submit(resource);
+        }
+
+        @Override
+        public void onUpdate(T oldResource, T newResource) {
+            submit(newResource);
+        }
+
+        @Override
+        public void onDelete(T resource, boolean deletedFinalStateUnknown) {
+        }
+
+        private void submit(T resource) {
+            writers.submit(() -> markReady.accept(resource));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.pinot.operator.scale;
+
+/**
+ * Size of the simulated fleet and the regression budgets, read from scale.* system properties
+ *
+ * The defaults seed 10,000 custom resources: 100 clusters, each with 20
+ * schemas of 3 tables and 19 tenants. Pass -Dscale.clusters=... and the
+ * other properties to mvn to change the size or tighten the budgets.
+ */
+final class ScaleSettings {
+
+    final int clusters = Integer.getInteger("scale.clusters", 100);
+    final int namespaces = Integer.getInteger("scale.namespaces", 10);
+    final int schemasPerCluster = Integer.getInteger("scale.schemas-per-cluster", 20);
+    final int tablesPerSchema = Integer.getInteger("scale.tables-per-schema", 3);
+    final int tenantsPerCluster = Integer.getInteger("scale.tenants-per-cluster", 19);
+    final int stormRounds = Integer.getInteger("scale.storm-rounds", 3);
+    final long timeoutSeconds = Long.getLong("scale.timeout-seconds", 600);
+
+    /**
+     * Watch events the operator must handle per second while converging
+     */
+    final double minEventsPerSecond = doubleProperty("scale.min-events-per-second", 100);
+
+    /**
+     * Slowest reconcile allowed at the 99th percentile
+     */
+    final double maxReconcileP99Millis = doubleProperty("scale.max-reconcile-p99-millis", 1000);
+
+    /**
+     * API requests the operator may make per seeded resource while converging from a cold start
+     */
+    final double maxColdStartRequestsPerResource = doubleProperty("scale.max-cold-start-requests-per-resource", 5);
+
+    /**
+     * API requests the operator may make per metadata-only watch event
+     */
+    final double maxStormRequestsPerEvent = doubleProperty("scale.max-storm-requests-per-event", 0.1);
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
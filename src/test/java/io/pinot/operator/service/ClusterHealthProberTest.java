@@ -0,0 +1,170 @@
+package io.pinot.operator.service;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.pinot.operator.api.Pinot;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.reconcile.LeaderElection;
+import io.pinot.operator.util.PinotClusterClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ClusterHealthProber
+ * Tests probing of node services, the cached results and change notifications
+ */
+@ExtendWith(MockitoExtension.class)
+class ClusterHealthProberTest {
+
+    private static final String CONTROLLER_URL = "http://controller-service.default.svc:8090";
+    private static final String BROKER_URL = "http://broker-service.default.svc:8090";
+
+    @Mock
+    private ResourceCache<Pinot> pinotCache;
+
+    @Mock
+    private ResourceCache<Service> serviceCache;
+
+    @Mock
+    private PinotClusterClient pinotClusterClient;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    private final OperatorProperties operatorProperties = new OperatorProperties();
+    private final AtomicInteger changes = new AtomicInteger();
+    private ClusterHealthProber prober;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(pinotCache.list()).thenReturn(List.of(cluster()));
+        lenient().when(serviceCache.listByCluster("default", "test-cluster"))
+                .thenReturn(List.of(service("controller", "controller"), service("broker", "broker")));
+        prober = new ClusterHealthProber(pinotCache, serviceCache, pinotClusterClient, leaderElection,
+                operatorProperties);
+        prober.addListener(pinot -> changes.incrementAndGet());
+    }
+
+    @AfterEach
+    void tearDown() {
+        prober.shutdown();
+    }
+
+    @Test
+    void testNodesAreProbedAndCached() {
+        when(pinotClusterClient.getNodeHealthAsync("default/test-cluster", CONTROLLER_URL))
+                .thenReturn(CompletableFuture.completedFuture(200));
+        when(pinotClusterClient.getNodeHealthAsync("default/test-cluster", BROKER_URL))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Connection refused")));
+
+        prober.probeAll();
+
+        ClusterHealthProber.ClusterHealth health = prober.getHealth("default", "test-cluster");
+        assertNotNull(health, "The probe result should be cached");
+        assertFalse(health.getStatus().isHealthy(), "A cluster with an unreachable node should be unhealthy");
+        Pinot.NodeHealth broker = health.getStatus().getNodes().get(0);
+        assertEquals("broker", broker.getName());
+        assertEquals("broker", broker.getNodeType());
+        assertFalse(broker.isHealthy());
+        assertEquals("Unreachable", broker.getMessage());
+        assertTrue(health.getStatus().getNodes().get(1).isHealthy(), "The controller should be healthy");
+        assertEquals(1, changes.get(), "The first result should be announced");
+    }
+
+    @Test
+    void testListenersAreOnlyToldAboutChanges() {
+        when(pinotClusterClient.getNodeHealthAsync("default/test-cluster", CONTROLLER_URL))
+                .thenReturn(CompletableFuture.completedFuture(200));
+        when(pinotClusterClient.getNodeHealthAsync("default/test-cluster", BROKER_URL))
+                .thenReturn(CompletableFuture.completedFuture(503),
+                        CompletableFuture.completedFuture(503),
+                        CompletableFuture.completedFuture(200));
+
+        prober.probeAll();
+        prober.probeAll();
+        assertEquals(1, changes.get(), "An unchanged result should not be announced again");
+
+        prober.probeAll();
+        assertEquals(2, changes.get(), "A recovered node should be announced");
+        assertTrue(prober.getHealth("default", "test-cluster").getStatus().isHealthy());
+    }
+
+    @Test
+    void testResultsExpireAfterTtl() throws InterruptedException {
+        operatorProperties.getHealth().setTtl(0);
+        prober.shutdown();
+        prober = new ClusterHealthProber(pinotCache, serviceCache, pinotClusterClient, leaderElection,
+                operatorProperties);
+        when(pinotClusterClient.getNodeHealthAsync(eq("default/test-cluster"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(200));
+
+        prober.probeAll();
+        Thread.sleep(5);
+
+        assertNull(prober.getHealth("default", "test-cluster"), "An expired result should count as unknown");
+    }
+
+    @Test
+    void testResultsOfRemovedClustersAreDropped() {
+        when(pinotClusterClient.getNodeHealthAsync(eq("default/test-cluster"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(200));
+        prober.probeAll();
+        assertNotNull(prober.getHealth("default", "test-cluster"));
+
+        when(pinotCache.list()).thenReturn(List.of());
+        prober.probeAll();
+
+        assertNull(prober.getHealth("default", "test-cluster"), "A removed cluster should have no health");
+    }
+
+    @Test
+    void testServiceUrlUsesHttpPort() {
+        Service service = new ServiceBuilder()
+                .withNewMetadata().withName("server-service").withNamespace("pinot").endMetadata()
+                .withNewSpec()
+                    .addNewPort().withName("netty").withPort(8098).endPort()
+                    .addNewPort().withName("http").withPort(8097).endPort()
+                .endSpec()
+                .build();
+
+        assertEquals("http://server-service.pinot.svc:8097", ClusterHealthProber.serviceUrl(service));
+    }
+
+    private static Pinot cluster() {
+        Pinot pinot = new Pinot();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName("test-cluster");
+        metadata.setNamespace("default");
+        pinot.setMetadata(metadata);
+        return pinot;
+    }
+
+    private static Service service(String nodeName, String nodeType) {
+        return new ServiceBuilder()
+                .withNewMetadata()
+                    .withName(nodeName + "-service")
+                    .withNamespace("default")
+                    .addToLabels("cluster", "test-cluster")
+                    .addToLabels("node", nodeName)
+                    .addToLabels("node-type", nodeType)
+                .endMetadata()
+                .withNewSpec()
+                    .addNewPort().withName("http").withPort(8090).endPort()
+                .endSpec()
+                .build();
+    }
+}
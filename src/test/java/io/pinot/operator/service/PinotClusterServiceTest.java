@@ -1,19 +1,36 @@
 package io.pinot.operator.service;
 
+import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import io.fabric8.kubernetes.api.model.apps.DeploymentStatus;
+import io.fabric8.kubernetes.api.model.apps.DeploymentStatusBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.AppsAPIGroupDSL;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.pinot.operator.api.Pinot;
 import io.pinot.operator.api.Pinot.PinotSpec;
 import io.pinot.operator.api.Pinot.PinotStatus;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.config.ApiThrottle;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import io.pinot.operator.util.ResourceHasher;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,11 +47,37 @@ class PinotClusterServiceTest {
     @Mock
     private KubernetesClient kubernetesClient;
 
+    @Mock
+    private ResourceCache<Deployment> deploymentCache;
+
+    @Mock
+    private ResourceCache<StatefulSet> statefulSetCache;
+
+    @Mock
+    private ResourceCache<Service> serviceCache;
+
+    @Mock
+    private ResourceCache<ConfigMap> configMapCache;
+
+    @Mock
+    private ClusterHealthProber healthProber;
+
+    private StatusWriter statusWriter;
+
     private PinotClusterService pinotClusterService;
 
     @BeforeEach
     void setUp() {
-        pinotClusterService = new PinotClusterService(kubernetesClient);
+        statusWriter = new StatusWriter(update -> { }, 0);
+        pinotClusterService = new PinotClusterService(kubernetesClient, deploymentCache, statefulSetCache, serviceCache,
+                configMapCache, statusWriter, healthProber, new OperatorMetrics(new SimpleMeterRegistry()),
+                ApiThrottle.unlimited(), new OperatorProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pinotClusterService.shutdown();
+        statusWriter.shutdown();
     }
 
     @Test
@@ -54,6 +97,42 @@ class PinotClusterServiceTest {
         }, "Method should be callable");
     }
 
+    @Test
+    void testCreateOrUpdateClusterSurfacesConcurrentNodeFailure() {
+        // Two server nodes in one stage are deployed concurrently; both reference a missing K8s config
+        Pinot pinot = createTestPinotResource();
+        pinot.getSpec().setK8sConfig(List.of());
+        pinot.getSpec().setNodes(List.of(createNodeSpec("server-1"), createNodeSpec("server-2")));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> pinotClusterService.createOrUpdateCluster(pinot),
+                "A failed node in a concurrent stage should fail the cluster deployment");
+        assertTrue(exception.getCause().getMessage().startsWith("K8s configuration not found for node: server-"),
+                "The node failure should be surfaced as the cause");
+    }
+
+    @Test
+    void testCreateOrUpdateClusterCompletesWhenNoStageIsPending() {
+        // Stages without nodes are ready immediately, so the rollout completes in one pass
+        Pinot pinot = createTestPinotResource();
+        pinot.getSpec().setNodes(List.of());
+
+        assertTrue(pinotClusterService.createOrUpdateCluster(pinot),
+                "Rollout without pending stages should complete");
+    }
+
+    @Test
+    void testStaleObservedGenerationHoldsBackLaterStages() {
+        // The controller Deployment reports ready replicas, but for the previous generation
+        assertLaterStagesHeldBack(new DeploymentStatusBuilder().withObservedGeneration(1L).withReadyReplicas(1).build());
+    }
+
+    @Test
+    void testMissingReadyReplicasHoldBackLaterStages() {
+        // The controller Deployment has observed its generation, but no replica is ready yet
+        assertLaterStagesHeldBack(new DeploymentStatusBuilder().withObservedGeneration(2L).build());
+    }
+
     @Test
     void testDeleteCluster() {
         // Create a test Pinot resource
@@ -88,6 +167,87 @@ class PinotClusterServiceTest {
         }, "Method should be callable");
     }
 
+    @Test
+    void testReconcileClusterWritesCachedHealthToStatus() {
+        Pinot pinot = createTestPinotResource();
+        pinot.getStatus().setPhase("Ready");
+        Pinot.NodeHealth broker = new Pinot.NodeHealth();
+        broker.setName("broker");
+        broker.setMessage("Unreachable");
+        Pinot.HealthStatus health = new Pinot.HealthStatus();
+        health.setNodes(List.of(broker));
+        when(healthProber.getHealth(anyString(), anyString()))
+                .thenReturn(new ClusterHealthProber.ClusterHealth(health, Instant.now()));
+
+        pinotClusterService.reconcileCluster(pinot);
+
+        PinotStatus written = statusWriter.latest(pinot, PinotStatus.class);
+        assertEquals("Ready", written.getPhase(), "The rollout phase should be kept");
+        assertNotNull(written.getHealth(), "The cached health should be written to the status");
+        assertFalse(written.getHealth().isHealthy());
+        assertEquals("broker", written.getHealth().getNodes().get(0).getName());
+        verifyNoInteractions(kubernetesClient);
+    }
+
+    @Test
+    void testReplicasOwnedByAutoscalerAreDetected() {
+        Deployment autoscaled = new DeploymentBuilder()
+                .withNewMetadata()
+                    .withName("server")
+                    .addNewManagedField()
+                        .withManager("pinot-operator")
+                        .withNewFieldsV1().addToAdditionalProperties("f:spec",
+                                Map.of("f:replicas", Map.of(), "f:template", Map.of())).endFieldsV1()
+                    .endManagedField()
+                    .addNewManagedField()
+                        .withManager("kube-controller-manager")
+                        .withSubresource("scale")
+                        .withNewFieldsV1().addToAdditionalProperties("f:spec",
+                                Map.of("f:replicas", Map.of())).endFieldsV1()
+                    .endManagedField()
+                .endMetadata()
+                .build();
+        Deployment ownReplicas = new DeploymentBuilder()
+                .withNewMetadata()
+                    .withName("broker")
+                    .addNewManagedField()
+                        .withManager("pinot-operator")
+                        .withNewFieldsV1().addToAdditionalProperties("f:spec",
+                                Map.of("f:replicas", Map.of())).endFieldsV1()
+                    .endManagedField()
+                .endMetadata()
+                .build();
+
+        assertTrue(pinotClusterService.isReplicasManagedElsewhere(autoscaled),
+                "Replicas scaled by an autoscaler should be left to it");
+        assertFalse(pinotClusterService.isReplicasManagedElsewhere(ownReplicas),
+                "Replicas only the operator manages should be rendered");
+        assertFalse(pinotClusterService.isReplicasManagedElsewhere(null), "A missing workload has no other owner");
+    }
+
+    @Test
+    void testStorageChangeOfExistingStatefulSetIsDetected() {
+        Pinot pinot = createTestPinotResource();
+        Pinot.K8sConfig k8sConfig = new Pinot.K8sConfig();
+        k8sConfig.setName("server-config");
+        Pinot.StorageSpec storage = new Pinot.StorageSpec();
+        storage.setSize("20Gi");
+        k8sConfig.setStorage(storage);
+        pinot.getSpec().setK8sConfig(List.of(k8sConfig));
+        Pinot.NodeSpec resized = createNodeSpec("server-1");
+        resized.setKind(Pinot.NodeSpec.KIND_STATEFUL_SET);
+        resized.setK8sConfig("server-config");
+        Pinot.NodeSpec kept = createNodeSpec("server-2");
+        kept.setKind(Pinot.NodeSpec.KIND_STATEFUL_SET);
+        kept.setK8sConfig("server-config");
+        pinot.getSpec().setNodes(List.of(resized, kept));
+        when(statefulSetCache.get("default", "server-1")).thenReturn(statefulSetWithStorage("server-1", "10Gi"));
+        when(statefulSetCache.get("default", "server-2")).thenReturn(statefulSetWithStorage("server-2", "20480Mi"));
+
+        assertEquals(List.of("server-1"), pinotClusterService.nodesWithStorageChange(pinot),
+                "Only a claim template of a different size should count as a storage change");
+    }
+
     @Test
     void testClusterStatusUpdate() {
         // Create a test Pinot resource
@@ -155,6 +315,49 @@ class PinotClusterServiceTest {
                   "Should contain controller in deployment order");
     }
 
+    /**
+     * Roll out a controller and a broker stage while the live controller Deployment has the given status
+     */
+    private void assertLaterStagesHeldBack(DeploymentStatus controllerStatus) {
+        Pinot pinot = createTestPinotResource();
+        Pinot.K8sConfig k8sConfig = new Pinot.K8sConfig();
+        k8sConfig.setName("default-config");
+        k8sConfig.setImage("apachepinot/pinot:latest");
+        Pinot.PinotNodeConfig pinotConfig = new Pinot.PinotNodeConfig();
+        pinotConfig.setName("default-node-config");
+        Pinot.NodeSpec controller = createNodeSpec("controller-1", Pinot.PinotNodeType.CONTROLLER);
+        Pinot.NodeSpec broker = createNodeSpec("broker-1", Pinot.PinotNodeType.BROKER);
+        pinot.getSpec().setK8sConfig(List.of(k8sConfig));
+        pinot.getSpec().setPinotNodeConfig(List.of(pinotConfig));
+        pinot.getSpec().setNodes(List.of(controller, broker));
+
+        // The controller stage was applied before, so its resources are unchanged and only its readiness counts
+        Deployment liveDeployment = pinotClusterService.renderDeployment(pinot, controller, k8sConfig, pinotConfig);
+        ResourceHasher.stamp(liveDeployment);
+        liveDeployment.getMetadata().setGeneration(2L);
+        liveDeployment.setStatus(controllerStatus);
+        Service liveService = pinotClusterService.renderService(pinot, controller);
+        ResourceHasher.stamp(liveService);
+        ConfigMap liveConfigMap = pinotClusterService.renderConfigMap(pinot, controller, pinotConfig);
+        ResourceHasher.stamp(liveConfigMap);
+        when(deploymentCache.get("default", "controller-1")).thenReturn(liveDeployment);
+        when(serviceCache.get("default", "controller-1-service")).thenReturn(liveService);
+        when(configMapCache.get("default", "controller-1-config")).thenReturn(liveConfigMap);
+        AppsAPIGroupDSL apps = mock(AppsAPIGroupDSL.class);
+        when(kubernetesClient.apps()).thenReturn(apps);
+
+        assertFalse(pinotClusterService.createOrUpdateCluster(pinot),
+                "The rollout should wait while the controller stage is not ready");
+
+        verify(deploymentCache, never()).get("default", "broker-1");
+        verify(apps, never()).deployments();
+        verify(kubernetesClient, never()).services();
+        verify(kubernetesClient, never()).configMaps();
+        PinotStatus written = statusWriter.latest(pinot, PinotStatus.class);
+        assertEquals("Deploying", written.getPhase(), "The cluster should still be deploying");
+        assertEquals("Waiting for controller nodes to become ready", written.getMessage());
+    }
+
     private Pinot createTestPinotResource() {
         Pinot pinot = new Pinot();
         
@@ -180,6 +383,37 @@ class PinotClusterServiceTest {
         return pinot;
     }
 
+    private StatefulSet statefulSetWithStorage(String name, String size) {
+        return new StatefulSetBuilder()
+                .withNewMetadata().withName(name).withNamespace("default").endMetadata()
+                .withNewSpec()
+                    .addNewVolumeClaimTemplate()
+                        .withNewMetadata().withName("data").endMetadata()
+                        .withNewSpec()
+                            .withNewResources().addToRequests("storage", new Quantity(size)).endResources()
+                        .endSpec()
+                    .endVolumeClaimTemplate()
+                .endSpec()
+                .build();
+    }
+
+    private Pinot.NodeSpec createNodeSpec(String name) {
+        Pinot.NodeSpec nodeSpec = new Pinot.NodeSpec();
+        nodeSpec.setName(name);
+        nodeSpec.setNodeType(Pinot.PinotNodeType.SERVER);
+        nodeSpec.setReplicas(1);
+        nodeSpec.setK8sConfig("missing-config");
+        return nodeSpec;
+    }
+
+    private Pinot.NodeSpec createNodeSpec(String name, Pinot.PinotNodeType nodeType) {
+        Pinot.NodeSpec nodeSpec = createNodeSpec(name);
+        nodeSpec.setNodeType(nodeType);
+        nodeSpec.setK8sConfig("default-config");
+        nodeSpec.setPinotNodeConfig("default-node-config");
+        return nodeSpec;
+    }
+
     private boolean containsNodeType(Pinot.PinotNodeType[] nodeTypes, String value) {
         for (Pinot.PinotNodeType nodeType : nodeTypes) {
             if (nodeType.getValue().equals(value)) {
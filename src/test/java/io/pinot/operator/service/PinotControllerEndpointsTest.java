@@ -0,0 +1,66 @@
+package io.pinot.operator.service;
+
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.pinot.operator.cache.ResourceCache;
+import io.pinot.operator.util.PinotClusterClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for PinotControllerEndpoints
+ * Tests resolving the controller Service of a cluster and registering it with the Pinot client
+ */
+@ExtendWith(MockitoExtension.class)
+class PinotControllerEndpointsTest {
+
+    @Mock
+    private ResourceCache<Service> serviceCache;
+
+    @Mock
+    private PinotClusterClient pinotClusterClient;
+
+    @Test
+    void testControllerServiceIsRegisteredUnderNamespacedKey() {
+        when(serviceCache.listByCluster("pinot", "test-cluster"))
+                .thenReturn(List.of(service("broker", "broker"), service("controller", "controller")));
+        PinotControllerEndpoints endpoints = new PinotControllerEndpoints(serviceCache, pinotClusterClient);
+
+        String clusterKey = endpoints.register("pinot", "test-cluster");
+
+        assertEquals(ResourceCache.clusterKey("pinot", "test-cluster"), clusterKey);
+        verify(pinotClusterClient).registerClusterEndpoint(clusterKey, "http://controller-service.pinot.svc:9000");
+    }
+
+    @Test
+    void testClusterWithoutControllerResolvesToNull() {
+        when(serviceCache.listByCluster("pinot", "test-cluster")).thenReturn(List.of(service("broker", "broker")));
+        PinotControllerEndpoints endpoints = new PinotControllerEndpoints(serviceCache, pinotClusterClient);
+
+        assertNull(endpoints.register("pinot", "test-cluster"), "A cluster without a controller has no endpoint");
+        verify(pinotClusterClient, never()).registerClusterEndpoint(anyString(), anyString());
+    }
+
+    private static Service service(String nodeName, String nodeType) {
+        return new ServiceBuilder()
+                .withNewMetadata()
+                    .withName(nodeName + "-service")
+                    .withNamespace("pinot")
+                    .addToLabels("cluster", "test-cluster")
+                    .addToLabels("node", nodeName)
+                    .addToLabels("node-type", nodeType)
+                .endMetadata()
+                .withNewSpec()
+                    .addNewPort().withName("http").withPort(9000).endPort()
+                .endSpec()
+                .build();
+    }
+}
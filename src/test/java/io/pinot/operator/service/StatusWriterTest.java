@@ -0,0 +1,105 @@
+package io.pinot.operator.service;
+
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.CustomResource;
+import io.pinot.operator.api.PinotTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for StatusWriter
+ * Verifies that timestamp-only changes are dropped and writes are coalesced per resource
+ */
+class StatusWriterTest {
+
+    private final List<CustomResource<?, ?>> patched = new CopyOnWriteArrayList<>();
+
+    private StatusWriter statusWriter;
+
+    @AfterEach
+    void tearDown() {
+        statusWriter.shutdown();
+    }
+
+    @Test
+    void testTimestampOnlyChangeIsSkipped() {
+        statusWriter = new StatusWriter(patched::add, 0);
+        PinotTable table = table(status("Ready", "Table applied successfully"));
+
+        PinotTable.PinotTableStatus refreshed = status("Ready", "Table applied successfully");
+        refreshed.setLastUpdateTime(Instant.now().plusSeconds(60).toString());
+
+        assertFalse(statusWriter.write(table, refreshed, PinotTable::new),
+                "A status differing only in lastUpdateTime should not be written");
+        assertEquals(0, statusWriter.pendingCount());
+    }
+
+    @Test
+    void testWritesForOneResourceAreCoalesced() throws InterruptedException {
+        statusWriter = new StatusWriter(patched::add, 100);
+        PinotTable table = table(null);
+
+        assertTrue(statusWriter.write(table, status("Pending", "Waiting"), PinotTable::new));
+        assertTrue(statusWriter.write(table, status("Ready", "Table applied successfully"), PinotTable::new));
+        assertFalse(statusWriter.write(table, status("Ready", "Table applied successfully"), PinotTable::new),
+                "Repeating the last written status should be skipped");
+        assertEquals(1, statusWriter.pendingCount(), "Writes for one resource should be coalesced");
+
+        waitForPatches(1);
+        PinotTable update = (PinotTable) patched.get(0);
+        assertEquals("Ready", update.getStatus().getStatus(), "Only the latest status should be sent");
+        assertEquals("table-a", update.getMetadata().getName());
+        assertNull(update.getMetadata().getResourceVersion(), "The patch should not carry a resource version");
+    }
+
+    @Test
+    void testFailedWriteIsRetriedOnNextUpdate() throws InterruptedException {
+        statusWriter = new StatusWriter(update -> {
+            throw new IllegalStateException("API server unavailable");
+        }, 0);
+        PinotTable table = table(null);
+
+        assertTrue(statusWriter.write(table, status("Ready", "Table applied successfully"), PinotTable::new));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (statusWriter.pendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+
+        assertTrue(statusWriter.write(table, status("Ready", "Table applied successfully"), PinotTable::new),
+                "A status whose write failed should be sent again");
+    }
+
+    private void waitForPatches(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (patched.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, patched.size());
+    }
+
+    private static PinotTable table(PinotTable.PinotTableStatus status) {
+        PinotTable table = new PinotTable();
+        table.setMetadata(new ObjectMetaBuilder().withNamespace("default").withName("table-a")
+                .withResourceVersion("42").build());
+        table.setStatus(status);
+        return table;
+    }
+
+    private static PinotTable.PinotTableStatus status(String phase, String message) {
+        PinotTable.PinotTableStatus status = new PinotTable.PinotTableStatus();
+        status.setType("Table");
+        status.setStatus(phase);
+        status.setMessage(message);
+        status.setReason("");
+        status.setLastUpdateTime(Instant.now().toString());
+        return status;
+    }
+}
@@ -0,0 +1,71 @@
+package io.pinot.operator.util;
+
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.pinot.operator.api.Pinot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JvmSizing
+ * Verifies that heap and direct memory budgets follow the memory limit and node type
+ */
+class JvmSizingTest {
+
+    @Test
+    void testServerBudgetFavoursDirectMemory() {
+        String opts = JvmSizing.deriveJavaOpts(Pinot.PinotNodeType.SERVER, new Quantity("64Gi"));
+
+        assertTrue(opts.contains("-Xmx19660m"), "Server heap should be 30% of the limit");
+        assertTrue(opts.contains("-XX:MaxDirectMemorySize=36044m"), "Server direct memory should be 55% of the limit");
+        assertTrue(opts.contains("-XX:+UseG1GC"), "GC flags should be included");
+    }
+
+    @Test
+    void testBrokerBudgetFavoursHeap() {
+        String opts = JvmSizing.deriveJavaOpts(Pinot.PinotNodeType.BROKER, new Quantity("4Gi"));
+
+        assertTrue(opts.contains("-Xms2662m -Xmx2662m"), "Broker heap should be 65% of the limit");
+        assertTrue(opts.contains("-XX:MaxDirectMemorySize=614m"), "Broker direct memory should be 15% of the limit");
+    }
+
+    @Test
+    void testConfiguredOptionsComeLast() {
+        assertEquals("-Xmx1m -verbose:gc", JvmSizing.withDerivedOpts("-Xmx1m", " -verbose:gc "),
+                "Configured options should follow the derived flags");
+        assertEquals("-Xmx1m", JvmSizing.withDerivedOpts("-Xmx1m", null),
+                "Derived flags should be used alone without configured options");
+    }
+
+    @Test
+    void testConfiguredCollectorReplacesDerivedGcFlags() {
+        String opts = JvmSizing.withDerivedOpts(
+                JvmSizing.deriveJavaOpts(Pinot.PinotNodeType.BROKER, new Quantity("4Gi")), "-XX:+UseZGC");
+
+        assertFalse(opts.contains("-XX:+UseG1GC"), "A configured collector should replace G1: " + opts);
+        assertFalse(opts.contains("-XX:MaxGCPauseMillis"), "The G1 pause goal should go with it: " + opts);
+        assertTrue(opts.contains("-XX:+ExitOnOutOfMemoryError"), "Other derived flags should be kept: " + opts);
+        assertTrue(opts.endsWith("-XX:+UseZGC"));
+    }
+
+    @Test
+    void testConfiguredHeapReplacesDerivedHeap() {
+        String opts = JvmSizing.withDerivedOpts(
+                JvmSizing.deriveJavaOpts(Pinot.PinotNodeType.BROKER, new Quantity("4Gi")), "-Xmx1g");
+
+        assertFalse(opts.contains("-Xms2662m"), "A derived initial heap above the configured maximum should go: " + opts);
+        assertFalse(opts.contains("-Xmx2662m"), "The derived maximum heap should go: " + opts);
+        assertTrue(opts.contains("-XX:MaxDirectMemorySize=614m"), "Direct memory should still be derived: " + opts);
+    }
+
+    @Test
+    void testConfiguredDirectMemoryReplacesDerivedDirectMemory() {
+        String opts = JvmSizing.withDerivedOpts(
+                JvmSizing.deriveJavaOpts(Pinot.PinotNodeType.SERVER, new Quantity("64Gi")),
+                "-XX:MaxDirectMemorySize=8g");
+
+        assertFalse(opts.contains("-XX:MaxDirectMemorySize=36044m"), "The derived cap should go: " + opts);
+        assertTrue(opts.contains("-Xmx19660m"), "The heap should still be derived: " + opts);
+        assertTrue(opts.contains("-XX:+UseG1GC"), "The derived collector should be kept: " + opts);
+    }
+}
@@ -0,0 +1,104 @@
+package io.pinot.operator.util;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.pinot.operator.config.OperatorProperties;
+import io.pinot.operator.metrics.OperatorMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PinotClusterClient
+ * Verifies async completion and the per-cluster bound on requests in flight
+ */
+class PinotClusterClientTest {
+
+    private HttpServer server;
+    private PinotClusterClient client;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/health", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        OperatorProperties properties = new OperatorProperties();
+        properties.getClient().setMaxRequestsPerCluster(2);
+        client = new PinotClusterClient(properties, new OperatorMetrics(registry));
+        client.registerClusterEndpoint("test-cluster", "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void testRequestsInFlightAreBoundedPerCluster() throws Exception {
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            checks.add(client.checkClusterHealthAsync("test-cluster"));
+        }
+
+        CompletableFuture.allOf(checks.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        for (CompletableFuture<Boolean> check : checks) {
+            assertTrue(check.get(), "Every health check should succeed");
+        }
+        assertTrue(maxInFlight.get() <= 2, "No more than two requests should be in flight to one cluster");
+    }
+
+    @Test
+    void testRequestLatencyIsRecordedPerEndpoint() throws Exception {
+        assertTrue(client.checkClusterHealthAsync("test-cluster").get(5, TimeUnit.SECONDS));
+
+        Timer timer = registry.find("pinot.operator.pinot.requests")
+                .tags("endpoint", "/health", "method", "GET", "outcome", "success")
+                .timer();
+        assertNotNull(timer, "Health check requests should be timed");
+        assertEquals(1, timer.count(), "One request should be recorded");
+    }
+
+    @Test
+    void testNodeHealthIsProbedAtServiceUrl() throws Exception {
+        // Node services are probed directly, whether or not the cluster has a registered endpoint
+        int status = client.getNodeHealthAsync("unregistered-cluster",
+                "http://127.0.0.1:" + server.getAddress().getPort()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, status, "The status code of the node health endpoint should be returned");
+    }
+
+    @Test
+    void testUnknownClusterCompletesWithFailure() throws Exception {
+        assertFalse(client.deleteTableAsync("unknown-cluster", "table").get(5, TimeUnit.SECONDS),
+                "Requests to an unregistered cluster should complete with false");
+        assertNull(client.getClusterInfo("unknown-cluster"), "Cluster info should be null for an unregistered cluster");
+    }
+}
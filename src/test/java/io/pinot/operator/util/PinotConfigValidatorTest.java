@@ -0,0 +1,67 @@
+package io.pinot.operator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PinotConfigValidator
+ * Verifies structural validation of Pinot configs and caching of parsed trees
+ */
+class PinotConfigValidatorTest {
+
+    private static final String SCHEMA_JSON = "{\"schemaName\": \"user\", \"dimensionFieldSpecs\": "
+            + "[{\"name\": \"userId\", \"dataType\": \"STRING\"}]}";
+
+    private final PinotConfigValidator validator = new PinotConfigValidator();
+
+    @Test
+    void testValidSchemaIsParsedOnceAndCached() {
+        JsonNode first = validator.validateSchema(SCHEMA_JSON);
+        JsonNode second = validator.validateSchema(SCHEMA_JSON);
+
+        assertEquals("user", first.get("schemaName").asText(), "Schema should be parsed");
+        assertSame(first, second, "An unchanged config should be served from the cache");
+        assertEquals(1, validator.cacheSize(), "One config should be cached");
+    }
+
+    @Test
+    void testMalformedJsonIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> validator.validateSchema("{\"schemaName\": \"user\", }"), "Malformed JSON should be rejected");
+        assertThrows(IllegalArgumentException.class,
+                () -> validator.validateSchema("{\"schemaName\": \"a\", \"schemaName\": \"b\"}"),
+                "Duplicate keys should be rejected");
+        assertThrows(IllegalArgumentException.class,
+                () -> validator.validateSchema(SCHEMA_JSON + " {}"), "Trailing content should be rejected");
+    }
+
+    @Test
+    void testSchemaStructureIsChecked() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> validator.validateSchema("{\"schemaName\": \"user\", \"metricFieldSpecs\": "
+                        + "[{\"name\": \"count\", \"dataType\": \"NUMBER\"}]}"));
+
+        assertTrue(exception.getMessage().contains("unknown dataType NUMBER"), "Unknown data types should be reported");
+        assertNotNull(validator.validateSchema(SCHEMA_JSON), "A failed config must not affect valid ones");
+    }
+
+    @Test
+    void testTableTypeMustMatchSpec() {
+        String tableJson = "{\"tableName\": \"user\", \"tableType\": \"OFFLINE\", \"segmentsConfig\": {}}";
+
+        assertNotNull(validator.validateTable(tableJson, "offline"), "Matching table type should be accepted");
+        assertThrows(IllegalArgumentException.class, () -> validator.validateTable(tableJson, "realtime"),
+                "Mismatched table type should be rejected");
+    }
+
+    @Test
+    void testTenantRoleIsChecked() {
+        assertNotNull(validator.validateTenant("{\"tenantRole\": \"SERVER\", \"name\": \"t\", \"numberOfInstances\": 3}"),
+                "Valid tenant should be accepted");
+        assertThrows(IllegalArgumentException.class,
+                () -> validator.validateTenant("{\"tenantRole\": \"MINION\", \"tenantName\": \"t\"}"),
+                "Unknown tenant roles should be rejected");
+    }
+}
@@ -0,0 +1,61 @@
+package io.pinot.operator.util;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ResourceHasher
+ * Verifies that hashes are stable, content sensitive and matched against live resources
+ */
+class ResourceHasherTest {
+
+    @Test
+    void testHashIgnoresMapOrder() {
+        Map<String, String> ordered = new LinkedHashMap<>();
+        ordered.put("a", "1");
+        ordered.put("b", "2");
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("b", "2");
+        reversed.put("a", "1");
+
+        assertEquals(ResourceHasher.hash(configMap(ordered)), ResourceHasher.hash(configMap(reversed)),
+                "Hash should not depend on map iteration order");
+    }
+
+    @Test
+    void testHashChangesWithContent() {
+        String original = ResourceHasher.hash(configMap(Map.of("pinot.properties", "pinot.node.type=broker")));
+        String changed = ResourceHasher.hash(configMap(Map.of("pinot.properties", "pinot.node.type=server")));
+
+        assertNotEquals(original, changed, "Hash should change when content changes");
+    }
+
+    @Test
+    void testStampedResourceMatchesLiveCopy() {
+        ConfigMap desired = configMap(Map.of("pinot.properties", "pinot.node.type=broker"));
+        String hash = ResourceHasher.stamp(desired);
+
+        assertEquals(hash, desired.getMetadata().getAnnotations().get(ResourceHasher.SPEC_HASH_ANNOTATION),
+                "Hash should be stored in the annotation");
+        assertTrue(ResourceHasher.matches(desired, hash), "Stamped resource should match its own hash");
+        assertFalse(ResourceHasher.matches(null, hash), "Missing live resource should never match");
+        assertFalse(ResourceHasher.matches(configMap(Map.of()), hash), "Unstamped live resource should not match");
+    }
+
+    private ConfigMap configMap(Map<String, String> data) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName("broker-config")
+                    .withNamespace("default")
+                    .addToLabels("app", "pinot")
+                .endMetadata()
+                .withData(data)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package io.pinot.operator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ShardRing
+ * Verifies that slots are spread over replicas and that membership changes move few of them
+ */
+class ShardRingTest {
+
+    private static final int SLOTS = 64;
+
+    @Test
+    void testEverySlotHasExactlyOneOwner() {
+        ShardRing ring = new ShardRing(List.of("operator-0", "operator-1", "operator-2"), 100);
+
+        Set<Integer> covered = new HashSet<>();
+        int total = 0;
+        for (String member : List.of("operator-0", "operator-1", "operator-2")) {
+            Set<Integer> owned = ring.slotsOwnedBy(member, SLOTS);
+            assertFalse(owned.isEmpty(), "Each replica should own some slots");
+            covered.addAll(owned);
+            total += owned.size();
+        }
+        assertEquals(SLOTS, covered.size(), "All slots should be owned");
+        assertEquals(SLOTS, total, "No slot should be owned twice");
+    }
+
+    @Test
+    void testJoiningReplicaOnlyTakesSlotsOver() {
+        ShardRing before = new ShardRing(List.of("operator-0", "operator-1"), 100);
+        ShardRing after = new ShardRing(List.of("operator-0", "operator-1", "operator-2"), 100);
+
+        for (int slot = 0; slot < SLOTS; slot++) {
+            String owner = after.ownerOf(slot);
+            if (!"operator-2".equals(owner)) {
+                assertEquals(before.ownerOf(slot), owner, "Slots not taken by the new replica should stay put");
+            }
+        }
+    }
+
+    @Test
+    void testSlotOfIsStable() {
+        int slot = ShardRing.slotOf("default/cluster-a", SLOTS);
+
+        assertEquals(slot, ShardRing.slotOf("default/cluster-a", SLOTS), "The same key should map to the same slot");
+        assertTrue(slot >= 0 && slot < SLOTS, "Slot should be within range");
+    }
+
+    @Test
+    void testEmptyRingHasNoOwner() {
+        assertNull(new ShardRing(List.of(), 100).ownerOf(0));
+    }
+}
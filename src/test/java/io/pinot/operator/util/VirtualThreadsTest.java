@@ -0,0 +1,45 @@
+package io.pinot.operator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for VirtualThreads
+ * Tests thread creation with and without virtual thread support
+ */
+class VirtualThreadsTest {
+
+    @Test
+    void testPlatformThreadFactory() {
+        ThreadFactory factory = VirtualThreads.threadFactory("test-worker-", false);
+
+        Thread first = factory.newThread(() -> { });
+        Thread second = factory.newThread(() -> { });
+
+        assertEquals("test-worker-0", first.getName());
+        assertEquals("test-worker-1", second.getName());
+        assertTrue(first.isDaemon(), "Platform workers should not keep the JVM alive");
+    }
+
+    @Test
+    void testRequestResolvedAgainstRuntime() {
+        assertFalse(VirtualThreads.use(false));
+        assertEquals(VirtualThreads.isAvailable(), VirtualThreads.use(true));
+    }
+
+    @Test
+    void testExecutorRunsTasks() throws Exception {
+        ExecutorService executor = VirtualThreads.newExecutor("test-exec-", 2, VirtualThreads.use(true));
+        try {
+            String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+            assertTrue(threadName.startsWith("test-exec-"), "Tasks should run on named threads: " + threadName);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}